@@ -0,0 +1,55 @@
+package net.sourceforge.kolmafia;
+
+import static internal.helpers.Player.withFamiliar;
+import static internal.helpers.Player.withLevel;
+
+import internal.helpers.Cleanups;
+import java.util.concurrent.TimeUnit;
+import net.sourceforge.kolmafia.objectpool.FamiliarPool;
+import net.sourceforge.kolmafia.preferences.Preferences;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ExpressionBenchmark {
+  @Param({"ML/4", "min(5,fam(Baby Gravy Fairy))", "25*fam(doppelshifter)", "(L-1)*5+ceil(W/2)"})
+  public String text;
+
+  private ModifierExpression expression;
+  private Cleanups cleanups;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    KoLCharacter.reset("ExpressionBenchmark");
+    Preferences.reset("ExpressionBenchmark");
+
+    this.cleanups = new Cleanups(withLevel(13), withFamiliar(FamiliarPool.BABY_GRAVY_FAIRY));
+    this.expression = new ModifierExpression(this.text, "ExpressionBenchmark");
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    this.cleanups.close();
+  }
+
+  @Benchmark
+  public double eval() {
+    return this.expression.eval();
+  }
+}
@@ -0,0 +1,88 @@
+package net.sourceforge.kolmafia;
+
+import static internal.helpers.Player.withEffect;
+import static internal.helpers.Player.withEquipped;
+import static internal.helpers.Player.withFamiliar;
+import static internal.helpers.Player.withLevel;
+
+import internal.helpers.Cleanups;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.sourceforge.kolmafia.equipment.Slot;
+import net.sourceforge.kolmafia.objectpool.FamiliarPool;
+import net.sourceforge.kolmafia.persistence.ModifierDatabase;
+import net.sourceforge.kolmafia.preferences.Preferences;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ModifiersBenchmark {
+  private static final List<String> ITEMS =
+      List.of(
+          "helmet turtle",
+          "Hodgman's porkpie hat",
+          "Vicar's Tutu",
+          "Grimacite gown",
+          "Jarlsberg's pan",
+          "lucky Crimbo tiki necklace",
+          "Mr. Accessory Jr.",
+          "ring of aggravate monster");
+
+  private List<Modifiers> itemModifiers;
+  private Cleanups cleanups;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    KoLCharacter.reset("ModifiersBenchmark");
+    Preferences.reset("ModifiersBenchmark");
+
+    this.itemModifiers =
+        ITEMS.stream().map(name -> ModifierDatabase.getModifiers(ModifierType.ITEM, name)).toList();
+
+    this.cleanups =
+        new Cleanups(
+            withLevel(13),
+            withFamiliar(FamiliarPool.BABY_GRAVY_FAIRY),
+            withEquipped(Slot.HAT, "Hodgman's porkpie hat"),
+            withEquipped(Slot.PANTS, "Vicar's Tutu"),
+            withEquipped(Slot.ACCESSORY1, "lucky Crimbo tiki necklace"),
+            withEffect("Fat Leon's Phat Loot Lyric"),
+            withEffect("Leash of Linguini"),
+            withEffect("Polka of Plenty"),
+            withEffect("Empathy"));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    this.cleanups.close();
+  }
+
+  @Benchmark
+  public Modifiers add() {
+    Modifiers mods = new Modifiers();
+    for (Modifiers itemMods : this.itemModifiers) {
+      mods.add(itemMods);
+    }
+    return mods;
+  }
+
+  @Benchmark
+  public boolean recalculateAdjustments() {
+    return KoLCharacter.recalculateAdjustments();
+  }
+}
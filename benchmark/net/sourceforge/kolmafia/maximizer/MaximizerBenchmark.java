@@ -0,0 +1,87 @@
+package net.sourceforge.kolmafia.maximizer;
+
+import static internal.helpers.Player.withEquipped;
+import static internal.helpers.Player.withFamiliar;
+import static internal.helpers.Player.withItem;
+import static internal.helpers.Player.withLevel;
+import static internal.helpers.Player.withStats;
+
+import internal.helpers.Cleanups;
+import java.util.concurrent.TimeUnit;
+import net.sourceforge.kolmafia.KoLCharacter;
+import net.sourceforge.kolmafia.equipment.Slot;
+import net.sourceforge.kolmafia.objectpool.FamiliarPool;
+import net.sourceforge.kolmafia.preferences.Preferences;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MaximizerBenchmark {
+  @Param({"item drop", "meat drop, -tie", "mox, 0.5 hp, +effective"})
+  public String expression;
+
+  private Cleanups cleanups;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    KoLCharacter.reset("MaximizerBenchmark");
+    Preferences.reset("MaximizerBenchmark");
+
+    this.cleanups =
+        new Cleanups(
+            withLevel(13),
+            withStats(200, 200, 200),
+            withFamiliar(FamiliarPool.BABY_GRAVY_FAIRY),
+            withEquipped(Slot.HAT, "helmet turtle"),
+            withEquipped(Slot.WEAPON, "seal-clubbing club"),
+            withEquipped(Slot.PANTS, "old sweatpants"),
+            withItem("disco mask"),
+            withItem("Knob Goblin harem veil"),
+            withItem("Hodgman's porkpie hat"),
+            withItem("Vicar's Tutu"),
+            withItem("Knob Goblin harem pants"),
+            withItem("filthy corduroys"),
+            withItem("Hodgman's lobsterskin pants"),
+            withItem("filthy knitted dread sack"),
+            withItem("Grimacite gown"),
+            withItem("astral shirt"),
+            withItem("makeshift cape"),
+            withItem("turtle totem"),
+            withItem("saucepan"),
+            withItem("Jarlsberg's pan"),
+            withItem("Spooky Putty ball"),
+            withItem("stuffed shoulder parrot"),
+            withItem("little paper umbrella"),
+            withItem("ring of aggravate monster"),
+            withItem("Mr. Accessory Jr."),
+            withItem("lucky Crimbo tiki necklace"),
+            withItem("Hodgman's bow tie"),
+            withItem("cheap sunglasses"));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    this.cleanups.close();
+  }
+
+  @Benchmark
+  public boolean maximize() {
+    return internal.helpers.Maximizer.maximize(this.expression);
+  }
+}
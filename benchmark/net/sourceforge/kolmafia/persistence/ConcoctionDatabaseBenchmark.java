@@ -0,0 +1,65 @@
+package net.sourceforge.kolmafia.persistence;
+
+import static internal.helpers.Player.withItem;
+import static internal.helpers.Player.withMeat;
+import static internal.helpers.Player.withProperty;
+
+import internal.helpers.Cleanups;
+import java.util.concurrent.TimeUnit;
+import net.sourceforge.kolmafia.KoLCharacter;
+import net.sourceforge.kolmafia.preferences.Preferences;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ConcoctionDatabaseBenchmark {
+  private Cleanups cleanups;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    KoLCharacter.reset("ConcoctionDatabaseBenchmark");
+    Preferences.reset("ConcoctionDatabaseBenchmark");
+
+    this.cleanups =
+        new Cleanups(
+            withMeat(100000),
+            withProperty("barrelShrineUnlocked", true),
+            withItem("meat paste", 20),
+            withItem("bum cheek", 4),
+            withItem("seal tooth", 3),
+            withItem("spices", 10),
+            withItem("dry noodles", 10),
+            withItem("scrumptious reagent", 10),
+            withItem("bottle of gin", 5),
+            withItem("olive", 5),
+            withItem("lemon", 5),
+            withItem("hot wing", 10),
+            withItem("cocktail onion", 5),
+            withItem("ten-leaf clover", 2));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    this.cleanups.close();
+  }
+
+  @Benchmark
+  public void refreshConcoctionsNow() {
+    ConcoctionDatabase.refreshConcoctionsNow();
+  }
+}
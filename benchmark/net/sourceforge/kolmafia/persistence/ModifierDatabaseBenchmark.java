@@ -0,0 +1,53 @@
+package net.sourceforge.kolmafia.persistence;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.sourceforge.kolmafia.ModifierType;
+import net.sourceforge.kolmafia.Modifiers;
+import net.sourceforge.kolmafia.modifiers.Lookup;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ModifierDatabaseBenchmark {
+  private static final Lookup LOOKUP = new Lookup(ModifierType.ITEM, "ModifierDatabaseBenchmark");
+
+  // A spread of the kinds of modifiers found in modifiers.txt
+  private static final List<String> MODIFIERS =
+      List.of(
+          "Item Drop: +20",
+          "Muscle: +5, Mysticality: +5, Moxie: +5, Maximum HP: +10",
+          "Softcore Only, Generic, Familiar Weight: [25*fam(doppelshifter)]",
+          "Monster Level: [pref(_leafblowerML)]",
+          "Spell Damage Percent: +10, Hot Resistance: +2, Class: \"Sauceror\"",
+          "Single Equip, Meat Drop: +25, Item Drop: +10, Adventures: +3, Lasts Until Rollover",
+          "Familiar Effect: \"2xFairy, 0.5xVolley, cap 20\", Familiar Weight: +5");
+
+  @Benchmark
+  public void parseModifiers(Blackhole blackhole) {
+    for (String string : MODIFIERS) {
+      Modifiers mods = ModifierDatabase.parseModifiers(LOOKUP, string);
+      blackhole.consume(mods);
+    }
+  }
+
+  @Benchmark
+  public void splitModifiers(Blackhole blackhole) {
+    for (String string : MODIFIERS) {
+      blackhole.consume(ModifierDatabase.splitModifiers(string));
+    }
+  }
+}
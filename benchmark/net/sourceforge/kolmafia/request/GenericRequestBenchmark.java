@@ -0,0 +1,64 @@
+package net.sourceforge.kolmafia.request;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import net.sourceforge.kolmafia.KoLCharacter;
+import net.sourceforge.kolmafia.KoLConstants;
+import net.sourceforge.kolmafia.preferences.Preferences;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Post-processing of saved responses, without any network access. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class GenericRequestBenchmark {
+  @Param({
+    "charpane.php|request/test_charpane_basic.html",
+    "campground.php|request/test_campground_no_garden.html",
+    "fight.php|request/evilometer_fight.html",
+    "adventure.php?snarfblat=451|request/test_adventure_hallowiener_volcoino_lucky_gold_ring.html"
+  })
+  public String page;
+
+  private String url;
+  private String responseText;
+
+  @Setup(Level.Trial)
+  public void load() throws IOException {
+    String[] parts = this.page.split("\\|", 2);
+    this.url = parts[0];
+    this.responseText =
+        Files.readString(KoLConstants.ROOT_LOCATION.toPath().resolve(parts[1])).trim();
+  }
+
+  // Processing a response updates the character, so start each iteration from the same state.
+  @Setup(Level.Iteration)
+  public void reset() {
+    KoLCharacter.reset("GenericRequestBenchmark");
+    Preferences.reset("GenericRequestBenchmark");
+  }
+
+  @Benchmark
+  public GenericRequest processResponse() {
+    GenericRequest request = new GenericRequest(this.url);
+    request.setHasResult(true);
+    request.responseText = this.responseText;
+    request.processResponse();
+    return request;
+  }
+}
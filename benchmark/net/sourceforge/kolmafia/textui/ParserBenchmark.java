@@ -0,0 +1,75 @@
+package net.sourceforge.kolmafia.textui;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import net.sourceforge.kolmafia.textui.parsetree.Scope;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(org.openjdk.jmh.annotations.Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ParserBenchmark {
+  @Param({"100", "1000"})
+  public int functions;
+
+  private byte[] script;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    // A script the size of a large relay or automation script, using most of the grammar.
+    StringBuilder buffer = new StringBuilder();
+    buffer.append("record tally { int count; float total; string[int] names; };\n");
+    buffer.append("tally[string] tallies;\n");
+    for (int i = 0; i < this.functions; ++i) {
+      buffer.append("int function_").append(i).append("(int n, string name) {\n");
+      buffer.append("  int result = 0;\n");
+      buffer.append("  for j from 1 to n by 2 {\n");
+      buffer.append("    if (j % 3 == 0 && name != \"\") {\n");
+      buffer.append("      result += j * ").append(i).append(";\n");
+      buffer.append("    } else if (j > 10 || name.length() > 5) {\n");
+      buffer.append("      result -= to_int(j / 2.0);\n");
+      buffer.append("    } else {\n");
+      buffer.append("      continue;\n");
+      buffer.append("    }\n");
+      buffer.append("  }\n");
+      buffer.append("  foreach key, value in tallies {\n");
+      buffer.append("    value.count += 1;\n");
+      buffer.append("    value.names[count(value.names)] = key + \"_").append(i).append("\";\n");
+      buffer.append("  }\n");
+      buffer.append("  switch (result % 4) {\n");
+      buffer.append("    case 0: return result;\n");
+      buffer.append("    case 1: result = result * 2; break;\n");
+      buffer.append("    default: result = -result;\n");
+      buffer.append("  }\n");
+      buffer.append("  string text = `{name}: {result} ({$item[seal tooth]})`;\n");
+      buffer.append("  return text.length() + (result > 0 ? result : 0);\n");
+      buffer.append("}\n\n");
+    }
+    buffer.append("void main() {\n");
+    for (int i = 0; i < this.functions; ++i) {
+      buffer.append("  print(function_").append(i).append("(").append(i).append(", \"x\"));\n");
+    }
+    buffer.append("}\n");
+    this.script = buffer.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Benchmark
+  public Scope parse() throws InterruptedException {
+    Parser parser = new Parser(null, new ByteArrayInputStream(this.script), null);
+    return parser.parse();
+  }
+}
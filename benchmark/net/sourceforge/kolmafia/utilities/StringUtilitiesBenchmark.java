@@ -0,0 +1,60 @@
+package net.sourceforge.kolmafia.utilities;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.sourceforge.kolmafia.persistence.ItemDatabase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Name matching against every item name, by full scan and by index. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StringUtilitiesBenchmark {
+  @Param({"seal", "in the box", "hat", "tps", "mr. a"})
+  public String query;
+
+  private String[] names;
+  private NameIndex index;
+
+  @Setup(Level.Trial)
+  public void load() {
+    this.names =
+        ItemDatabase.entrySet().stream()
+            .map(entry -> StringUtilities.getCanonicalName(entry.getValue()))
+            .distinct()
+            .sorted()
+            .toArray(String[]::new);
+    this.index = new NameIndex(this.names);
+    this.index.search(this.names, this.query);
+  }
+
+  @Benchmark
+  public List<String> scan() {
+    return this.index.scan(this.names, this.query);
+  }
+
+  @Benchmark
+  public List<String> search() {
+    return this.index.search(this.names, this.query);
+  }
+
+  // Repeated searches are remembered
+  @Benchmark
+  public List<String> getMatchingNames() {
+    return StringUtilities.getMatchingNames(this.names, this.query);
+  }
+}
@@ -20,6 +20,7 @@ import net.sourceforge.kolmafia.session.ElVibratoManager;
 import net.sourceforge.kolmafia.session.ElVibratoManager.Punchcard;
 import net.sourceforge.kolmafia.session.GoalManager;
 import net.sourceforge.kolmafia.session.InventoryManager;
+import net.sourceforge.kolmafia.utilities.ItemListModel;
 import net.sourceforge.kolmafia.utilities.StringUtilities;
 
 public class AdventureResult implements Comparable<AdventureResult>, Cloneable {
@@ -929,7 +930,13 @@ public class AdventureResult implements Comparable<AdventureResult>, Cloneable {
    */
   public static void addResultToList(
       final List<AdventureResult> sourceList, final AdventureResult result) {
-    int index = sourceList.indexOf(result);
+    // An item list which holds none of the item need not be searched
+    int index =
+        sourceList instanceof ItemListModel items
+                && ItemListModel.isCounted(result)
+                && !items.holds(result.getItemId())
+            ? -1
+            : sourceList.indexOf(result);
 
     // First, filter out things where it's a simple addition of an
     // item, or something which may not result in a change in the
@@ -1106,6 +1113,10 @@ public class AdventureResult implements Comparable<AdventureResult>, Cloneable {
    * intent more transparent.
    */
   public int getCount(final List<AdventureResult> list) {
+    if (list instanceof ItemListModel items && ItemListModel.isCounted(this)) {
+      return items.getCount(this.id);
+    }
+
     int index = list.indexOf(this);
     if (index == -1) return 0;
     AdventureResult item = list.get(index);
@@ -1113,6 +1124,15 @@ public class AdventureResult implements Comparable<AdventureResult>, Cloneable {
     return item.getCount();
   }
 
+  /** Returns the count of the item with the given id in the list, without making an item. */
+  public static int getCount(final int itemId, final List<AdventureResult> list) {
+    if (list instanceof ItemListModel items && itemId > 0) {
+      return items.getCount(itemId);
+    }
+
+    return ItemPool.get(itemId, 1).getCount(list);
+  }
+
   public int getCount(final Map<Integer, AdventureResult> map) {
     AdventureResult item = map.get(this.getItemId());
     if (item == null) return 0;
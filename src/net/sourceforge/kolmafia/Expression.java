@@ -1,7 +1,12 @@
 package net.sourceforge.kolmafia;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Deque;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleSupplier;
+import java.util.function.DoubleUnaryOperator;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import net.sourceforge.kolmafia.modifiers.DoubleModifier;
@@ -28,6 +33,7 @@ public class Expression {
   protected String text;
 
   private char[] bytecode; // Compiled expression
+  private DoubleSupplier compiled; // Bytecode as closures, or null to interpret it
   private ArrayList<Object> literals; // Strings & floats needed by expression
   protected AdventureResult effect;
 
@@ -93,6 +99,10 @@ public class Expression {
       buf.append(this.text);
     }
     this.text = null;
+
+    if (this.error == null) {
+      this.compiled = this.compile();
+    }
   }
 
   public static Expression getInstance(String text, String name) {
@@ -120,6 +130,13 @@ public class Expression {
   }
 
   public double evalInternal() {
+    if (this.compiled != null) {
+      return this.compiled.getAsDouble();
+    }
+    return this.interpret();
+  }
+
+  private double interpret() {
     double[] s = stackFactory(null);
     int sp = 0;
     int pc = 0;
@@ -170,261 +187,345 @@ public class Expression {
         case '+' -> v = s[--sp] + s[--sp];
         case '-' -> v = s[--sp] - s[--sp];
         case '*' -> v = s[--sp] * s[--sp];
-        case '/' -> {
-          double numerator = s[--sp];
-          double denominator = s[--sp];
-          if (denominator == 0.0) {
-            throw new ArithmeticException("Can't divide by zero");
-          }
-          v = numerator / denominator;
-        }
+        case '/' -> v = divide(s[--sp], s[--sp]);
         case '%' -> v = s[--sp] % s[--sp];
-        case '^' -> {
-          double base = s[--sp];
-          double expt = s[--sp];
-          v = Math.pow(base, expt);
-          if (Double.isNaN(v) || Double.isInfinite(v)) {
-            throw new ArithmeticException(
-                "Invalid exponentiation: cannot take " + base + " ** " + expt);
-          }
-        }
+        case '^' -> v = power(s[--sp], s[--sp]);
         case 'a' -> v = Math.abs(s[--sp]);
         case 'c' -> v = Math.ceil(s[--sp]);
         case 'f' -> v = Math.floor(s[--sp]);
         case 'm' -> v = Math.min(s[--sp], s[--sp]);
-        case 'p' -> {
-          String first = (String) this.literals.get((int) s[--sp]);
-          String second = null;
-          int commaIndex = first.indexOf(",");
-          if (commaIndex > -1) {
-            second = first.substring(commaIndex + 1);
-            first = first.substring(0, commaIndex);
-          }
-          String prefString = Preferences.getString(first);
-          if (second != null) {
-            v = prefString.contains(second) ? 1 : 0;
-          } else {
-            v =
-                prefString.contains("true")
-                    ? 1
-                    : prefString.contains("false") ? 0 : StringUtilities.parseDouble(prefString);
-          }
-        }
-        case 's' -> {
-          v = Math.sqrt(s[--sp]);
-          if (Double.isNaN(v)) {
-            throw new ArithmeticException("Can't take square root of a negative value");
-          }
-        }
+        case 's' -> v = sqrt(s[--sp]);
         case 'x' -> v = Math.max(s[--sp], s[--sp]);
         case '#' -> v = (Double) this.literals.get((int) s[--sp]);
-
-          // Valid with ModifierExpression:
-        case 'b' -> {
-          String elem = (String) this.literals.get((int) s[--sp]);
-          Element element = Element.fromString(elem);
-          v = KoLCharacter.currentNumericModifier(ModifierDatabase.elementalResistance(element));
-        }
-        case 'd' -> {
-          String skillName = (String) this.literals.get((int) s[--sp]);
-          if (StringUtilities.isNumeric(skillName)) {
-            int skillId = StringUtilities.parseInt(skillName);
-            skillName = SkillDatabase.getSkillName(skillId);
-          }
-          v = KoLCharacter.hasSkill(skillName) ? 1 : 0;
-        }
-        case 'e' -> {
-          String effectName = (String) this.literals.get((int) s[--sp]);
-          // If effect name is a number, convert to name
-          int effectId =
-              (StringUtilities.isNumeric(effectName))
-                  ? StringUtilities.parseInt(effectName)
-                  : EffectDatabase.getEffectId(effectName);
-          AdventureResult eff = EffectPool.get(effectId);
-          v = Math.max(0, eff.getCount(KoLConstants.activeEffects));
-        }
-        case 'g' -> {
-          String itemName = (String) this.literals.get((int) s[--sp]);
-          int itemId = ItemDatabase.getItemId(itemName);
-          AdventureResult item = ItemPool.get(itemId);
-          v = KoLCharacter.hasEquipped(item) ? 1 : 0;
-        }
-        case 'h' -> v =
-            Modifiers.mainhandClass.equalsIgnoreCase((String) this.literals.get((int) s[--sp]))
-                ? 1
-                : 0;
-        case 'i' -> v =
-            FamiliarDatabase.hasAttribute(
-                    Modifiers.currentFamiliar, (String) this.literals.get((int) s[--sp]))
-                ? 1
-                : 0;
-        case 'j' -> v =
-            Modifiers.currentEnvironment.equalsIgnoreCase((String) this.literals.get((int) s[--sp]))
-                ? 1
-                : 0;
-        case 'k' -> v =
-            KoLCharacter.mainStat()
-                    .name()
-                    .equalsIgnoreCase((String) this.literals.get((int) s[--sp]))
-                ? 1
-                : 0;
-        case 'l' -> v =
-            Modifiers.currentLocation.equalsIgnoreCase((String) this.literals.get((int) s[--sp]))
-                ? 1
-                : 0;
-        case 'n' -> v =
-            KoLCharacter.getAscensionClassName()
-                    .equalsIgnoreCase((String) this.literals.get((int) s[--sp]))
-                ? 1
-                : 0;
-        case 'w' -> {
-          String fam = (String) this.literals.get((int) s[--sp]);
-          String familiarName =
-              (StringUtilities.isNumeric(fam))
-                  ? FamiliarDatabase.getFamiliarName(StringUtilities.parseInt(fam))
-                  : fam;
-          v = Modifiers.currentFamiliar.equalsIgnoreCase(familiarName) ? 1 : 0;
-        }
-        case 'z' -> {
-          String expressionZone = (String) this.literals.get((int) s[--sp]);
-          String currentZone = Modifiers.currentZone;
-          v = 0;
-          while (true) {
-            if (currentZone.equalsIgnoreCase(expressionZone)) {
-              v = 1;
-              break;
-            }
-            String parentZone = AdventureDatabase.getParentZone(currentZone);
-            if (parentZone == null || currentZone.equals(parentZone)) {
-              break;
-            }
-            currentZone = parentZone;
+        default -> {
+          if (inst > '\u00FF') {
+            v = inst - 0x8000;
+            break;
           }
-        }
-        case 'v' -> {
-          String event = (String) this.literals.get((int) s[--sp]);
-          switch (event) {
-            case "December" -> v = HolidayDatabase.isDecember() ? 1 : 0;
-            case "Saturday" -> v = HolidayDatabase.isSaturday() ? 1 : 0;
-            default -> {
-              if (HolidayDatabase.getHoliday().contains(event)) {
-                v = 1;
-              }
-            }
+          DoubleSupplier op =
+              isFunction(inst)
+                  ? this.function(inst, (String) this.literals.get((int) s[--sp]))
+                  : this.variable(inst);
+          if (op == null) {
+            throw new RuntimeException(
+                "Evaluator bytecode invalid at " + (pc - 1) + ": " + String.valueOf(this.bytecode));
           }
+          v = op.getAsDouble();
         }
+      }
+      s[sp++] = v;
+    }
+  }
 
-          // Valid with MonsterExpression:
-        case '\u0080' -> v = KoLCharacter.getAdjustedMuscle();
-
-          // Valid with MonsterExpression:
-        case '\u0081' -> v = KoLCharacter.getAdjustedMysticality();
-
-          // Valid with MonsterExpression:
-        case '\u0082' -> v = KoLCharacter.getAdjustedMoxie();
-
-          // Valid with MonsterExpression:
-        case '\u0083' -> v = KoLCharacter.getMonsterLevelAdjustment();
-
-          // Valid with MonsterExpression:
-        case '\u0084' -> v = KoLCharacter.getMindControlLevel();
-
-          // Valid with MonsterExpression and RestoreExpression:
-        case '\u0085' -> v = KoLCharacter.getMaximumHP();
-
-          // Valid with MonsterExpression:
-        case '\u0086' -> v = BasementRequest.getBasementLevel();
-
-          // Valid with MonsterExpression:
-        case '\u0087' -> v = FightRequest.dreadKisses("Woods");
+  private static double divide(double numerator, double denominator) {
+    if (denominator == 0.0) {
+      throw new ArithmeticException("Can't divide by zero");
+    }
+    return numerator / denominator;
+  }
 
-          // Valid with MonsterExpression:
-        case '\u0088' -> v = FightRequest.dreadKisses("Village");
+  private static double power(double base, double expt) {
+    double v = Math.pow(base, expt);
+    if (Double.isNaN(v) || Double.isInfinite(v)) {
+      throw new ArithmeticException("Invalid exponentiation: cannot take " + base + " ** " + expt);
+    }
+    return v;
+  }
 
-          // Valid with MonsterExpression:
-        case '\u0089' -> v = FightRequest.dreadKisses("Castle");
+  private static double sqrt(double value) {
+    double v = Math.sqrt(value);
+    if (Double.isNaN(v)) {
+      throw new ArithmeticException("Can't take square root of a negative value");
+    }
+    return v;
+  }
 
-          // Valid with MonsterExpression:
-        case '\u0090' -> v = KoLCharacter.getAdjustedHighestStat();
+  // Operations that take a string literal from the stack
+  private static boolean isFunction(char inst) {
+    return switch (inst) {
+      case 'p', 'b', 'd', 'e', 'g', 'h', 'i', 'j', 'k', 'l', 'n', 'w', 'z', 'v' -> true;
+      case '\u0092', '\u0093', '\u0096' -> true;
+      default -> false;
+    };
+  }
 
-          // Valid with RestoreExpression:
-        case '\u0091' -> v = KoLCharacter.getMaximumMP();
+  /** Returns the operation for a function of a string literal, or null if it is not one. */
+  private DoubleSupplier function(char inst, String arg) {
+    return switch (inst) {
+      case 'p' -> {
+        String first = arg;
+        String second = null;
+        int commaIndex = first.indexOf(",");
+        if (commaIndex > -1) {
+          second = first.substring(commaIndex + 1);
+          first = first.substring(0, commaIndex);
+        }
+        String pref = first;
+        String contains = second;
+        yield () -> {
+          String prefString = Preferences.getString(pref);
+          if (contains != null) {
+            return prefString.contains(contains) ? 1 : 0;
+          }
+          return prefString.contains("true")
+              ? 1
+              : prefString.contains("false") ? 0 : StringUtilities.parseDouble(prefString);
+        };
+      }
 
-          // Valid with ModifierExpression and MonsterExpression:
-        case '\u0092' -> {
-          AscensionPath.Path p =
-              AscensionPath.nameToPath((String) this.literals.get((int) s[--sp]));
-          v = KoLCharacter.getPath() == p ? 1 : 0;
+        // Valid with ModifierExpression:
+      case 'b' -> {
+        Element element = Element.fromString(arg);
+        yield () ->
+            KoLCharacter.currentNumericModifier(ModifierDatabase.elementalResistance(element));
+      }
+      case 'd' -> () -> {
+        String skillName = arg;
+        if (StringUtilities.isNumeric(skillName)) {
+          int skillId = StringUtilities.parseInt(skillName);
+          skillName = SkillDatabase.getSkillName(skillId);
         }
-          // Valid with ModifierExpression:
-        case '\u0093' -> {
-          Modifiers mods = KoLCharacter.getCurrentModifiers();
-          String modName = (String) this.literals.get((int) s[--sp]);
-          DoubleModifier modifier = DoubleModifier.byCaselessName(modName);
-          v = mods.getAccumulator(modifier);
+        return KoLCharacter.hasSkill(skillName) ? 1 : 0;
+      };
+      case 'e' -> () -> {
+        // If effect name is a number, convert to name
+        int effectId =
+            (StringUtilities.isNumeric(arg))
+                ? StringUtilities.parseInt(arg)
+                : EffectDatabase.getEffectId(arg);
+        AdventureResult eff = EffectPool.get(effectId);
+        return Math.max(0, eff.getCount(KoLConstants.activeEffects));
+      };
+      case 'g' -> () -> {
+        int itemId = ItemDatabase.getItemId(arg);
+        AdventureResult item = ItemPool.get(itemId);
+        return KoLCharacter.hasEquipped(item) ? 1 : 0;
+      };
+      case 'h' -> () -> Modifiers.getMainhandClass().equalsIgnoreCase(arg) ? 1 : 0;
+      case 'i' -> () -> FamiliarDatabase.hasAttribute(Modifiers.getCurrentFamiliar(), arg) ? 1 : 0;
+      case 'j' -> () -> Modifiers.currentEnvironment.equalsIgnoreCase(arg) ? 1 : 0;
+      case 'k' -> () -> KoLCharacter.mainStat().name().equalsIgnoreCase(arg) ? 1 : 0;
+      case 'l' -> () -> Modifiers.currentLocation.equalsIgnoreCase(arg) ? 1 : 0;
+      case 'n' -> () -> KoLCharacter.getAscensionClassName().equalsIgnoreCase(arg) ? 1 : 0;
+      case 'w' -> () -> {
+        String familiarName =
+            (StringUtilities.isNumeric(arg))
+                ? FamiliarDatabase.getFamiliarName(StringUtilities.parseInt(arg))
+                : arg;
+        return Modifiers.getCurrentFamiliar().equalsIgnoreCase(familiarName) ? 1 : 0;
+      };
+      case 'z' -> () -> {
+        String currentZone = Modifiers.currentZone;
+        while (true) {
+          if (currentZone.equalsIgnoreCase(arg)) {
+            return 1;
+          }
+          String parentZone = AdventureDatabase.getParentZone(currentZone);
+          if (parentZone == null || currentZone.equals(parentZone)) {
+            return 0;
+          }
+          currentZone = parentZone;
         }
-          // Valid with ModifierExpression:
-        case '\u0094' -> v = KoLCharacter.canInteract() ? 1 : 0;
+      };
+      case 'v' -> switch (arg) {
+        case "December" -> () -> HolidayDatabase.isDecember() ? 1 : 0;
+        case "Saturday" -> () -> HolidayDatabase.isSaturday() ? 1 : 0;
+        default -> () -> HolidayDatabase.getHoliday().contains(arg) ? 1 : 0;
+      };
+
+        // Valid with ModifierExpression and MonsterExpression:
+      case '\u0092' -> {
+        AscensionPath.Path p = AscensionPath.nameToPath(arg);
+        yield () -> KoLCharacter.getPath() == p ? 1 : 0;
+      }
+        // Valid with ModifierExpression:
+      case '\u0093' -> {
+        DoubleModifier modifier = DoubleModifier.byCaselessName(arg);
+        yield () -> KoLCharacter.getCurrentModifiers().getAccumulator(modifier);
+      }
+        // Valid with Modifier Expression:
+      case '\u0096' -> {
+        double value = StringUtilities.parseInt(arg.replaceAll(",", ""));
+        yield () -> value;
+      }
+      default -> null;
+    };
+  }
 
-          // Valid with RestoreExpression:
-        case '\u0095' -> v = KoLCharacter.getCurrentHP();
+  /** Returns the operation for a variable, or null if it is not one. */
+  private DoubleSupplier variable(char inst) {
+    return switch (inst) {
+        // Valid with MonsterExpression:
+      case '\u0080' -> KoLCharacter::getAdjustedMuscle;
+
+        // Valid with MonsterExpression:
+      case '\u0081' -> KoLCharacter::getAdjustedMysticality;
+
+        // Valid with MonsterExpression:
+      case '\u0082' -> KoLCharacter::getAdjustedMoxie;
+
+        // Valid with MonsterExpression:
+      case '\u0083' -> KoLCharacter::getMonsterLevelAdjustment;
+
+        // Valid with MonsterExpression:
+      case '\u0084' -> KoLCharacter::getMindControlLevel;
+
+        // Valid with MonsterExpression and RestoreExpression:
+      case '\u0085' -> KoLCharacter::getMaximumHP;
+
+        // Valid with MonsterExpression:
+      case '\u0086' -> BasementRequest::getBasementLevel;
+
+        // Valid with MonsterExpression:
+      case '\u0087' -> () -> FightRequest.dreadKisses("Woods");
+
+        // Valid with MonsterExpression:
+      case '\u0088' -> () -> FightRequest.dreadKisses("Village");
+
+        // Valid with MonsterExpression:
+      case '\u0089' -> () -> FightRequest.dreadKisses("Castle");
+
+        // Valid with MonsterExpression:
+      case '\u0090' -> KoLCharacter::getAdjustedHighestStat;
+
+        // Valid with RestoreExpression:
+      case '\u0091' -> KoLCharacter::getMaximumMP;
+
+        // Valid with ModifierExpression:
+      case '\u0094' -> () -> KoLCharacter.canInteract() ? 1 : 0;
+
+        // Valid with RestoreExpression:
+      case '\u0095' -> KoLCharacter::getCurrentHP;
+
+        // Valid with Modifier Expression:
+      case '\u0097' -> KoLCharacter::getBaseMuscle;
+
+        // Valid with Modifier Expression:
+      case '\u0098' -> KoLCharacter::getBaseMysticality;
+
+        // Valid with Modifier Expression:
+      case '\u0099' -> KoLCharacter::getBaseMoxie;
+      case 'A' -> KoLCharacter::getAscensions;
+      case 'B' -> HolidayDatabase::getBloodEffect;
+      case 'C' -> KoLCharacter::getMinstrelLevel;
+      case 'D' -> KoLCharacter::getInebriety;
+      case 'E' -> () ->
+          KoLConstants.activeEffects.stream()
+              .map(AdventureResult::getCount)
+              .filter(d -> d < Integer.MAX_VALUE)
+              .count();
+      case 'F' -> KoLCharacter::getFullness;
+      case 'G' -> () -> HolidayDatabase.getGrimaciteEffect() / 10.0;
+      case 'H' -> Modifiers::getHoboPower;
+      case 'I' -> KoLCharacter::getDiscoMomentum;
+      case 'J' -> () -> HolidayDatabase.getHoliday().contains("Festival of Jarlsberg") ? 1.0 : 0.0;
+      case 'K' -> Modifiers::getSmithsness;
+      case 'L' -> KoLCharacter::getLevel;
+      case 'M' -> HolidayDatabase::getMoonlight;
+      case 'N' -> KoLCharacter::getAudience;
+      case 'P' -> () -> KoLCharacter.currentPastaThrall.getLevel();
+      case 'R' -> KoLCharacter::getReagentPotionDuration;
+      case 'S' -> KoLCharacter::getSpleenUse;
+      case 'T' -> () ->
+          this.effect == null ? 0.0 : Math.max(1, this.effect.getCount(KoLConstants.activeEffects));
+      case 'U' -> KoLCharacter::getTelescopeUpgrades;
+      case 'W' -> Modifiers::getCurrentWeight;
+      case 'X' -> () -> KoLCharacter.getGender().modifierValue;
+      case 'Y' -> KoLCharacter::getFury;
+      default -> null;
+    };
+  }
 
-          // Valid with Modifier Expression:
-        case '\u0096' -> {
-          String arg = (String) this.literals.get((int) s[--sp]);
-          v = StringUtilities.parseInt(arg.replaceAll(",", ""));
-        }
-          // Valid with Modifier Expression:
-        case '\u0097' -> v = KoLCharacter.getBaseMuscle();
-
-          // Valid with Modifier Expression:
-        case '\u0098' -> v = KoLCharacter.getBaseMysticality();
-
-          // Valid with Modifier Expression:
-        case '\u0099' -> v = KoLCharacter.getBaseMoxie();
-        case 'A' -> v = KoLCharacter.getAscensions();
-        case 'B' -> v = HolidayDatabase.getBloodEffect();
-        case 'C' -> v = KoLCharacter.getMinstrelLevel();
-        case 'D' -> v = KoLCharacter.getInebriety();
-        case 'E' -> {
-          v =
-              KoLConstants.activeEffects.stream()
-                  .map(AdventureResult::getCount)
-                  .filter(d -> d < Integer.MAX_VALUE)
-                  .count();
-          break;
-        }
-        case 'F' -> v = KoLCharacter.getFullness();
-        case 'G' -> v = HolidayDatabase.getGrimaciteEffect() / 10.0;
-        case 'H' -> v = Modifiers.hoboPower;
-        case 'I' -> v = KoLCharacter.getDiscoMomentum();
-        case 'J' -> v = HolidayDatabase.getHoliday().contains("Festival of Jarlsberg") ? 1.0 : 0.0;
-        case 'K' -> v = Modifiers.smithsness;
-        case 'L' -> v = KoLCharacter.getLevel();
-        case 'M' -> v = HolidayDatabase.getMoonlight();
-        case 'N' -> v = KoLCharacter.getAudience();
-        case 'P' -> v = KoLCharacter.currentPastaThrall.getLevel();
-        case 'R' -> v = KoLCharacter.getReagentPotionDuration();
-        case 'S' -> v = KoLCharacter.getSpleenUse();
-        case 'T' -> v =
-            this.effect == null
-                ? 0.0
-                : Math.max(1, this.effect.getCount(KoLConstants.activeEffects));
-        case 'U' -> v = KoLCharacter.getTelescopeUpgrades();
-        case 'W' -> v = Modifiers.currentWeight;
-        case 'X' -> v = KoLCharacter.getGender().modifierValue;
-        case 'Y' -> v = KoLCharacter.getFury();
-        default -> {
-          if (inst > '\u00FF') {
-            v = inst - 0x8000;
-            break;
+  private record Constant(double value) implements DoubleSupplier {
+    @Override
+    public double getAsDouble() {
+      return this.value;
+    }
+  }
+
+  /**
+   * Turns the bytecode into a tree of closures, so that evaluating it needs neither a stack nor a
+   * dispatch on each instruction. Operations on constants are done now, unless they fail, in which
+   * case they are left to fail when evaluated.
+   *
+   * @return the compiled expression, or null if it should be interpreted instead
+   */
+  private DoubleSupplier compile() {
+    Deque<DoubleSupplier> stack = new ArrayDeque<>();
+    try {
+      for (char inst : this.bytecode) {
+        DoubleSupplier node;
+        switch (inst) {
+          case 'r' -> {
+            return stack.size() == 1 ? stack.pop() : null;
+          }
+          case '+' -> node = binary(stack.pop(), stack.pop(), Double::sum);
+          case '-' -> node = binary(stack.pop(), stack.pop(), (a, b) -> a - b);
+          case '*' -> node = binary(stack.pop(), stack.pop(), (a, b) -> a * b);
+          case '/' -> node = binary(stack.pop(), stack.pop(), Expression::divide);
+          case '%' -> node = binary(stack.pop(), stack.pop(), (a, b) -> a % b);
+          case '^' -> node = binary(stack.pop(), stack.pop(), Expression::power);
+          case 'a' -> node = unary(stack.pop(), Math::abs);
+          case 'c' -> node = unary(stack.pop(), Math::ceil);
+          case 'f' -> node = unary(stack.pop(), Math::floor);
+          case 'm' -> node = binary(stack.pop(), stack.pop(), Math::min);
+          case 's' -> node = unary(stack.pop(), Expression::sqrt);
+          case 'x' -> node = binary(stack.pop(), stack.pop(), Math::max);
+          case '#' -> node = new Constant((Double) this.literals.get(this.literalIndex(stack)));
+          default -> {
+            if (inst > '\u00FF') {
+              node = new Constant(inst - 0x8000);
+            } else if (isFunction(inst)) {
+              node = this.function(inst, (String) this.literals.get(this.literalIndex(stack)));
+            } else {
+              node = this.variable(inst);
+            }
+            if (node == null) {
+              return null;
+            }
           }
-          throw new RuntimeException(
-              "Evaluator bytecode invalid at " + (pc - 1) + ": " + String.valueOf(this.bytecode));
         }
+        stack.push(node);
+      }
+    } catch (RuntimeException e) {
+      // Malformed bytecode, or a literal that can't be resolved yet.
+    }
+    return null;
+  }
+
+  private int literalIndex(Deque<DoubleSupplier> stack) {
+    if (stack.pop() instanceof Constant index) {
+      return (int) index.value();
+    }
+    throw new IllegalStateException("Literal index is not constant");
+  }
+
+  private static DoubleSupplier unary(DoubleSupplier operand, DoubleUnaryOperator op) {
+    if (operand instanceof Constant c) {
+      try {
+        return new Constant(op.applyAsDouble(c.value()));
+      } catch (ArithmeticException e) {
+        // Fail when evaluated, as the interpreter does
+      }
+    }
+    return () -> op.applyAsDouble(operand.getAsDouble());
+  }
+
+  // The left operand is on top of the stack, and so is popped first.
+  private static DoubleSupplier binary(
+      DoubleSupplier left, DoubleSupplier right, DoubleBinaryOperator op) {
+    if (left instanceof Constant l && right instanceof Constant r) {
+      try {
+        return new Constant(op.applyAsDouble(l.value(), r.value()));
+      } catch (ArithmeticException e) {
+        // Fail when evaluated, as the interpreter does
       }
-      s[sp++] = v;
     }
+    return () -> {
+      // Evaluate in the same order as the bytecode
+      double r = right.getAsDouble();
+      return op.applyAsDouble(left.getAsDouble(), r);
+    };
   }
 
   protected String validBytecodes() { // Allowed operations in the A-Z range.
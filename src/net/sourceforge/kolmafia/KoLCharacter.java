@@ -5057,17 +5057,47 @@ public abstract class KoLCharacter {
       String boomBox,
       Map<Modeable, String> modeables,
       boolean speculation) {
+    return KoLCharacter.recalculateAdjustments(
+        debug,
+        MCD,
+        equipment,
+        effects,
+        familiar,
+        enthroned,
+        bjorned,
+        custom,
+        horsery,
+        boomBox,
+        modeables,
+        speculation,
+        null);
+  }
+
+  public static final Modifiers recalculateAdjustments(
+      boolean debug,
+      int MCD,
+      Map<Slot, AdventureResult> equipment,
+      List<AdventureResult> effects,
+      FamiliarData familiar,
+      FamiliarData enthroned,
+      FamiliarData bjorned,
+      String custom,
+      String horsery,
+      String boomBox,
+      Map<Modeable, String> modeables,
+      boolean speculation,
+      SpeculationBaseline baseline) {
     int taoFactor = KoLCharacter.hasSkill(SkillPool.TAO_OF_THE_TERRAPIN) ? 2 : 1;
 
     Modifiers newModifiers = debug ? new DebugModifiers() : new Modifiers();
     Modifiers.setFamiliar(familiar);
     AdventureResult weapon = equipment.get(Slot.WEAPON);
-    Modifiers.mainhandClass =
-        weapon == null ? "" : EquipmentDatabase.getItemType(weapon.getItemId());
+    Modifiers.setMainhandClass(
+        weapon == null ? "" : EquipmentDatabase.getItemType(weapon.getItemId()));
     AdventureResult offhand = equipment.get(Slot.OFFHAND);
-    Modifiers.unarmed =
+    Modifiers.setUnarmed(
         (weapon == null || weapon == EquipmentRequest.UNEQUIP)
-            && (offhand == null || offhand == EquipmentRequest.UNEQUIP);
+            && (offhand == null || offhand == EquipmentRequest.UNEQUIP));
 
     // Area-specific adjustments
     newModifiers.add(ModifierDatabase.getModifiers(ModifierType.LOC, Modifiers.currentLocation));
@@ -5132,7 +5162,7 @@ public abstract class KoLCharacter {
                     DoubleModifier.INITIATIVE, level * 20, ModifierType.EL_VIBRATO, "SELF");
                 break;
               case 8:
-                if (Modifiers.currentFamiliar.contains("megadrone")) {
+                if (Modifiers.getCurrentFamiliar().contains("megadrone")) {
                   newModifiers.addDouble(
                       DoubleModifier.FAMILIAR_WEIGHT, level * 10, ModifierType.EL_VIBRATO, "DRONE");
                 }
@@ -5154,7 +5184,7 @@ public abstract class KoLCharacter {
     }
 
     // Store some modifiers as statics
-    Modifiers.smithsness = KoLCharacter.getSmithsnessModifier(equipment, effects);
+    Modifiers.setSmithsness(KoLCharacter.getSmithsnessModifier(equipment, effects));
 
     // Look at items
     for (var slot : SlotSet.SLOTS) {
@@ -5215,49 +5245,11 @@ public abstract class KoLCharacter {
     // Add modifiers from Passive Skills
     newModifiers.applyPassiveModifiers(debug);
 
-    // For the sake of easier maintenance, execute a lot of extra
-    // string comparisons when looking at status effects.
-
-    for (AdventureResult effect : effects) {
-      newModifiers.add(ModifierDatabase.getEffectModifiers(effect.getEffectId()));
-    }
-
-    // Add modifiers from campground equipment.
-    for (AdventureResult item : KoLConstants.campground) {
-      // Skip ginormous pumpkin growing in garden
-      if (item.getItemId() == ItemPool.GINORMOUS_PUMPKIN) {
-        continue;
-      }
-      for (int count = item.getCount(); count > 0; --count) {
-        newModifiers.add(ModifierDatabase.getItemModifiers(item.getItemId()));
-      }
-    }
-
-    // Add modifiers from Chateau
-    for (AdventureResult item : KoLConstants.chateau) {
-      newModifiers.add(ModifierDatabase.getItemModifiers(item.getItemId()));
-    }
-
-    // Add modifiers from dwelling
-    AdventureResult dwelling = CampgroundRequest.getCurrentDwelling();
-    newModifiers.add(ModifierDatabase.getItemModifiers(dwelling.getItemId()));
-
-    if (InventoryManager.getCount(ItemPool.COMFY_BLANKET) > 0) {
-      newModifiers.add(ModifierDatabase.getItemModifiers(ItemPool.COMFY_BLANKET));
-    }
-
-    if (HolidayDatabase.getRonaldPhase() == 5) {
-      newModifiers.addDouble(
-          DoubleModifier.RESTING_MP_PCT, 100, ModifierType.EVENT, "Moons (Ronald full)");
-    }
-
-    if (HolidayDatabase.getGrimacePhase() == 5) {
-      newModifiers.addDouble(
-          DoubleModifier.RESTING_HP_PCT, 100, ModifierType.EVENT, "Moons (Grimace full)");
-    }
-
-    for (String equip : ClanManager.getClanRumpus()) {
-      newModifiers.add(ModifierDatabase.getModifiers(ModifierType.RUMPUS, equip));
+    // Effects and housing don't depend on equipment, so a speculation can reuse their sum
+    if (baseline != null && !debug) {
+      baseline.addTo(newModifiers, effects);
+    } else {
+      KoLCharacter.addUnequippedModifiers(newModifiers, effects);
     }
 
     // Add other oddball interactions
@@ -5321,7 +5313,7 @@ public abstract class KoLCharacter {
     newModifiers.add(fightMods);
 
     // Store some modifiers as statics
-    Modifiers.hoboPower = newModifiers.getDouble(DoubleModifier.HOBO_POWER);
+    Modifiers.setHoboPower(newModifiers.getDouble(DoubleModifier.HOBO_POWER));
 
     if (Modifiers.currentLocation.equals("The Slime Tube")) {
       int hatred = (int) newModifiers.getDouble(DoubleModifier.SLIME_HATES_IT);
@@ -5596,6 +5588,53 @@ public abstract class KoLCharacter {
     return newModifiers;
   }
 
+  static void addUnequippedModifiers(Modifiers newModifiers, List<AdventureResult> effects) {
+    // For the sake of easier maintenance, execute a lot of extra
+    // string comparisons when looking at status effects.
+
+    for (AdventureResult effect : effects) {
+      newModifiers.add(ModifierDatabase.getEffectModifiers(effect.getEffectId()));
+    }
+
+    // Add modifiers from campground equipment.
+    for (AdventureResult item : KoLConstants.campground) {
+      // Skip ginormous pumpkin growing in garden
+      if (item.getItemId() == ItemPool.GINORMOUS_PUMPKIN) {
+        continue;
+      }
+      for (int count = item.getCount(); count > 0; --count) {
+        newModifiers.add(ModifierDatabase.getItemModifiers(item.getItemId()));
+      }
+    }
+
+    // Add modifiers from Chateau
+    for (AdventureResult item : KoLConstants.chateau) {
+      newModifiers.add(ModifierDatabase.getItemModifiers(item.getItemId()));
+    }
+
+    // Add modifiers from dwelling
+    AdventureResult dwelling = CampgroundRequest.getCurrentDwelling();
+    newModifiers.add(ModifierDatabase.getItemModifiers(dwelling.getItemId()));
+
+    if (InventoryManager.getCount(ItemPool.COMFY_BLANKET) > 0) {
+      newModifiers.add(ModifierDatabase.getItemModifiers(ItemPool.COMFY_BLANKET));
+    }
+
+    if (HolidayDatabase.getRonaldPhase() == 5) {
+      newModifiers.addDouble(
+          DoubleModifier.RESTING_MP_PCT, 100, ModifierType.EVENT, "Moons (Ronald full)");
+    }
+
+    if (HolidayDatabase.getGrimacePhase() == 5) {
+      newModifiers.addDouble(
+          DoubleModifier.RESTING_HP_PCT, 100, ModifierType.EVENT, "Moons (Grimace full)");
+    }
+
+    for (String equip : ClanManager.getClanRumpus()) {
+      newModifiers.add(ModifierDatabase.getModifiers(ModifierType.RUMPUS, equip));
+    }
+  }
+
   public static void addItemAdjustment(
       Modifiers newModifiers,
       Slot slot,
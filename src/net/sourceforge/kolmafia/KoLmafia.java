@@ -37,6 +37,7 @@ import net.sourceforge.kolmafia.objectpool.ItemPool;
 import net.sourceforge.kolmafia.objectpool.SkillPool;
 import net.sourceforge.kolmafia.persistence.BountyDatabase;
 import net.sourceforge.kolmafia.persistence.ConcoctionDatabase;
+import net.sourceforge.kolmafia.persistence.DataFileLoader;
 import net.sourceforge.kolmafia.persistence.EffectDatabase;
 import net.sourceforge.kolmafia.persistence.EquipmentDatabase;
 import net.sourceforge.kolmafia.persistence.FamiliarDatabase;
@@ -313,6 +314,9 @@ public abstract class KoLmafia {
 
     KoLmafia.checkDataOverrides();
 
+    // Start reading the data files which the databases will need
+    DataFileLoader.start();
+
     // Create an images directory if necessary
     KoLConstants.IMAGE_LOCATION.mkdirs();
 
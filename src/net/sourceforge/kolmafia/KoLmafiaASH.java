@@ -1,11 +1,13 @@
 package net.sourceforge.kolmafia;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.atomic.LongAdder;
 import net.sourceforge.kolmafia.request.CampgroundRequest;
 import net.sourceforge.kolmafia.request.RelayRequest;
 import net.sourceforge.kolmafia.textui.AshRuntime;
@@ -22,8 +24,36 @@ import net.sourceforge.kolmafia.utilities.FileUtilities;
 public abstract class KoLmafiaASH {
   private static final HashMap<String, File> relayScriptMap = new HashMap<>();
 
-  private static final HashMap<File, Long> TIMESTAMPS = new HashMap<>();
-  private static final HashMap<File, ScriptRuntime> INTERPRETERS = new HashMap<>();
+  // Parsed scripts, least recently used first. A script is parsed again if it or any of its
+  // imports has changed since it was parsed.
+  private static final int MAX_CACHED_SCRIPTS = 32;
+  private static final Map<File, CachedScript> SCRIPTS =
+      new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Entry<File, CachedScript> eldest) {
+          return this.size() > MAX_CACHED_SCRIPTS;
+        }
+      };
+  private static final LongAdder scriptCacheHits = new LongAdder();
+  private static final LongAdder scriptCacheMisses = new LongAdder();
+
+  private record CachedScript(ScriptRuntime interpreter, long timestamp, long parseMillis) {
+    boolean isStale(final File file) {
+      if (this.timestamp != file.lastModified()) {
+        return true;
+      }
+
+      if (this.interpreter instanceof AshRuntime ashRuntime) {
+        for (Entry<File, Parser> entry : ashRuntime.getImports().entrySet()) {
+          if (entry.getValue().getModificationTimestamp() != entry.getKey().lastModified()) {
+            return true;
+          }
+        }
+      }
+
+      return false;
+    }
+  }
 
   public static final AshRuntime NAMESPACE_INTERPRETER = new NamespaceInterpreter();
 
@@ -185,48 +215,71 @@ public abstract class KoLmafiaASH {
       return null;
     }
 
-    boolean createInterpreter = !KoLmafiaASH.TIMESTAMPS.containsKey(toExecute);
+    CachedScript cached;
+    synchronized (KoLmafiaASH.SCRIPTS) {
+      cached = KoLmafiaASH.SCRIPTS.get(toExecute);
+    }
 
-    if (!createInterpreter) {
-      Long timestamp = KoLmafiaASH.TIMESTAMPS.get(toExecute);
-      createInterpreter = timestamp != toExecute.lastModified();
+    if (cached != null && !cached.isStale(toExecute)) {
+      KoLmafiaASH.scriptCacheHits.increment();
+      return cached.interpreter();
     }
 
-    if (!createInterpreter) {
-      ScriptRuntime interpreter = KoLmafiaASH.INTERPRETERS.get(toExecute);
-      if (interpreter instanceof AshRuntime) {
-        Map<File, Parser> imports = ((AshRuntime) interpreter).getImports();
+    KoLmafiaASH.scriptCacheMisses.increment();
 
-        Iterator<Entry<File, Parser>> it = imports.entrySet().iterator();
+    long timestamp = toExecute.lastModified();
+    long start = System.nanoTime();
 
-        while (it.hasNext() && !createInterpreter) {
-          Entry<File, Parser> entry = it.next();
-          File file = entry.getKey();
-          long timestamp = entry.getValue().getModificationTimestamp();
-          createInterpreter = timestamp != file.lastModified();
-        }
-      }
+    ScriptRuntime interpreter;
+    if (toExecute.getName().endsWith(".js")) {
+      interpreter = new JavascriptRuntime(toExecute);
+    } else {
+      interpreter = new AshRuntime();
     }
 
-    if (createInterpreter) {
-      KoLmafiaASH.TIMESTAMPS.remove(toExecute);
-      ScriptRuntime interpreter;
-      if (toExecute.getName().endsWith(".js")) {
-        interpreter = new JavascriptRuntime(toExecute);
-      } else {
-        interpreter = new AshRuntime();
+    if (interpreter instanceof AshRuntime
+        && !((AshRuntime) interpreter).validate(toExecute, null)) {
+      synchronized (KoLmafiaASH.SCRIPTS) {
+        KoLmafiaASH.SCRIPTS.remove(toExecute);
       }
+      return null;
+    }
 
-      if (interpreter instanceof AshRuntime
-          && !((AshRuntime) interpreter).validate(toExecute, null)) {
-        return null;
-      }
+    long parseMillis = (System.nanoTime() - start) / 1_000_000;
+    synchronized (KoLmafiaASH.SCRIPTS) {
+      KoLmafiaASH.SCRIPTS.put(toExecute, new CachedScript(interpreter, timestamp, parseMillis));
+    }
 
-      KoLmafiaASH.TIMESTAMPS.put(toExecute, toExecute.lastModified());
-      KoLmafiaASH.INTERPRETERS.put(toExecute, interpreter);
+    return interpreter;
+  }
+
+  public static void showScriptCache() {
+    List<Entry<File, CachedScript>> scripts;
+    synchronized (KoLmafiaASH.SCRIPTS) {
+      scripts = new ArrayList<>(KoLmafiaASH.SCRIPTS.entrySet());
     }
 
-    return KoLmafiaASH.INTERPRETERS.get(toExecute);
+    RequestLogger.printLine(
+        "Parsed scripts: "
+            + scripts.size()
+            + " cached, "
+            + KoLmafiaASH.scriptCacheHits.sum()
+            + " hits, "
+            + KoLmafiaASH.scriptCacheMisses.sum()
+            + " misses.");
+
+    // Most recently used first
+    for (int i = scripts.size() - 1; i >= 0; --i) {
+      File file = scripts.get(i).getKey();
+      CachedScript cached = scripts.get(i).getValue();
+      StringBuilder line = new StringBuilder();
+      line.append(file.getName()).append(": parsed in ").append(cached.parseMillis()).append(" ms");
+      if (cached.interpreter() instanceof AshRuntime ashRuntime) {
+        int imports = ashRuntime.getImports().size() - 1;
+        line.append(", ").append(imports).append(imports == 1 ? " import" : " imports");
+      }
+      RequestLogger.printLine(line.toString());
+    }
   }
 
   public static void showUserFunctions(final AshRuntime interpreter, final String filter) {
@@ -299,9 +352,12 @@ public abstract class KoLmafiaASH {
   }
 
   public static final void stopAllRelayInterpreters() {
-    for (ScriptRuntime i : KoLmafiaASH.INTERPRETERS.values()) {
-      if (i.getRelayRequest() != null) {
-        i.setState(ScriptRuntime.State.EXIT);
+    synchronized (KoLmafiaASH.SCRIPTS) {
+      for (CachedScript cached : KoLmafiaASH.SCRIPTS.values()) {
+        ScriptRuntime i = cached.interpreter();
+        if (i.getRelayRequest() != null) {
+          i.setState(ScriptRuntime.State.EXIT);
+        }
       }
     }
   }
@@ -43,6 +43,7 @@ import net.sourceforge.kolmafia.request.UseSkillRequest;
 import net.sourceforge.kolmafia.session.AutumnatonManager;
 import net.sourceforge.kolmafia.utilities.Indexed;
 import net.sourceforge.kolmafia.utilities.IntOrString;
+import net.sourceforge.kolmafia.utilities.TwoLevelEnumHashMap;
 
 public class Modifiers {
   // static fields used to compute current modifiers
@@ -58,6 +59,33 @@ public class Modifiers {
   public static double currentWeight = 0.0;
   public static boolean unarmed = false;
 
+  // A thread which calculates modifiers alongside others, such as a maximizer worker, has its own
+  // copy of the fields above which are set while calculating. Every other thread shares them.
+  private static final ThreadLocal<Calculation> ownCalculation = new ThreadLocal<>();
+
+  /** The state of one thread's calculations, when it is not shared. */
+  public static final class Calculation {
+    private String currentFamiliar = Modifiers.currentFamiliar;
+    private String mainhandClass = Modifiers.mainhandClass;
+    private double hoboPower = Modifiers.hoboPower;
+    private double smithsness = Modifiers.smithsness;
+    private double currentWeight = Modifiers.currentWeight;
+    private boolean unarmed = Modifiers.unarmed;
+
+    // Modifiers which this thread has parsed or evaluated, in place of the shared cache
+    private final TwoLevelEnumHashMap<ModifierType, IntOrString, Modifiers> modifiers =
+        new TwoLevelEnumHashMap<>(ModifierType.class);
+
+    public Modifiers getModifiers(final ModifierType type, final IntOrString key) {
+      return this.modifiers.get(type, key);
+    }
+
+    public void putModifiers(
+        final ModifierType type, final IntOrString key, final Modifiers modifiers) {
+      this.modifiers.put(type, key, modifiers);
+    }
+  }
+
   // caching of passive skills for the current character
   private static boolean availableSkillsChanged = false;
   private static final Map<Boolean, List<Modifiers>> availablePassiveSkillModifiersByVariable =
@@ -83,6 +111,24 @@ public class Modifiers {
 
   private static final AdventureResult FIDOXENE = EffectPool.get(EffectPool.FIDOXENE);
 
+  // Modifiers whose result depends on the order in which they are added
+  private static final EnumSet<DoubleModifier> ORDER_DEPENDENT_DOUBLES =
+      EnumSet.of(
+          DoubleModifier.MANA_COST,
+          DoubleModifier.FAMILIAR_WEIGHT_PCT,
+          DoubleModifier.MUS_LIMIT,
+          DoubleModifier.MYS_LIMIT,
+          DoubleModifier.MOX_LIMIT,
+          DoubleModifier.FAMILIAR_ACTION_BONUS);
+  private static final EnumSet<StringModifier> ADDED_STRINGS =
+      EnumSet.of(
+          StringModifier.EQUALIZE,
+          StringModifier.INTRINSIC_EFFECT,
+          StringModifier.STAT_TUNING,
+          StringModifier.EQUALIZE_MUSCLE,
+          StringModifier.EQUALIZE_MYST,
+          StringModifier.EQUALIZE_MOXIE);
+
   public Modifiers() {
     // Everything should be initialized above.
   }
@@ -276,6 +322,15 @@ public class Modifiers {
     this.originalLookup = lookup;
   }
 
+  /** Returns a copy which can be evaluated without changing these modifiers. */
+  public Modifiers copyVariable() {
+    Modifiers copy = new Modifiers(this);
+    copy.variable = this.variable;
+    // Evaluating an expression does not change it, so the copy can share them
+    copy.expressions = this.expressions;
+    return copy;
+  }
+
   public final void reset() {
     this.doubles.reset();
     this.strings.reset();
@@ -573,7 +628,7 @@ public class Modifiers {
 
     // Unarmed modifiers apply only if the character has no weapon or offhand
     boolean unarmed = mods.getBoolean(BooleanModifier.UNARMED);
-    if (unarmed && !Modifiers.unarmed) {
+    if (unarmed && !Modifiers.isUnarmed()) {
       return;
     }
 
@@ -639,6 +694,58 @@ public class Modifiers {
     }
   }
 
+  /**
+   * Returns whether adding these modifiers gives the same result regardless of what was added
+   * before or after them, so that they can be summed ahead of time and added with {@link
+   * #addSum(Modifiers)}.
+   */
+  public boolean isOrderIndependent() {
+    for (var mod : ORDER_DEPENDENT_DOUBLES) {
+      if (this.doubles.get(mod) != 0.0) {
+        return false;
+      }
+    }
+    if (this.expressions != null) {
+      for (var entry : this.expressions) {
+        if (ORDER_DEPENDENT_DOUBLES.contains(entry.index)) {
+          return false;
+        }
+      }
+    }
+    if (this.booleans.get(BooleanModifier.UNARMED)
+        || this.booleans.get(BooleanModifier.NONSTACKABLE_WATCH)) {
+      return false;
+    }
+    for (var mod : ADDED_STRINGS) {
+      if (!this.strings.get(mod).isEmpty()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Adds a sum of order independent modifiers, as built by repeated calls to {@link
+   * #add(Modifiers)}. Unlike add, this keeps the accumulators of the sum, which depend on the type
+   * of each modifier that went into it.
+   */
+  public void addSum(final Modifiers sum) {
+    sum.doubles.forEach(this.doubles::add);
+    sum.accumulators.forEach(this.accumulators::add);
+
+    var mutexes = this.bitmaps.get(BitmapModifier.MUTEX) & sum.bitmaps.get(BitmapModifier.MUTEX);
+    this.bitmaps.add(BitmapModifier.MUTEX_VIOLATIONS, mutexes);
+    for (var mod : BitmapModifier.BITMAP_MODIFIERS) {
+      this.bitmaps.add(mod, sum.bitmaps.get(mod));
+    }
+
+    for (var mod : BooleanModifier.BOOLEAN_MODIFIERS) {
+      if (sum.booleans.get(mod)) {
+        this.booleans.set(mod, true);
+      }
+    }
+  }
+
   public boolean setModifier(final ModifierValue mod) {
     if (mod == null) {
       return false;
@@ -824,8 +931,9 @@ public class Modifiers {
           new String[] {"(skill)", "kingLiberated"}, () -> Modifiers.availableSkillsChanged = true);
     }
 
+    // A thread with its own calculation state uses the skills as they were when it got it
     if (debug
-        || Modifiers.availableSkillsChanged
+        || (Modifiers.availableSkillsChanged && Modifiers.ownCalculation.get() == null)
         || Modifiers.availablePassiveSkillModifiersByVariable.isEmpty()) {
       // Collect all passive skills currently on the character.
       Modifiers.availablePassiveSkillModifiersByVariable.putAll(
@@ -945,7 +1053,7 @@ public class Modifiers {
       final FamiliarData familiar, int weight, final AdventureResult famItem) {
     int familiarId = familiar.getEffectiveId();
     weight = Math.max(1, weight);
-    Modifiers.currentWeight = weight;
+    Modifiers.setCurrentWeight(weight);
 
     String race = familiar.getEffectiveRace();
 
@@ -1267,8 +1375,104 @@ public class Modifiers {
     return Modifiers.currentML;
   }
 
+  /**
+   * Gives the current thread its own calculation state, which starts as a copy of the shared state
+   * when it is made, or shares the state again if null. Returns the state it had before.
+   */
+  public static Calculation useOwnCalculation(final Calculation calculation) {
+    Calculation previous = Modifiers.ownCalculation.get();
+    Modifiers.ownCalculation.set(calculation);
+    return previous;
+  }
+
+  /** Returns the current thread's own calculation state, or null if it shares it. */
+  public static Calculation getOwnCalculation() {
+    return Modifiers.ownCalculation.get();
+  }
+
+  public static String getCurrentFamiliar() {
+    Calculation own = Modifiers.ownCalculation.get();
+    return own == null ? Modifiers.currentFamiliar : own.currentFamiliar;
+  }
+
   public static void setFamiliar(FamiliarData fam) {
-    Modifiers.currentFamiliar = fam == null ? "" : fam.getRace();
+    String race = fam == null ? "" : fam.getRace();
+    Calculation own = Modifiers.ownCalculation.get();
+    if (own == null) {
+      Modifiers.currentFamiliar = race;
+    } else {
+      own.currentFamiliar = race;
+    }
+  }
+
+  public static String getMainhandClass() {
+    Calculation own = Modifiers.ownCalculation.get();
+    return own == null ? Modifiers.mainhandClass : own.mainhandClass;
+  }
+
+  public static void setMainhandClass(final String mainhandClass) {
+    Calculation own = Modifiers.ownCalculation.get();
+    if (own == null) {
+      Modifiers.mainhandClass = mainhandClass;
+    } else {
+      own.mainhandClass = mainhandClass;
+    }
+  }
+
+  public static double getHoboPower() {
+    Calculation own = Modifiers.ownCalculation.get();
+    return own == null ? Modifiers.hoboPower : own.hoboPower;
+  }
+
+  public static void setHoboPower(final double hoboPower) {
+    Calculation own = Modifiers.ownCalculation.get();
+    if (own == null) {
+      Modifiers.hoboPower = hoboPower;
+    } else {
+      own.hoboPower = hoboPower;
+    }
+  }
+
+  public static double getSmithsness() {
+    Calculation own = Modifiers.ownCalculation.get();
+    return own == null ? Modifiers.smithsness : own.smithsness;
+  }
+
+  public static void setSmithsness(final double smithsness) {
+    Calculation own = Modifiers.ownCalculation.get();
+    if (own == null) {
+      Modifiers.smithsness = smithsness;
+    } else {
+      own.smithsness = smithsness;
+    }
+  }
+
+  public static double getCurrentWeight() {
+    Calculation own = Modifiers.ownCalculation.get();
+    return own == null ? Modifiers.currentWeight : own.currentWeight;
+  }
+
+  public static void setCurrentWeight(final double currentWeight) {
+    Calculation own = Modifiers.ownCalculation.get();
+    if (own == null) {
+      Modifiers.currentWeight = currentWeight;
+    } else {
+      own.currentWeight = currentWeight;
+    }
+  }
+
+  public static boolean isUnarmed() {
+    Calculation own = Modifiers.ownCalculation.get();
+    return own == null ? Modifiers.unarmed : own.unarmed;
+  }
+
+  public static void setUnarmed(final boolean unarmed) {
+    Calculation own = Modifiers.ownCalculation.get();
+    if (own == null) {
+      Modifiers.unarmed = unarmed;
+    } else {
+      own.unarmed = unarmed;
+    }
   }
 
   @Override
@@ -392,150 +392,7 @@ public class RequestLogger extends NullStream {
     // Some adventures do not post any form fields,
     // so handle them first.
 
-    // We want to register simple visits to the Altar of Literacy
-    if ((isExternal || request instanceof AltarOfLiteracyRequest)
-        && AltarOfLiteracyRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    // We want to register simple visits to the Bounty Hunter Hunter
-    if ((isExternal || request instanceof BountyHunterHunterRequest)
-        && BountyHunterHunterRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    // We want to register visits to the You're the Fudge Wizard Now, Dog choice adventure before
-    // ChoiceManager.
-    if ((isExternal || request instanceof FudgeWandRequest)
-        && FudgeWandRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    // We want to register visits to the Summoning Chamber choice adventure before ChoiceManager.
-    if ((isExternal || request instanceof SummoningChamberRequest)
-        && SummoningChamberRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    // We want to register simple visits to HeyDeze
-    if ((isExternal || request instanceof HeyDezeRequest)
-        && HeyDezeRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    // We want to register simple visits to Mr. Store
-    if ((isExternal || request instanceof MrStoreRequest)
-        && MrStoreRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    // We want to register simple visits to Spaaace
-    if ((isExternal || request instanceof SpaaaceRequest)
-        && SpaaaceRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    // We want to register simple visits to the Volcano Maze
-    if ((isExternal || request instanceof VolcanoMazeRequest)
-        && VolcanoMazeRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    // Burning Newspaper creation is an instance of choice.php
-    if ((isExternal || request instanceof BurningNewspaperRequest)
-        && BurningNewspaperRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    // metal meteoroid creation is an instance of choice.php
-    if ((isExternal || request instanceof MeteoroidRequest)
-        && MeteoroidRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    // grubby wool creation is an instance of choice.php
-    if ((isExternal || request instanceof GrubbyWoolRequest)
-        && GrubbyWoolRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    // The Clan Lounge Swimming Pool is an instance of choice.php
-    if ((isExternal || request instanceof ClanLoungeSwimmingPoolRequest)
-        && ClanLoungeSwimmingPoolRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    // The Cargo Cultist Shorts is an instance of choice.php
-    if ((isExternal || request instanceof CargoCultistShortsRequest)
-        && CargoCultistShortsRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    // The Deck of Every Card is an instance of choice.php
-    if ((isExternal || request instanceof DeckOfEveryCardRequest)
-        && DeckOfEveryCardRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    // Sweet Synthesis is an instance of choice.php
-    if ((isExternal || request instanceof SweetSynthesisRequest)
-        && SweetSynthesisRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    // The Florist is an instance of choice.php
-    if ((isExternal || request instanceof FloristRequest)
-        && FloristRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    // Numberology is an instance of choice.php
-    if ((isExternal || request instanceof NumberologyRequest)
-        && NumberologyRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    // The Potted Tea Tree is an instance of choice.php
-    if ((isExternal || request instanceof PottedTeaTreeRequest)
-        && PottedTeaTreeRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    // Sausage Grinder creation is an instance of choice.php
-    if ((isExternal || request instanceof SausageOMaticRequest)
-        && SausageOMaticRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    // The Source Terminal is an instance of choice.php
-    if ((isExternal || request instanceof TerminalRequest)
-        && TerminalRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    // Wax Glob creation is an instance of choice.php
-    if ((isExternal || request instanceof WaxGlobRequest)
-        && WaxGlobRequest.registerRequest(urlString)) {
+    if (Routes.VISITS.dispatch(request, isExternal, urlString)) {
       RequestLogger.wasLastRequestSimple = false;
       return;
     }
@@ -573,45 +430,7 @@ public class RequestLogger extends NullStream {
       return;
     }
 
-    // We want to register some visits to the Campground
-    if ((isExternal || request instanceof CampgroundRequest)
-        && CampgroundRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    // This is a campground request and so must go here.
-    if ((isExternal || request instanceof PizzaCubeRequest)
-        && PizzaCubeRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    // This is a campground request and so must go here.
-    if ((isExternal || request instanceof PortalRequest)
-        && PortalRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    // This is a campground request and so must go here.
-    if ((isExternal || request instanceof TelescopeRequest)
-        && TelescopeRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    // This might be a campground request and so must go here.
-    if ((isExternal || request instanceof UseSkillRequest)
-        && UseSkillRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    // This might be on inventory.php
-
-    if ((isExternal || request instanceof EquipmentRequest)
-        && EquipmentRequest.registerRequest(urlString)) {
+    if (Routes.CAMPGROUND.dispatch(request, isExternal, urlString)) {
       RequestLogger.wasLastRequestSimple = false;
       return;
     }
@@ -625,25 +444,132 @@ public class RequestLogger extends NullStream {
       return;
     }
 
-    // Check individual cafes
-    if ((isExternal || request instanceof MicroBreweryRequest)
-        && MicroBreweryRequest.registerRequest(urlString)) {
+    if (Routes.REQUESTS.dispatch(request, isExternal, urlString)) {
       RequestLogger.wasLastRequestSimple = false;
       return;
     }
 
-    if ((isExternal || request instanceof ChezSnooteeRequest)
-        && ChezSnooteeRequest.registerRequest(urlString)) {
+    // Let PlaceRequest step in and suppress logging for any
+    // unclaimed simple visits to a place.php container
+
+    if (PlaceRequest.unclaimedPlace(urlString)) {
       RequestLogger.wasLastRequestSimple = false;
       return;
     }
 
-    if ((isExternal || request instanceof CrimboCafeRequest)
-        && CrimboCafeRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
+    // Otherwise, print the raw URL so that it's at least mentioned
+    // in the session log.
+
+    if (!RequestLogger.wasLastRequestSimple) {
+      RequestLogger.updateSessionLog();
     }
 
+    RequestLogger.wasLastRequestSimple = true;
+    RequestLogger.updateSessionLog(urlString);
+  }
+
+  // The handlers which may claim a URL for the session log, in the order
+  // in which they are tried. Each declares the pages it can claim, so that
+  // only the handlers for the requested page need to be tried.
+  private static class Routes {
+    // Some adventures do not post any form fields, so these are
+    // tried before anything which needs one.
+    static final RequestRouter VISITS = new RequestRouter("visits");
+
+    // These might be campground requests and so must go before
+    // the campground is ignored.
+    static final RequestRouter CAMPGROUND = new RequestRouter("campground");
+
+    static final RequestRouter REQUESTS = new RequestRouter("requests");
+
+    static {
+      visits(VISITS);
+      campground(CAMPGROUND);
+      requests(REQUESTS);
+    }
+  }
+
+  private static void visits(final RequestRouter visits) {
+    visits.route(
+        AltarOfLiteracyRequest.class, AltarOfLiteracyRequest::registerRequest, "town_altar.php");
+    visits.route(
+        BountyHunterHunterRequest.class, BountyHunterHunterRequest::registerRequest, "bounty.php");
+    // The You're the Fudge Wizard Now, Dog, Summoning Chamber and
+    // item creation choice adventures must go before ChoiceManager.
+    visits.route(
+        FudgeWandRequest.class,
+        FudgeWandRequest::registerRequest,
+        "inv_use.php?whichitem=5441",
+        "choice.php?whichchoice=562");
+    visits.route(
+        SummoningChamberRequest.class,
+        SummoningChamberRequest::registerRequest,
+        "choice.php?whichchoice=922");
+    visits.route(HeyDezeRequest.class, HeyDezeRequest::registerRequest, "heydeze.php");
+    visits.route(MrStoreRequest.class, MrStoreRequest::registerRequest, "mrstore.php");
+    visits.route(SpaaaceRequest.class, SpaaaceRequest::registerRequest, "spaaace.php");
+    visits.route(VolcanoMazeRequest.class, VolcanoMazeRequest::registerRequest, "volcanomaze.php");
+    visits.route(
+        BurningNewspaperRequest.class,
+        BurningNewspaperRequest::registerRequest,
+        "choice.php?whichchoice=1277");
+    visits.route(
+        MeteoroidRequest.class, MeteoroidRequest::registerRequest, "choice.php?whichchoice=1264");
+    visits.route(
+        GrubbyWoolRequest.class, GrubbyWoolRequest::registerRequest, "choice.php?whichchoice=1490");
+    visits.route(
+        ClanLoungeSwimmingPoolRequest.class,
+        ClanLoungeSwimmingPoolRequest::registerRequest,
+        "choice.php?whichchoice=585");
+    visits.route(
+        CargoCultistShortsRequest.class,
+        CargoCultistShortsRequest::registerRequest,
+        "inventory.php",
+        "choice.php");
+    visits.route(
+        DeckOfEveryCardRequest.class, DeckOfEveryCardRequest::registerRequest, "choice.php");
+    visits.route(SweetSynthesisRequest.class, SweetSynthesisRequest::registerRequest, "choice.php");
+    visits.route(
+        FloristRequest.class, FloristRequest::registerRequest, "choice.php?whichchoice=720");
+    visits.route(NumberologyRequest.class, NumberologyRequest::registerRequest, "choice.php");
+    visits.route(PottedTeaTreeRequest.class, PottedTeaTreeRequest::registerRequest, "choice.php");
+    visits.route(
+        SausageOMaticRequest.class,
+        SausageOMaticRequest::registerRequest,
+        "choice.php?whichchoice=1339");
+    visits.route(TerminalRequest.class, TerminalRequest::registerRequest, "choice.php");
+    visits.route(
+        WaxGlobRequest.class, WaxGlobRequest::registerRequest, "choice.php?whichchoice=1218");
+  }
+
+  private static void campground(final RequestRouter campground) {
+    campground.route(CampgroundRequest.class, CampgroundRequest::registerRequest, "campground.php");
+    campground.route(
+        PizzaCubeRequest.class,
+        PizzaCubeRequest::registerRequest,
+        "campground.php?action=makepizza");
+    campground.route(PortalRequest.class, PortalRequest::registerRequest, "campground.php");
+    campground.route(TelescopeRequest.class, TelescopeRequest::registerRequest);
+    campground.route(
+        UseSkillRequest.class,
+        UseSkillRequest::registerRequest,
+        "skillz.php",
+        "campground.php",
+        "runskillz.php");
+    campground.route(
+        EquipmentRequest.class,
+        EquipmentRequest::registerRequest,
+        "bedazzle.php",
+        "inv_use.php?whichitem=5009",
+        "inventory.php",
+        "inv_equip.php");
+  }
+
+  private static void requests(final RequestRouter requests) {
+    // Check individual cafes
+    requests.route(MicroBreweryRequest.class, MicroBreweryRequest::registerRequest);
+    requests.route(ChezSnooteeRequest.class, ChezSnooteeRequest::registerRequest);
+    requests.route(CrimboCafeRequest.class, CrimboCafeRequest::registerRequest);
     // Check UseItemRequest early, so that lastItemUsed gets
     // cleared when processing anything else.  Otherwise, any
     // non-item-use that redirects to inventory.php?action=message
@@ -652,992 +578,384 @@ public class RequestLogger extends NullStream {
 
     // However, we have to check CreateItemRequest earlier, so that
     // it can handle single-/multi-use concoctions.
-    if (CreateItemRequest.registerRequest(isExternal, urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    // Are we finally ready to call UseItemRequest?
-    if ((isExternal || request instanceof UseItemRequest)
-        && UseItemRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    // The following is in place.php
-    if ((isExternal || request instanceof FalloutShelterRequest)
-        && FalloutShelterRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
+    requests.route("CreateItemRequest", List.of(), CreateItemRequest::registerRequest);
+    requests.route(UseItemRequest.class, UseItemRequest::registerRequest);
+    requests.route(
+        FalloutShelterRequest.class, FalloutShelterRequest::registerRequest, "place.php");
     // Let the "placeholder" for place.php take every otherwise
     // unclaimed call to that URL.
-
-    if (PlaceRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
+    requests.route(
+        "PlaceRequest",
+        List.of(),
+        (isExternal, urlString) -> PlaceRequest.registerRequest(urlString),
+        "place.php");
     // The following lists all the remaining requests in
     // alphabetical order.
+    requests.route(AfterLifeRequest.class, AfterLifeRequest::registerRequest, "afterlife.php");
+    requests.route(
+        AirportRequest.class, AirportRequest::registerRequest, "shop.php?whichshop=airport");
+    requests.route(
+        AltarOfBonesRequest.class, AltarOfBonesRequest::registerRequest, "bone_altar.php");
+    requests.route(
+        ArmoryRequest.class, ArmoryRequest::registerRequest, "shop.php?whichshop=si_shop3");
+    requests.route(
+        ArmoryAndLeggeryRequest.class,
+        urlString -> ArmoryAndLeggeryRequest.registerRequest(urlString, false),
+        "shop.php?whichshop=armory");
+    requests.route(
+        AppleStoreRequest.class,
+        AppleStoreRequest::registerRequest,
+        "shop.php?whichshop=applestore");
+    requests.route(
+        "ArcadeRequest",
+        List.of(ArcadeRequest.class, TicketCounterRequest.class),
+        (isExternal, urlString) -> ArcadeRequest.registerRequest(urlString));
+    requests.route(ArtistRequest.class, ArtistRequest::registerRequest, "place.php");
+    requests.route(AutoMallRequest.class, AutoMallRequest::registerRequest, "managestore.php");
+    requests.route(
+        AutoSellRequest.class,
+        AutoSellRequest::registerRequest,
+        "sellstuff.php",
+        "sellstuff_ugly.php");
+    requests.route(
+        AWOLQuartermasterRequest.class,
+        AWOLQuartermasterRequest::registerRequest,
+        "inv_use.php?whichitem=5116");
+    requests.route(
+        BatFabricatorRequest.class,
+        BatFabricatorRequest::registerRequest,
+        "shop.php?whichshop=batman_cave");
+    requests.route(
+        BeerGardenRequest.class,
+        BeerGardenRequest::registerRequest,
+        "shop.php?whichshop=beergarden");
+    requests.route(BeerPongRequest.class, BeerPongRequest::registerRequest, "beerpong.php");
+    requests.route(BigBrotherRequest.class, BigBrotherRequest::registerRequest, "monkeycastle.php");
+    requests.route(
+        BlackMarketRequest.class,
+        urlString -> BlackMarketRequest.registerRequest(urlString, false),
+        "shop.php?whichshop=blackmarket");
+    requests.route(
+        BoutiqueRequest.class, BoutiqueRequest::registerRequest, "shop.php?whichshop=cindy");
+    requests.route(
+        BrogurtRequest.class, BrogurtRequest::registerRequest, "shop.php?whichshop=sbb_brogurt");
+    requests.route(
+        BuffJimmyRequest.class, BuffJimmyRequest::registerRequest, "shop.php?whichshop=sbb_jimmy");
+    requests.route(BURTRequest.class, BURTRequest::registerRequest, "inv_use.php?whichitem=5683");
+    requests.route(CafeRequest.class, CafeRequest::registerRequest);
+    requests.route(CakeArenaRequest.class, CakeArenaRequest::registerRequest, "arena.php");
+    requests.route(
+        CampAwayRequest.class, CampAwayRequest::registerRequest, "place.php?whichplace=campaway");
+    requests.route(
+        CanteenRequest.class, CanteenRequest::registerRequest, "shop.php?whichshop=si_shop2");
+    requests.route(
+        ChateauRequest.class, ChateauRequest::registerRequest, "place.php?whichplace=chateau");
+    requests.route(
+        ChemiCorpRequest.class,
+        ChemiCorpRequest::registerRequest,
+        "shop.php?whichshop=batman_chemicorp");
+    requests.route(
+        ClanLoungeRequest.class, ClanLoungeRequest::registerRequest, "clan_viplounge.php");
+    requests.route(
+        ClanRumpusRequest.class,
+        ClanRumpusRequest::registerRequest,
+        "clan_rumpus.php",
+        "place.php",
+        "gnomes.php");
+    requests.route(ClanStashRequest.class, ClanStashRequest::registerRequest, "clan_stash.php");
+    requests.route(
+        ClosetRequest.class,
+        ClosetRequest::registerRequest,
+        "closet.php",
+        "fillcloset.php",
+        "inventory.php");
+    requests.route(
+        CosmicRaysBazaarRequest.class,
+        CosmicRaysBazaarRequest::registerRequest,
+        "shop.php?whichshop=exploathing");
+    requests.route(
+        CRIMBCOGiftShopRequest.class, CRIMBCOGiftShopRequest::registerRequest, "crimbo10.php");
+    requests.route(Crimbo07Request.class, Crimbo07Request::registerRequest);
+    requests.route(Crimbo09Request.class, Crimbo09Request::registerRequest, "crimbo09.php");
+    requests.route(Crimbo10Request.class, Crimbo10Request::registerRequest, "crimbo10.php");
+    requests.route(Crimbo11Request.class, Crimbo11Request::registerRequest, "crimbo11.php");
+    requests.route(Crimbo12Request.class, Crimbo12Request::registerRequest);
+    requests.route(
+        Crimbo14Request.class, Crimbo14Request::registerRequest, "shop.php?whichshop=crimbo14");
+    requests.route(
+        Crimbo16Request.class, Crimbo16Request::registerRequest, "shop.php?whichshop=crimbo16");
+    requests.route(
+        Crimbo17Request.class, Crimbo17Request::registerRequest, "shop.php?whichshop=crimbo17");
+    requests.route(
+        Crimbo20BoozeRequest.class,
+        Crimbo20BoozeRequest::registerRequest,
+        "shop.php?whichshop=crimbo20booze");
+    requests.route(
+        Crimbo20CandyRequest.class,
+        Crimbo20CandyRequest::registerRequest,
+        "shop.php?whichshop=crimbo20candy");
+    requests.route(
+        Crimbo20FoodRequest.class,
+        Crimbo20FoodRequest::registerRequest,
+        "shop.php?whichshop=crimbo20food");
+    requests.route(
+        Crimbo21TreeRequest.class, Crimbo21TreeRequest::registerRequest, "crimbo21tree.php");
+    requests.route(CrimboCartelRequest.class, CrimboCartelRequest::registerRequest, "crimbo09.php");
+    requests.route(CurseRequest.class, CurseRequest::registerRequest, "curse.php");
+    requests.route(DigRequest.class, DigRequest::registerRequest, "dig.php");
+    requests.route(
+        DimemasterRequest.class, DimemasterRequest::registerRequest, "bigisland.php?whichcamp=1");
+    requests.route(
+        DinostaurRequest.class, DinostaurRequest::registerRequest, "shop.php?whichshop=dino");
+    requests.route(
+        DinseyCompanyStoreRequest.class,
+        DinseyCompanyStoreRequest::registerRequest,
+        "shop.php?whichshop=landfillstore");
+    requests.route(
+        DiscoGiftCoRequest.class,
+        DiscoGiftCoRequest::registerRequest,
+        "shop.php?whichshop=infernodisco");
+    requests.route(
+        DisplayCaseRequest.class, DisplayCaseRequest::registerRequest, "managecollection.php");
+    requests.route(
+        DollHawkerRequest.class, DollHawkerRequest::registerRequest, "shop.php?whichshop=elvishp2");
+    requests.route(
+        DreadsylvaniaRequest.class,
+        DreadsylvaniaRequest::registerRequest,
+        "clan_dreadsylvania.php");
+    requests.route(
+        DwarfContraptionRequest.class,
+        DwarfContraptionRequest::registerRequest,
+        "dwarfcontraption.php");
+    requests.route(
+        DwarfFactoryRequest.class, DwarfFactoryRequest::registerRequest, "dwarffactory.php");
+    requests.route(EdBaseRequest.class, EdBaseRequest::registerRequest, "place.php");
+    requests.route(
+        EdShopRequest.class, EdShopRequest::registerRequest, "shop.php?whichshop=edunder_shopshop");
+    requests.route(FamiliarRequest.class, FamiliarRequest::registerRequest, "familiar.php");
+    requests.route(FamTeamRequest.class, FamTeamRequest::registerRequest, "famteam.php");
+    requests.route(
+        FancyDanRequest.class, FancyDanRequest::registerRequest, "shop.php?whichshop=olivers");
+    requests.route(
+        FantasyRealmRequest.class,
+        FantasyRealmRequest::registerRequest,
+        "choice.php?whichchoice=1280");
+    requests.route(
+        FDKOLRequest.class,
+        urlString -> FDKOLRequest.registerRequest(urlString, false),
+        "inv_use.php?whichitem=5707",
+        "shop.php?whichshop=fdkol");
+    requests.route(
+        FishboneryRequest.class,
+        FishboneryRequest::registerRequest,
+        "shop.php?whichshop=fishbones");
+    requests.route(
+        FiveDPrinterRequest.class,
+        FiveDPrinterRequest::registerRequest,
+        "shop.php?whichshop=5dprinter");
+    requests.route(FreeSnackRequest.class, FreeSnackRequest::registerRequest, "gamestore.php");
+    requests.route(FriarRequest.class, FriarRequest::registerRequest, "friars.php");
+    requests.route(
+        FunALogRequest.class, FunALogRequest::registerRequest, "shop.php?whichshop=piraterealm");
+    requests.route(GameShoppeRequest.class, GameShoppeRequest::registerRequest, "gamestore.php");
+    requests.route(GMartRequest.class, GMartRequest::registerRequest, "shop.php?whichshop=glover");
+    requests.route(GourdRequest.class, GourdRequest::registerRequest, "town_right.php");
+    requests.route(
+        GotporkOrphanageRequest.class,
+        GotporkOrphanageRequest::registerRequest,
+        "shop.php?whichshop=batman_orphanage");
+    requests.route(
+        GotporkPDRequest.class, GotporkPDRequest::registerRequest, "shop.php?whichshop=batman_pd");
+    requests.route(
+        GrandmaRequest.class, GrandmaRequest::registerRequest, "shop.php?whichshop=grandma");
+    requests.route(GrandpaRequest.class, GrandpaRequest::registerRequest, "monkeycastle.php");
+    requests.route(GuildRequest.class, GuildRequest::registerRequest, "guild.php");
+    requests.route(HermitRequest.class, HermitRequest::registerRequest, "hermit.php");
+    requests.route(
+        IslandRequest.class, IslandRequest::registerRequest, "bigisland.php", "postwarisland.php");
+    requests.route(
+        IsotopeSmitheryRequest.class,
+        IsotopeSmitheryRequest::registerRequest,
+        "shop.php?whichshop=elvishp1");
+    requests.route(
+        JarlsbergRequest.class, JarlsbergRequest::registerRequest, "shop.php?whichshop=jarl");
+    requests.route(
+        JunkMagazineRequest.class,
+        JunkMagazineRequest::registerRequest,
+        "shop.php?whichshop=junkmagazine");
+    requests.route(KnollRequest.class, KnollRequest::registerRequest, "place.php");
+    requests.route(KOLHSRequest.class, KOLHSRequest::registerRequest, "shop.php?whichshop=kolhs_");
+    requests.route(
+        KringleRequest.class, KringleRequest::registerRequest, "shop.php?whichshop=crimbo19toys");
+    requests.route(LeafletRequest.class, LeafletRequest::registerRequest, "leaflet.php");
+    requests.route(LTTRequest.class, LTTRequest::registerRequest, "shop.php?whichshop=ltt");
+    requests.route(
+        LunarLunchRequest.class, LunarLunchRequest::registerRequest, "shop.php?whichshop=elvishp3");
+    requests.route(
+        MallSearchRequest.class, MallSearchRequest::registerRequest, "mallstore.php", "mall.php");
+    requests.route(ManageStoreRequest.class, ManageStoreRequest::registerRequest, "backoffice.php");
+    requests.route(
+        MemeShopRequest.class, MemeShopRequest::registerRequest, "shop.php?whichshop=bacon");
+    requests.route(
+        MerchTableRequest.class, MerchTableRequest::registerRequest, "shop.php?whichshop=conmerch");
+    requests.route(MindControlRequest.class, MindControlRequest::registerRequest);
+    requests.route(MomRequest.class, MomRequest::registerRequest, "monkeycastle.php");
+    requests.route(
+        MonsterManuelRequest.class, MonsterManuelRequest::registerRequest, "questlog.php?which=6");
+    requests.route(
+        MrStore2002Request.class,
+        MrStore2002Request::registerRequest,
+        "shop.php?whichshop=mrstore2002");
+    requests.route(MushroomRequest.class, MushroomRequest::registerRequest, "knoll_mushrooms.php");
+    requests.route(
+        NeandermallRequest.class,
+        NeandermallRequest::registerRequest,
+        "shop.php?whichshop=caveshop");
+    requests.route(NemesisRequest.class, NemesisRequest::registerRequest, "cave.php");
+    requests.route(
+        NinjaStoreRequest.class, NinjaStoreRequest::registerRequest, "shop.php?whichshop=nina");
+    requests.route(
+        NuggletCraftingRequest.class,
+        NuggletCraftingRequest::registerRequest,
+        "shop.php?whichshop=topiary");
+    requests.route(
+        PandamoniumRequest.class, PandamoniumRequest::registerRequest, "pandamonium.php");
+    requests.route(PeeVPeeRequest.class, PeeVPeeRequest::registerRequest, "peevpee.php");
+    requests.route(PixelRequest.class, PixelRequest::registerRequest, "shop.php?whichshop=mystic");
+    requests.route(
+        PokemporiumRequest.class,
+        PokemporiumRequest::registerRequest,
+        "shop.php?whichshop=pokefam");
+    requests.route(
+        PrecinctRequest.class, PrecinctRequest::registerRequest, "shop.php?whichshop=detective");
+    requests.route(ProfileRequest.class, ProfileRequest::registerRequest, "showplayer.php");
+    requests.route(
+        PulverizeRequest.class, PulverizeRequest::registerRequest, "craft.php?action=pulverize");
+    requests.route(
+        QuartersmasterRequest.class,
+        QuartersmasterRequest::registerRequest,
+        "bigisland.php?whichcamp=2");
+    requests.route(RaffleRequest.class, RaffleRequest::registerRequest, "raffle.php");
+    requests.route(
+        ReplicaMrStoreRequest.class,
+        ReplicaMrStoreRequest::registerRequest,
+        "shop.php?whichshop=mrreplica");
+    requests.route(RichardRequest.class, RichardRequest::registerRequest, "clan_hobopolis.php");
+    requests.route(
+        RubeeRequest.class, RubeeRequest::registerRequest, "shop.php?whichshop=fantasyrealm");
+    requests.route(
+        RumpleRequest.class, RumpleRequest::registerRequest, "shop.php?whichshop=rumple");
+    requests.route(
+        ScrapheapRequest.class,
+        ScrapheapRequest::registerRequest,
+        "place.php?whichplace=scrapheap");
+    requests.route(SeaMerkinRequest.class, SeaMerkinRequest::registerRequest, "sea_merkin.php");
+    requests.route(SendGiftRequest.class, SendGiftRequest::registerRequest, "town_sendgift.php");
+    requests.route(
+        SendMailRequest.class, SendMailRequest::registerRequest, "sendmessage.php?action=send");
+    requests.route(
+        ShadowForgeRequest.class,
+        ShadowForgeRequest::registerRequest,
+        "shop.php?whichshop=shadowforge");
+    requests.route(
+        ShoeRepairRequest.class, ShoeRepairRequest::registerRequest, "shop.php?whichshop=shoeshop");
+    requests.route(
+        SHAWARMARequest.class, SHAWARMARequest::registerRequest, "shop.php?whichshop=si_shop1");
+    requests.route(
+        ShoreGiftShopRequest.class,
+        ShoreGiftShopRequest::registerRequest,
+        "shop.php?whichshop=shore");
+    requests.route(ShrineRequest.class, ShrineRequest::registerRequest, "da.php");
+    requests.route(SkateParkRequest.class, SkateParkRequest::registerRequest, "sea_skatepark.php");
+    requests.route(
+        SliemceRequest.class, SliemceRequest::registerRequest, "shop.php?whichshop=voteslime");
+    requests.route(
+        SpacegateFabricationRequest.class,
+        SpacegateFabricationRequest::registerRequest,
+        "shop.php?whichshop=spacegate");
+    requests.route(SpantRequest.class, SpantRequest::registerRequest, "shop.php?whichshop=spant");
+    requests.route(
+        SpinMasterLatheRequest.class,
+        SpinMasterLatheRequest::registerRequest,
+        "shop.php?whichshop=lathe");
+    requests.route(
+        StarChartRequest.class, StarChartRequest::registerRequest, "shop.php?whichshop=starchart");
+    requests.route(StandardRequest.class, StandardRequest::registerRequest, "standard.php");
+    requests.route(StillRequest.class, StillRequest::registerRequest, "shop.php?whichshop=still");
+    requests.route(StorageRequest.class, StorageRequest::registerRequest, "storage.php");
+    requests.route(
+        SuburbanDisRequest.class, SuburbanDisRequest::registerRequest, "suburbandis.php");
+    requests.route(
+        SugarSheetRequest.class,
+        SugarSheetRequest::registerRequest,
+        "shop.php?whichshop=sugarsheets");
+    requests.route(SwaggerShopRequest.class, SwaggerShopRequest::registerRequest, "peevpee.php");
+    requests.route(
+        TacoDanRequest.class, TacoDanRequest::registerRequest, "shop.php?whichshop=sbb_taco");
+    requests.route(TavernRequest.class, TavernRequest::registerRequest, "tavern.php");
+    requests.route(
+        TerrifiedEagleInnRequest.class,
+        TerrifiedEagleInnRequest::registerRequest,
+        "shop.php?whichshop=dv");
+    requests.route(
+        ThankShopRequest.class, ThankShopRequest::registerRequest, "shop.php?whichshop=thankshop");
+    requests.route(TicketCounterRequest.class, TicketCounterRequest::registerRequest);
+    requests.route(
+        ToxicChemistryRequest.class,
+        ToxicChemistryRequest::registerRequest,
+        "shop.php?whichshop=toxic");
+    requests.route(
+        TrapperRequest.class, TrapperRequest::registerRequest, "shop.php?whichshop=trapper");
+    requests.route(
+        TravelingTraderRequest.class, TravelingTraderRequest::registerRequest, "traveler.php");
+    requests.route(TrophyHutRequest.class, TrophyHutRequest::registerRequest, "trophy.php");
+    requests.route(TutorialRequest.class, TutorialRequest::registerRequest, "tutorial.php");
+    requests.route(
+        UneffectRequest.class, UneffectRequest::registerRequest, "uneffect.php", "charsheet.php");
+    requests.route(
+        UntinkerRequest.class,
+        UntinkerRequest::registerRequest,
+        "place.php?whichplace=forestvillage");
+    requests.route(
+        VendingMachineRequest.class,
+        VendingMachineRequest::registerRequest,
+        "shop.php?whichshop=damachine");
+    requests.route(
+        VolcanoIslandRequest.class, VolcanoIslandRequest::registerRequest, "volcanoisland.php");
+    requests.route(
+        WalMartRequest.class, WalMartRequest::registerRequest, "shop.php?whichshop=glaciest");
+    requests.route(
+        WarbearBoxRequest.class, WarbearBoxRequest::registerRequest, "shop.php?whichshop=warbear");
+    requests.route(
+        WildfireCampRequest.class,
+        WildfireCampRequest::registerRequest,
+        "place.php?whichplace=wildfire_camp");
+    requests.route(
+        WinterGardenRequest.class,
+        WinterGardenRequest::registerRequest,
+        "shop.php?whichshop=snowgarden");
+    requests.route(XOShopRequest.class, XOShopRequest::registerRequest, "shop.php?whichshop=xo");
+    requests.route(
+        YeNeweSouvenirShoppeRequest.class,
+        YeNeweSouvenirShoppeRequest::registerRequest,
+        "shop.php?whichshop=shakeshop");
+    requests.route(
+        YourCampfireRequest.class,
+        YourCampfireRequest::registerRequest,
+        "shop.php?whichshop=campfire");
+    requests.route(ZapRequest.class, ZapRequest::registerRequest, "wand.php");
+    // Do PurchaseRequest after all Coinmaster shops so they can
+    // register simple visits, if they so choose.
+    requests.route(
+        PurchaseRequest.class,
+        PurchaseRequest::registerRequest,
+        "mallstore.php",
+        "town_giftshop.php",
+        "shop.php");
+  }
 
-    if ((isExternal || request instanceof AfterLifeRequest)
-        && AfterLifeRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof AirportRequest)
-        && AirportRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof AltarOfBonesRequest)
-        && AltarOfBonesRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof ArmoryRequest)
-        && ArmoryRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof ArmoryAndLeggeryRequest)
-        && ArmoryAndLeggeryRequest.registerRequest(urlString, false)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof AppleStoreRequest)
-        && AppleStoreRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof ArcadeRequest || request instanceof TicketCounterRequest)
-        && ArcadeRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof ArtistRequest)
-        && ArtistRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof AutoMallRequest)
-        && AutoMallRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof AutoSellRequest)
-        && AutoSellRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof AWOLQuartermasterRequest)
-        && AWOLQuartermasterRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof BatFabricatorRequest)
-        && BatFabricatorRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof BeerGardenRequest)
-        && BeerGardenRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof BeerPongRequest)
-        && BeerPongRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof BigBrotherRequest)
-        && BigBrotherRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof BlackMarketRequest)
-        && BlackMarketRequest.registerRequest(urlString, false)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof BoutiqueRequest)
-        && BoutiqueRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof BrogurtRequest)
-        && BrogurtRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof BuffJimmyRequest)
-        && BuffJimmyRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof BURTRequest) && BURTRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof CafeRequest) && CafeRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof CakeArenaRequest)
-        && CakeArenaRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof CampAwayRequest)
-        && CampAwayRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof CanteenRequest)
-        && CanteenRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof ChateauRequest)
-        && ChateauRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof ChemiCorpRequest)
-        && ChemiCorpRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof ClanLoungeRequest)
-        && ClanLoungeRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof ClanRumpusRequest)
-        && ClanRumpusRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof ClanStashRequest)
-        && ClanStashRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof ClosetRequest)
-        && ClosetRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof CosmicRaysBazaarRequest)
-        && CosmicRaysBazaarRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof CRIMBCOGiftShopRequest)
-        && CRIMBCOGiftShopRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof Crimbo07Request)
-        && Crimbo07Request.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof Crimbo09Request)
-        && Crimbo09Request.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof Crimbo10Request)
-        && Crimbo10Request.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof Crimbo11Request)
-        && Crimbo11Request.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof Crimbo12Request)
-        && Crimbo12Request.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof Crimbo14Request)
-        && Crimbo14Request.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof Crimbo16Request)
-        && Crimbo16Request.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof Crimbo17Request)
-        && Crimbo17Request.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof Crimbo20BoozeRequest)
-        && Crimbo20BoozeRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof Crimbo20CandyRequest)
-        && Crimbo20CandyRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof Crimbo20FoodRequest)
-        && Crimbo20FoodRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof Crimbo21TreeRequest)
-        && Crimbo21TreeRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof CrimboCartelRequest)
-        && CrimboCartelRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof CurseRequest)
-        && CurseRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof DigRequest) && DigRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof DimemasterRequest)
-        && DimemasterRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof DinostaurRequest)
-        && DinostaurRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof DinseyCompanyStoreRequest)
-        && DinseyCompanyStoreRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof DiscoGiftCoRequest)
-        && DiscoGiftCoRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof DisplayCaseRequest)
-        && DisplayCaseRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof DollHawkerRequest)
-        && DollHawkerRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof DreadsylvaniaRequest)
-        && DreadsylvaniaRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof DwarfContraptionRequest)
-        && DwarfContraptionRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof DwarfFactoryRequest)
-        && DwarfFactoryRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof EdBaseRequest)
-        && EdBaseRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof EdShopRequest)
-        && EdShopRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof FamiliarRequest)
-        && FamiliarRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof FamTeamRequest)
-        && FamTeamRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof FancyDanRequest)
-        && FancyDanRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof FantasyRealmRequest)
-        && FantasyRealmRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof FDKOLRequest)
-        && FDKOLRequest.registerRequest(urlString, false)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof FishboneryRequest)
-        && FishboneryRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof FiveDPrinterRequest)
-        && FiveDPrinterRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof FreeSnackRequest)
-        && FreeSnackRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof FriarRequest)
-        && FriarRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof FunALogRequest)
-        && FunALogRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof GameShoppeRequest)
-        && GameShoppeRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof GMartRequest)
-        && GMartRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof GourdRequest)
-        && GourdRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof GotporkOrphanageRequest)
-        && GotporkOrphanageRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof GotporkPDRequest)
-        && GotporkPDRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof GrandmaRequest)
-        && GrandmaRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof GrandpaRequest)
-        && GrandpaRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof GuildRequest)
-        && GuildRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof HermitRequest)
-        && HermitRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof IslandRequest)
-        && IslandRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof IsotopeSmitheryRequest)
-        && IsotopeSmitheryRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof JarlsbergRequest)
-        && JarlsbergRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof JunkMagazineRequest)
-        && JunkMagazineRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof KnollRequest)
-        && KnollRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof KOLHSRequest)
-        && KOLHSRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof KringleRequest)
-        && KringleRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof LeafletRequest)
-        && LeafletRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof LTTRequest) && LTTRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof LunarLunchRequest)
-        && LunarLunchRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof MallSearchRequest)
-        && MallSearchRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof ManageStoreRequest)
-        && ManageStoreRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof MemeShopRequest)
-        && MemeShopRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof MerchTableRequest)
-        && MerchTableRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof MindControlRequest)
-        && MindControlRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof MomRequest) && MomRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof MonsterManuelRequest)
-        && MonsterManuelRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof MrStore2002Request)
-        && MrStore2002Request.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof MushroomRequest)
-        && MushroomRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof NeandermallRequest)
-        && NeandermallRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof NemesisRequest)
-        && NemesisRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof NinjaStoreRequest)
-        && NinjaStoreRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof NuggletCraftingRequest)
-        && NuggletCraftingRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof PandamoniumRequest)
-        && PandamoniumRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof PeeVPeeRequest)
-        && PeeVPeeRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof PixelRequest)
-        && PixelRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof PokemporiumRequest)
-        && PokemporiumRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof PrecinctRequest)
-        && PrecinctRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof ProfileRequest)
-        && ProfileRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof PulverizeRequest)
-        && PulverizeRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof QuartersmasterRequest)
-        && QuartersmasterRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof RaffleRequest)
-        && RaffleRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof ReplicaMrStoreRequest)
-        && ReplicaMrStoreRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof RichardRequest)
-        && RichardRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof RubeeRequest)
-        && RubeeRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof RumpleRequest)
-        && RumpleRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof ScrapheapRequest)
-        && ScrapheapRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof SeaMerkinRequest)
-        && SeaMerkinRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof SendGiftRequest)
-        && SendGiftRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof SendMailRequest)
-        && SendMailRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof ShadowForgeRequest)
-        && ShadowForgeRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof ShoeRepairRequest)
-        && ShoeRepairRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof SHAWARMARequest)
-        && SHAWARMARequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof ShoreGiftShopRequest)
-        && ShoreGiftShopRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof ShrineRequest)
-        && ShrineRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof SkateParkRequest)
-        && SkateParkRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof SliemceRequest)
-        && SliemceRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof SpacegateFabricationRequest)
-        && SpacegateFabricationRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof SpantRequest)
-        && SpantRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof SpinMasterLatheRequest)
-        && SpinMasterLatheRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof StarChartRequest)
-        && StarChartRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof StandardRequest)
-        && StandardRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof StillRequest)
-        && StillRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof StorageRequest)
-        && StorageRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof SuburbanDisRequest)
-        && SuburbanDisRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof SugarSheetRequest)
-        && SugarSheetRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof SwaggerShopRequest)
-        && SwaggerShopRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof TacoDanRequest)
-        && TacoDanRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof TavernRequest)
-        && TavernRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof TerrifiedEagleInnRequest)
-        && TerrifiedEagleInnRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof ThankShopRequest)
-        && ThankShopRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof TicketCounterRequest)
-        && TicketCounterRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof ToxicChemistryRequest)
-        && ToxicChemistryRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof TrapperRequest)
-        && TrapperRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof TravelingTraderRequest)
-        && TravelingTraderRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof TrophyHutRequest)
-        && TrophyHutRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof TutorialRequest)
-        && TutorialRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof UneffectRequest)
-        && UneffectRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof UntinkerRequest)
-        && UntinkerRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof VendingMachineRequest)
-        && VendingMachineRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof VolcanoIslandRequest)
-        && VolcanoIslandRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof WalMartRequest)
-        && WalMartRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof WarbearBoxRequest)
-        && WarbearBoxRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof WildfireCampRequest)
-        && WildfireCampRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof WinterGardenRequest)
-        && WinterGardenRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof XOShopRequest)
-        && XOShopRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof YeNeweSouvenirShoppeRequest)
-        && YeNeweSouvenirShoppeRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof YourCampfireRequest)
-        && YourCampfireRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof ZapRequest) && ZapRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    // Do PurchaseRequest after all Coinmaster shops so they can
-    // register simple visits, if they so choose.
-
-    if ((isExternal || request instanceof PurchaseRequest)
-        && PurchaseRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    // Let PlaceRequest step in and suppress logging for any
-    // unclaimed simple visits to a place.php container
-
-    if (PlaceRequest.unclaimedPlace(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    // Otherwise, print the raw URL so that it's at least mentioned
-    // in the session log.
-
-    if (!RequestLogger.wasLastRequestSimple) {
-      RequestLogger.updateSessionLog();
-    }
-
-    RequestLogger.wasLastRequestSimple = true;
-    RequestLogger.updateSessionLog(urlString);
+  public static List<RequestRouter> getRouters() {
+    return List.of(Routes.VISITS, Routes.CAMPGROUND, Routes.REQUESTS);
   }
 
   public static void registerLocation(final String location) {
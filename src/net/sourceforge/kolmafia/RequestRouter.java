@@ -0,0 +1,329 @@
+package net.sourceforge.kolmafia;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import net.sourceforge.kolmafia.request.GenericRequest;
+
+/**
+ * An ordered list of request handlers, each of which may claim a URL for the session log.
+ *
+ * <p>Handlers used to be tried one after another until one of them claimed the URL. Most of them
+ * reject a URL unless it is for one particular page, and often unless it also has one particular
+ * value for a field such as whichshop or whichitem, so each route declares the pages it can claim,
+ * written as "page.php" or "page.php?field=value". Dispatch then only tries the handlers which
+ * declared the URL's page (and field value, if it has one) and those which declared nothing, in the
+ * order in which they were added.
+ *
+ * <p>A declaration must match the handler's own checks: a handler which declares "shop.php" must
+ * not claim a URL unless it starts with "shop.php", and one which declares
+ * "shop.php?whichshop=xyz" must not claim one which does not also contain "whichshop=xyz". While
+ * checking is on, every handler is tried and a URL claimed by a handler which would not have been
+ * tried is reported.
+ */
+public class RequestRouter {
+  @FunctionalInterface
+  public interface Handler {
+    boolean registerRequest(boolean isExternal, String urlString);
+  }
+
+  public static class Route {
+    private final String name;
+    private final int index;
+    private final List<Class<?>> types;
+    private final Handler handler;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder claims = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+
+    private Route(
+        final String name, final int index, final List<Class<?>> types, final Handler handler) {
+      this.name = name;
+      this.index = index;
+      this.types = types;
+      this.handler = handler;
+    }
+
+    // Internal requests are only offered to the handlers of their own class
+    private boolean accepts(final GenericRequest request, final boolean isExternal) {
+      if (isExternal || this.types.isEmpty()) {
+        return true;
+      }
+      for (Class<?> type : this.types) {
+        if (type.isInstance(request)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private boolean registerRequest(final boolean isExternal, final String urlString) {
+      long start = System.nanoTime();
+      boolean claimed = this.handler.registerRequest(isExternal, urlString);
+      this.nanos.add(System.nanoTime() - start);
+      this.calls.increment();
+      if (claimed) {
+        this.claims.increment();
+      }
+      return claimed;
+    }
+
+    public String getName() {
+      return this.name;
+    }
+
+    public long getCalls() {
+      return this.calls.sum();
+    }
+
+    public long getClaims() {
+      return this.claims.sum();
+    }
+
+    public long getNanos() {
+      return this.nanos.sum();
+    }
+
+    private void reset() {
+      this.calls.reset();
+      this.claims.reset();
+      this.nanos.reset();
+    }
+  }
+
+  // The routes for one page
+  private static class Page {
+    private final List<Route> routes = new ArrayList<>();
+    private final Map<String, List<Route>> keyedRoutes = new HashMap<>();
+
+    // The field which selects among keyed routes, such as "whichshop="
+    private String field = null;
+
+    // Precomputed candidates, including the routes which declared nothing
+    private List<Route> unkeyed;
+    private List<Route> all;
+    private final Map<String, List<Route>> byValue = new ConcurrentHashMap<>();
+  }
+
+  // Field values seen in URLs are remembered, up to a point
+  private static final int MAX_VALUES = 256;
+
+  private static volatile boolean checking = false;
+  private static final LongAdder mismatches = new LongAdder();
+
+  private final String name;
+  private final List<Route> routes = new ArrayList<>();
+  private final List<Route> wildcards = new ArrayList<>();
+  private final Map<String, Page> pages = new HashMap<>();
+  private volatile boolean built = false;
+
+  public RequestRouter(final String name) {
+    this.name = name;
+  }
+
+  public String getName() {
+    return this.name;
+  }
+
+  public List<Route> getRoutes() {
+    return this.routes;
+  }
+
+  public static void setChecking(final boolean checking) {
+    RequestRouter.checking = checking;
+  }
+
+  public static boolean isChecking() {
+    return RequestRouter.checking;
+  }
+
+  public static long getMismatches() {
+    return RequestRouter.mismatches.sum();
+  }
+
+  public void route(
+      final Class<? extends GenericRequest> type,
+      final Predicate<String> handler,
+      final String... pages) {
+    this.route(
+        type.getSimpleName(),
+        List.of(type),
+        (isExternal, urlString) -> handler.test(urlString),
+        pages);
+  }
+
+  public synchronized void route(
+      final String name, final List<Class<?>> types, final Handler handler, final String... pages) {
+    Route route = new Route(name, this.routes.size(), types, handler);
+    this.routes.add(route);
+
+    if (pages.length == 0) {
+      this.wildcards.add(route);
+    }
+
+    for (String declaration : pages) {
+      int split = declaration.indexOf("?");
+      String page = split == -1 ? declaration : declaration.substring(0, split);
+      Page routes = this.pages.computeIfAbsent(page, k -> new Page());
+
+      if (split == -1) {
+        routes.routes.add(route);
+        continue;
+      }
+
+      int equals = declaration.indexOf("=", split);
+      String field = declaration.substring(split + 1, equals + 1);
+      String value = declaration.substring(equals + 1);
+
+      if (routes.field == null) {
+        routes.field = field;
+      } else if (!routes.field.equals(field)) {
+        throw new IllegalArgumentException(
+            name + " selects " + page + " by " + field + " rather than " + routes.field);
+      }
+
+      routes.keyedRoutes.computeIfAbsent(value, k -> new ArrayList<>()).add(route);
+    }
+
+    this.built = false;
+  }
+
+  private synchronized void build() {
+    if (this.built) {
+      return;
+    }
+
+    for (Page page : this.pages.values()) {
+      List<Route> keyed = new ArrayList<>();
+      page.keyedRoutes.values().forEach(keyed::addAll);
+      page.unkeyed = this.merge(page.routes, List.of());
+      page.all = this.merge(page.routes, keyed);
+      page.byValue.clear();
+    }
+
+    this.built = true;
+  }
+
+  /** Offers the URL to each route which could claim it. Returns true if one of them did. */
+  public boolean dispatch(
+      final GenericRequest request, final boolean isExternal, final String urlString) {
+    List<Route> candidates = this.candidates(urlString);
+
+    if (!RequestRouter.checking) {
+      return RequestRouter.dispatch(candidates, request, isExternal, urlString) != null;
+    }
+
+    Route claimed = RequestRouter.dispatch(this.routes, request, isExternal, urlString);
+    if (claimed != null && !candidates.contains(claimed)) {
+      RequestRouter.mismatches.increment();
+      String message =
+          "Request routing: " + claimed.name + " claimed " + urlString + " without routing to it";
+      RequestLogger.printLine(message);
+      RequestLogger.updateDebugLog(message);
+    }
+    return claimed != null;
+  }
+
+  private static Route dispatch(
+      final List<Route> routes,
+      final GenericRequest request,
+      final boolean isExternal,
+      final String urlString) {
+    for (Route route : routes) {
+      if (route.accepts(request, isExternal) && route.registerRequest(isExternal, urlString)) {
+        return route;
+      }
+    }
+    return null;
+  }
+
+  /** Returns the routes which could claim the URL, in the order in which they were added. */
+  public List<Route> candidates(final String urlString) {
+    if (!this.built) {
+      this.build();
+    }
+
+    Page page = this.pages.get(RequestRouter.getPage(urlString));
+    if (page == null) {
+      return this.wildcards;
+    }
+
+    if (page.field == null) {
+      return page.unkeyed;
+    }
+
+    int start = urlString.indexOf(page.field);
+    if (start == -1) {
+      return page.unkeyed;
+    }
+
+    start += page.field.length();
+    if (urlString.indexOf(page.field, start) != -1) {
+      // Give up on the unusual URL which repeats the field
+      return page.all;
+    }
+
+    int end = urlString.indexOf("&", start);
+    String value = end == -1 ? urlString.substring(start) : urlString.substring(start, end);
+
+    List<Route> candidates = page.byValue.get(value);
+    if (candidates != null) {
+      return candidates;
+    }
+
+    // A route keyed on "xyz" is tried for "xyz" and for anything else
+    // which contains it, just as urlString.contains("field=xyz") would.
+    List<Route> keyed = new ArrayList<>();
+    page.keyedRoutes.forEach(
+        (key, routes) -> {
+          if (value.startsWith(key)) {
+            keyed.addAll(routes);
+          }
+        });
+
+    candidates = this.merge(page.routes, keyed);
+    if (page.byValue.size() < MAX_VALUES) {
+      page.byValue.put(value, candidates);
+    }
+    return candidates;
+  }
+
+  private List<Route> merge(final List<Route> routes, final List<Route> keyed) {
+    List<Route> merged = new ArrayList<>(this.wildcards);
+    for (Route route : routes) {
+      if (!merged.contains(route)) {
+        merged.add(route);
+      }
+    }
+    for (Route route : keyed) {
+      if (!merged.contains(route)) {
+        merged.add(route);
+      }
+    }
+    merged.sort(Comparator.comparingInt(route -> route.index));
+    return merged;
+  }
+
+  // The page is everything up to and including the first ".php", so
+  // that it is the same as the prefix which a handler would check for.
+  static String getPage(final String urlString) {
+    int php = urlString.indexOf(".php");
+    if (php != -1) {
+      return urlString.substring(0, php + 4);
+    }
+    int query = urlString.indexOf("?");
+    return query == -1 ? urlString : urlString.substring(0, query);
+  }
+
+  public void resetCounters() {
+    for (Route route : this.routes) {
+      route.reset();
+    }
+  }
+}
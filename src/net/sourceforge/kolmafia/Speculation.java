@@ -154,11 +154,17 @@ public class Speculation {
             this.horsery,
             this.boomBox,
             this.modeables,
-            true);
+            true,
+            this.getBaseline());
     this.calculated = true;
     return this.mods;
   }
 
+  // Speculations that are calculated many times with the same effects can share their sum
+  protected SpeculationBaseline getBaseline() {
+    return null;
+  }
+
   public Modifiers getModifiers() {
     if (!this.calculated) this.calculate();
     return this.mods;
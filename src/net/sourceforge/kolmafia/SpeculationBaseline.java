@@ -0,0 +1,77 @@
+package net.sourceforge.kolmafia;
+
+import java.util.ArrayList;
+import java.util.List;
+import net.sourceforge.kolmafia.modifiers.BooleanModifier;
+import net.sourceforge.kolmafia.modifiers.Lookup;
+import net.sourceforge.kolmafia.persistence.ModifierDatabase;
+
+/**
+ * Caches the modifiers that a speculation gets from its effects and housing, which don't change
+ * while the maximizer tries different equipment.
+ *
+ * <p>Constant modifiers are summed once. Modifiers that depend on expressions are looked up again
+ * for each speculation, since their values can depend on the equipment being tried. If anything
+ * that would be summed depends on the order it is added in, the cache is not used and the
+ * modifiers are added one by one, as they are for the current character.
+ */
+public class SpeculationBaseline {
+  private List<AdventureResult> effects = null;
+  private Modifiers sum = null;
+  private final List<Lookup> variable = new ArrayList<>();
+  private boolean usable = false;
+
+  public void addTo(Modifiers newModifiers, List<AdventureResult> effects) {
+    if (this.effects == null || !this.effects.equals(effects)) {
+      this.build(effects);
+    }
+
+    if (!this.usable) {
+      KoLCharacter.addUnequippedModifiers(newModifiers, effects);
+      return;
+    }
+
+    newModifiers.addSum(this.sum);
+    for (Lookup lookup : this.variable) {
+      newModifiers.add(ModifierDatabase.getModifiers(lookup));
+    }
+  }
+
+  private void build(List<AdventureResult> effects) {
+    this.effects = new ArrayList<>(effects);
+    this.variable.clear();
+
+    Recorder recorder = new Recorder();
+    KoLCharacter.addUnequippedModifiers(recorder, effects);
+
+    this.sum = recorder;
+    this.usable = recorder.usable;
+  }
+
+  private class Recorder extends Modifiers {
+    private boolean usable = true;
+
+    @Override
+    public void add(final Modifiers mods) {
+      if (mods == null) {
+        return;
+      }
+
+      if (!mods.isOrderIndependent()) {
+        this.usable = false;
+      }
+
+      // Hard-coded overrides can change any modifier, and we need the lookup to repeat them
+      if (mods.variable
+          && (mods.getBoolean(BooleanModifier.VARIABLE) || mods.getLookup() == null)) {
+        this.usable = false;
+      }
+
+      if (mods.variable) {
+        SpeculationBaseline.this.variable.add(mods.getLookup());
+      } else {
+        super.add(mods);
+      }
+    }
+  }
+}
@@ -57,7 +57,7 @@ import net.sourceforge.kolmafia.session.EquipmentManager;
 import net.sourceforge.kolmafia.session.InventoryManager;
 import net.sourceforge.kolmafia.utilities.StringUtilities;
 
-public class Evaluator {
+public class Evaluator implements Cloneable {
   public boolean failed;
   boolean exceeded;
   private Evaluator tiebreaker;
@@ -210,6 +210,22 @@ public class Evaluator {
     this.parse(expr);
   }
 
+  /**
+   * Returns an Evaluator that shares this one's parsed weights and constraints, but has its own
+   * scoring results, so that it can score speculations on another thread.
+   */
+  Evaluator copy() {
+    try {
+      Evaluator copy = (Evaluator) super.clone();
+      if (this.tiebreaker != null) {
+        copy.tiebreaker = this.tiebreaker.copy();
+      }
+      return copy;
+    } catch (CloneNotSupportedException e) {
+      return null;
+    }
+  }
+
   private void parse(String expr) {
     expr = expr.trim().toLowerCase();
     Matcher m = KEYWORD_PATTERN.matcher(expr);
@@ -1305,7 +1321,7 @@ public class Evaluator {
               continue;
             }
             if (hoboPowerUseful && name.startsWith("Hodgman's")) {
-              Modifiers.hoboPower = 100.0;
+              Modifiers.setHoboPower(100.0);
               item.automaticFlag = true;
             }
             break;
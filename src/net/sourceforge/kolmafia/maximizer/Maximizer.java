@@ -20,6 +20,7 @@ import net.sourceforge.kolmafia.ModifierType;
 import net.sourceforge.kolmafia.Modifiers;
 import net.sourceforge.kolmafia.RequestLogger;
 import net.sourceforge.kolmafia.RestrictedItemType;
+import net.sourceforge.kolmafia.SpeculationBaseline;
 import net.sourceforge.kolmafia.equipment.Slot;
 import net.sourceforge.kolmafia.equipment.SlotSet;
 import net.sourceforge.kolmafia.modifiers.BitmapModifier;
@@ -85,6 +86,7 @@ public class Maximizer {
   static MaximizerSpeculation best;
   static int bestChecked;
   static long bestUpdate;
+  static SpeculationBaseline baseline;
 
   private Maximizer() {}
 
@@ -148,6 +150,8 @@ public class Maximizer {
 
     Maximizer.boosts.clear();
     if (filter.contains(KoLConstants.filterType.EQUIP)) {
+      // Every speculation in the equipment search has the same effects
+      Maximizer.baseline = new SpeculationBaseline();
       Maximizer.best = new MaximizerSpeculation();
       Maximizer.best.getScore();
       // In case the current outfit scores better than any tried combination,
@@ -178,6 +182,8 @@ public class Maximizer {
                 Slot.NONE,
                 null,
                 0.0));
+      } finally {
+        Maximizer.baseline = null;
       }
       MaximizerSpeculation.showProgress();
 
@@ -12,6 +12,7 @@ import net.sourceforge.kolmafia.KoLmafia;
 import net.sourceforge.kolmafia.Modifiers;
 import net.sourceforge.kolmafia.RequestLogger;
 import net.sourceforge.kolmafia.Speculation;
+import net.sourceforge.kolmafia.SpeculationBaseline;
 import net.sourceforge.kolmafia.equipment.Slot;
 import net.sourceforge.kolmafia.equipment.SlotSet;
 import net.sourceforge.kolmafia.modifiers.BitmapModifier;
@@ -40,6 +41,9 @@ public class MaximizerSpeculation extends Speculation
   public CheckedItem attachment;
   private boolean foldables = false;
 
+  // Set when this speculation is being searched by a ParallelSearch worker
+  private ParallelSearch.Task task = null;
+
   @Override
   public MaximizerSpeculation clone() {
     try {
@@ -64,22 +68,40 @@ public class MaximizerSpeculation extends Speculation
     this.calculated = false;
   }
 
+  boolean isExceeded() {
+    return this.exceeded;
+  }
+
+  void setTask(ParallelSearch.Task task) {
+    this.task = task;
+  }
+
+  private Evaluator evaluator() {
+    return this.task == null ? Maximizer.eval : this.task.eval;
+  }
+
+  @Override
+  protected SpeculationBaseline getBaseline() {
+    return this.task == null ? Maximizer.baseline : this.task.baseline;
+  }
+
   public double getScore() {
     if (this.scored) return this.score;
     if (!this.calculated) this.calculate();
-    this.score = Maximizer.eval.getScore(this.mods, this.equipment);
+    Evaluator eval = this.evaluator();
+    this.score = eval.getScore(this.mods, this.equipment);
     if (KoLCharacter.inBeecore()) {
       this.beeosity = KoLCharacter.getBeeosity(this.equipment);
     }
-    Maximizer.eval.checkEquipment(this.mods, this.equipment, this.beeosity);
-    this.failed = Maximizer.eval.failed;
+    eval.checkEquipment(this.mods, this.equipment, this.beeosity);
+    this.failed = eval.failed;
     if ((this.mods.getRawBitmap(BitmapModifier.MUTEX_VIOLATIONS)
             & ~KoLCharacter.currentRawBitmapModifier(BitmapModifier.MUTEX_VIOLATIONS))
         != 0) { // We're speculating about something that would create a
       // mutex problem that the player didn't already have.
       this.failed = true;
     }
-    this.exceeded = Maximizer.eval.exceeded;
+    this.exceeded = eval.exceeded;
     this.scored = true;
     return this.score;
   }
@@ -87,7 +109,7 @@ public class MaximizerSpeculation extends Speculation
   public double getTiebreaker() {
     if (this.tiebreakered) return this.tiebreaker;
     if (!this.calculated) this.calculate();
-    this.tiebreaker = Maximizer.eval.getTiebreaker(this.mods);
+    this.tiebreaker = this.evaluator().getTiebreaker(this.mods);
     this.tiebreakered = true;
     this.simplicity = 0;
     for (var slot : SlotSet.ALL_SLOTS) {
@@ -145,19 +167,20 @@ public class MaximizerSpeculation extends Speculation
       if (mods.getBoolean(BooleanModifier.DROPS_ITEMS)) countOtherDropsItems++;
       if (mods.getBoolean(BooleanModifier.DROPS_MEAT)) countOtherDropsMeat++;
     }
+    Evaluator eval = this.evaluator();
     // Prefer item droppers
-    if (Maximizer.eval.isUsingTiebreaker() && countThisDropsItems != countOtherDropsItems) {
+    if (eval.isUsingTiebreaker() && countThisDropsItems != countOtherDropsItems) {
       return countThisDropsItems > countOtherDropsItems ? 1 : -1;
     }
     // Prefer meat droppers
-    if (Maximizer.eval.isUsingTiebreaker() && countThisDropsMeat != countOtherDropsMeat) {
+    if (eval.isUsingTiebreaker() && countThisDropsMeat != countOtherDropsMeat) {
       return countThisDropsMeat > countOtherDropsMeat ? 1 : -1;
     }
     // Prefer higher tiebreaker account (unless -tie used)
     rv = Double.compare(this.getTiebreaker(), other.getTiebreaker());
     if (rv != 0) return rv;
     // Prefer rollover effects
-    if (Maximizer.eval.isUsingTiebreaker() && countThisEffects != countOtherEffects) {
+    if (eval.isUsingTiebreaker() && countThisEffects != countOtherEffects) {
       return countThisEffects > countOtherEffects ? 1 : -1;
     }
     // Prefer unbreakables
@@ -211,6 +234,19 @@ public class MaximizerSpeculation extends Speculation
       FamiliarData useBjornFamiliar)
       throws MaximizerInterruptedException {
     this.foldables = Preferences.getBoolean("maximizerFoldables");
+    if (ParallelSearch.isEnabled()) {
+      new ParallelSearch(this)
+          .run(
+              familiars,
+              enthronedFamiliars,
+              usefulOutfits,
+              outfitPieces,
+              possibles,
+              bestCard,
+              useCrownFamiliar,
+              useBjornFamiliar);
+      return;
+    }
     this.tryOutfits(
         enthronedFamiliars,
         usefulOutfits,
@@ -242,74 +278,93 @@ public class MaximizerSpeculation extends Speculation
       FamiliarData useCrownFamiliar,
       FamiliarData useBjornFamiliar)
       throws MaximizerInterruptedException {
-    var mark = this.mark();
     for (Integer outfit : usefulOutfits.keySet()) {
       if (!usefulOutfits.get(outfit)) continue;
-      AdventureResult[] pieces = EquipmentDatabase.getOutfit(outfit).getPieces();
-      pieceloop:
-      for (int idx = pieces.length - 1; ; --idx) {
-        if (idx == -1) { // all pieces successfully put on
-          this.tryFamiliarItems(
-              enthronedFamiliars, possibles, bestCard, useCrownFamiliar, useBjornFamiliar);
-          break;
-        }
-        AdventureResult item = outfitPieces.get(pieces[idx]);
-        if (item == null) break; // not available
-        int count = item.getCount();
-        Slot slot = EquipmentManager.itemIdToEquipmentType(item.getItemId());
-
-        switch (slot) {
-          case HAT:
-          case PANTS:
-          case SHIRT:
-          case CONTAINER:
-            if (item.equals(this.equipment.get(slot))) { // already worn
-              continue pieceloop;
-            }
-            if (item.equals(this.equipment.get(Slot.FAMILIAR))) {
-              --count;
-            }
-            break;
-          case WEAPON:
-          case OFFHAND:
-            if (item.equals(this.equipment.get(Slot.WEAPON))
-                || item.equals(this.equipment.get(Slot.OFFHAND))) { // already worn
-              continue pieceloop;
-            }
-            if (item.equals(this.equipment.get(Slot.FAMILIAR))) {
-              --count;
-            }
-            break;
-          case ACCESSORY1:
-            if (item.equals(this.equipment.get(Slot.ACCESSORY1))
-                || item.equals(this.equipment.get(Slot.ACCESSORY2))
-                || item.equals(this.equipment.get(Slot.ACCESSORY3))) { // already worn
-              continue pieceloop;
-            }
-            if (item.equals(this.equipment.get(Slot.FAMILIAR))) {
-              --count;
-            }
-            if (this.equipment.get(Slot.ACCESSORY3) == null) {
-              slot = Slot.ACCESSORY3;
-            } else if (this.equipment.get(Slot.ACCESSORY2) == null) {
-              slot = Slot.ACCESSORY2;
-            }
-            break;
-          default:
-            break pieceloop; // don't know how to wear that
-        }
-
-        if (count <= 0) break; // none available
-        if (this.equipment.get(slot) != null) break; // slot taken
-        this.equipment.put(slot, item);
-      }
-      this.restore(mark);
+      this.tryOutfit(
+          outfit,
+          enthronedFamiliars,
+          outfitPieces,
+          possibles,
+          bestCard,
+          useCrownFamiliar,
+          useBjornFamiliar);
     }
 
     this.tryFamiliarItems(
         enthronedFamiliars, possibles, bestCard, useCrownFamiliar, useBjornFamiliar);
   }
 
+  void tryOutfit(
+      Integer outfit,
+      List<FamiliarData> enthronedFamiliars,
+      Map<AdventureResult, AdventureResult> outfitPieces,
+      SlotList<CheckedItem> possibles,
+      AdventureResult bestCard,
+      FamiliarData useCrownFamiliar,
+      FamiliarData useBjornFamiliar)
+      throws MaximizerInterruptedException {
+    var mark = this.mark();
+    AdventureResult[] pieces = EquipmentDatabase.getOutfit(outfit).getPieces();
+    pieceloop:
+    for (int idx = pieces.length - 1; ; --idx) {
+      if (idx == -1) { // all pieces successfully put on
+        this.tryFamiliarItems(
+            enthronedFamiliars, possibles, bestCard, useCrownFamiliar, useBjornFamiliar);
+        break;
+      }
+      AdventureResult item = outfitPieces.get(pieces[idx]);
+      if (item == null) break; // not available
+      int count = item.getCount();
+      Slot slot = EquipmentManager.itemIdToEquipmentType(item.getItemId());
+
+      switch (slot) {
+        case HAT:
+        case PANTS:
+        case SHIRT:
+        case CONTAINER:
+          if (item.equals(this.equipment.get(slot))) { // already worn
+            continue pieceloop;
+          }
+          if (item.equals(this.equipment.get(Slot.FAMILIAR))) {
+            --count;
+          }
+          break;
+        case WEAPON:
+        case OFFHAND:
+          if (item.equals(this.equipment.get(Slot.WEAPON))
+              || item.equals(this.equipment.get(Slot.OFFHAND))) { // already worn
+            continue pieceloop;
+          }
+          if (item.equals(this.equipment.get(Slot.FAMILIAR))) {
+            --count;
+          }
+          break;
+        case ACCESSORY1:
+          if (item.equals(this.equipment.get(Slot.ACCESSORY1))
+              || item.equals(this.equipment.get(Slot.ACCESSORY2))
+              || item.equals(this.equipment.get(Slot.ACCESSORY3))) { // already worn
+            continue pieceloop;
+          }
+          if (item.equals(this.equipment.get(Slot.FAMILIAR))) {
+            --count;
+          }
+          if (this.equipment.get(Slot.ACCESSORY3) == null) {
+            slot = Slot.ACCESSORY3;
+          } else if (this.equipment.get(Slot.ACCESSORY2) == null) {
+            slot = Slot.ACCESSORY2;
+          }
+          break;
+        default:
+          break pieceloop; // don't know how to wear that
+      }
+
+      if (count <= 0) break; // none available
+      if (this.equipment.get(slot) != null) break; // slot taken
+      this.equipment.put(slot, item);
+    }
+    this.restore(mark);
+  }
+
   public void tryFamiliarItems(
       List<FamiliarData> enthronedFamiliars,
       SlotList<CheckedItem> possibles,
@@ -719,7 +774,8 @@ public class MaximizerSpeculation extends Speculation
       }
 
       // if ( any && <no unarmed items in shortlists> ) return;
-      if (Maximizer.eval.melee < -1 || Maximizer.eval.melee > 1) {
+      Evaluator eval = this.evaluator();
+      if (eval.melee < -1 || eval.melee > 1) {
         return;
       }
       this.equipment.put(Slot.WEAPON, EquipmentRequest.UNEQUIP);
@@ -795,6 +851,11 @@ public class MaximizerSpeculation extends Speculation
     this.calculated = false;
     this.scored = false;
     this.tiebreakered = false;
+    if (this.task != null) {
+      this.task.consider(this);
+      this.restore(mark);
+      return;
+    }
     if (Maximizer.best == null) {
       RequestLogger.updateSessionLog(
           "Maximizer about to throw LimitExceeded because of null best.");
@@ -823,7 +884,7 @@ public class MaximizerSpeculation extends Speculation
     }
   }
 
-  private static int getMutex(AdventureResult item) {
+  private int getMutex(AdventureResult item) {
     Modifiers mods = ModifierDatabase.getItemModifiers(item.getItemId());
     if (mods == null) {
       return 0;
@@ -848,11 +909,11 @@ public class MaximizerSpeculation extends Speculation
     // putting the new one in an earlier slot would cause an error
     // when the equipment is being changed.
     int imutex1, imutex2, emutex1, emutex2;
-    imutex1 = getMutex(item1);
-    emutex1 = getMutex(eq1);
+    imutex1 = this.getMutex(item1);
+    emutex1 = this.getMutex(eq1);
     if ((imutex1 & emutex1) != 0) return;
-    imutex2 = getMutex(item2);
-    emutex2 = getMutex(eq2);
+    imutex2 = this.getMutex(item2);
+    emutex2 = this.getMutex(eq2);
     if ((imutex2 & emutex2) != 0) return;
 
     if (eq1.equals(item2)
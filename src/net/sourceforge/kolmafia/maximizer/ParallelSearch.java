@@ -0,0 +1,296 @@
+package net.sourceforge.kolmafia.maximizer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import net.sourceforge.kolmafia.AdventureResult;
+import net.sourceforge.kolmafia.FamiliarData;
+import net.sourceforge.kolmafia.KoLmafia;
+import net.sourceforge.kolmafia.Modifiers;
+import net.sourceforge.kolmafia.SpeculationBaseline;
+import net.sourceforge.kolmafia.equipment.Slot;
+import net.sourceforge.kolmafia.preferences.Preferences;
+
+/**
+ * Searches the equipment combination space on several threads.
+ *
+ * <p>The space is split into one task per familiar and outfit, in the same order that {@link
+ * MaximizerSpeculation#tryAll} visits them. Each task searches with its own speculation, Evaluator
+ * and best result, and the results are merged in task order, so ties are resolved the same way as
+ * in a single-threaded search.
+ *
+ * <p>Each task counts the combinations it checks. The limit on combinations is applied when the
+ * results are merged, as if the tasks had run one after another: each task is given what is left of
+ * the limit after the tasks before it, and its best result within that many combinations is used.
+ * No task checks more than the whole limit, and once one has reached it the tasks after it are
+ * abandoned, so the search stops where a single-threaded search would, at any limit.
+ *
+ * <p>Calculating the modifiers of a speculation sets values in Modifiers which variable modifiers
+ * depend on, and evaluates those modifiers in place. Each task therefore has its own calculation
+ * state, starting from a copy of the shared one, its own copies of any variable modifiers it looks
+ * up, and its own SpeculationBaseline, so tasks calculate without holding a lock.
+ */
+class ParallelSearch {
+  private final MaximizerSpeculation root;
+  private final List<Task> tasks = new ArrayList<>();
+  private final long comboLimit;
+  // Combinations checked by all tasks so far, for progress updates
+  private final AtomicLong checked = new AtomicLong();
+  // The index of the earliest task that ended the search, if any
+  private final AtomicInteger stoppedAt = new AtomicInteger(Integer.MAX_VALUE);
+  private volatile boolean interrupted = false;
+
+  // Created for the first parallel search, and shared by every search after it
+  private static ForkJoinPool pool = null;
+
+  private static synchronized ForkJoinPool getPool() {
+    if (ParallelSearch.pool == null) {
+      ParallelSearch.pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+    return ParallelSearch.pool;
+  }
+
+  static boolean isEnabled() {
+    return Preferences.getBoolean("maximizerParallelSearch")
+        && Runtime.getRuntime().availableProcessors() > 1;
+  }
+
+  ParallelSearch(MaximizerSpeculation root) {
+    this.root = root;
+    this.comboLimit = Preferences.getLong("maximizerCombinationLimit");
+  }
+
+  void run(
+      List<FamiliarData> familiars,
+      List<FamiliarData> enthronedFamiliars,
+      Map<Integer, Boolean> usefulOutfits,
+      Map<AdventureResult, AdventureResult> outfitPieces,
+      SlotList<CheckedItem> possibles,
+      AdventureResult bestCard,
+      FamiliarData useCrownFamiliar,
+      FamiliarData useBjornFamiliar)
+      throws MaximizerInterruptedException {
+    if (Maximizer.best == null) {
+      throw new MaximizerLimitException();
+    }
+
+    // Same order as tryAll: the current familiar first, then each familiar being considered.
+    for (int i = -1; i < familiars.size(); ++i) {
+      MaximizerSpeculation spec = this.root.clone();
+      SlotList<CheckedItem> taskPossibles = possibles.copy();
+      if (i >= 0) {
+        spec.setFamiliar(familiars.get(i));
+        taskPossibles.set(Slot.FAMILIAR, possibles.getFamiliar(i));
+      }
+
+      for (Integer outfit : usefulOutfits.keySet()) {
+        if (!usefulOutfits.get(outfit)) continue;
+        this.addTask(
+            spec,
+            s ->
+                s.tryOutfit(
+                    outfit,
+                    enthronedFamiliars,
+                    outfitPieces,
+                    taskPossibles,
+                    bestCard,
+                    useCrownFamiliar,
+                    useBjornFamiliar));
+      }
+      this.addTask(
+          spec,
+          s ->
+              s.tryFamiliarItems(
+                  enthronedFamiliars, taskPossibles, bestCard, useCrownFamiliar, useBjornFamiliar));
+    }
+
+    ForkJoinPool pool = ParallelSearch.getPool();
+    List<Future<Void>> futures = new ArrayList<>();
+    try {
+      for (Task task : this.tasks) {
+        futures.add(pool.submit(task));
+      }
+      this.await(futures);
+    } finally {
+      // Tasks which have not started are no longer needed; running ones stop at their next check
+      for (Future<Void> future : futures) {
+        future.cancel(false);
+      }
+    }
+
+    if (Thread.currentThread().isInterrupted()) {
+      // The tasks may still be running, so their results can't be read yet
+      throw new MaximizerInterruptedException();
+    }
+
+    this.merge();
+  }
+
+  private void addTask(MaximizerSpeculation spec, Step step) {
+    this.tasks.add(new Task(this.tasks.size(), spec.clone(), step));
+  }
+
+  private void await(List<Future<Void>> futures) {
+    long nextUpdate = System.currentTimeMillis() + 5000;
+    for (Future<Void> future : futures) {
+      while (true) {
+        try {
+          future.get(100, TimeUnit.MILLISECONDS);
+          break;
+        } catch (TimeoutException e) {
+          // The continuation state may be thread-local, so workers can't check it themselves.
+          if (!KoLmafia.permitsContinue()) {
+            this.interrupted = true;
+          }
+          long t = System.currentTimeMillis();
+          if (t > nextUpdate) {
+            KoLmafia.updateDisplay(this.checked.get() + " combinations checked");
+            nextUpdate = t + 5000;
+          }
+        } catch (InterruptedException e) {
+          this.interrupted = true;
+          Thread.currentThread().interrupt();
+          return;
+        } catch (ExecutionException e) {
+          // Stop the other tasks before passing on the failure
+          this.interrupted = true;
+          if (e.getCause() instanceof RuntimeException re) {
+            throw re;
+          }
+          throw new IllegalStateException(e.getCause());
+        }
+      }
+    }
+  }
+
+  private void merge() throws MaximizerInterruptedException {
+    long checked = 0;
+    MaximizerInterruptedException stop = null;
+
+    for (Task task : this.tasks) {
+      // What is left of the limit after the tasks before this one
+      long allowed = this.comboLimit == 0 ? Long.MAX_VALUE : this.comboLimit - checked;
+
+      MaximizerSpeculation best = task.bestWithin(allowed);
+      if (best.compareTo(Maximizer.best) > 0) {
+        Maximizer.best = best;
+      }
+
+      // A task which stopped within the limit ends the search as it would have done alone
+      if (task.stop != null && task.checked <= allowed) {
+        checked += task.checked;
+        stop = task.stop;
+        break;
+      }
+      if (task.checked >= allowed) {
+        checked += allowed;
+        stop = new MaximizerLimitException();
+        break;
+      }
+      checked += task.checked;
+    }
+
+    Maximizer.bestChecked = (int) Math.min(Integer.MAX_VALUE, checked);
+    Maximizer.best.setTask(null);
+
+    if (this.interrupted) {
+      throw new MaximizerInterruptedException();
+    }
+    if (stop != null) {
+      throw stop;
+    }
+  }
+
+  @FunctionalInterface
+  private interface Step {
+    void search(MaximizerSpeculation spec) throws MaximizerInterruptedException;
+  }
+
+  /** Thrown to abandon a task whose results would be discarded by an earlier task stopping. */
+  private static class AbandonedException extends MaximizerInterruptedException {}
+
+  /** A new best result of a task, and how many combinations the task had checked to find it. */
+  private record Found(long checked, MaximizerSpeculation spec) {}
+
+  class Task implements Callable<Void> {
+    final Evaluator eval = Maximizer.eval.copy();
+    final SpeculationBaseline baseline =
+        Maximizer.baseline == null ? null : new SpeculationBaseline();
+    private final Modifiers.Calculation calculation = new Modifiers.Calculation();
+    private final int index;
+    private final MaximizerSpeculation spec;
+    private final Step step;
+    private MaximizerSpeculation best;
+    private final List<Found> found = new ArrayList<>();
+    private long checked = 0;
+    private MaximizerInterruptedException stop = null;
+
+    Task(int index, MaximizerSpeculation spec, Step step) {
+      this.index = index;
+      this.spec = spec;
+      this.step = step;
+      this.best = Maximizer.best.clone();
+      this.found.add(new Found(0, this.best));
+      this.spec.setTask(this);
+      this.best.setTask(this);
+    }
+
+    /** Returns the best result found within the first given number of combinations. */
+    private MaximizerSpeculation bestWithin(long checked) {
+      MaximizerSpeculation best = null;
+      for (Found found : this.found) {
+        if (found.checked() > checked) break;
+        best = found.spec();
+      }
+      return best;
+    }
+
+    @Override
+    public Void call() {
+      Modifiers.Calculation previous = Modifiers.useOwnCalculation(this.calculation);
+      try {
+        this.step.search(this.spec);
+      } catch (AbandonedException e) {
+        // An earlier task has ended the search
+      } catch (MaximizerInterruptedException e) {
+        this.stop = e;
+        ParallelSearch.this.stoppedAt.accumulateAndGet(this.index, Math::min);
+      } finally {
+        Modifiers.useOwnCalculation(previous);
+      }
+      return null;
+    }
+
+    /** Compares a fully specified speculation against the best one this task has seen. */
+    void consider(MaximizerSpeculation spec) throws MaximizerInterruptedException {
+      if (ParallelSearch.this.interrupted) {
+        throw new MaximizerInterruptedException();
+      }
+      if (this.index > ParallelSearch.this.stoppedAt.get()) {
+        throw new AbandonedException();
+      }
+      this.checked++;
+      ParallelSearch.this.checked.incrementAndGet();
+      if (spec.compareTo(this.best) > 0) {
+        this.best = spec.clone();
+        this.found.add(new Found(this.checked, this.best));
+      }
+      if (spec.isExceeded()) {
+        throw new MaximizerExceededException();
+      }
+      // However many the tasks before this one check, this one never needs to check more
+      long comboLimit = ParallelSearch.this.comboLimit;
+      if (comboLimit != 0 && this.checked >= comboLimit) {
+        throw new MaximizerLimitException();
+      }
+    }
+  }
+}
@@ -32,6 +32,17 @@ public class SlotList<T> {
     }
   }
 
+  /**
+   * Returns a SlotList with the same interior lists, which can be rearranged with {@link #set}
+   * without affecting this one.
+   */
+  public SlotList<T> copy() {
+    SlotList<T> copy = new SlotList<>(0);
+    copy.slotList.putAll(this.slotList);
+    copy.familiarList.addAll(this.familiarList);
+    return copy;
+  }
+
   public List<T> get(Slot key) {
     return slotList.computeIfAbsent(key, k -> new ArrayList<>());
   }
@@ -1,50 +1,48 @@
 package net.sourceforge.kolmafia.modifiers;
 
-import java.util.EnumMap;
-import java.util.Map;
-import java.util.TreeMap;
-import java.util.function.BiConsumer;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.ObjDoubleConsumer;
 
 public class DoubleModifierCollection {
-  public static final int SPARSE_DOUBLES_MAX_SIZE = 32;
+  private static final DoubleModifier[] MODIFIERS = DoubleModifier.values();
 
-  // If only a few values are set in doubles, we instead store all modifiers in a sparse TreeMap.
-  // When that map gets bigger than SPARSE_DOUBLES_MAX_SIZE, we copy it over to the dense EnumMap.
-  private Map<DoubleModifier, Double> doubles = new TreeMap<>();
+  // Values are stored unboxed, indexed by ordinal. A modifier is present if it has been set to a
+  // non-zero value or added to; only present modifiers are visited by forEach.
+  private final double[] values = new double[MODIFIERS.length];
+  private final BitSet present = new BitSet(MODIFIERS.length);
 
   public void reset() {
-    this.doubles = new TreeMap<>();
-  }
-
-  public void densify() {
-    if (this.doubles instanceof EnumMap) return;
-    Map<DoubleModifier, Double> newDoubles = new EnumMap<>(DoubleModifier.class);
-    newDoubles.putAll(this.doubles);
-    this.doubles = newDoubles;
+    if (this.present.isEmpty()) return;
+    Arrays.fill(this.values, 0.0);
+    this.present.clear();
   }
 
   public double get(final DoubleModifier mod) {
-    return this.doubles.getOrDefault(mod, 0.0);
+    return this.values[mod.ordinal()];
   }
 
   public boolean set(final DoubleModifier mod, final double value) {
-    Double oldValue = value == 0.0 ? this.doubles.remove(mod) : this.doubles.put(mod, value);
+    int index = mod.ordinal();
+    boolean wasPresent = this.present.get(index);
+    double oldValue = this.values[index];
 
-    if (this.doubles.size() >= DoubleModifierCollection.SPARSE_DOUBLES_MAX_SIZE) {
-      this.densify();
-    }
+    this.values[index] = value;
+    this.present.set(index, value != 0.0);
 
     // TODO: does anything use this return value, or can we save ourselves a check?
-    return oldValue == null || oldValue != value;
+    return !wasPresent || oldValue != value;
   }
 
   public double add(final DoubleModifier mod, final double value) {
-    // Anything being accumulated onto should be dense.
-    this.densify();
-    return this.doubles.merge(mod, value, Double::sum);
+    int index = mod.ordinal();
+    this.present.set(index);
+    return this.values[index] += value;
   }
 
-  public void forEach(BiConsumer<? super DoubleModifier, ? super Double> action) {
-    this.doubles.forEach(action);
+  public void forEach(ObjDoubleConsumer<? super DoubleModifier> action) {
+    for (int i = this.present.nextSetBit(0); i >= 0; i = this.present.nextSetBit(i + 1)) {
+      action.accept(MODIFIERS[i], this.values[i]);
+    }
   }
 }
@@ -917,16 +917,25 @@ public class AdventureDatabase {
   private static class AdventureArray {
     private final SortedMap<String, KoLAdventure> internalList = new TreeMap<>();
 
+    // Kept between searches, so that getMatchingNames can index it
+    private String[] names = null;
+
     public void add(final KoLAdventure value) {
       this.internalList.put(StringUtilities.getCanonicalName(value.getAdventureName()), value);
+      this.names = null;
     }
 
     public void addSynonym(final String synonym, final KoLAdventure value) {
       this.internalList.put(StringUtilities.getCanonicalName(synonym), value);
+      this.names = null;
     }
 
     public KoLAdventure find(String adventureName) {
-      var names = internalList.keySet().toArray(new String[0]);
+      var names = this.names;
+      if (names == null) {
+        names = this.internalList.keySet().toArray(new String[0]);
+        this.names = names;
+      }
       List<String> matchingNames = StringUtilities.getMatchingNames(names, adventureName);
 
       if (matchingNames.size() > 1) {
@@ -948,6 +957,7 @@ public class AdventureDatabase {
 
     public void clear() {
       this.internalList.clear();
+      this.names = null;
     }
 
     public boolean isEmpty() {
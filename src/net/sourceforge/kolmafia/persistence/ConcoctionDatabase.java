@@ -2,22 +2,27 @@ package net.sourceforge.kolmafia.persistence;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.EnumMap;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.Stack;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import net.java.dev.spellcast.utilities.LockableListModel;
 import net.java.dev.spellcast.utilities.SortedListModel;
 import net.sourceforge.kolmafia.AdventureResult;
+import net.sourceforge.kolmafia.AscensionPath.Path;
 import net.sourceforge.kolmafia.CoinmasterData;
 import net.sourceforge.kolmafia.CoinmasterRegistry;
 import net.sourceforge.kolmafia.KoLCharacter;
@@ -80,6 +85,17 @@ public class ConcoctionDatabase {
   private static boolean recalculateAdventureRange = false;
   public static int refreshLevel = 0;
 
+  // Items whose quantity has changed since the last refresh. If nothing else that creatability
+  // depends on has changed, only the concoctions that can be made from these are recalculated.
+  private static final Set<Integer> changedItems = ConcurrentHashMap.newKeySet();
+  private static boolean fullRefreshNeeded = true;
+  private static RefreshBasis lastRefreshBasis = null;
+
+  private static int fullRefreshes = 0;
+  private static int partialRefreshes = 0;
+  private static int lastRefreshSize = 0;
+  private static long concoctionsRefreshed = 0;
+
   public static int queuedAdventuresUsed = 0;
   public static int queuedFreeCraftingTurns = 0;
   public static int queuedStillsUsed = 0;
@@ -1127,19 +1143,15 @@ public class ConcoctionDatabase {
   }
 
   public static final void setRefreshNeeded(int itemId) {
-    switch (ItemDatabase.getConsumptionType(itemId)) {
-      case EAT, DRINK, SPLEEN, USE, USE_MULTIPLE, FOOD_HELPER, DRINK_HELPER -> {
-        ConcoctionDatabase.setRefreshNeeded(false);
-        return;
-      }
-    }
-
     switch (itemId) {
         // Items that affect creatability of other items, but
         // aren't explicitly listed in their recipes:
       case ItemPool.WORTHLESS_TRINKET:
       case ItemPool.WORTHLESS_GEWGAW:
       case ItemPool.WORTHLESS_KNICK_KNACK:
+      case ItemPool.MEAT_PASTE:
+      case ItemPool.MEAT_STACK:
+      case ItemPool.DENSE_STACK:
 
         // Interchangeable ingredients, which might have been missed
         // by the getKnownUses check because the recipes are set to
@@ -1156,28 +1168,41 @@ public class ConcoctionDatabase {
         return;
     }
 
+    for (CoinmasterData coinmaster : CoinmasterRegistry.COINMASTERS) {
+      AdventureResult item = coinmaster.getItem();
+      if (item != null && itemId == item.getItemId()) {
+        ConcoctionDatabase.setRefreshNeeded(false);
+        return;
+      }
+    }
+
+    switch (ItemDatabase.getConsumptionType(itemId)) {
+      case EAT, DRINK, SPLEEN, USE, USE_MULTIPLE, FOOD_HELPER, DRINK_HELPER -> {
+        ConcoctionDatabase.setItemChanged(itemId);
+        return;
+      }
+    }
+
     for (AdventureResult use : ConcoctionDatabase.getKnownUses(itemId)) {
       CraftingType method = ConcoctionDatabase.getMixingMethod(use.getItemId());
       EnumSet<CraftingRequirements> requirements =
           ConcoctionDatabase.getRequirements(use.getItemId());
 
       if (ConcoctionDatabase.isPermittedMethod(method, requirements)) {
-        ConcoctionDatabase.setRefreshNeeded(false);
+        ConcoctionDatabase.setItemChanged(itemId);
         return;
       }
     }
+  }
 
-    for (CoinmasterData coinmaster : CoinmasterRegistry.COINMASTERS) {
-      AdventureResult item = coinmaster.getItem();
-      if (item != null && itemId == item.getItemId()) {
-        ConcoctionDatabase.setRefreshNeeded(false);
-        return;
-      }
-    }
+  private static void setItemChanged(int itemId) {
+    ConcoctionDatabase.changedItems.add(itemId);
+    ConcoctionDatabase.refreshNeeded = true;
   }
 
   public static final void setRefreshNeeded(boolean recalculateAdventureRange) {
     ConcoctionDatabase.refreshNeeded = true;
+    ConcoctionDatabase.fullRefreshNeeded = true;
 
     if (recalculateAdventureRange) {
       ConcoctionDatabase.recalculateAdventureRange = true;
@@ -1196,6 +1221,7 @@ public class ConcoctionDatabase {
     if (force) {
       // Remember that refresh is forced, even if deferred
       ConcoctionDatabase.refreshNeeded = true;
+      ConcoctionDatabase.fullRefreshNeeded = true;
     }
 
     if (!ConcoctionDatabase.refreshNeeded) {
@@ -1220,6 +1246,15 @@ public class ConcoctionDatabase {
     Preferences.increment("_concoctionDatabaseRefreshes");
     ConcoctionDatabase.refreshNeeded = false;
 
+    boolean fullRefresh = ConcoctionDatabase.fullRefreshNeeded;
+    ConcoctionDatabase.fullRefreshNeeded = false;
+
+    Set<Integer> changedItems = new HashSet<>();
+    for (Iterator<Integer> it = ConcoctionDatabase.changedItems.iterator(); it.hasNext(); ) {
+      changedItems.add(it.next());
+      it.remove();
+    }
+
     List<AdventureResult> availableIngredientsList = ConcoctionDatabase.getAvailableIngredients();
 
     // In addition to the list, we create a second data structure here for better performance.
@@ -1232,79 +1267,68 @@ public class ConcoctionDatabase {
       availableIngredients.put(item.getItemId(), item);
     }
 
-    // Iterate through the concoction table, Initialize each one
-    // appropriately depending on whether it is an NPC item, a Coin
-    // Master item, or anything else.
-
     boolean useNPCStores = InventoryManager.canUseNPCStores();
     boolean useCoinmasters = InventoryManager.canUseCoinmasters();
+    boolean considerPulls =
+        !KoLCharacter.canInteract()
+            && !KoLCharacter.isHardcore()
+            && ConcoctionDatabase.getPullsBudgeted() > ConcoctionDatabase.queuedPullsUsed;
 
-    for (Concoction item : ConcoctionPool.concoctions()) {
-      // Initialize all the variables
-      item.resetCalculations();
+    // Make assessment of availability of mixing methods.
+    // This method will also calculate the availability of
+    // chefs and bartenders automatically so a second call
+    // is not needed.
 
-      if (item.speakeasy != null) {
-        // Has an item number, but can't appear in inventory
-        continue;
-      }
+    ConcoctionDatabase.cachePermitted(availableIngredientsList);
 
-      AdventureResult concoction = item.concoction;
-      if (concoction == null) {
-        continue;
-      }
+    // If anything every concoction depends on has changed since
+    // the last refresh, every concoction must be recalculated.
 
-      int itemId = concoction.getItemId();
+    RefreshBasis basis = new RefreshBasis(useNPCStores, useCoinmasters, considerPulls);
+    if (!basis.equals(ConcoctionDatabase.lastRefreshBasis)) {
+      fullRefresh = true;
+    }
+    ConcoctionDatabase.lastRefreshBasis = basis;
 
-      if (useNPCStores && NPCStoreDatabase.contains(itemId, true)) {
-        if (itemId != ItemPool.FLAT_DOUGH) {
-          // Don't buy flat dough from Degrassi Knoll Bakery -
-          // buy wads of dough for 20 meat less, instead.
+    Collection<Concoction> concoctions;
 
-          item.price = NPCStoreDatabase.price(itemId);
-          item.initial = concoction.getCount(availableIngredients);
-          item.creatable = 0;
-          item.total = item.initial;
-          item.visibleTotal = item.total;
-          continue;
-        }
-      }
+    if (fullRefresh) {
+      concoctions = ConcoctionPool.concoctions();
 
-      PurchaseRequest purchaseRequest = item.getPurchaseRequest();
-      if (purchaseRequest != null) {
-        purchaseRequest.setCanPurchase(useCoinmasters);
-        int acquirable = purchaseRequest.canPurchase() ? purchaseRequest.affordableCount() : 0;
-        item.price = 0;
-        item.initial = concoction.getCount(availableIngredients);
-        item.creatable = acquirable;
-        item.total = item.initial + acquirable;
-        item.visibleTotal = item.total;
-        continue;
+      // Iterate through the concoction table, Initialize each one
+      // appropriately depending on whether it is an NPC item, a Coin
+      // Master item, or anything else.
+
+      for (Concoction item : concoctions) {
+        ConcoctionDatabase.initializeConcoction(
+            item, availableIngredients, availableIngredientsList, useNPCStores, useCoinmasters);
       }
 
-      // Set initial quantity of all remaining items.
+      // That reset the items which can be bought with meat
 
-      // Switch to the better of any interchangeable ingredients. Only mutates the first argument.
-      ConcoctionDatabase.getIngredients(item, item.getIngredients(), availableIngredientsList);
+      ConcoctionDatabase.calculateBasicItems(availableIngredientsList);
+      ++ConcoctionDatabase.fullRefreshes;
+    } else {
+      concoctions = ConcoctionDatabase.getAffectedConcoctions(changedItems);
 
-      item.initial = concoction.getCount(availableIngredients);
-      item.price = 0;
-      item.creatable = 0;
-      item.total = item.initial;
-      item.visibleTotal = item.total;
-    }
+      for (Concoction item : concoctions) {
+        if (!ConcoctionDatabase.isBasicItem(item)) {
+          ConcoctionDatabase.initializeConcoction(
+              item, availableIngredients, availableIngredientsList, useNPCStores, useCoinmasters);
+        }
+      }
 
-    // Make assessment of availability of mixing methods.
-    // This method will also calculate the availability of
-    // chefs and bartenders automatically so a second call
-    // is not needed.
+      ++ConcoctionDatabase.partialRefreshes;
+    }
 
-    ConcoctionDatabase.cachePermitted(availableIngredientsList);
+    ConcoctionDatabase.lastRefreshSize = concoctions.size();
+    ConcoctionDatabase.concoctionsRefreshed += concoctions.size();
 
     // Finally, increment through all of the things which are
     // created any other way, making sure that it's a permitted
     // mixture before doing the calculation.
 
-    for (Concoction item : ConcoctionPool.concoctions()) {
+    for (Concoction item : concoctions) {
       item.calculate2();
       item.calculate3();
     }
@@ -1314,53 +1338,9 @@ public class ConcoctionDatabase {
     // number of items inside of the old list.
 
     boolean changeDetected = false;
-    boolean considerPulls =
-        !KoLCharacter.canInteract()
-            && !KoLCharacter.isHardcore()
-            && ConcoctionDatabase.getPullsBudgeted() > ConcoctionDatabase.queuedPullsUsed;
-
-    for (Concoction item : ConcoctionPool.concoctions()) {
-      AdventureResult ar = item.getItem();
-      if (ar == null) {
-        continue;
-      }
-
-      if (considerPulls
-          && ar.getItemId() > 0
-          && item.getPrice() <= 0
-          && ConsumablesDatabase.meetsLevelRequirement(item.getName())
-          && StandardRequest.isAllowed(RestrictedItemType.ITEMS, ar.getName())) {
-        item.setPullable(
-            Math.min(
-                ar.getCount(KoLConstants.storage) - item.queuedPulls,
-                ConcoctionDatabase.getPullsBudgeted() - ConcoctionDatabase.queuedPullsUsed));
-      } else {
-        item.setPullable(0);
-      }
 
-      CreateItemRequest instance = CreateItemRequest.getInstance(item, false);
-
-      if (instance == null) {
-        continue;
-      }
-
-      int creatable = Math.max(item.creatable, 0);
-      int pullable = Math.max(item.pullable, 0);
-
-      instance.setQuantityPossible(creatable);
-      instance.setQuantityPullable(pullable);
-
-      if (creatable + pullable == 0) {
-        if (item.wasPossible()) {
-          ConcoctionDatabase.creatableList.remove(instance);
-          item.setPossible(false);
-          changeDetected = true;
-        }
-      } else if (!item.wasPossible()) {
-        ConcoctionDatabase.creatableList.add(instance);
-        item.setPossible(true);
-        changeDetected = true;
-      }
+    for (Concoction item : concoctions) {
+      changeDetected |= ConcoctionDatabase.updateCreatable(item, considerPulls);
     }
 
     if (ConcoctionDatabase.recalculateAdventureRange) {
@@ -1384,6 +1364,213 @@ public class ConcoctionDatabase {
     ConcoctionDatabase.queuedPotions.updateFilter(changeDetected);
   }
 
+  private static void initializeConcoction(
+      final Concoction item,
+      final Map<Integer, AdventureResult> availableIngredients,
+      final List<AdventureResult> availableIngredientsList,
+      final boolean useNPCStores,
+      final boolean useCoinmasters) {
+    // Initialize all the variables
+    item.resetCalculations();
+
+    if (item.speakeasy != null) {
+      // Has an item number, but can't appear in inventory
+      return;
+    }
+
+    AdventureResult concoction = item.concoction;
+    if (concoction == null) {
+      return;
+    }
+
+    int itemId = concoction.getItemId();
+
+    if (useNPCStores && NPCStoreDatabase.contains(itemId, true)) {
+      if (itemId != ItemPool.FLAT_DOUGH) {
+        // Don't buy flat dough from Degrassi Knoll Bakery -
+        // buy wads of dough for 20 meat less, instead.
+
+        item.price = NPCStoreDatabase.price(itemId);
+        item.initial = concoction.getCount(availableIngredients);
+        item.creatable = 0;
+        item.total = item.initial;
+        item.visibleTotal = item.total;
+        return;
+      }
+    }
+
+    PurchaseRequest purchaseRequest = item.getPurchaseRequest();
+    if (purchaseRequest != null) {
+      purchaseRequest.setCanPurchase(useCoinmasters);
+      int acquirable = purchaseRequest.canPurchase() ? purchaseRequest.affordableCount() : 0;
+      item.price = 0;
+      item.initial = concoction.getCount(availableIngredients);
+      item.creatable = acquirable;
+      item.total = item.initial + acquirable;
+      item.visibleTotal = item.total;
+      return;
+    }
+
+    // Set initial quantity of all remaining items.
+
+    // Switch to the better of any interchangeable ingredients. Only mutates the first argument.
+    ConcoctionDatabase.getIngredients(item, item.getIngredients(), availableIngredientsList);
+
+    item.initial = concoction.getCount(availableIngredients);
+    item.price = 0;
+    item.creatable = 0;
+    item.total = item.initial;
+    item.visibleTotal = item.total;
+  }
+
+  private static boolean updateCreatable(final Concoction item, final boolean considerPulls) {
+    AdventureResult ar = item.getItem();
+    if (ar == null) {
+      return false;
+    }
+
+    if (considerPulls
+        && ar.getItemId() > 0
+        && item.getPrice() <= 0
+        && ConsumablesDatabase.meetsLevelRequirement(item.getName())
+        && StandardRequest.isAllowed(RestrictedItemType.ITEMS, ar.getName())) {
+      item.setPullable(
+          Math.min(
+              ar.getCount(KoLConstants.storage) - item.queuedPulls,
+              ConcoctionDatabase.getPullsBudgeted() - ConcoctionDatabase.queuedPullsUsed));
+    } else {
+      item.setPullable(0);
+    }
+
+    CreateItemRequest instance = CreateItemRequest.getInstance(item, false);
+
+    if (instance == null) {
+      return false;
+    }
+
+    int creatable = Math.max(item.creatable, 0);
+    int pullable = Math.max(item.pullable, 0);
+
+    instance.setQuantityPossible(creatable);
+    instance.setQuantityPullable(pullable);
+
+    if (creatable + pullable == 0) {
+      if (item.wasPossible()) {
+        ConcoctionDatabase.creatableList.remove(instance);
+        item.setPossible(false);
+        return true;
+      }
+    } else if (!item.wasPossible()) {
+      ConcoctionDatabase.creatableList.add(instance);
+      item.setPossible(true);
+      return true;
+    }
+
+    return false;
+  }
+
+  /**
+   * Returns the concoctions for the given items, and every concoction which uses them as an
+   * ingredient, directly or through another concoction.
+   */
+  private static Set<Concoction> getAffectedConcoctions(final Set<Integer> itemIds) {
+    Set<Concoction> affected = new HashSet<>();
+    Set<Integer> seen = new HashSet<>(itemIds);
+    Deque<Integer> pending = new ArrayDeque<>(itemIds);
+
+    while (!pending.isEmpty()) {
+      int itemId = pending.pop();
+      Concoction concoction = ConcoctionPool.get(itemId);
+      if (concoction != null) {
+        affected.add(concoction);
+      }
+
+      for (AdventureResult use : ConcoctionDatabase.getKnownUses(itemId)) {
+        if (seen.add(use.getItemId())) {
+          pending.push(use.getItemId());
+        }
+      }
+    }
+
+    // cachePermitted has reset the items which can be bought with meat
+
+    for (int itemId : BASIC_ITEMS) {
+      Concoction concoction = ConcoctionPool.get(itemId);
+      if (concoction != null) {
+        affected.add(concoction);
+      }
+    }
+
+    return affected;
+  }
+
+  private static boolean isBasicItem(final Concoction item) {
+    int itemId = item.getItemId();
+    for (int basicItemId : BASIC_ITEMS) {
+      if (itemId == basicItemId) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public static int getFullRefreshes() {
+    return ConcoctionDatabase.fullRefreshes;
+  }
+
+  public static int getPartialRefreshes() {
+    return ConcoctionDatabase.partialRefreshes;
+  }
+
+  /** Returns the number of concoctions recalculated by the last refresh. */
+  public static int getLastRefreshSize() {
+    return ConcoctionDatabase.lastRefreshSize;
+  }
+
+  /** Returns the number of concoctions recalculated by every refresh this session. */
+  public static long getConcoctionsRefreshed() {
+    return ConcoctionDatabase.concoctionsRefreshed;
+  }
+
+  // Everything outside of individual item counts which creatability depends on
+  private record RefreshBasis(
+      EnumSet<CraftingType> permitted,
+      EnumSet<CraftingRequirements> requirementsMet,
+      Map<CraftingType, Integer> adventureUsage,
+      Map<CraftingType, Integer> creationCost,
+      List<Integer> limits,
+      boolean useNPCStores,
+      boolean useCoinmasters,
+      boolean considerPulls,
+      int pullsAvailable,
+      Path path,
+      boolean knollAvailable) {
+    RefreshBasis(boolean useNPCStores, boolean useCoinmasters, boolean considerPulls) {
+      this(
+          EnumSet.copyOf(ConcoctionDatabase.PERMIT_METHOD),
+          EnumSet.copyOf(ConcoctionDatabase.REQUIREMENT_MET),
+          new EnumMap<>(ConcoctionDatabase.ADVENTURE_USAGE),
+          new EnumMap<>(ConcoctionDatabase.CREATION_COST),
+          List.of(
+              ConcoctionDatabase.adventureLimit.initial,
+              ConcoctionDatabase.adventureSmithingLimit.initial,
+              ConcoctionDatabase.cookingLimit.initial,
+              ConcoctionDatabase.turnFreeLimit.initial,
+              ConcoctionDatabase.turnFreeSmithingLimit.initial,
+              ConcoctionDatabase.turnFreeCookingLimit.initial,
+              ConcoctionDatabase.stillsLimit.initial,
+              ConcoctionDatabase.clipArtLimit.initial,
+              ConcoctionDatabase.extrudeLimit.initial,
+              ConcoctionDatabase.meatLimit.initial),
+          useNPCStores,
+          useCoinmasters,
+          considerPulls,
+          ConcoctionDatabase.getPullsBudgeted() - ConcoctionDatabase.queuedPullsUsed,
+          KoLCharacter.getPath(),
+          KoLCharacter.knollAvailable());
+    }
+  }
+
   /** Reset concoction stat gains when you've logged in a new character. */
   public static final void resetConcoctionStatGains() {
     for (Concoction item : ConcoctionPool.concoctions()) {
@@ -1401,6 +1588,10 @@ public class ConcoctionDatabase {
     ConcoctionDatabase.usableList.sort();
   }
 
+  private static final int[] BASIC_ITEMS = {
+    ItemPool.MEAT_PASTE, ItemPool.MEAT_STACK, ItemPool.DENSE_STACK,
+  };
+
   private static void calculateBasicItems(final List<AdventureResult> availableIngredients) {
     // Meat paste and meat stacks can be created directly
     // and are dependent upon the amount of meat available.
@@ -0,0 +1,383 @@
+package net.sourceforge.kolmafia.persistence;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import net.java.dev.spellcast.utilities.UtilityConstants;
+import net.sourceforge.kolmafia.KoLConstants;
+
+/**
+ * Reads the data files of the databases that are loaded at startup on a pool of worker threads, and
+ * splits their lines on tabs, while the rest of KoLmafia starts up.
+ *
+ * <p>Each database still loads itself the first time it is used, from its static initializer, and
+ * in the same order as before. When it asks FileUtilities for a versioned reader for a file that
+ * has been read ahead, it gets the lines already split, waiting for the worker to finish if need
+ * be. Only files bundled with KoLmafia are read ahead; a file with a data override is read as
+ * usual, so that the override is used and reported as before.
+ *
+ * <p>The databases are listed after the databases that they need while loading, and their files are
+ * read in that order, so that the first files needed are the first ones read.
+ */
+public class DataFileLoader {
+  public record Database(String name, List<String> files, List<String> needs) {}
+
+  public record Timing(
+      String filename, int lines, long readNanos, long splitNanos, long waitNanos, boolean taken) {}
+
+  static final List<Database> DATABASES =
+      List.of(
+          new Database("ItemDatabase", List.of("items.txt", "foldgroups.txt"), List.of()),
+          new Database("EffectDatabase", List.of("statuseffects.txt"), List.of()),
+          new Database("SkillDatabase", List.of("classskills.txt"), List.of()),
+          new Database(
+              "EquipmentDatabase",
+              List.of("equipment.txt", "outfits.txt", "pulverize.txt"),
+              List.of("ItemDatabase")),
+          new Database(
+              "ConsumablesDatabase",
+              List.of("fullness.txt", "inebriety.txt", "spleenhit.txt", "nonfilling.txt"),
+              List.of("ItemDatabase")),
+          new Database(
+              "FamiliarDatabase",
+              List.of("familiars.txt", "fambattle.txt"),
+              List.of("ItemDatabase")),
+          new Database("MonsterDatabase", List.of("monsters.txt"), List.of("ItemDatabase")),
+          new Database(
+              "ModifierDatabase",
+              List.of("modifiers.txt"),
+              List.of("ItemDatabase", "EffectDatabase", "SkillDatabase", "FamiliarDatabase")),
+          new Database(
+              "AdventureDatabase",
+              List.of("zonelist.txt", "adventures.txt", "combats.txt"),
+              List.of("MonsterDatabase")),
+          new Database("NPCStoreDatabase", List.of("npcstores.txt"), List.of("ItemDatabase")),
+          new Database("CoinmastersDatabase", List.of("coinmasters.txt"), List.of("ItemDatabase")),
+          new Database(
+              "ConcoctionDatabase",
+              List.of("concoctions.txt"),
+              List.of("ItemDatabase", "ConsumablesDatabase", "NPCStoreDatabase")),
+          new Database(
+              "RestoresDatabase",
+              List.of("restores.txt"),
+              List.of("ItemDatabase", "SkillDatabase")),
+          new Database("QuestDatabase", List.of("questslog.txt", "questscouncil.txt"), List.of()));
+
+  private static final int MAX_THREADS = 4;
+
+  private static final Map<String, Load> loads = new ConcurrentHashMap<>();
+
+  private DataFileLoader() {}
+
+  /** Returns the files of the databases, in order, after checking that the order is usable. */
+  static List<String> getFiles(final List<Database> databases) {
+    Set<String> loaded = new HashSet<>();
+    List<String> files = new ArrayList<>();
+
+    for (Database database : databases) {
+      for (String need : database.needs()) {
+        if (!loaded.contains(need)) {
+          throw new IllegalStateException(database.name() + " is listed before " + need);
+        }
+      }
+      loaded.add(database.name());
+      files.addAll(database.files());
+    }
+
+    return files;
+  }
+
+  /** Starts reading the data files of the databases which are loaded at startup. */
+  public static void start() {
+    DataFileLoader.start(DataFileLoader.getFiles(DATABASES));
+  }
+
+  static synchronized void start(final List<String> filenames) {
+    int threads = Math.min(MAX_THREADS, Runtime.getRuntime().availableProcessors());
+    ExecutorService pool =
+        Executors.newFixedThreadPool(
+            threads,
+            runnable -> {
+              Thread thread = new Thread(runnable, "DataFileLoader");
+              thread.setDaemon(true);
+              return thread;
+            });
+
+    for (String filename : filenames) {
+      if (DataFileLoader.loads.containsKey(filename) || DataFileLoader.hasOverride(filename)) {
+        continue;
+      }
+
+      Load load = new Load(filename);
+      DataFileLoader.loads.put(filename, load);
+      pool.execute(load);
+    }
+
+    // The pool finishes the files it has been given, and then its threads exit
+    pool.shutdown();
+  }
+
+  static void reset() {
+    DataFileLoader.loads.clear();
+  }
+
+  private static boolean hasOverride(final String filename) {
+    return new File(KoLConstants.DATA_LOCATION, filename).exists();
+  }
+
+  /**
+   * Returns a reader over the lines of the file, if it has been read ahead and not yet taken, or
+   * null if it must be read as usual. A file can only be taken once.
+   */
+  public static DataReader take(final String filename) {
+    Load load = DataFileLoader.loads.get(filename);
+    if (load == null) {
+      return null;
+    }
+
+    Contents contents = load.take();
+
+    // An override which has been written since is used instead
+    if (contents == null || DataFileLoader.hasOverride(filename)) {
+      return null;
+    }
+
+    return new DataReader(contents);
+  }
+
+  public static List<Timing> getTimings() {
+    List<Timing> timings = new ArrayList<>();
+    for (String filename : DataFileLoader.getFiles(DATABASES)) {
+      Load load = DataFileLoader.loads.get(filename);
+      if (load != null && load.done.getCount() == 0) {
+        timings.add(load.getTiming());
+      }
+    }
+    return timings;
+  }
+
+  // The lines of a file, and the fields of each line that is not blank or a comment
+  private record Contents(String[] lines, String[][] fields) {}
+
+  private static class Load implements Runnable {
+    private final String filename;
+    private final CountDownLatch done = new CountDownLatch(1);
+
+    // Set by the worker before it counts down
+    private Contents contents = null;
+    private int lines = 0;
+    private long readNanos = 0;
+    private long splitNanos = 0;
+
+    // Set when the file is taken
+    private boolean taken = false;
+    private long waitNanos = 0;
+
+    private Load(final String filename) {
+      this.filename = filename;
+    }
+
+    @Override
+    public void run() {
+      try {
+        long start = System.nanoTime();
+        String text = DataFileLoader.readBundledFile(this.filename);
+        long read = System.nanoTime();
+
+        if (text != null) {
+          String[] lines = text.lines().toArray(String[]::new);
+          String[][] fields = new String[lines.length][];
+          for (int i = 0; i < lines.length; ++i) {
+            String line = lines[i];
+            if (!line.startsWith("#") && line.length() != 0) {
+              fields[i] = line.split("\t", -1);
+            }
+          }
+
+          this.contents = new Contents(lines, fields);
+          this.lines = lines.length;
+        }
+
+        this.readNanos = read - start;
+        this.splitNanos = System.nanoTime() - read;
+      } catch (IOException | RuntimeException e) {
+        // The file will be read as usual
+        this.contents = null;
+      } finally {
+        this.done.countDown();
+      }
+    }
+
+    private Contents take() {
+      synchronized (this) {
+        if (this.taken) {
+          return null;
+        }
+        this.taken = true;
+      }
+
+      long start = System.nanoTime();
+      try {
+        this.done.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return null;
+      }
+
+      synchronized (this) {
+        this.waitNanos = System.nanoTime() - start;
+        Contents contents = this.contents;
+        this.contents = null;
+        return contents;
+      }
+    }
+
+    private synchronized Timing getTiming() {
+      return new Timing(
+          this.filename,
+          this.lines,
+          this.readNanos,
+          this.splitNanos,
+          this.waitNanos,
+          this.taken);
+    }
+  }
+
+  // Reads the file from the KoLmafia jar, as DataUtilities would without an override
+  static String readBundledFile(final String filename) throws IOException {
+    String fullname = KoLConstants.DATA_DIRECTORY + filename;
+
+    InputStream found = UtilityConstants.SYSTEM_CLASSLOADER.getResourceAsStream(fullname);
+    if (found == null) {
+      found = UtilityConstants.MAINCLASS_CLASSLOADER.getResourceAsStream(fullname);
+    }
+    if (found == null) {
+      return null;
+    }
+
+    try (InputStream istream = found) {
+      return new String(istream.readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
+
+  /**
+   * A reader over the lines of a file that has been read ahead. FileUtilities reads data files a
+   * line at a time, which needs no copying. If it is read in any other way, the rest of its lines
+   * are joined into text and read from there.
+   */
+  public static class DataReader extends BufferedReader {
+    private final String[] lines;
+    private final String[][] fields;
+    private int next = 0;
+
+    // The rest of the lines, once they have been joined
+    private BufferedReader rest = null;
+
+    private DataReader(final Contents contents) {
+      super(Reader.nullReader());
+      this.lines = contents.lines();
+      this.fields = contents.fields();
+    }
+
+    private BufferedReader rest() {
+      if (this.rest == null) {
+        StringBuilder text = new StringBuilder();
+        while (this.next < this.lines.length) {
+          text.append(this.lines[this.next++]).append('\n');
+        }
+        this.rest = new BufferedReader(new StringReader(text.toString()));
+      }
+      return this.rest;
+    }
+
+    @Override
+    public String readLine() throws IOException {
+      if (this.rest != null) {
+        return this.rest.readLine();
+      }
+
+      return this.next < this.lines.length ? this.lines[this.next++] : null;
+    }
+
+    /** Returns the fields of the next line that is not blank or a comment, like readData. */
+    public String[] readData() {
+      if (this.rest != null) {
+        try {
+          String line;
+          while ((line = this.rest.readLine()) != null) {
+            if (!line.startsWith("#") && line.length() != 0) {
+              return line.split("\t", -1);
+            }
+          }
+        } catch (IOException e) {
+          // The reader has been closed
+        }
+        return null;
+      }
+
+      while (this.next < this.lines.length) {
+        String[] data = this.fields[this.next++];
+        if (data != null) {
+          return data;
+        }
+      }
+      return null;
+    }
+
+    @Override
+    public int read() throws IOException {
+      return this.rest().read();
+    }
+
+    @Override
+    public int read(final char[] cbuf, final int off, final int len) throws IOException {
+      return this.rest().read(cbuf, off, len);
+    }
+
+    @Override
+    public long skip(final long n) throws IOException {
+      return this.rest().skip(n);
+    }
+
+    @Override
+    public boolean ready() throws IOException {
+      return this.rest != null ? this.rest.ready() : this.next < this.lines.length;
+    }
+
+    @Override
+    public boolean markSupported() {
+      return false;
+    }
+
+    @Override
+    public void mark(final int readAheadLimit) throws IOException {
+      throw new IOException("mark() not supported");
+    }
+
+    @Override
+    public void reset() throws IOException {
+      throw new IOException("reset() not supported");
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (this.rest != null) {
+        this.rest.close();
+      }
+      super.close();
+    }
+  }
+}
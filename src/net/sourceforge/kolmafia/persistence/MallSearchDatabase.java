@@ -0,0 +1,277 @@
+package net.sourceforge.kolmafia.persistence;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import net.sourceforge.kolmafia.KoLConstants;
+import net.sourceforge.kolmafia.RequestThread;
+import net.sourceforge.kolmafia.StaticEntity;
+import net.sourceforge.kolmafia.preferences.Preferences;
+import net.sourceforge.kolmafia.request.MallPurchaseRequest;
+import net.sourceforge.kolmafia.request.PurchaseRequest;
+import net.sourceforge.kolmafia.session.MallPriceManager;
+import net.sourceforge.kolmafia.utilities.StringUtilities;
+
+/**
+ * Mall searches kept between sessions, so that prices which were looked up shortly before a
+ * restart do not all have to be searched for again.
+ *
+ * <p>Searches are appended to mallsearches.txt as they are made and the file is read the first
+ * time a search is looked up. A saved search is only used while it is younger than
+ * mallSearchCacheMaxAge seconds; if that is 0, nothing is saved. When the file holds many more
+ * searches than are still worth keeping, it is rewritten in the background with just those.
+ */
+public class MallSearchDatabase {
+  public static final File SEARCH_FILE = new File(KoLConstants.DATA_LOCATION, "mallsearches.txt");
+
+  private static final int VERSION = 1;
+  private static final int MAX_SEARCHES = 1000;
+
+  private record Listing(int shopId, String shopName, int price, int quantity, int limit) {}
+
+  private record Search(long timestamp, List<Listing> listings) {}
+
+  // Most recently saved last
+  private static final Map<Integer, Search> searches =
+      new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Integer, Search> eldest) {
+          return this.size() > MAX_SEARCHES;
+        }
+      };
+
+  private static boolean loaded = false;
+  private static int records = 0;
+  private static boolean compacting = false;
+
+  private MallSearchDatabase() {}
+
+  private static long getMaxAge() {
+    return Preferences.getInteger("mallSearchCacheMaxAge") * 1000L;
+  }
+
+  private static boolean isFresh(final Search search) {
+    return MallPriceManager.currentTimeMillis() - search.timestamp() < getMaxAge();
+  }
+
+  /** Returns the listings from a saved search for the item, or null if there is no usable one. */
+  public static synchronized List<PurchaseRequest> getSearch(final int itemId) {
+    if (getMaxAge() <= 0) {
+      return null;
+    }
+
+    load();
+
+    Search search = searches.get(itemId);
+    if (search == null) {
+      return null;
+    }
+
+    if (!isFresh(search)) {
+      searches.remove(itemId);
+      return null;
+    }
+
+    List<PurchaseRequest> results = new ArrayList<>();
+    for (Listing listing : search.listings()) {
+      MallPurchaseRequest request =
+          new MallPurchaseRequest(
+              itemId,
+              listing.quantity(),
+              listing.shopId(),
+              listing.shopName(),
+              listing.price(),
+              listing.limit());
+      request.setTimestamp(search.timestamp());
+      results.add(request);
+    }
+    return results;
+  }
+
+  /** Saves the mall store listings from a search for the item. */
+  public static synchronized void recordSearch(
+      final int itemId, final List<PurchaseRequest> results) {
+    if (getMaxAge() <= 0 || itemId < 1) {
+      return;
+    }
+
+    load();
+
+    long timestamp = MallPriceManager.currentTimeMillis();
+    List<Listing> listings = new ArrayList<>();
+    for (PurchaseRequest result : results) {
+      if (result instanceof MallPurchaseRequest request) {
+        timestamp = Math.min(timestamp, request.getTimestamp());
+        listings.add(
+            new Listing(
+                request.getShopId(),
+                request.getShopName(),
+                request.getPrice(),
+                request.getQuantity(),
+                request.getLimit()));
+      }
+    }
+
+    Search search = new Search(timestamp, listings);
+    searches.remove(itemId);
+    searches.put(itemId, search);
+    append(itemId, search);
+  }
+
+  /** Forgets the saved search for the item. */
+  public static synchronized void removeSearch(final int itemId) {
+    if (getMaxAge() <= 0) {
+      return;
+    }
+
+    load();
+
+    if (searches.remove(itemId) != null) {
+      append(itemId, null);
+    }
+  }
+
+  // For testing
+  public static synchronized void reset() {
+    searches.clear();
+    loaded = false;
+    records = 0;
+  }
+
+  private static void load() {
+    if (loaded) {
+      return;
+    }
+
+    loaded = true;
+
+    if (!SEARCH_FILE.exists()) {
+      return;
+    }
+
+    try (BufferedReader reader = Files.newBufferedReader(SEARCH_FILE.toPath())) {
+      String line = reader.readLine();
+      if (line == null || StringUtilities.parseInt(line) != VERSION) {
+        return;
+      }
+
+      while ((line = reader.readLine()) != null) {
+        String[] header = line.split("\t");
+        if (header.length != 3) {
+          break;
+        }
+
+        int itemId = StringUtilities.parseInt(header[0]);
+        long timestamp = StringUtilities.parseLong(header[1]);
+        int count = StringUtilities.parseInt(header[2]);
+        ++records;
+
+        searches.remove(itemId);
+        if (count < 0) {
+          continue;
+        }
+
+        List<Listing> listings = new ArrayList<>(count);
+        for (int i = 0; i < count && (line = reader.readLine()) != null; ++i) {
+          String[] data = line.split("\t", 5);
+          if (data.length != 5) {
+            break;
+          }
+
+          listings.add(
+              new Listing(
+                  StringUtilities.parseInt(data[0]),
+                  data[4],
+                  StringUtilities.parseInt(data[1]),
+                  StringUtilities.parseInt(data[2]),
+                  StringUtilities.parseInt(data[3])));
+        }
+
+        Search search = new Search(timestamp, listings);
+        if (listings.size() == count && isFresh(search)) {
+          searches.put(itemId, search);
+        }
+      }
+    } catch (IOException e) {
+      StaticEntity.printStackTrace(e);
+    }
+  }
+
+  private static void append(final int itemId, final Search search) {
+    boolean exists = SEARCH_FILE.exists();
+
+    try (PrintWriter writer =
+        new PrintWriter(
+            Files.newBufferedWriter(
+                SEARCH_FILE.toPath(),
+                StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND))) {
+      if (!exists) {
+        writer.println(VERSION);
+      }
+      write(writer, itemId, search);
+    } catch (IOException e) {
+      StaticEntity.printStackTrace(e);
+      return;
+    }
+
+    ++records;
+
+    // Most records are for searches which have since been replaced or have expired
+    if (!compacting && records > 2 * searches.size() + 100) {
+      compacting = true;
+      RequestThread.runInParallel(MallSearchDatabase::compact, false);
+    }
+  }
+
+  private static void write(final PrintWriter writer, final int itemId, final Search search) {
+    if (search == null) {
+      writer.println(itemId + "\t0\t-1");
+      return;
+    }
+
+    writer.println(itemId + "\t" + search.timestamp() + "\t" + search.listings().size());
+    for (Listing listing : search.listings()) {
+      writer.println(
+          listing.shopId()
+              + "\t"
+              + listing.price()
+              + "\t"
+              + listing.quantity()
+              + "\t"
+              + listing.limit()
+              + "\t"
+              + listing.shopName());
+    }
+  }
+
+  static synchronized void compact() {
+    compacting = false;
+    searches.values().removeIf(search -> !isFresh(search));
+
+    File temp = new File(KoLConstants.DATA_LOCATION, "mallsearches.tmp");
+    try {
+      try (PrintWriter writer =
+          new PrintWriter(Files.newBufferedWriter(temp.toPath(), StandardCharsets.UTF_8))) {
+        writer.println(VERSION);
+        for (Map.Entry<Integer, Search> entry : searches.entrySet()) {
+          write(writer, entry.getKey(), entry.getValue());
+        }
+      }
+      Files.move(temp.toPath(), SEARCH_FILE.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      records = searches.size();
+    } catch (IOException e) {
+      StaticEntity.printStackTrace(e);
+    }
+  }
+}
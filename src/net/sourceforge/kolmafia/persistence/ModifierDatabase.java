@@ -362,7 +362,19 @@ public class ModifierDatabase {
       type = ModifierType.THRONE;
     }
 
-    Modifiers modifiers = modifiersByName.get(type, key);
+    // A thread with its own calculation state keeps what it parses or evaluates to itself, and
+    // only reads the shared cache
+    Modifiers.Calculation own = Modifiers.getOwnCalculation();
+    Modifiers modifiers = own == null ? null : own.getModifiers(type, key);
+
+    if (modifiers == null) {
+      modifiers = modifiersByName.get(type, key);
+
+      if (modifiers != null && modifiers.variable && own != null) {
+        modifiers = modifiers.copyVariable();
+        own.putModifiers(type, key, modifiers);
+      }
+    }
 
     if (modifiers == null) {
       String modifierString = getModifierString(new Lookup(type, key));
@@ -379,7 +391,11 @@ public class ModifierDatabase {
 
       modifiers.variable = modifiers.override(lookup);
 
-      modifiersByName.put(type, key, modifiers);
+      if (own == null) {
+        modifiersByName.put(type, key, modifiers);
+      } else {
+        own.putModifiers(type, key, modifiers);
+      }
     }
 
     if (modifiers.variable) {
@@ -0,0 +1,182 @@
+package net.sourceforge.kolmafia.preferences;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import net.sourceforge.kolmafia.utilities.StringUtilities;
+
+/**
+ * The values of the preferences kept in one preferences file.
+ *
+ * <p>Each preference has a cell, which stays in place for as long as the preference exists, so
+ * setting a preference changes its cell rather than the map. A cell holds the text of the value,
+ * and the value as a primitive of whichever type it was last set or read as, so reading it as that
+ * type again neither parses nor boxes anything. Cells are read without locking. The text and the
+ * primitive are replaced together, and a value parsed by a reader is only kept if the cell has not
+ * been set in the meantime, so a reader never undoes a change made by another thread.
+ */
+class PreferenceStore {
+  private static final int TEXT = 0;
+  private static final int BOOLEAN = 1;
+  private static final int INTEGER = 2;
+  private static final int LONG = 3;
+  private static final int FLOAT = 4;
+  private static final int DOUBLE = 5;
+
+  private record Value(String text, int type, long bits) {}
+
+  private final Map<String, AtomicReference<Value>> cells = new ConcurrentHashMap<>();
+
+  private static Value valueOf(final Object object) {
+    String text = object.toString();
+    if (object instanceof Boolean b) {
+      return new Value(text, BOOLEAN, b ? 1 : 0);
+    }
+    if (object instanceof Integer i) {
+      return new Value(text, INTEGER, i);
+    }
+    if (object instanceof Long l) {
+      return new Value(text, LONG, l);
+    }
+    if (object instanceof Float f) {
+      return new Value(text, FLOAT, Float.floatToRawIntBits(f));
+    }
+    if (object instanceof Double d) {
+      return new Value(text, DOUBLE, Double.doubleToRawLongBits(d));
+    }
+    return new Value(text, TEXT, 0);
+  }
+
+  /** Sets a preference. The text of the value is what is saved, and what getString returns. */
+  void put(final String name, final Object object) {
+    Value value = PreferenceStore.valueOf(object);
+    AtomicReference<Value> cell = this.cells.get(name);
+    if (cell == null) {
+      cell = this.cells.putIfAbsent(name, new AtomicReference<>(value));
+      if (cell == null) {
+        return;
+      }
+    }
+    cell.set(value);
+  }
+
+  boolean containsKey(final String name) {
+    return this.cells.containsKey(name);
+  }
+
+  void remove(final String name) {
+    this.cells.remove(name);
+  }
+
+  void clear() {
+    this.cells.clear();
+  }
+
+  /** The names of the preferences. Removing a name removes the preference. */
+  Set<String> keySet() {
+    return this.cells.keySet();
+  }
+
+  /** Returns the text of every preference, as of when each was copied. */
+  TreeMap<String, String> snapshot() {
+    TreeMap<String, String> snapshot = new TreeMap<>();
+    for (Map.Entry<String, AtomicReference<Value>> entry : this.cells.entrySet()) {
+      snapshot.put(entry.getKey(), entry.getValue().get().text());
+    }
+    return snapshot;
+  }
+
+  /** Returns the text of a preference, or null if there is no such preference. */
+  String getString(final String name) {
+    AtomicReference<Value> cell = this.cells.get(name);
+    return cell == null ? null : cell.get().text();
+  }
+
+  // Keeps a value parsed from the text, unless the cell has been set since it was read
+  private static void keep(
+      final AtomicReference<Value> cell, final Value value, final int type, final long bits) {
+    cell.compareAndSet(value, new Value(value.text(), type, bits));
+  }
+
+  boolean getBoolean(final String name) {
+    AtomicReference<Value> cell = this.cells.get(name);
+    if (cell == null) {
+      return false;
+    }
+
+    Value value = cell.get();
+    if (value.type() == BOOLEAN) {
+      return value.bits() != 0;
+    }
+
+    boolean parsed = Boolean.parseBoolean(value.text());
+    PreferenceStore.keep(cell, value, BOOLEAN, parsed ? 1 : 0);
+    return parsed;
+  }
+
+  int getInteger(final String name) {
+    AtomicReference<Value> cell = this.cells.get(name);
+    if (cell == null) {
+      return 0;
+    }
+
+    Value value = cell.get();
+    if (value.type() == INTEGER) {
+      return (int) value.bits();
+    }
+
+    int parsed = StringUtilities.parseInt(value.text());
+    PreferenceStore.keep(cell, value, INTEGER, parsed);
+    return parsed;
+  }
+
+  long getLong(final String name) {
+    AtomicReference<Value> cell = this.cells.get(name);
+    if (cell == null) {
+      return 0;
+    }
+
+    Value value = cell.get();
+    if (value.type() == LONG) {
+      return value.bits();
+    }
+
+    long parsed = StringUtilities.parseLong(value.text());
+    PreferenceStore.keep(cell, value, LONG, parsed);
+    return parsed;
+  }
+
+  float getFloat(final String name) {
+    AtomicReference<Value> cell = this.cells.get(name);
+    if (cell == null) {
+      return 0.0f;
+    }
+
+    Value value = cell.get();
+    if (value.type() == FLOAT) {
+      return Float.intBitsToFloat((int) value.bits());
+    }
+
+    float parsed = StringUtilities.parseFloat(value.text());
+    PreferenceStore.keep(cell, value, FLOAT, Float.floatToRawIntBits(parsed));
+    return parsed;
+  }
+
+  double getDouble(final String name) {
+    AtomicReference<Value> cell = this.cells.get(name);
+    if (cell == null) {
+      return 0.0;
+    }
+
+    Value value = cell.get();
+    if (value.type() == DOUBLE) {
+      return Double.longBitsToDouble(value.bits());
+    }
+
+    double parsed = StringUtilities.parseDouble(value.text());
+    PreferenceStore.keep(cell, value, DOUBLE, Double.doubleToRawLongBits(parsed));
+    return parsed;
+  }
+}
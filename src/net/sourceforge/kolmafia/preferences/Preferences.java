@@ -1,11 +1,9 @@
 package net.sourceforge.kolmafia.preferences;
 
-import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
@@ -21,7 +19,6 @@ import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.TreeSet;
-import java.util.concurrent.ConcurrentHashMap;
 import net.java.dev.spellcast.utilities.DataUtilities;
 import net.sourceforge.kolmafia.KoLCharacter;
 import net.sourceforge.kolmafia.KoLConstants;
@@ -40,24 +37,24 @@ public class Preferences {
   // If false, blocks saving of all preferences. Do not modify outside of tests.
   public static boolean saveSettingsToFile = true;
 
-  private static final Object lock = new Object(); // used to synch io
-
   private static final String[] characterMap = new String[65536];
 
   private static final HashMap<String, String> globalNames = new HashMap<>();
-  private static final Map<String, Object> globalValues = new ConcurrentHashMap<>();
+  private static final PreferenceStore globalValues = new PreferenceStore();
   // user/globalEncodedValues cache the byte sequence corresponding to the on-disk representation
   // of a line in the preferences file, so that writing out preferences is simply a matter of
   // concatenating all the cached values.
   private static final SortedMap<String, byte[]> globalEncodedValues =
       Collections.synchronizedSortedMap(new TreeMap<>());
   private static File globalPropertiesFile = null;
+  private static PreferencesJournal globalJournal = null;
 
   private static final HashMap<String, String> userNames = new HashMap<>();
-  private static final Map<String, Object> userValues = new ConcurrentHashMap<>();
+  private static final PreferenceStore userValues = new PreferenceStore();
   private static final SortedMap<String, byte[]> userEncodedValues =
       Collections.synchronizedSortedMap(new TreeMap<>());
   private static File userPropertiesFile = null;
+  private static PreferencesJournal userJournal = null;
 
   private static final Set<String> defaultsSet = new HashSet<>();
   private static final Set<String> perUserGlobalSet = new HashSet<>();
@@ -614,14 +611,16 @@ public class Preferences {
   public static synchronized void reset(String username) {
     // We might not have been tracking encoded values here before this save. Fix that.
     Preferences.reinitializeEncodedValues();
-    Preferences.saveToFile(Preferences.globalPropertiesFile, Preferences.globalEncodedValues);
+    Preferences.globalJournal.sync();
     // Prevent anybody from manipulating the user map until we are
     // done bulk-loading it.
     synchronized (Preferences.userValues) {
       if (username == null || username.equals("")) {
         if (Preferences.userPropertiesFile != null) {
-          Preferences.saveToFile(Preferences.userPropertiesFile, Preferences.userEncodedValues);
+          Preferences.userJournal.close();
+          Preferences.userJournal.sync();
           Preferences.userPropertiesFile = null;
+          Preferences.userJournal = null;
           Preferences.userValues.clear();
           Preferences.userEncodedValues.clear();
         }
@@ -648,9 +647,17 @@ public class Preferences {
   private static void loadGlobalPreferences() {
     File file =
         new File(KoLConstants.SETTINGS_LOCATION, Preferences.baseUserName("") + "_prefs.txt");
+    File journalFile =
+        new File(KoLConstants.SETTINGS_LOCATION, Preferences.baseUserName("") + "_prefs.journal");
     Preferences.globalPropertiesFile = file;
+    if (Preferences.globalJournal != null) {
+      Preferences.globalJournal.close();
+    }
+    Preferences.globalJournal =
+        new PreferencesJournal(file, journalFile, Preferences.globalEncodedValues);
 
     Properties p = Preferences.loadPreferences(file);
+    Preferences.globalJournal.replay(p);
     Preferences.globalValues.clear();
     Preferences.globalEncodedValues.clear();
 
@@ -685,7 +692,15 @@ public class Preferences {
         new File(KoLConstants.SETTINGS_LOCATION, Preferences.baseUserName(username) + "_prefs.txt");
     File backupFile =
         new File(KoLConstants.SETTINGS_LOCATION, Preferences.baseUserName(username) + "_prefs.bak");
+    File journalFile =
+        new File(
+            KoLConstants.SETTINGS_LOCATION, Preferences.baseUserName(username) + "_prefs.journal");
     Preferences.userPropertiesFile = userPrefsFile;
+    if (Preferences.userJournal != null) {
+      Preferences.userJournal.close();
+    }
+    Preferences.userJournal =
+        new PreferencesJournal(userPrefsFile, journalFile, Preferences.userEncodedValues);
 
     Properties p = Preferences.loadPreferences(userPrefsFile);
 
@@ -745,6 +760,10 @@ public class Preferences {
                 + "the failure, and attaching the preferences.");
       }
     }
+
+    // Changes made since the file was last written
+    Preferences.userJournal.replay(p);
+
     Preferences.userValues.clear();
     Preferences.userEncodedValues.clear();
 
@@ -769,7 +788,7 @@ public class Preferences {
       // is how we migrate a preference from GLOBAL to user)
       String value =
           Preferences.globalValues.containsKey(key)
-              ? (String) Preferences.globalValues.get(key)
+              ? Preferences.globalValues.getString(key)
               : entry.getValue();
 
       // System.out.println( "Adding new built-in user setting: " + key );
@@ -815,14 +834,11 @@ public class Preferences {
   }
 
   private static void reinitializeEncodedValuesOn(
-      Map<String, Object> valuesMap, Map<String, byte[]> encodedMap) {
-    synchronized (valuesMap) {
-      for (Entry<String, Object> entry : valuesMap.entrySet()) {
-        encodedMap.put(
-            entry.getKey(),
-            encodeProperty(entry.getKey(), entry.getValue().toString())
-                .getBytes(StandardCharsets.UTF_8));
-      }
+      PreferenceStore values, Map<String, byte[]> encodedMap) {
+    for (Entry<String, String> entry : values.snapshot().entrySet()) {
+      encodedMap.put(
+          entry.getKey(),
+          encodeProperty(entry.getKey(), entry.getValue()).getBytes(StandardCharsets.UTF_8));
     }
   }
 
@@ -899,19 +915,10 @@ public class Preferences {
   }
 
   public static String getString(final String name, final boolean global) {
-    Object value = null;
+    PreferenceStore values = global ? Preferences.globalValues : Preferences.userValues;
+    String value = values.getString(name);
 
-    if (global) {
-      if (Preferences.globalValues.containsKey(name)) {
-        value = Preferences.globalValues.get(name);
-      }
-    } else {
-      if (Preferences.userValues.containsKey(name)) {
-        value = Preferences.userValues.get(name);
-      }
-    }
-
-    return value == null ? "" : value.toString();
+    return value == null ? "" : value;
   }
 
   public static String getDefault(final String name) {
@@ -1070,117 +1077,47 @@ public class Preferences {
   // key "<name>.<user>"
 
   public static String getString(final String user, final String name) {
-    Object value = Preferences.getObject(user, name);
+    String value = Preferences.getValues(name).getString(Preferences.propertyName(user, name));
 
     if (value == null) {
       return "";
     }
 
-    return value.toString();
+    return value;
   }
 
   public static boolean getBoolean(final String user, final String name) {
-    Map<String, Object> map = Preferences.getMap(name);
-    Object value = Preferences.getObject(map, user, name);
-
-    if (value == null) {
-      return false;
-    }
-
-    if (!(value instanceof Boolean)) {
-      value = Boolean.valueOf(value.toString());
-      map.put(name, value);
-    }
-
-    return (Boolean) value;
+    return Preferences.getValues(name).getBoolean(Preferences.propertyName(user, name));
   }
 
   public static int getInteger(final String user, final String name) {
-    Map<String, Object> map = Preferences.getMap(name);
-    Object value = Preferences.getObject(map, user, name);
-
-    if (value == null) {
-      return 0;
-    }
-
-    if (!(value instanceof Integer)) {
-      value = StringUtilities.parseInt(value.toString());
-      map.put(name, value);
-    }
-
-    return (Integer) value;
+    return Preferences.getValues(name).getInteger(Preferences.propertyName(user, name));
   }
 
   public static long getLong(final String user, final String name) {
-    Map<String, Object> map = Preferences.getMap(name);
-    Object value = Preferences.getObject(map, user, name);
-
-    if (value == null) {
-      return 0;
-    }
-
-    if (!(value instanceof Long)) {
-      value = StringUtilities.parseLong(value.toString());
-      map.put(name, value);
-    }
-
-    return (Long) value;
+    return Preferences.getValues(name).getLong(Preferences.propertyName(user, name));
   }
 
   public static float getFloat(final String user, final String name) {
-    Map<String, Object> map = Preferences.getMap(name);
-    Object value = Preferences.getObject(map, user, name);
-
-    if (value == null) {
-      return 0.0f;
-    }
-
-    if (!(value instanceof Float)) {
-      value = StringUtilities.parseFloat(value.toString());
-      map.put(name, value);
-    }
-
-    return (Float) value;
+    return Preferences.getValues(name).getFloat(Preferences.propertyName(user, name));
   }
 
   public static double getDouble(final String user, final String name) {
-    Map<String, Object> map = Preferences.getMap(name);
-    Object value = Preferences.getObject(map, user, name);
-
-    if (value == null) {
-      return 0.0;
-    }
-
-    if (!(value instanceof Double)) {
-      value = StringUtilities.parseDouble(value.toString());
-      map.put(name, value);
-    }
-
-    return (Double) value;
+    return Preferences.getValues(name).getDouble(Preferences.propertyName(user, name));
   }
 
-  private static Map<String, Object> getMap(final String name) {
+  private static PreferenceStore getValues(final String name) {
     return Preferences.isGlobalProperty(name) ? Preferences.globalValues : Preferences.userValues;
   }
 
-  private static Object getObject(final String user, final String name) {
-    return Preferences.getObject(Preferences.getMap(name), user, name);
-  }
-
-  private static Object getObject(
-      final Map<String, Object> map, final String user, final String name) {
-    String key = Preferences.propertyName(user, name);
-    return map.get(key);
-  }
-
   // Used only in ASH get_all_properties.
   public static TreeMap<String, String> getMap(boolean defaults, boolean user) {
     if (defaults) {
       return new TreeMap<>(user ? userNames : globalNames);
     } else {
       TreeMap<String, String> map = new TreeMap<>();
-      Map<String, Object> srcmap = user ? userValues : globalValues;
-      for (String pref : srcmap.keySet()) {
+      PreferenceStore values = user ? userValues : globalValues;
+      for (String pref : values.snapshot().keySet()) {
         map.put(pref, getString(pref));
       }
       return map;
@@ -1300,50 +1237,31 @@ public class Preferences {
   private static void maybeSaveToFileAfterUpdating(boolean enable, String updatedProperty) {
     if (enable) {
       if (Preferences.isGlobalProperty(updatedProperty)) {
-        Preferences.saveToFile(Preferences.globalPropertiesFile, Preferences.globalEncodedValues);
+        Preferences.saveToFile(Preferences.globalJournal, updatedProperty);
       } else if (Preferences.userPropertiesFile != null) {
-        Preferences.saveToFile(Preferences.userPropertiesFile, Preferences.userEncodedValues);
+        Preferences.saveToFile(Preferences.userJournal, updatedProperty);
       }
     }
   }
 
-  private static String propertyName(final String user, final String name) {
-    return user == null ? name : name + "." + Preferences.baseUserName(user);
+  private static void saveToFile(PreferencesJournal journal, String updatedProperty) {
+    if (Preferences.getBoolean("saveSettingsToJournal")) {
+      journal.record(updatedProperty);
+    } else {
+      journal.save();
+    }
   }
 
-  private static void saveToFile(File file, Map<String, byte[]> encodedData) {
-    if (!Preferences.saveSettingsToFile) {
-      return;
+  /** Writes the changes which are waiting to be journaled. */
+  static void flushJournals() {
+    Preferences.globalJournal.flush();
+    if (Preferences.userJournal != null) {
+      Preferences.userJournal.flush();
     }
+  }
 
-    // See Collections.synchronizedSortedMap
-    //
-    // We are essentially iterating over the map. Not exactly - we
-    // are iterating over the entrySet - but let's keep the map and
-    // the file in synch atomically
-
-    synchronized (lock) {
-      // Determine the contents of the file by
-      // actually printing them.
-
-      OutputStream fstream = new BufferedOutputStream(DataUtilities.getOutputStream(file));
-
-      try {
-        synchronized (encodedData) {
-          for (Entry<String, byte[]> current : encodedData.entrySet()) {
-            fstream.write(current.getValue());
-          }
-        }
-      } catch (IOException e) {
-        System.out.println(e.getMessage() + " trying to write preferences as byte array.");
-      }
-
-      try {
-        fstream.close();
-      } catch (IOException e) {
-        System.out.println(e.getMessage() + " trying to close preferences stream.");
-      }
-    }
+  private static String propertyName(final String user, final String name) {
+    return user == null ? name : name + "." + Preferences.baseUserName(user);
   }
 
   public static void resetToDefault(String... names) {
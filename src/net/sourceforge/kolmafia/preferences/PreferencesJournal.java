@@ -0,0 +1,293 @@
+package net.sourceforge.kolmafia.preferences;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import net.sourceforge.kolmafia.KoLConstants;
+
+/**
+ * Writes a preferences file, either whole or by appending the preferences which have changed to a
+ * journal beside it.
+ *
+ * <p>Changes are recorded by name and written by a background thread at most FLUSH_DELAY
+ * milliseconds later, with the value each preference has by then, so a preference that changes many
+ * times in that time is written once. Each batch of changes ends with a line holding only "#",
+ * which cannot appear in an encoded preference; a batch that was not finished when KoLmafia
+ * stopped is ignored, and cut off before the next batch is appended.
+ *
+ * <p>When the journal grows past MAX_JOURNAL_LENGTH, or a preference is removed, the whole file is
+ * written to a temporary file and renamed over the old one, and the journal is deleted. Each time
+ * the file is written it starts with a new generation stamp, and the journal starts with the stamp
+ * of the file it was written for. The file is read as before, falling back to the backup if need
+ * be, and the journal is replayed on top of it only if their stamps match, so a journal which was
+ * left behind when KoLmafia stopped between the rename and the delete is ignored rather than
+ * bringing back older values. A file with no stamp, such as one written before journals, has a
+ * journal with an empty stamp.
+ *
+ * <p>Without a journal, the whole file is written each time a preference changes. Those writes are
+ * still renamed into place, but are not forced to the disk; the file is forced to the disk only when
+ * it replaces a journal, and when preferences are reset as the user logs in or out.
+ */
+public class PreferencesJournal {
+  private static final Object lock = new Object(); // used to synch io
+
+  private static final long FLUSH_DELAY = 1000;
+  private static final long MAX_JOURNAL_LENGTH = 65536;
+
+  private static final String END_OF_BATCH = "#";
+  private static final String GENERATION = "#generation=";
+
+  private static final ScheduledExecutorService flusher =
+      Executors.newSingleThreadScheduledExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "PreferencesJournal");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  private final File file;
+  private final File journalFile;
+  private final Map<String, byte[]> encodedData;
+
+  // Guarded by this
+  private Set<String> pending = new LinkedHashSet<>();
+  private boolean scheduled = false;
+  private boolean closed = false;
+
+  // Guarded by lock: the stamp of the file, and the length of the journal up to the end of its
+  // last finished batch
+  private String generation = "";
+  private long journalLength = 0;
+
+  PreferencesJournal(
+      final File file, final File journalFile, final Map<String, byte[]> encodedData) {
+    this.file = file;
+    this.journalFile = journalFile;
+    this.encodedData = encodedData;
+  }
+
+  /**
+   * Applies the finished batches of the journal, if there is one and it was written for the file as
+   * it is now, to the given preferences.
+   */
+  void replay(final Properties p) {
+    synchronized (lock) {
+      this.generation = PreferencesJournal.readGeneration(this.file);
+      this.journalLength = 0;
+      if (!this.journalFile.exists()) {
+        return;
+      }
+
+      try {
+        String text =
+            new String(Files.readAllBytes(this.journalFile.toPath()), StandardCharsets.ISO_8859_1);
+        if (!text.startsWith(this.header())) {
+          // Written for an older file; the next batch replaces it
+          return;
+        }
+        int length = PreferencesJournal.finishedLength(text);
+        p.load(new StringReader(text.substring(0, length)));
+        this.journalLength = length;
+      } catch (IOException e) {
+        System.out.println(e.getMessage() + " trying to replay preferences journal.");
+      }
+    }
+  }
+
+  private static String readGeneration(final File file) {
+    if (!file.exists()) {
+      return "";
+    }
+
+    try (BufferedReader reader =
+        Files.newBufferedReader(file.toPath(), StandardCharsets.ISO_8859_1)) {
+      String line = reader.readLine();
+      return line != null && line.startsWith(GENERATION)
+          ? line.substring(GENERATION.length()).strip()
+          : "";
+    } catch (IOException e) {
+      return "";
+    }
+  }
+
+  private String header() {
+    return GENERATION + this.generation + KoLConstants.LINE_BREAK;
+  }
+
+  static int finishedLength(final String text) {
+    int length = 0;
+    int start = 0;
+    int end;
+    while ((end = text.indexOf('\n', start)) != -1) {
+      if (text.substring(start, end).strip().equals(END_OF_BATCH)) {
+        length = end + 1;
+      }
+      start = end + 1;
+    }
+    return length;
+  }
+
+  /** Records that a preference has changed, to be written to the journal shortly. */
+  synchronized void record(final String name) {
+    if (this.closed) {
+      return;
+    }
+
+    this.pending.add(name);
+    if (!this.scheduled) {
+      this.scheduled = true;
+      PreferencesJournal.flusher.schedule(this::flush, FLUSH_DELAY, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /** Appends the preferences which have changed since the last flush to the journal. */
+  void flush() {
+    Set<String> names;
+    synchronized (this) {
+      this.scheduled = false;
+      if (this.pending.isEmpty()) {
+        return;
+      }
+      names = this.pending;
+      this.pending = new LinkedHashSet<>();
+    }
+
+    if (!Preferences.saveSettingsToFile) {
+      return;
+    }
+
+    synchronized (lock) {
+      ByteArrayOutputStream batch = new ByteArrayOutputStream();
+      if (this.journalLength == 0) {
+        batch.writeBytes(this.header().getBytes(StandardCharsets.UTF_8));
+      }
+      for (String name : names) {
+        byte[] encoded = this.encodedData.get(name);
+        if (encoded == null) {
+          // The journal cannot remove a preference, but the file can leave it out
+          this.sync();
+          return;
+        }
+        batch.writeBytes(encoded);
+      }
+      batch.writeBytes((END_OF_BATCH + KoLConstants.LINE_BREAK).getBytes(StandardCharsets.UTF_8));
+
+      try (FileChannel channel =
+          FileChannel.open(
+              this.journalFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+        // Cut off whatever was left of a batch that was not finished
+        channel.truncate(this.journalLength);
+        channel.position(this.journalLength);
+        channel.write(ByteBuffer.wrap(batch.toByteArray()));
+        channel.force(false);
+        this.journalLength += batch.size();
+      } catch (IOException e) {
+        System.out.println(e.getMessage() + " trying to write preferences journal.");
+        this.sync();
+        return;
+      }
+
+      if (this.journalLength > MAX_JOURNAL_LENGTH) {
+        this.sync();
+      }
+    }
+  }
+
+  /** Writes every preference to the file, replacing it at once, and deletes the journal. */
+  void save() {
+    this.write(false);
+  }
+
+  /** Writes every preference to the file, as save does, once the file has reached the disk. */
+  void sync() {
+    this.write(true);
+  }
+
+  private void write(final boolean sync) {
+    if (!Preferences.saveSettingsToFile) {
+      return;
+    }
+
+    synchronized (lock) {
+      synchronized (this) {
+        // Everything pending is about to be written
+        this.pending.clear();
+      }
+
+      String generation = Long.toHexString(ThreadLocalRandom.current().nextLong());
+      File temporary = new File(this.file.getPath() + ".tmp");
+      this.file.getAbsoluteFile().getParentFile().mkdirs();
+
+      try (FileOutputStream fstream = new FileOutputStream(temporary)) {
+        // See Collections.synchronizedSortedMap
+        //
+        // We are essentially iterating over the map. Not exactly - we
+        // are iterating over the entrySet - but let's keep the map and
+        // the file in synch atomically
+        ByteArrayOutputStream contents = new ByteArrayOutputStream();
+        contents.writeBytes(
+            (GENERATION + generation + KoLConstants.LINE_BREAK).getBytes(StandardCharsets.UTF_8));
+        synchronized (this.encodedData) {
+          for (Entry<String, byte[]> current : this.encodedData.entrySet()) {
+            contents.writeBytes(current.getValue());
+          }
+        }
+        contents.writeTo(fstream);
+        if (sync) {
+          fstream.getFD().sync();
+        }
+      } catch (IOException e) {
+        System.out.println(e.getMessage() + " trying to write preferences as byte array.");
+        return;
+      }
+
+      try {
+        try {
+          Files.move(
+              temporary.toPath(),
+              this.file.toPath(),
+              StandardCopyOption.REPLACE_EXISTING,
+              StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+          Files.move(temporary.toPath(), this.file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+      } catch (IOException e) {
+        System.out.println(e.getMessage() + " trying to replace preferences file.");
+        return;
+      }
+
+      // The journal no longer matches the file, even if it is not deleted
+      this.generation = generation;
+      this.journalFile.delete();
+      this.journalLength = 0;
+    }
+  }
+
+  /** Writes what is pending, and stops recording changes. */
+  void close() {
+    this.flush();
+    synchronized (this) {
+      this.closed = true;
+      this.pending.clear();
+    }
+  }
+}
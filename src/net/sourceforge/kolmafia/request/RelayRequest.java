@@ -1,6 +1,7 @@
 package net.sourceforge.kolmafia.request;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FilenameFilter;
 import java.io.IOException;
@@ -73,11 +74,11 @@ import net.sourceforge.kolmafia.session.TurnCounter;
 import net.sourceforge.kolmafia.session.VoteMonsterManager;
 import net.sourceforge.kolmafia.swingui.AdventureFrame;
 import net.sourceforge.kolmafia.swingui.CommandDisplayFrame;
-import net.sourceforge.kolmafia.utilities.ByteBufferUtilities;
 import net.sourceforge.kolmafia.utilities.FileUtilities;
 import net.sourceforge.kolmafia.utilities.PauseObject;
 import net.sourceforge.kolmafia.utilities.StringUtilities;
 import net.sourceforge.kolmafia.utilities.WikiUtilities;
+import net.sourceforge.kolmafia.webui.RelayFileCache;
 import net.sourceforge.kolmafia.webui.RelayServer;
 import net.sourceforge.kolmafia.webui.StationaryButtonDecorator;
 import org.json.JSONObject;
@@ -494,10 +495,6 @@ public class RelayRequest extends PasswordHashRequest {
         }
 
         ostream.println();
-
-        ostream.print("Content-Length: ");
-        ostream.print(this.rawByteBuffer.length);
-        ostream.println();
       }
     }
   }
@@ -645,6 +642,7 @@ public class RelayRequest extends PasswordHashRequest {
 
   public static void clearImageCache() {
     RelayRequest.clearImageDirectory(KoLConstants.IMAGE_LOCATION, RELAYIMAGES_FILTER);
+    RelayFileCache.clear();
     Preferences.setLong("lastImageCacheClear", (new Date()).getTime());
   }
 
@@ -663,16 +661,23 @@ public class RelayRequest extends PasswordHashRequest {
   }
 
   private void sendLocalImage(final String filename) {
-    File imageFile = FileUtilities.downloadImage(RelayRequest.localImagePath(filename));
+    String path = RelayRequest.localImagePath(filename);
+    RelayFileCache.Asset image = RelayFileCache.getCachedImage(FileUtilities.imageFile(path));
+
+    if (image == null) {
+      File imageFile = FileUtilities.downloadImage(path);
+      image = RelayFileCache.getImage(imageFile);
+    }
 
-    if (imageFile == null) {
+    if (image == null) {
       this.sendNotFound();
       return;
     }
 
-    this.lastModified = imageFile.lastModified();
-    this.rawByteBuffer = ByteBufferUtilities.read(imageFile);
+    this.rawByteBuffer = image.data();
     this.headers.add("Access-Control-Allow-Origin: *");
+    this.headers.add("Last-Modified: " + image.lastModifiedHeader());
+    this.headers.add("ETag: " + image.etag());
     this.pseudoResponse("HTTP/1.1 200 OK", "");
   }
 
@@ -709,10 +714,12 @@ public class RelayRequest extends PasswordHashRequest {
 
     // Read the file
     StringBuffer replyBuffer;
+    RelayFileCache.Asset asset = RelayFileCache.getRelayFile(override);
 
-    if (override.exists()) {
+    if (asset != null) {
       // If the file is in the file system, it is a local override
-      replyBuffer = this.readContents(DataUtilities.getReader(override));
+      replyBuffer =
+          this.readContents(DataUtilities.getReader(new ByteArrayInputStream(asset.data())));
     } else {
       // If the file is not in the file system, it's probably a KoL
       // file which is not in the image directory for some reason.
@@ -726,11 +733,11 @@ public class RelayRequest extends PasswordHashRequest {
       if (replyBuffer.indexOf("MAFIAHIT") != -1) {
         StringUtilities.globalStringReplace(
             replyBuffer, "MAFIAHIT", "pwd=" + GenericRequest.passwordHash);
-      } else if (!filename.endsWith(".html")) {
-        long lastModified = override.lastModified();
+      } else if (!filename.endsWith(".html") && asset != null) {
         long now = (new Date()).getTime();
         long expires = now + (1000L * 60 * 60 * 24 * 30);
-        this.headers.add("Last-Modified: " + StringUtilities.formatDate(lastModified));
+        this.headers.add("Last-Modified: " + asset.lastModifiedHeader());
+        this.headers.add("ETag: " + asset.etag());
         this.headers.add("Expires: " + StringUtilities.formatDate(expires));
       }
     }
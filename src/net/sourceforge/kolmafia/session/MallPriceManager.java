@@ -20,6 +20,7 @@ import net.sourceforge.kolmafia.RequestThread;
 import net.sourceforge.kolmafia.objectpool.ItemPool;
 import net.sourceforge.kolmafia.persistence.ItemDatabase;
 import net.sourceforge.kolmafia.persistence.MallPriceDatabase;
+import net.sourceforge.kolmafia.persistence.MallSearchDatabase;
 import net.sourceforge.kolmafia.persistence.NPCStoreDatabase;
 import net.sourceforge.kolmafia.preferences.Preferences;
 import net.sourceforge.kolmafia.request.CoinMasterPurchaseRequest;
@@ -161,6 +162,20 @@ public abstract class MallPriceManager {
   public static void reset() {
     mallPrices.clear();
     mallSearches.clear();
+    MallSearchDatabase.reset();
+  }
+
+  private static void saveSearch(final int itemId, final List<PurchaseRequest> results) {
+    MallPriceManager.mallSearches.put(itemId, results);
+    MallSearchDatabase.recordSearch(itemId, results);
+  }
+
+  private static void updateSavedSearch(final int itemId, final List<PurchaseRequest> search) {
+    if (search.size() == 0) {
+      MallSearchDatabase.removeSearch(itemId);
+    } else {
+      MallSearchDatabase.recordSearch(itemId, search);
+    }
   }
 
   private static boolean removeShopPurchaseRequest(
@@ -187,6 +202,7 @@ public abstract class MallPriceManager {
         if (search.size() == 0) {
           MallPriceManager.mallSearches.remove(itemId);
         }
+        MallPriceManager.updateSavedSearch(itemId, search);
       }
       return;
     }
@@ -202,11 +218,18 @@ public abstract class MallPriceManager {
         if (search.size() == 0) {
           i.remove();
         }
+        MallPriceManager.updateSavedSearch(key, search);
       }
     }
   }
 
   public static final void flushCache(final int itemId) {
+    MallPriceManager.forgetSearch(itemId);
+    MallSearchDatabase.removeSearch(itemId);
+  }
+
+  // Forgets the search for an item in this session only, for when it is about to be replaced
+  private static void forgetSearch(final int itemId) {
     List<PurchaseRequest> search = MallPriceManager.mallSearches.get(itemId);
     if (search != null) {
       MallPriceManager.mallSearches.remove(itemId);
@@ -309,7 +332,7 @@ public abstract class MallPriceManager {
     results.removeIf(purchaseRequest -> purchaseRequest instanceof CoinMasterPurchaseRequest);
 
     if (KoLmafia.permitsContinue()) {
-      MallPriceManager.mallSearches.put(id, results);
+      MallPriceManager.saveSearch(id, results);
       // searchMall will have saved the mall price if we got any results back (otherwise it
       // doesn't know the item ID). If no results, we should save it ourselves (as -1) here.
       if (results.size() == 0) {
@@ -486,6 +509,10 @@ public abstract class MallPriceManager {
 
     int price = MallPriceManager.mallPrices.getOrDefault(itemId, 0);
 
+    if (price == 0) {
+      price = MallPriceManager.restoreSavedSearch(itemId);
+    }
+
     if (price == 0) {
       AdventureResult search = ItemPool.get(itemId, NTH_CHEAPEST_COUNT);
       MallPriceManager.searchMall(search);
@@ -495,6 +522,26 @@ public abstract class MallPriceManager {
     return price;
   }
 
+  // A search saved in a previous session is not fresh enough to buy from, but its price is good
+  // enough to answer mall_price without searching again.
+
+  private static int restoreSavedSearch(final int itemId) {
+    List<PurchaseRequest> results = MallSearchDatabase.getSearch(itemId);
+    if (results == null) {
+      return 0;
+    }
+
+    results.addAll(MallPriceManager.searchNPCs(ItemPool.get(itemId)));
+    Collections.sort(results, PurchaseRequest.nameComparator);
+
+    MallPriceManager.mallSearches.put(itemId, results);
+
+    // The price is as old as the search, so it is not recorded in mallprices.txt as a new one
+    int price = MallPriceManager.nthCheapestPrice(NTH_CHEAPEST_COUNT, results);
+    MallPriceManager.mallPrices.put(itemId, price);
+    return price;
+  }
+
   // Get the up-to-date "nth cheapest" mall price from cached local mall searches.
   //
   // The "count" field of the AdventureResult is meaningful; if it is no greater than
@@ -631,8 +678,9 @@ public abstract class MallPriceManager {
         }
         if (MallPriceManager.mallPrices.getOrDefault(itemId, 0) == 0) {
           AdventureResult search = item.getInstance(NTH_CHEAPEST_COUNT);
+          // searchMall has already saved a new search
           List<PurchaseRequest> results = MallPriceManager.searchMall(search);
-          MallPriceManager.flushCache(itemId);
+          MallPriceManager.forgetSearch(itemId);
           MallPriceManager.updateMallPrice(itemId, results, true);
           MallPriceManager.mallSearches.put(itemId, results);
           ++count;
@@ -690,10 +738,10 @@ public abstract class MallPriceManager {
         if (itemId != newItemId) {
           // Handle previous item, if any
           if (itemResults != null) {
-            MallPriceManager.flushCache(itemId);
+            MallPriceManager.forgetSearch(itemId);
             Collections.sort(itemResults, PurchaseRequest.priceComparator);
             MallPriceManager.updateMallPrice(itemId, itemResults, true);
-            MallPriceManager.mallSearches.put(itemId, itemResults);
+            MallPriceManager.saveSearch(itemId, itemResults);
             ++count;
           }
 
@@ -707,10 +755,10 @@ public abstract class MallPriceManager {
 
       // Handle final item
       if (itemResults != null) {
-        MallPriceManager.flushCache(itemId);
+        MallPriceManager.forgetSearch(itemId);
         Collections.sort(itemResults, PurchaseRequest.priceComparator);
         MallPriceManager.updateMallPrice(itemId, itemResults, true);
-        MallPriceManager.mallSearches.put(itemId, itemResults);
+        MallPriceManager.saveSearch(itemId, itemResults);
         ++count;
       }
     } finally {
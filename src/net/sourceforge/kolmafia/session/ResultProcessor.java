@@ -1,7 +1,8 @@
 package net.sourceforge.kolmafia.session;
 
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.regex.Matcher;
@@ -430,17 +431,12 @@ public class ResultProcessor {
       List<AdventureResult> data,
       LinkedList<AdventureResult> items,
       LinkedList<AdventureResult> effects) {
-    // Whacky, whacky KoL can insert <head> sections within the <body>
-    String body = KoLConstants.HEAD_PATTERN.matcher(results).replaceAll("");
-    String plainTextResult =
-        KoLConstants.ANYTAG_BUT_ITALIC_PATTERN.matcher(body).replaceAll(KoLConstants.LINE_BREAK);
+    Deque<String> parsedResults = ResultTokenizer.tokenize(results);
 
     if (data == null) {
-      ResultProcessor.processFamiliarWeightGain(plainTextResult);
+      ResultProcessor.processFamiliarWeightGain(parsedResults);
     }
 
-    LinkedList<String> parsedResults =
-        new LinkedList<>(Arrays.asList(plainTextResult.split(KoLConstants.LINE_BREAK)));
     boolean shouldRefresh = false;
 
     while (parsedResults.size() > 0) {
@@ -451,8 +447,17 @@ public class ResultProcessor {
     return shouldRefresh;
   }
 
-  public static boolean processFamiliarWeightGain(final String results) {
-    if (results.contains("gains a pound")
+  private static boolean processFamiliarWeightGain(final Collection<String> parsedResults) {
+    for (String line : parsedResults) {
+      if (ResultProcessor.gainsFamiliarWeight(line)) {
+        return ResultProcessor.processFamiliarWeightGain(line);
+      }
+    }
+    return false;
+  }
+
+  private static boolean gainsFamiliarWeight(final String results) {
+    return results.contains("gains a pound")
         ||
         // The following are Haiku results
         results.contains("gained a pound")
@@ -461,7 +466,11 @@ public class ResultProcessor {
         ||
         // The following are Anapest results
         results.contains("just got heavier")
-        || results.contains("put on some weight")) {
+        || results.contains("put on some weight");
+  }
+
+  public static boolean processFamiliarWeightGain(final String results) {
+    if (ResultProcessor.gainsFamiliarWeight(results)) {
       KoLCharacter.incrementFamilarWeight();
 
       FamiliarData familiar = KoLCharacter.getFamiliar();
@@ -479,7 +488,7 @@ public class ResultProcessor {
 
   private static boolean processNextResult(
       boolean adventureResults,
-      LinkedList<String> parsedResults,
+      Deque<String> parsedResults,
       List<AdventureResult> data,
       LinkedList<AdventureResult> items,
       LinkedList<AdventureResult> effects) {
@@ -550,7 +559,7 @@ public class ResultProcessor {
 
   private static void processItem(
       boolean adventureResults,
-      LinkedList<String> parsedResults,
+      Deque<String> parsedResults,
       String acquisition,
       List<AdventureResult> data,
       LinkedList<AdventureResult> items) {
@@ -696,7 +705,7 @@ public class ResultProcessor {
   }
 
   private static boolean processEffect(
-      LinkedList<String> parsedResults,
+      Deque<String> parsedResults,
       String acquisition,
       List<AdventureResult> data,
       LinkedList<AdventureResult> effects) {
@@ -758,7 +767,7 @@ public class ResultProcessor {
   }
 
   private static boolean processIntrinsic(
-      LinkedList<String> parsedResults,
+      Deque<String> parsedResults,
       String acquisition,
       List<AdventureResult> data,
       LinkedList<AdventureResult> effects) {
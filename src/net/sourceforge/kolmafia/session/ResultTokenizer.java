@@ -0,0 +1,84 @@
+package net.sourceforge.kolmafia.session;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import net.sourceforge.kolmafia.KoLConstants;
+
+/**
+ * Splits a response into the lines of plain text that ResultProcessor looks through for results.
+ *
+ * <p>This gives the same lines as removing the head, replacing every tag other than &lt;i&gt; and
+ * &lt;/i&gt; with a line break and splitting on line breaks, but it does it in a single pass over
+ * the response without building the intermediate strings.
+ */
+public final class ResultTokenizer {
+  private ResultTokenizer() {}
+
+  public static Deque<String> tokenize(final String results) {
+    // Whacky, whacky KoL can insert <head> sections within the <body>
+    String body =
+        results.contains("<head>")
+            ? KoLConstants.HEAD_PATTERN.matcher(results).replaceAll("")
+            : results;
+
+    String lineBreak = KoLConstants.LINE_BREAK;
+    Deque<String> tokens = new ArrayDeque<>();
+    boolean split = false;
+
+    int length = body.length();
+    int start = 0;
+    int i = 0;
+
+    while (i < length) {
+      char c = body.charAt(i);
+
+      int end = -1;
+      if (c == '<') {
+        end = ResultTokenizer.tagEnd(body, i);
+      } else if (body.startsWith(lineBreak, i)) {
+        end = i + lineBreak.length();
+      }
+
+      if (end == -1) {
+        ++i;
+        continue;
+      }
+
+      tokens.add(body.substring(start, i));
+      split = true;
+      start = end;
+      i = end;
+    }
+
+    tokens.add(body.substring(start));
+
+    // Like String.split, drop trailing empty lines
+    if (split) {
+      while (!tokens.isEmpty() && tokens.peekLast().isEmpty()) {
+        tokens.removeLast();
+      }
+    }
+
+    return tokens;
+  }
+
+  // Returns the index just past the tag starting at the given '<', or -1 if it is not a tag we
+  // remove. Like ANYTAG_BUT_ITALIC_PATTERN, a tag cannot span lines.
+  private static int tagEnd(final String body, final int start) {
+    if (body.startsWith("i>", start + 1) || body.startsWith("/i>", start + 1)) {
+      return -1;
+    }
+
+    for (int i = start + 1, length = body.length(); i < length; ++i) {
+      char c = body.charAt(i);
+      if (c == '>') {
+        return i + 1;
+      }
+      if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+        return -1;
+      }
+    }
+
+    return -1;
+  }
+}
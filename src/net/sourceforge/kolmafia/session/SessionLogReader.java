@@ -0,0 +1,245 @@
+package net.sourceforge.kolmafia.session;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import net.sourceforge.kolmafia.KoLConstants;
+import net.sourceforge.kolmafia.utilities.FileUtilities;
+import net.sourceforge.kolmafia.utilities.LogStream;
+import net.sourceforge.kolmafia.utilities.StringUtilities;
+
+/**
+ * Reads session logs an entry at a time. An entry starts with the "[turn] location" line logged for
+ * each adventure and runs until the next one; anything logged before the first adventure of the
+ * day is an entry of its own, with no turn.
+ *
+ * <p>Each log has an index beside it, which lists where each entry starts, its turn and its
+ * location. The index is rebuilt if the log has changed since it was written, so the log of the
+ * current session can be read while it is being written. Entries are read without reading the rest
+ * of the log: a plain log is read from where each entry starts, and a gzipped log is decompressed
+ * up to the last entry wanted.
+ */
+public class SessionLogReader {
+  public static final int NO_TURN = -1;
+
+  private static final String INDEX_SUFFIX = ".idx";
+  private static final int INDEX_VERSION = 1;
+
+  private static final Pattern HEADER_PATTERN = Pattern.compile("\\[(\\d+)\\] (.*)");
+
+  // No "[turn] location" line is longer than this
+  private static final int MAX_HEADER_LENGTH = 256;
+
+  public record Entry(int turn, String location, long offset, int length) {}
+
+  private SessionLogReader() {}
+
+  /** Returns the log of the given player for the given day, gzipped or not, or null if none. */
+  public static File getLog(final String playerName, final String date) {
+    String filename =
+        StringUtilities.globalStringReplace(playerName, " ", "_") + "_" + date + ".txt";
+
+    File path = new File(KoLConstants.SESSIONS_LOCATION, filename);
+    if (path.exists()) {
+      return path;
+    }
+
+    File gzpath = new File(KoLConstants.SESSIONS_LOCATION, filename + ".gz");
+    return gzpath.exists() ? gzpath : null;
+  }
+
+  private static InputStream openLog(final File log) throws IOException {
+    InputStream istream = new FileInputStream(log);
+    return log.getName().endsWith(".gz") ? new GZIPInputStream(istream) : istream;
+  }
+
+  /** Returns the entries of a log in the order they were logged. */
+  public static List<Entry> getIndex(final File log) throws IOException {
+    File indexFile = new File(log.getPath() + INDEX_SUFFIX);
+    String stamp = log.length() + "\t" + log.lastModified();
+
+    List<Entry> index = SessionLogReader.readIndex(indexFile, stamp);
+    if (index == null) {
+      try (InputStream istream = SessionLogReader.openLog(log)) {
+        index = SessionLogReader.buildIndex(istream);
+      }
+      SessionLogReader.writeIndex(indexFile, stamp, index);
+    }
+    return index;
+  }
+
+  private static List<Entry> readIndex(final File indexFile, final String stamp) {
+    if (!indexFile.exists()) {
+      return null;
+    }
+
+    try (BufferedReader reader = FileUtilities.getReader(indexFile)) {
+      if (!String.valueOf(INDEX_VERSION).equals(reader.readLine())
+          || !stamp.equals(reader.readLine())) {
+        return null;
+      }
+
+      List<Entry> index = new ArrayList<>();
+      String line;
+      while ((line = reader.readLine()) != null) {
+        String[] data = line.split("\t", 4);
+        if (data.length != 4) {
+          return null;
+        }
+        index.add(
+            new Entry(
+                Integer.parseInt(data[0]),
+                data[3],
+                Long.parseLong(data[1]),
+                Integer.parseInt(data[2])));
+      }
+      return index;
+    } catch (IOException | NumberFormatException e) {
+      return null;
+    }
+  }
+
+  private static void writeIndex(
+      final File indexFile, final String stamp, final List<Entry> index) {
+    PrintStream ostream = LogStream.openStream(indexFile, true);
+    ostream.println(INDEX_VERSION);
+    ostream.println(stamp);
+    for (Entry entry : index) {
+      ostream.println(
+          entry.turn() + "\t" + entry.offset() + "\t" + entry.length() + "\t" + entry.location());
+    }
+    ostream.close();
+  }
+
+  /** Finds where each entry of a log starts, reading it a block at a time. */
+  static List<Entry> buildIndex(final InputStream istream) throws IOException {
+    IndexBuilder builder = new IndexBuilder();
+    ByteArrayOutputStream header = new ByteArrayOutputStream();
+    byte[] buffer = new byte[65536];
+
+    long offset = 0;
+    long lineStart = 0;
+    boolean atLineStart = true;
+    boolean inHeader = false;
+
+    int count;
+    while ((count = istream.read(buffer)) != -1) {
+      for (int i = 0; i < count; ++i, ++offset) {
+        byte b = buffer[i];
+
+        if (atLineStart) {
+          atLineStart = false;
+          lineStart = offset;
+          inHeader = b == '[';
+          header.reset();
+        }
+
+        if (b == '\n') {
+          atLineStart = true;
+          if (inHeader) {
+            builder.line(lineStart, header);
+          }
+        } else if (inHeader && b != '\r') {
+          header.write(b);
+          inHeader = header.size() <= MAX_HEADER_LENGTH;
+        }
+      }
+    }
+
+    // The last line may not be finished yet
+    if (!atLineStart && inHeader) {
+      builder.line(lineStart, header);
+    }
+
+    return builder.finish(offset);
+  }
+
+  private static class IndexBuilder {
+    private final List<Entry> index = new ArrayList<>();
+
+    private int turn = NO_TURN;
+    private String location = "";
+    private long entryStart = 0;
+
+    // Starts a new entry if the line is a "[turn] location" line
+    private void line(final long lineStart, final ByteArrayOutputStream line) {
+      Matcher matcher = HEADER_PATTERN.matcher(line.toString(StandardCharsets.UTF_8));
+      if (!matcher.matches() || matcher.group(1).length() > 9) {
+        return;
+      }
+
+      this.end(lineStart);
+      this.turn = Integer.parseInt(matcher.group(1));
+      this.location = matcher.group(2);
+      this.entryStart = lineStart;
+    }
+
+    private void end(final long offset) {
+      if (offset > this.entryStart) {
+        this.index.add(
+            new Entry(this.turn, this.location, this.entryStart, (int) (offset - this.entryStart)));
+      }
+    }
+
+    private List<Entry> finish(final long offset) {
+      this.end(offset);
+      return this.index;
+    }
+  }
+
+  /** Returns the entries logged on turns from firstTurn to lastTurn, inclusive. */
+  public static List<Entry> find(final List<Entry> index, final int firstTurn, final int lastTurn) {
+    List<Entry> found = new ArrayList<>();
+    for (Entry entry : index) {
+      if (entry.turn() >= firstTurn && entry.turn() <= lastTurn) {
+        found.add(entry);
+      }
+    }
+    return found;
+  }
+
+  /** Returns the entries logged for the given location. */
+  public static List<Entry> find(final List<Entry> index, final String location) {
+    List<Entry> found = new ArrayList<>();
+    for (Entry entry : index) {
+      if (entry.location().equalsIgnoreCase(location)) {
+        found.add(entry);
+      }
+    }
+    return found;
+  }
+
+  /** Returns the text of each of the given entries of a log, in the order they were logged. */
+  public static List<String> read(final File log, final List<Entry> entries) throws IOException {
+    List<Entry> sorted = new ArrayList<>(entries);
+    sorted.sort(Comparator.comparingLong(Entry::offset));
+
+    List<String> texts = new ArrayList<>(sorted.size());
+    if (sorted.isEmpty()) {
+      return texts;
+    }
+
+    try (InputStream istream = SessionLogReader.openLog(log)) {
+      // Skipping seeks in a plain log, and decompresses without keeping anything in a gzipped one
+      long position = 0;
+      for (Entry entry : sorted) {
+        istream.skipNBytes(entry.offset() - position);
+        byte[] bytes = istream.readNBytes(entry.length());
+        position = entry.offset() + bytes.length;
+        texts.add(new String(bytes, StandardCharsets.UTF_8));
+      }
+    }
+    return texts;
+  }
+}
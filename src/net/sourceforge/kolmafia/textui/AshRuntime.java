@@ -50,6 +50,9 @@ public class AshRuntime extends AbstractRuntime {
   // For use in LibraryFunction return values
   private boolean hadPendingState;
 
+  // Whether operations on ints, floats and booleans are run as compiled code
+  private boolean compileExpressions;
+
   // For ASH stack traces.
   private final ArrayList<CallFrame> frameStack;
   // Limit object churn across function calls.
@@ -65,6 +68,10 @@ public class AshRuntime extends AbstractRuntime {
     this.unusedCallFrames = new ArrayList<>();
   }
 
+  public boolean compilesExpressions() {
+    return this.compileExpressions;
+  }
+
   public Parser getParser() {
     return this.parser;
   }
@@ -215,6 +222,7 @@ public class AshRuntime extends AbstractRuntime {
     setState(ScriptRuntime.State.NORMAL);
     this.exiting = false;
     this.resetTracing();
+    this.compileExpressions = Preferences.getBoolean("ashCompileExpressions");
 
     if (functionName == null) {
       main = null;
@@ -7,13 +7,26 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.atomic.LongAdder;
 import net.java.dev.spellcast.utilities.DataUtilities;
 import net.sourceforge.kolmafia.KoLConstants;
 import net.sourceforge.kolmafia.KoLmafia;
 import net.sourceforge.kolmafia.RequestLogger;
+import net.sourceforge.kolmafia.textui.DataTypes.TypeSpec;
+import net.sourceforge.kolmafia.textui.parsetree.AggregateType;
+import net.sourceforge.kolmafia.textui.parsetree.ArrayValue;
+import net.sourceforge.kolmafia.textui.parsetree.CompositeType;
+import net.sourceforge.kolmafia.textui.parsetree.CompositeValue;
+import net.sourceforge.kolmafia.textui.parsetree.RecordType;
+import net.sourceforge.kolmafia.textui.parsetree.RecordValue;
+import net.sourceforge.kolmafia.textui.parsetree.Type;
 import net.sourceforge.kolmafia.textui.parsetree.Value;
 import net.sourceforge.kolmafia.utilities.ByteBufferUtilities;
 import net.sourceforge.kolmafia.utilities.RollingLinkedList;
@@ -25,12 +38,33 @@ public class DataFileCache {
   private static final Map<String, byte[]> dataFileDataCache =
       Collections.synchronizedMap(new HashMap<>());
 
+  // Maps read by file_to_map, by file, map type and format
+  private static final int MAX_PARSED_MAPS = 32;
+  private static final Map<MapKey, ParsedMap> parsedMapCache =
+      new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Entry<MapKey, ParsedMap> eldest) {
+          return this.size() > MAX_PARSED_MAPS;
+        }
+      };
+  private static final LongAdder parsedMapHits = new LongAdder();
+  private static final LongAdder parsedMapMisses = new LongAdder();
+
+  /** Identifies a map read from a file: the file, the type of the map, and whether compact. */
+  public record MapKey(String filename, String type, boolean compact) {}
+
+  // A parsed map is used while its file has the same length and modification time
+  private record ParsedMap(long modifiedTime, long length, CompositeValue map) {}
+
   private DataFileCache() {}
 
   public static void clearCache() {
     DataFileCache.recentlyUsedList.clear();
     DataFileCache.dataFileTimestampCache.clear();
     DataFileCache.dataFileDataCache.clear();
+    synchronized (DataFileCache.parsedMapCache) {
+      DataFileCache.parsedMapCache.clear();
+    }
   }
 
   public static File getFile(String filename, boolean readOnly) {
@@ -151,8 +185,7 @@ public class DataFileCache {
       return new byte[0];
     }
 
-    String sanitizedFilename =
-        input.getPath().substring(KoLConstants.ROOT_LOCATION.getPath().length() + 1);
+    String sanitizedFilename = DataFileCache.getSanitizedFilename(input);
 
     long modifiedTime = input.lastModified();
 
@@ -217,9 +250,14 @@ public class DataFileCache {
     }
 
     DataFileCache.updateCache(filename, output.lastModified(), data);
+    DataFileCache.removeParsedMaps(DataFileCache.getSanitizedFilename(output));
     return DataTypes.TRUE_VALUE;
   }
 
+  private static String getSanitizedFilename(final File file) {
+    return file.getPath().substring(KoLConstants.ROOT_LOCATION.getPath().length() + 1);
+  }
+
   private static void updateCache(String filename, long modifiedTime, byte[] data) {
     String recentlyUsedCheck = DataFileCache.recentlyUsedList.update(filename);
 
@@ -231,4 +269,159 @@ public class DataFileCache {
     DataFileCache.dataFileTimestampCache.put(filename, modifiedTime);
     DataFileCache.dataFileDataCache.put(filename, data);
   }
+
+  /**
+   * Returns the key under which a map of the given type read from the file is cached, or null if
+   * such a map cannot be cached.
+   */
+  public static MapKey getMapKey(
+      final String filename, final CompositeType type, final boolean compact) {
+    if (filename.startsWith("http://") || filename.startsWith("https://")) {
+      return null;
+    }
+
+    File input = DataFileCache.getFile(filename, true);
+    String description = DataFileCache.describe(type);
+    if (input == null || description == null) {
+      return null;
+    }
+
+    return new MapKey(DataFileCache.getSanitizedFilename(input), description, compact);
+  }
+
+  /**
+   * Fills the map from the cached map read from the file, if the file has not changed since.
+   * Returns false if there is no such map.
+   */
+  public static boolean readParsedMap(final MapKey key, final CompositeValue result) {
+    ParsedMap parsed;
+    synchronized (DataFileCache.parsedMapCache) {
+      parsed = DataFileCache.parsedMapCache.get(key);
+    }
+
+    File input = new File(KoLConstants.ROOT_LOCATION, key.filename());
+    if (parsed == null
+        || parsed.modifiedTime() != input.lastModified()
+        || parsed.length() != input.length()) {
+      DataFileCache.parsedMapMisses.increment();
+      return false;
+    }
+
+    DataFileCache.parsedMapHits.increment();
+    result.clear();
+    DataFileCache.copyInto(parsed.map(), result);
+    return true;
+  }
+
+  /**
+   * Caches a copy of a map that has been read from the file. The modification time and length must
+   * be those the file had before it was read.
+   */
+  public static void putParsedMap(
+      final MapKey key, final long modifiedTime, final long length, final CompositeValue map) {
+    CompositeValue copy = (CompositeValue) DataFileCache.copy(map);
+    synchronized (DataFileCache.parsedMapCache) {
+      DataFileCache.parsedMapCache.put(key, new ParsedMap(modifiedTime, length, copy));
+    }
+  }
+
+  private static void removeParsedMaps(final String filename) {
+    synchronized (DataFileCache.parsedMapCache) {
+      DataFileCache.parsedMapCache.keySet().removeIf(key -> key.filename().equals(filename));
+    }
+  }
+
+  public static void showParsedMaps() {
+    List<MapKey> keys;
+    synchronized (DataFileCache.parsedMapCache) {
+      keys = new ArrayList<>(DataFileCache.parsedMapCache.keySet());
+    }
+
+    RequestLogger.printLine(
+        "Parsed maps: "
+            + keys.size()
+            + " cached, "
+            + DataFileCache.parsedMapHits.sum()
+            + " hits, "
+            + DataFileCache.parsedMapMisses.sum()
+            + " misses.");
+
+    // Most recently used first
+    for (int i = keys.size() - 1; i >= 0; --i) {
+      MapKey key = keys.get(i);
+      RequestLogger.printLine(key.filename() + " as " + key.type());
+    }
+  }
+
+  // Describes a map type by its structure, since record types of the same name in different
+  // scripts may have different fields. Returns null for types whose values can be changed in
+  // place, which could not be shared between copies of a map.
+  private static String describe(final Type type) {
+    Type base = type.getBaseType();
+
+    if (base instanceof RecordType record) {
+      StringBuilder buffer = new StringBuilder("{");
+      String[] names = record.getFieldNames();
+      Type[] types = record.getFieldTypes();
+      for (int i = 0; i < names.length; ++i) {
+        String field = DataFileCache.describe(types[i]);
+        if (field == null) {
+          return null;
+        }
+        buffer.append(field).append(' ').append(names[i]).append("; ");
+      }
+      return buffer.append('}').toString();
+    }
+
+    if (base instanceof AggregateType aggregate) {
+      String data = DataFileCache.describe(aggregate.getDataType());
+      String index = DataFileCache.describe(aggregate.getIndexType());
+      if (data == null || index == null) {
+        return null;
+      }
+      return data
+          + " ["
+          + index
+          + (aggregate.getSize() != -1 ? " " + aggregate.getSize() : "")
+          + (aggregate.isCaseInsensitive() ? " ignorecase" : "")
+          + "]";
+    }
+
+    TypeSpec spec = base.getType();
+    if (spec == TypeSpec.BUFFER || spec == TypeSpec.MATCHER) {
+      return null;
+    }
+    return base.getName();
+  }
+
+  // Copies the composites of a map; the simple values in it are never changed, so they are shared
+  private static Value copy(final Value value) {
+    if (value instanceof ArrayValue array) {
+      List<Value> values = new ArrayList<>();
+      for (Value key : array.keys()) {
+        values.add(DataFileCache.copy(array.aref(key)));
+      }
+      return new ArrayValue(new AggregateType((AggregateType) array.getType()), values);
+    }
+
+    if (value instanceof RecordValue record) {
+      RecordValue copy = new RecordValue(record.getRecordType());
+      DataFileCache.copyInto(record, copy);
+      return copy;
+    }
+
+    if (value instanceof CompositeValue composite) {
+      CompositeValue copy = (CompositeValue) composite.getType().initialValue();
+      DataFileCache.copyInto(composite, copy);
+      return copy;
+    }
+
+    return value;
+  }
+
+  private static void copyInto(final CompositeValue source, final CompositeValue destination) {
+    for (Value key : source.keys()) {
+      destination.aset(key, DataFileCache.copy(source.aref(key)));
+    }
+  }
 }
@@ -161,6 +161,7 @@ import net.sourceforge.kolmafia.session.PingManager;
 import net.sourceforge.kolmafia.session.PingManager.PingTest;
 import net.sourceforge.kolmafia.session.PvpManager;
 import net.sourceforge.kolmafia.session.ResultProcessor;
+import net.sourceforge.kolmafia.session.SessionLogReader;
 import net.sourceforge.kolmafia.session.SorceressLairManager;
 import net.sourceforge.kolmafia.session.StoreManager;
 import net.sourceforge.kolmafia.session.StoreManager.SoldItem;
@@ -276,6 +277,12 @@ public abstract class RuntimeLibrary {
           new String[] {"file", "name", "line"},
           new Type[] {DataTypes.STRING_TYPE, DataTypes.STRING_TYPE, DataTypes.INT_TYPE});
 
+  private static final RecordType sessionLogEntryRec =
+      new RecordType(
+          "{int turn; string location; string text;}",
+          new String[] {"turn", "location", "text"},
+          new Type[] {DataTypes.INT_TYPE, DataTypes.STRING_TYPE, DataTypes.STRING_TYPE});
+
   private static final AggregateType NumberologyType =
       new AggregateType(DataTypes.INT_TYPE, DataTypes.INT_TYPE);
   private static final AggregateType HeistType =
@@ -726,6 +733,17 @@ public abstract class RuntimeLibrary {
     functions.add(
         new LibraryFunction("session_logs", new AggregateType(DataTypes.STRING_TYPE, 0), params));
 
+    Type sessionLogEntryArray = new AggregateType(sessionLogEntryRec, 0);
+
+    params =
+        new Type[] {
+          DataTypes.STRING_TYPE, DataTypes.STRING_TYPE, DataTypes.INT_TYPE, DataTypes.INT_TYPE
+        };
+    functions.add(new LibraryFunction("session_log_entries", sessionLogEntryArray, params));
+
+    params = new Type[] {DataTypes.STRING_TYPE, DataTypes.STRING_TYPE, DataTypes.LOCATION_TYPE};
+    functions.add(new LibraryFunction("session_log_entries", sessionLogEntryArray, params));
+
     // Major functions related to adventuring and item management.
 
     params = new Type[] {DataTypes.LOCATION_TYPE};
@@ -4014,26 +4032,76 @@ public abstract class RuntimeLibrary {
     return value;
   }
 
+  public static Value session_log_entries(
+      ScriptRuntime controller,
+      final Value playerName,
+      final Value date,
+      final Value firstTurn,
+      final Value lastTurn) {
+    File log = SessionLogReader.getLog(playerName.toString(), date.toString());
+    try {
+      List<SessionLogReader.Entry> entries =
+          log == null
+              ? List.of()
+              : SessionLogReader.find(
+                  SessionLogReader.getIndex(log),
+                  (int) firstTurn.intValue(),
+                  (int) lastTurn.intValue());
+      return getSessionLogEntries(log, entries);
+    } catch (IOException e) {
+      throw controller.runtimeException("Can't read session log " + log.getName());
+    }
+  }
+
+  public static Value session_log_entries(
+      ScriptRuntime controller, final Value playerName, final Value date, final Value location) {
+    File log = SessionLogReader.getLog(playerName.toString(), date.toString());
+    KoLAdventure adventure = (KoLAdventure) location.rawValue();
+    try {
+      List<SessionLogReader.Entry> entries =
+          log == null || adventure == null
+              ? List.of()
+              : SessionLogReader.find(
+                  SessionLogReader.getIndex(log), adventure.getAdventureName());
+      return getSessionLogEntries(log, entries);
+    } catch (IOException e) {
+      throw controller.runtimeException("Can't read session log " + log.getName());
+    }
+  }
+
+  private static Value getSessionLogEntries(
+      final File log, final List<SessionLogReader.Entry> entries) throws IOException {
+    AggregateType type = new AggregateType(RuntimeLibrary.sessionLogEntryRec, entries.size());
+    ArrayValue value = new ArrayValue(type);
+    if (entries.isEmpty()) {
+      return value;
+    }
+
+    List<String> texts = SessionLogReader.read(log, entries);
+    for (int i = 0; i < entries.size(); ++i) {
+      SessionLogReader.Entry entry = entries.get(i);
+      RecordValue rec = (RecordValue) value.aref(new Value(i));
+
+      rec.aset(0, new Value(entry.turn()), null);
+      rec.aset(1, new Value(entry.location()), null);
+      rec.aset(2, new Value(texts.get(i)), null);
+    }
+    return value;
+  }
+
   private static String getContentsOfSessionLog(String playerName, String logDate) {
     StringBuilder contents = new StringBuilder();
-    String filename =
-        StringUtilities.globalStringReplace(playerName, " ", "_") + "_" + logDate + ".txt";
 
-    File path = new File(KoLConstants.SESSIONS_LOCATION, filename);
+    File path = SessionLogReader.getLog(playerName, logDate);
     BufferedReader reader = null;
-    if (!path.exists()) {
-      filename = filename + ".gz";
-      File gzpath = new File(KoLConstants.SESSIONS_LOCATION, filename);
-      if (gzpath.exists()) {
-        try {
-          reader =
-              DataUtilities.getReader(new GZIPInputStream(DataUtilities.getInputStream(gzpath)));
-        } catch (IOException e) {
-          StaticEntity.printStackTrace(e);
-          reader = null;
-        }
+    if (path != null && path.getName().endsWith(".gz")) {
+      try {
+        reader = DataUtilities.getReader(new GZIPInputStream(DataUtilities.getInputStream(path)));
+      } catch (IOException e) {
+        StaticEntity.printStackTrace(e);
+        reader = null;
       }
-    } else {
+    } else if (path != null) {
       reader = FileUtilities.getReader(path);
     }
 
@@ -5734,13 +5802,11 @@ public abstract class RuntimeLibrary {
   }
 
   public static Value item_amount(ScriptRuntime controller, final Value arg) {
-    AdventureResult item = ItemPool.get((int) arg.intValue(), 0);
-    return new Value(item.getCount(KoLConstants.inventory));
+    return new Value(AdventureResult.getCount((int) arg.intValue(), KoLConstants.inventory));
   }
 
   public static Value closet_amount(ScriptRuntime controller, final Value arg) {
-    AdventureResult item = ItemPool.get((int) arg.intValue(), 0);
-    return new Value(item.getCount(KoLConstants.closet));
+    return new Value(AdventureResult.getCount((int) arg.intValue(), KoLConstants.closet));
   }
 
   public static Value equipped_amount(ScriptRuntime controller, final Value arg) {
@@ -5822,8 +5888,10 @@ public abstract class RuntimeLibrary {
   }
 
   public static Value storage_amount(ScriptRuntime controller, final Value arg) {
-    AdventureResult item = ItemPool.get((int) arg.intValue(), 0);
-    return new Value(item.getCount(KoLConstants.storage) + item.getCount(KoLConstants.freepulls));
+    int itemId = (int) arg.intValue();
+    return new Value(
+        AdventureResult.getCount(itemId, KoLConstants.storage)
+            + AdventureResult.getCount(itemId, KoLConstants.freepulls));
   }
 
   public static Value display_amount(ScriptRuntime controller, final Value arg) {
@@ -8452,6 +8520,17 @@ public abstract class RuntimeLibrary {
     CompositeValue result = (CompositeValue) var2;
     boolean compact = var3.intValue() == 1;
 
+    // Reuse the map if it has been read before and the file has not changed since
+    DataFileCache.MapKey key =
+        DataFileCache.getMapKey(filename, result.getCompositeType(), compact);
+    if (key != null && DataFileCache.readParsedMap(key, result)) {
+      return DataTypes.TRUE_VALUE;
+    }
+
+    File input = key == null ? null : new File(KoLConstants.ROOT_LOCATION, key.filename());
+    long modifiedTime = input == null ? 0 : input.lastModified();
+    long length = input == null ? 0 : input.length();
+
     BufferedReader reader = DataFileCache.getReader(filename);
     if (reader == null) {
       return DataTypes.FALSE_VALUE;
@@ -8496,6 +8575,10 @@ public abstract class RuntimeLibrary {
       return DataTypes.FALSE_VALUE;
     }
 
+    if (key != null) {
+      DataFileCache.putParsedMap(key, modifiedTime, length, result);
+    }
+
     return DataTypes.TRUE_VALUE;
   }
 
@@ -1,13 +1,19 @@
 package net.sourceforge.kolmafia.textui.command;
 
+import net.sourceforge.kolmafia.KoLConstants;
+import net.sourceforge.kolmafia.KoLmafiaASH;
 import net.sourceforge.kolmafia.RequestLogger;
 import net.sourceforge.kolmafia.preferences.Preferences;
 import net.sourceforge.kolmafia.request.RelayRequest;
+import net.sourceforge.kolmafia.textui.DataFileCache;
+import net.sourceforge.kolmafia.textui.javascript.ModuleScriptCache;
 import net.sourceforge.kolmafia.utilities.StringUtilities;
+import net.sourceforge.kolmafia.webui.RelayFileCache;
 
 public class CacheCommand extends AbstractCommand {
   public CacheCommand() {
-    this.usage = "[clear] - get image cache status or clear cache.";
+    this.usage =
+        "[clear | ash | js | relay | maps] - get image cache status or clear cache, or show other caches.";
   }
 
   @Override
@@ -27,6 +33,41 @@ public class CacheCommand extends AbstractCommand {
 
     if (command.equals("clear")) {
       RelayRequest.clearImageCache();
+      return;
+    }
+
+    if (command.equals("ash")) {
+      KoLmafiaASH.showScriptCache();
+      return;
+    }
+
+    if (command.equals("js")) {
+      ModuleScriptCache cache = ModuleScriptCache.getInstance();
+      RequestLogger.printLine(
+          "Compiled JavaScript modules: "
+              + cache.getHits()
+              + " hits, "
+              + cache.getMisses()
+              + " misses.");
+      return;
+    }
+
+    if (command.equals("relay")) {
+      RequestLogger.printLine(
+          "Relay files: "
+              + RelayFileCache.getSize()
+              + " cached ("
+              + KoLConstants.COMMA_FORMAT.format(RelayFileCache.getBytes())
+              + " bytes), "
+              + RelayFileCache.getHits()
+              + " hits, "
+              + RelayFileCache.getMisses()
+              + " misses.");
+      return;
+    }
+
+    if (command.equals("maps")) {
+      DataFileCache.showParsedMaps();
     }
   }
 }
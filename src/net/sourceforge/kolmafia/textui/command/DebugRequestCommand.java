@@ -1,15 +1,19 @@
 package net.sourceforge.kolmafia.textui.command;
 
+import java.util.Comparator;
+import java.util.List;
 import net.sourceforge.kolmafia.KoLConstants.MafiaState;
 import net.sourceforge.kolmafia.KoLmafia;
 import net.sourceforge.kolmafia.RequestLogger;
+import net.sourceforge.kolmafia.RequestRouter;
 import net.sourceforge.kolmafia.listener.ListenerRegistry;
+import net.sourceforge.kolmafia.persistence.DataFileLoader;
 import net.sourceforge.kolmafia.textui.ScriptRuntime;
 
 public class DebugRequestCommand extends AbstractCommand {
   public DebugRequestCommand() {
     this.usage =
-        " [on] | off | ? | note | trace [ [on] | off | ? ] | ash [ [on] | off ] | listener [ [on] | off ] - start or stop logging of debugging data.";
+        " [on] | off | ? | note | trace [ [on] | off | ? ] | ash [ [on] | off ] | listener [ [on] | off ] | routes [ [?] | on | off | clear ] | data - start or stop logging of debugging data.";
   }
 
   @Override
@@ -67,6 +71,29 @@ public class DebugRequestCommand extends AbstractCommand {
           ListenerRegistry.setLogging(false);
         }
         break;
+      case "routes":
+        command = split.length < 2 ? "" : split[1];
+        switch (command) {
+          case "":
+          case "?":
+            DebugRequestCommand.showRoutes();
+            break;
+          case "on":
+            RequestRouter.setChecking(true);
+            KoLmafia.updateDisplay("Checking request routing.");
+            break;
+          case "off":
+            RequestRouter.setChecking(false);
+            KoLmafia.updateDisplay("Not checking request routing.");
+            break;
+          case "clear":
+            RequestLogger.getRouters().forEach(RequestRouter::resetCounters);
+            break;
+        }
+        break;
+      case "data":
+        DebugRequestCommand.showDataFiles();
+        break;
       case "note":
         String debugNote = parameters.substring(command.length()).trim();
         if (debugNote.equals("")) {
@@ -90,4 +117,55 @@ public class DebugRequestCommand extends AbstractCommand {
         break;
     }
   }
+
+  private static void showDataFiles() {
+    List<DataFileLoader.Timing> timings = DataFileLoader.getTimings();
+    if (timings.isEmpty()) {
+      RequestLogger.printLine("No data files were read ahead.");
+      return;
+    }
+
+    for (DataFileLoader.Timing timing : timings) {
+      RequestLogger.printLine(
+          timing.filename()
+              + ": "
+              + timing.lines()
+              + " lines, read "
+              + String.format("%.3f", timing.readNanos() / 1_000_000.0)
+              + " ms, split "
+              + String.format("%.3f", timing.splitNanos() / 1_000_000.0)
+              + " ms, "
+              + (timing.taken()
+                  ? "waited " + String.format("%.3f", timing.waitNanos() / 1_000_000.0) + " ms"
+                  : "not used"));
+    }
+  }
+
+  private static void showRoutes() {
+    for (RequestRouter router : RequestLogger.getRouters()) {
+      router.getRoutes().stream()
+          .filter(route -> route.getCalls() > 0)
+          .sorted(Comparator.comparingLong(RequestRouter.Route::getNanos).reversed())
+          .forEach(
+              route ->
+                  RequestLogger.printLine(
+                      router.getName()
+                          + " "
+                          + route.getName()
+                          + ": "
+                          + route.getCalls()
+                          + " calls, "
+                          + route.getClaims()
+                          + " claimed, "
+                          + String.format("%.3f", route.getNanos() / 1_000_000.0)
+                          + " ms"));
+    }
+
+    RequestLogger.printLine(
+        "Request routing is "
+            + (RequestRouter.isChecking() ? "" : "not ")
+            + "being checked; "
+            + RequestRouter.getMismatches()
+            + " mismatches.");
+  }
 }
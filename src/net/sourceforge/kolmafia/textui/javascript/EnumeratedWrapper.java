@@ -35,7 +35,9 @@ public class EnumeratedWrapper extends ScriptableObject {
   public static EnumeratedWrapper wrap(Scriptable scope, Class<?> recordValueClass, Value wrapped) {
     scope = getTopLevelScope(scope);
     Scriptable proto = scope.getPrototype();
-    while (proto != null && proto != getObjectPrototype(scope)) {
+    while (proto != null
+        && proto != getObjectPrototype(scope)
+        && !JavascriptRuntime.isSharedStandardObjects(proto)) {
       scope = proto;
       proto = scope.getPrototype();
     }
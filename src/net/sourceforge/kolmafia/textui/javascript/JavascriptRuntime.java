@@ -46,6 +46,9 @@ public class JavascriptRuntime extends AbstractRuntime {
   static final Set<JavascriptRuntime> runningRuntimes = ConcurrentHashMap.newKeySet();
   static final ContextFactory contextFactory = new ObservingContextFactory();
 
+  // Standard objects shared by every runtime, if javascriptSharedStandardObjects is set
+  private static volatile ScriptableObject sharedStandardObjects = null;
+
   private File scriptFile = null;
   private String scriptString = null;
 
@@ -165,6 +168,33 @@ public class JavascriptRuntime extends AbstractRuntime {
     }
   }
 
+  private static synchronized ScriptableObject getSharedStandardObjects(Context cx) {
+    if (sharedStandardObjects == null) {
+      ScriptableObject standardObjects = cx.initSafeStandardObjects(null, true);
+      standardObjects.sealObject();
+      sharedStandardObjects = standardObjects;
+    }
+    return sharedStandardObjects;
+  }
+
+  static boolean isSharedStandardObjects(Scriptable scope) {
+    return scope != null && scope == sharedStandardObjects;
+  }
+
+  private static Scriptable newTopScope(Context cx) {
+    if (!Preferences.getBoolean("javascriptSharedStandardObjects")) {
+      return cx.initSafeStandardObjects();
+    }
+
+    // The standard objects are sealed, so a script cannot change them for other scripts. Anything
+    // a script defines at top level goes in its own scope.
+    Scriptable sharedScope = getSharedStandardObjects(cx);
+    Scriptable scope = cx.newObject(sharedScope);
+    scope.setPrototype(sharedScope);
+    scope.setParentScope(null);
+    return scope;
+  }
+
   @Override
   public Value execute(
       final String functionName, final Object[] arguments, final boolean executeTopLevel) {
@@ -183,9 +213,7 @@ public class JavascriptRuntime extends AbstractRuntime {
     cx.setOptimizationLevel(1);
     runningRuntimes.add(this);
 
-    // TODO: Use a shared parent scope and initialize this with that as a prototype.
-    // But be careful. May mess up our EnumeratedWrapper registries.
-    Scriptable scope = cx.initSafeStandardObjects();
+    Scriptable scope = newTopScope(cx);
     currentTopScope = scope;
 
     try {
@@ -0,0 +1,78 @@
+package net.sourceforge.kolmafia.textui.javascript;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import net.sourceforge.kolmafia.KoLConstants;
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.Scriptable;
+import org.mozilla.javascript.commonjs.module.ModuleScript;
+import org.mozilla.javascript.commonjs.module.provider.DefaultUrlConnectionExpiryCalculator;
+import org.mozilla.javascript.commonjs.module.provider.SoftCachingModuleScriptProvider;
+import org.mozilla.javascript.commonjs.module.provider.UrlModuleSourceProvider;
+
+/**
+ * Compiled JavaScript modules, shared by every runtime.
+ *
+ * <p>Modules are looked up by their resolved URI. Each time a cached module is reused, the source
+ * provider checks that the file's last modified time has not changed, so an edited script is
+ * recompiled the next time it is required. (By default, Rhino trusts a module for a minute before
+ * checking it again.) Entries are softly held and are dropped if memory gets low.
+ */
+public class ModuleScriptCache extends SoftCachingModuleScriptProvider {
+  private static final long serialVersionUID = 1L;
+
+  private static final ModuleScriptCache INSTANCE =
+      new ModuleScriptCache(
+          new UrlModuleSourceProvider(
+              Arrays.asList(
+                  KoLConstants.ROOT_LOCATION.toURI(), KoLConstants.SCRIPT_LOCATION.toURI()),
+              null,
+              new DefaultUrlConnectionExpiryCalculator(0),
+              null));
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  // Set when the module being looked up on this thread had to be compiled
+  private final transient ThreadLocal<Boolean> compiled = ThreadLocal.withInitial(() -> false);
+
+  private ModuleScriptCache(final UrlModuleSourceProvider moduleSourceProvider) {
+    super(moduleSourceProvider);
+  }
+
+  public static ModuleScriptCache getInstance() {
+    return INSTANCE;
+  }
+
+  @Override
+  public ModuleScript getModuleScript(
+      final Context cx,
+      final String moduleId,
+      final URI uri,
+      final URI base,
+      final Scriptable paths)
+      throws Exception {
+    this.compiled.set(false);
+    ModuleScript script = super.getModuleScript(cx, moduleId, uri, base, paths);
+    if (script != null) {
+      (this.compiled.get() ? this.misses : this.hits).increment();
+    }
+    return script;
+  }
+
+  @Override
+  protected void putLoadedModule(
+      final String moduleId, final ModuleScript moduleScript, final Object validator) {
+    this.compiled.set(true);
+    super.putLoadedModule(moduleId, moduleScript, validator);
+  }
+
+  public long getHits() {
+    return this.hits.sum();
+  }
+
+  public long getMisses() {
+    return this.misses.sum();
+  }
+}
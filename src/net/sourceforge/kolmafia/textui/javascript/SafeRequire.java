@@ -2,7 +2,6 @@ package net.sourceforge.kolmafia.textui.javascript;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 import net.sourceforge.kolmafia.KoLConstants;
@@ -18,8 +17,6 @@ import org.mozilla.javascript.Context;
 import org.mozilla.javascript.Scriptable;
 import org.mozilla.javascript.ScriptableObject;
 import org.mozilla.javascript.commonjs.module.Require;
-import org.mozilla.javascript.commonjs.module.provider.SoftCachingModuleScriptProvider;
-import org.mozilla.javascript.commonjs.module.provider.UrlModuleSourceProvider;
 
 public class SafeRequire extends Require {
   private static final long serialVersionUID = 1L;
@@ -30,11 +27,7 @@ public class SafeRequire extends Require {
     super(
         cx,
         nativeScope,
-        new SoftCachingModuleScriptProvider(
-            new UrlModuleSourceProvider(
-                Arrays.asList(
-                    KoLConstants.ROOT_LOCATION.toURI(), KoLConstants.SCRIPT_LOCATION.toURI()),
-                null)),
+        ModuleScriptCache.getInstance(),
         null,
         new MainWarningScript(),
         true);
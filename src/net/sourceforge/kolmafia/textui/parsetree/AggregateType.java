@@ -98,6 +98,10 @@ public class AggregateType extends CompositeType {
     return this.size;
   }
 
+  public boolean isCaseInsensitive() {
+    return this.caseInsensitive;
+  }
+
   public void setSize(final int size) {
     this.size = size;
   }
@@ -0,0 +1,360 @@
+package net.sourceforge.kolmafia.textui.parsetree;
+
+import java.util.function.IntPredicate;
+import net.sourceforge.kolmafia.textui.AshRuntime;
+import net.sourceforge.kolmafia.textui.DataTypes;
+import net.sourceforge.kolmafia.textui.DataTypes.TypeSpec;
+import net.sourceforge.kolmafia.textui.Parser;
+import net.sourceforge.kolmafia.textui.ScriptRuntime;
+
+/**
+ * Compiles operations on ints, floats and booleans into closures.
+ *
+ * <p>An {@link Operation} whose operands are constants, simple variables and other such operations
+ * is compiled into a tree of closures which work on Java primitives. Which arithmetic to do, and
+ * how to coerce each operand, is decided once, from the types found by the parser, rather than
+ * each time from the name of the operator and the types of the values. Only the result of the
+ * whole operation is made into a Value.
+ *
+ * <p>Such an operation cannot call a function, so it cannot change the state of the interpreter
+ * part way through. The interpreter captures each operand as it is evaluated; compiled code
+ * captures once, before evaluating anything, which leaves the same state. Division by zero and
+ * invalid exponentiation fail with the same errors as in the interpreter.
+ *
+ * <p>A variable keeps its value in its {@link Variable}, which user functions save and restore
+ * around calls, so compiled code reads the Variable directly.
+ */
+public class ExpressionCompiler {
+  @FunctionalInterface
+  public interface Code {
+    Value run(AshRuntime interpreter);
+  }
+
+  @FunctionalInterface
+  private interface IntCode {
+    long run(AshRuntime interpreter);
+  }
+
+  @FunctionalInterface
+  private interface FloatCode {
+    double run(AshRuntime interpreter);
+  }
+
+  @FunctionalInterface
+  private interface BooleanCode {
+    boolean run(AshRuntime interpreter);
+  }
+
+  private ExpressionCompiler() {}
+
+  /** Returns the operation compiled, or null if it is not made only of what can be compiled. */
+  public static Code compile(final Operation operation) {
+    Code code = null;
+
+    if (operation.getType().equals(TypeSpec.INT)) {
+      IntCode result = ExpressionCompiler.compileInt(operation);
+      if (result != null) {
+        code = interpreter -> DataTypes.makeIntValue(result.run(interpreter));
+      }
+    } else if (operation.getType().equals(TypeSpec.FLOAT)) {
+      FloatCode result = ExpressionCompiler.compileFloat(operation);
+      if (result != null) {
+        code = interpreter -> DataTypes.makeFloatValue(result.run(interpreter));
+      }
+    } else if (operation.getType().equals(TypeSpec.BOOLEAN)) {
+      BooleanCode result = ExpressionCompiler.compileBoolean(operation);
+      if (result != null) {
+        code = interpreter -> DataTypes.makeBooleanValue(result.run(interpreter));
+      }
+    }
+
+    if (code == null) {
+      return null;
+    }
+
+    Code body = code;
+    return interpreter -> {
+      interpreter.captureValue(DataTypes.VOID_VALUE);
+      if (interpreter.getState() == ScriptRuntime.State.EXIT) {
+        return null;
+      }
+      return body.run(interpreter);
+    };
+  }
+
+  private static boolean isInt(final Evaluable node) {
+    return node.getType().equals(TypeSpec.INT);
+  }
+
+  private static boolean isFloat(final Evaluable node) {
+    return node.getType().equals(TypeSpec.FLOAT);
+  }
+
+  private static boolean isBoolean(final Evaluable node) {
+    return node.getType().equals(TypeSpec.BOOLEAN);
+  }
+
+  private static boolean isNumber(final Evaluable node) {
+    return isInt(node) || isFloat(node);
+  }
+
+  // Returns the variable a node reads, if it reads nothing else
+  private static Variable variableOf(final Evaluable node) {
+    if (node.getClass() != VariableReference.class) {
+      return null;
+    }
+
+    Variable variable = ((VariableReference) node).target;
+    return variable.expression == null ? variable : null;
+  }
+
+  // The interpreter makes a Value of each result, and makes -0.0 into 0.0 while doing so
+  private static double normalize(final double value) {
+    return value == 0.0 ? 0.0 : value;
+  }
+
+  private static IntCode compileInt(final Evaluable node) {
+    if (!isInt(node)) {
+      return null;
+    }
+
+    if (node instanceof Value.Constant constant) {
+      long value = constant.value.intValue();
+      return interpreter -> value;
+    }
+
+    Variable variable = variableOf(node);
+    if (variable != null) {
+      return interpreter -> variable.getValue(interpreter).intValue();
+    }
+
+    if (!(node instanceof Operation operation)) {
+      return null;
+    }
+
+    Operator oper = operation.getOperator();
+    IntCode lhs = compileInt(operation.lhs);
+    if (lhs == null) {
+      return null;
+    }
+
+    if (operation.rhs == null) {
+      return switch (oper.operator) {
+        case "-" -> interpreter -> -lhs.run(interpreter);
+        case "~" -> interpreter -> ~lhs.run(interpreter);
+        default -> null;
+      };
+    }
+
+    IntCode rhs = compileInt(operation.rhs);
+    if (rhs == null) {
+      return null;
+    }
+
+    return switch (oper.operator) {
+      case "+" -> interpreter -> lhs.run(interpreter) + rhs.run(interpreter);
+      case "-" -> interpreter -> lhs.run(interpreter) - rhs.run(interpreter);
+      case "*" -> interpreter -> lhs.run(interpreter) * rhs.run(interpreter);
+      case "/" -> interpreter -> {
+        long l = lhs.run(interpreter);
+        long r = rhs.run(interpreter);
+        if (r == 0) {
+          throw oper.runtimeException(interpreter, "Division by zero");
+        }
+        return l / r;
+      };
+      case "%" -> interpreter -> {
+        long l = lhs.run(interpreter);
+        long r = rhs.run(interpreter);
+        if (r == 0) {
+          throw oper.runtimeException(interpreter, "Division by zero");
+        }
+        return l % r;
+      };
+      case "**" -> interpreter -> (long) Math.pow(lhs.run(interpreter), rhs.run(interpreter));
+      case "<<" -> interpreter -> lhs.run(interpreter) << rhs.run(interpreter);
+      case ">>" -> interpreter -> lhs.run(interpreter) >> rhs.run(interpreter);
+      case ">>>" -> interpreter -> lhs.run(interpreter) >>> rhs.run(interpreter);
+      case "&" -> interpreter -> lhs.run(interpreter) & rhs.run(interpreter);
+      case "|" -> interpreter -> lhs.run(interpreter) | rhs.run(interpreter);
+      case "^" -> interpreter -> lhs.run(interpreter) ^ rhs.run(interpreter);
+      default -> null;
+    };
+  }
+
+  private static FloatCode compileFloat(final Evaluable node) {
+    if (isInt(node)) {
+      IntCode value = compileInt(node);
+      return value == null ? null : interpreter -> (double) value.run(interpreter);
+    }
+
+    if (!isFloat(node)) {
+      return null;
+    }
+
+    if (node instanceof Value.Constant constant) {
+      double value = constant.value.floatValue();
+      return interpreter -> value;
+    }
+
+    Variable variable = variableOf(node);
+    if (variable != null) {
+      return interpreter -> variable.getValue(interpreter).floatValue();
+    }
+
+    if (!(node instanceof Operation operation)) {
+      return null;
+    }
+
+    Operator oper = operation.getOperator();
+    FloatCode lhs = compileFloat(operation.lhs);
+    if (lhs == null) {
+      return null;
+    }
+
+    if (operation.rhs == null) {
+      return oper.operator.equals("-")
+          ? interpreter -> normalize(0.0 - lhs.run(interpreter))
+          : null;
+    }
+
+    FloatCode rhs = compileFloat(operation.rhs);
+    if (rhs == null) {
+      return null;
+    }
+
+    return switch (oper.operator) {
+      case "+" -> interpreter -> normalize(lhs.run(interpreter) + rhs.run(interpreter));
+      case "-" -> interpreter -> normalize(lhs.run(interpreter) - rhs.run(interpreter));
+      case "*" -> interpreter -> normalize(lhs.run(interpreter) * rhs.run(interpreter));
+      case "/" -> interpreter -> {
+        double l = lhs.run(interpreter);
+        double r = rhs.run(interpreter);
+        if (r == 0.0) {
+          throw oper.runtimeException(interpreter, "Division by zero");
+        }
+        return normalize(l / r);
+      };
+      case "%" -> interpreter -> {
+        double l = lhs.run(interpreter);
+        double r = rhs.run(interpreter);
+        if (r == 0.0) {
+          throw oper.runtimeException(interpreter, "Division by zero");
+        }
+        return normalize(l % r);
+      };
+      case "**" -> interpreter -> {
+        double l = lhs.run(interpreter);
+        double r = rhs.run(interpreter);
+        double value = Math.pow(l, r);
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+          throw oper.runtimeException(
+              interpreter, "Invalid exponentiation: cannot take " + l + " ** " + r);
+        }
+        return normalize(value);
+      };
+      default -> null;
+    };
+  }
+
+  private static BooleanCode compileBoolean(final Evaluable node) {
+    if (!isBoolean(node)) {
+      return null;
+    }
+
+    if (node instanceof Value.Constant constant) {
+      boolean value = constant.value.intValue() != 0;
+      return interpreter -> value;
+    }
+
+    Variable variable = variableOf(node);
+    if (variable != null) {
+      return interpreter -> variable.getValue(interpreter).intValue() != 0;
+    }
+
+    if (!(node instanceof Operation operation)) {
+      return null;
+    }
+
+    Operator oper = operation.getOperator();
+
+    if (operation.rhs == null) {
+      BooleanCode lhs = compileBoolean(operation.lhs);
+      if (lhs == null) {
+        return null;
+      }
+      return switch (oper.operator) {
+        case "!", "~" -> interpreter -> !lhs.run(interpreter);
+        default -> null;
+      };
+    }
+
+    if (oper.isComparison()) {
+      return compileComparison(oper, operation.lhs, operation.rhs);
+    }
+
+    BooleanCode lhs = compileBoolean(operation.lhs);
+    BooleanCode rhs = compileBoolean(operation.rhs);
+    if (lhs == null || rhs == null) {
+      return null;
+    }
+
+    return switch (oper.operator) {
+      case "&&" -> interpreter -> lhs.run(interpreter) && rhs.run(interpreter);
+      case "||" -> interpreter -> lhs.run(interpreter) || rhs.run(interpreter);
+      case "&" -> interpreter -> lhs.run(interpreter) & rhs.run(interpreter);
+      case "|" -> interpreter -> lhs.run(interpreter) | rhs.run(interpreter);
+      case "^" -> interpreter -> lhs.run(interpreter) ^ rhs.run(interpreter);
+      default -> null;
+    };
+  }
+
+  // Compares as Value.compareTo does: as floats if either side is a float, and otherwise as longs
+  private static BooleanCode compileComparison(
+      final Operator oper, final Evaluable left, final Evaluable right) {
+    IntPredicate test =
+        switch (oper.operator) {
+          case "==", Parser.APPROX -> c -> c == 0;
+          case "!=" -> c -> c != 0;
+          case ">=" -> c -> c >= 0;
+          case "<=" -> c -> c <= 0;
+          case ">" -> c -> c > 0;
+          case "<" -> c -> c < 0;
+          default -> null;
+        };
+    if (test == null) {
+      return null;
+    }
+
+    if (isNumber(left) && isNumber(right) && (isFloat(left) || isFloat(right))) {
+      FloatCode lhs = compileFloat(left);
+      FloatCode rhs = compileFloat(right);
+      if (lhs == null || rhs == null) {
+        return null;
+      }
+      return interpreter ->
+          test.test(Double.compare(lhs.run(interpreter), rhs.run(interpreter)));
+    }
+
+    if (isInt(left) && isInt(right)) {
+      IntCode lhs = compileInt(left);
+      IntCode rhs = compileInt(right);
+      if (lhs == null || rhs == null) {
+        return null;
+      }
+      return interpreter -> test.test(Long.compare(lhs.run(interpreter), rhs.run(interpreter)));
+    }
+
+    if (isBoolean(left) && isBoolean(right)) {
+      BooleanCode lhs = compileBoolean(left);
+      BooleanCode rhs = compileBoolean(right);
+      if (lhs == null || rhs == null) {
+        return null;
+      }
+      return interpreter ->
+          test.test(Boolean.compare(lhs.run(interpreter), rhs.run(interpreter)));
+    }
+
+    return null;
+  }
+}
@@ -1,6 +1,7 @@
 package net.sourceforge.kolmafia.textui.parsetree;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
 import java.util.Arrays;
@@ -15,7 +16,15 @@ import net.sourceforge.kolmafia.textui.ScriptException;
 import net.sourceforge.kolmafia.textui.ScriptRuntime;
 
 public class LibraryFunction extends Function {
+  // Arities up to this are called with each argument in turn, rather than in an array
+  private static final int MAX_FIXED_ARITY = 3;
+
   private Method method;
+  // The method, taking the controller and each argument in turn
+  private MethodHandle handle;
+  // The method, taking the controller and the arguments in one array
+  private MethodHandle spreader;
+  private final boolean hasVarArgs;
   public String[] deprecationWarning;
 
   public LibraryFunction(
@@ -25,6 +34,7 @@ public class LibraryFunction extends Function {
     this.deprecationWarning = deprecationWarning;
 
     Class<?>[] args = new Class[params.length + 1];
+    boolean hasVarArgs = false;
 
     args[0] = ScriptRuntime.class;
 
@@ -34,10 +44,16 @@ public class LibraryFunction extends Function {
       Variable variable = new Variable(params[i - 1]);
       this.variableReferences.add(new VariableReference(null, variable));
       args[i] = Value.class;
+      hasVarArgs |= params[i - 1] instanceof VarArgType;
     }
+    this.hasVarArgs = hasVarArgs;
 
     try {
       this.method = RuntimeLibrary.findMethod(name, args);
+
+      MethodHandle handle = MethodHandles.publicLookup().unreflect(this.method);
+      this.handle = handle.asType(handle.type().changeReturnType(Value.class));
+      this.spreader = this.handle.asSpreader(Object[].class, args.length);
     } catch (Exception e) {
       // This should not happen; it denotes a coding
       // error that must be fixed before release.
@@ -62,31 +78,11 @@ public class LibraryFunction extends Function {
       return this.getType().initialValue();
     }
 
-    if (this.method == null) {
+    if (this.handle == null) {
       throw interpreter.runtimeException("Internal error: no method for " + this.getName());
     }
 
-    try {
-      // Bind values to variable references.
-      // Collapse values into VarArgs array
-      values = this.bindVariableReferences(interpreter, values);
-
-      // Invoke the method
-      return (Value) this.method.invoke(this, values);
-    } catch (InvocationTargetException e) {
-      // This is an error in the called method. Pass
-      // it on up so that we'll print a stack trace.
-
-      Throwable cause = e.getCause();
-      if (cause instanceof ScriptException) {
-        // Pass up exceptions intentionally generated by library
-        throw (ScriptException) cause;
-      }
-      throw new RuntimeException(cause);
-    } catch (IllegalAccessException e) {
-      // This is not expected, but is an internal error in ASH
-      throw new ScriptException(e);
-    }
+    return this.invoke(interpreter, values);
   }
 
   // This is necessary for calls into the runtime library from other languages.
@@ -96,29 +92,54 @@ public class LibraryFunction extends Function {
       return this.getType().initialValue();
     }
 
-    if (this.method == null) {
+    if (this.handle == null) {
       throw controller.runtimeException("Internal error: no method for " + this.getName());
     }
 
-    try {
+    return this.invoke(null, values);
+  }
+
+  private Value invoke(final AshRuntime interpreter, Object[] values) {
+    int arity = this.variableReferences.size();
+    boolean spread = this.hasVarArgs || arity > MAX_FIXED_ARITY;
+
+    if (spread) {
+      // Bind values to variable references.
       // Collapse values into VarArgs array
-      values = this.bindVariableReferences(null, values);
+      values = this.bindVariableReferences(interpreter, values);
+    } else if (interpreter != null) {
+      // Bind values to variable references.
+      int paramCount = 1;
+      for (VariableReference paramVarRef : this.variableReferences) {
+        paramVarRef.setValue(interpreter, (Value) values[paramCount++]);
+      }
+    }
 
-      // Invoke the method
-      return (Value) this.method.invoke(this, values);
-    } catch (InvocationTargetException e) {
-      // This is an error in the called method. Pass
-      // it on up so that we'll print a stack trace.
+    try {
+      if (spread) {
+        return (Value) this.spreader.invokeExact(values);
+      }
 
-      Throwable cause = e.getCause();
-      if (cause instanceof ScriptException) {
-        // Pass up exceptions intentionally generated by library
-        throw (ScriptException) cause;
+      ScriptRuntime controller = (ScriptRuntime) values[0];
+      switch (arity) {
+        case 0:
+          return (Value) this.handle.invokeExact(controller);
+        case 1:
+          return (Value) this.handle.invokeExact(controller, (Value) values[1]);
+        case 2:
+          return (Value) this.handle.invokeExact(controller, (Value) values[1], (Value) values[2]);
+        default:
+          return (Value)
+              this.handle.invokeExact(
+                  controller, (Value) values[1], (Value) values[2], (Value) values[3]);
       }
-      throw new RuntimeException(cause);
-    } catch (IllegalAccessException e) {
-      // This is not expected, but is an internal error in ASH
-      throw new ScriptException(e);
+    } catch (ScriptException e) {
+      // Pass up exceptions intentionally generated by library
+      throw e;
+    } catch (Throwable e) {
+      // This is an error in the called method. Pass
+      // it on up so that we'll print a stack trace.
+      throw new RuntimeException(e);
     }
   }
 
@@ -0,0 +1,312 @@
+package net.sourceforge.kolmafia.textui.parsetree;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+import net.sourceforge.kolmafia.textui.DataTypes.TypeSpec;
+
+/**
+ * The contents of a map whose keys all have one type, kept in a hash table rather than a TreeMap.
+ *
+ * <p>Keys which Value.compareTo compares by their long content (ints, items, skills and the like)
+ * are found by that long; strings are found by their text. Either way, finding a key compares no
+ * Values. The keys are sorted only when they are next iterated over, and stay sorted until a key is
+ * added or removed, so a map is still iterated over in the same order as a TreeMap of the same
+ * keys. As with a TreeMap, adding or removing a key other than through an iterator makes that
+ * iterator fail.
+ */
+class MapTable {
+  private static final int MIN_CAPACITY = 8;
+
+  // The type of the keys
+  private final TypeSpec spec;
+  // Whether keys are compared by their text rather than by their long content
+  private final boolean byText;
+
+  // Open addressing with linear probing. A slot is empty if its key is null.
+  private long[] codes;
+  private Value[] keys;
+  private Value[] values;
+  private int size = 0;
+
+  private int modCount = 0;
+  private Value[] sorted = null;
+
+  private MapTable(final TypeSpec spec) {
+    this.spec = spec;
+    this.byText = spec == TypeSpec.STRING;
+    this.allocate(MIN_CAPACITY);
+  }
+
+  /** Returns a table for keys of the given type, or null if they must be kept in a TreeMap. */
+  static MapTable forKeys(final Type indexType) {
+    if (indexType == null) {
+      return null;
+    }
+
+    TypeSpec spec = indexType.getBaseType().getType();
+    return switch (spec) {
+      case BOOLEAN,
+          INT,
+          ITEM,
+          CLASS,
+          SKILL,
+          EFFECT,
+          FAMILIAR,
+          SLOT,
+          THRALL,
+          SERVANT,
+          PATH,
+          STRING -> new MapTable(spec);
+      default -> null;
+    };
+  }
+
+  /**
+   * Whether a key has the type of the keys in this table. A key of another type may still be
+   * looked up, but must not be added or removed.
+   */
+  boolean accepts(final Value key) {
+    return key.getType().getBaseType().getType() == this.spec;
+  }
+
+  private void allocate(final int capacity) {
+    this.codes = new long[capacity];
+    this.keys = new Value[capacity];
+    this.values = new Value[capacity];
+  }
+
+  private long code(final Value key) {
+    return this.byText ? key.toString().hashCode() : key.contentLong;
+  }
+
+  private int home(final long code) {
+    long hash = code * 0x9E3779B97F4A7C15L;
+    return (int) (hash ^ (hash >>> 32)) & (this.keys.length - 1);
+  }
+
+  private int find(final Value key) {
+    long code = this.code(key);
+    String text = this.byText ? key.toString() : null;
+    int mask = this.keys.length - 1;
+
+    for (int slot = this.home(code); this.keys[slot] != null; slot = (slot + 1) & mask) {
+      if (this.codes[slot] == code && (text == null || text.equals(this.keys[slot].toString()))) {
+        return slot;
+      }
+    }
+    return -1;
+  }
+
+  int size() {
+    return this.size;
+  }
+
+  // Finds a key of another type the way a TreeMap would, by comparing it to each key
+  private int scan(final Value key) {
+    for (int slot = 0; slot < this.keys.length; ++slot) {
+      if (this.keys[slot] != null && key.compareTo(this.keys[slot]) == 0) {
+        return slot;
+      }
+    }
+    return -1;
+  }
+
+  private int lookup(final Value key) {
+    return this.accepts(key) ? this.find(key) : this.scan(key);
+  }
+
+  boolean containsKey(final Value key) {
+    return this.lookup(key) != -1;
+  }
+
+  Value get(final Value key) {
+    int slot = this.lookup(key);
+    return slot == -1 ? null : this.values[slot];
+  }
+
+  /** Sets the value of a key. As with a TreeMap, a key already present is kept. */
+  Value put(final Value key, final Value value) {
+    int slot = this.find(key);
+    if (slot != -1) {
+      Value previous = this.values[slot];
+      this.values[slot] = value;
+      return previous;
+    }
+
+    if ((this.size + 1) * 4 > this.keys.length * 3) {
+      this.resize(this.keys.length * 2);
+    }
+
+    long code = this.code(key);
+    int mask = this.keys.length - 1;
+    slot = this.home(code);
+    while (this.keys[slot] != null) {
+      slot = (slot + 1) & mask;
+    }
+
+    this.codes[slot] = code;
+    this.keys[slot] = key;
+    this.values[slot] = value;
+    this.size++;
+    this.changed();
+    return null;
+  }
+
+  private void resize(final int capacity) {
+    long[] oldCodes = this.codes;
+    Value[] oldKeys = this.keys;
+    Value[] oldValues = this.values;
+    this.allocate(capacity);
+
+    int mask = capacity - 1;
+    for (int i = 0; i < oldKeys.length; ++i) {
+      if (oldKeys[i] == null) {
+        continue;
+      }
+      int slot = this.home(oldCodes[i]);
+      while (this.keys[slot] != null) {
+        slot = (slot + 1) & mask;
+      }
+      this.codes[slot] = oldCodes[i];
+      this.keys[slot] = oldKeys[i];
+      this.values[slot] = oldValues[i];
+    }
+  }
+
+  Value remove(final Value key) {
+    int slot = this.find(key);
+    if (slot == -1) {
+      return null;
+    }
+
+    Value previous = this.values[slot];
+
+    // Move back any later key in the same run which may no longer be reached past the hole
+    int mask = this.keys.length - 1;
+    int hole = slot;
+    for (int next = (hole + 1) & mask; this.keys[next] != null; next = (next + 1) & mask) {
+      int home = this.home(this.codes[next]);
+      if (((next - home) & mask) >= ((next - hole) & mask)) {
+        this.codes[hole] = this.codes[next];
+        this.keys[hole] = this.keys[next];
+        this.values[hole] = this.values[next];
+        hole = next;
+      }
+    }
+    this.keys[hole] = null;
+    this.values[hole] = null;
+
+    this.size--;
+    this.changed();
+    return previous;
+  }
+
+  void clear() {
+    Arrays.fill(this.keys, null);
+    Arrays.fill(this.values, null);
+    this.size = 0;
+    this.changed();
+  }
+
+  // Makes iterators fail, and the keys be sorted again when next needed
+  void changed() {
+    this.modCount++;
+    this.sorted = null;
+  }
+
+  private Value[] sortedKeys() {
+    if (this.sorted != null) {
+      return this.sorted;
+    }
+
+    Value[] order = new Value[this.size];
+    int count = 0;
+
+    if (this.byText) {
+      for (Value key : this.keys) {
+        if (key != null) {
+          order[count++] = key;
+        }
+      }
+      Arrays.sort(order);
+    } else {
+      // Each long appears once, so sort the longs and look each one up again
+      long[] codes = new long[this.size];
+      for (int slot = 0; slot < this.keys.length; ++slot) {
+        if (this.keys[slot] != null) {
+          codes[count++] = this.codes[slot];
+        }
+      }
+      Arrays.sort(codes);
+
+      int mask = this.keys.length - 1;
+      for (int i = 0; i < codes.length; ++i) {
+        int slot = this.home(codes[i]);
+        while (this.codes[slot] != codes[i] || this.keys[slot] == null) {
+          slot = (slot + 1) & mask;
+        }
+        order[i] = this.keys[slot];
+      }
+    }
+
+    this.sorted = order;
+    return order;
+  }
+
+  Value[] keys() {
+    return this.sortedKeys().clone();
+  }
+
+  Iterator<Value> iterator() {
+    Value[] order = this.sortedKeys();
+
+    return new Iterator<>() {
+      private int next = 0;
+      private Value current = null;
+      private int expectedModCount = MapTable.this.modCount;
+
+      @Override
+      public boolean hasNext() {
+        return this.next < order.length;
+      }
+
+      @Override
+      public Value next() {
+        if (MapTable.this.modCount != this.expectedModCount) {
+          throw new ConcurrentModificationException();
+        }
+        if (this.next >= order.length) {
+          throw new NoSuchElementException();
+        }
+        this.current = order[this.next++];
+        return this.current;
+      }
+
+      @Override
+      public void remove() {
+        if (this.current == null) {
+          throw new IllegalStateException();
+        }
+        if (MapTable.this.modCount != this.expectedModCount) {
+          throw new ConcurrentModificationException();
+        }
+        MapTable.this.remove(this.current);
+        this.current = null;
+        this.expectedModCount = MapTable.this.modCount;
+      }
+    };
+  }
+
+  TreeMap<Value, Value> toTreeMap() {
+    TreeMap<Value, Value> map = new TreeMap<>();
+    for (int slot = 0; slot < this.keys.length; ++slot) {
+      if (this.keys[slot] != null) {
+        map.put(this.keys[slot], this.values[slot]);
+      }
+    }
+    return map;
+  }
+}
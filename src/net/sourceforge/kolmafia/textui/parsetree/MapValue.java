@@ -8,17 +8,21 @@ import net.sourceforge.kolmafia.textui.AshRuntime;
 import net.sourceforge.kolmafia.textui.DataTypes.TypeSpec;
 
 public class MapValue extends AggregateValue {
+  // The content is a MapTable if the keys have a type it can hold, and a Map otherwise
+
   public MapValue(final AggregateType type) {
-    super(type);
-    this.content = new TreeMap<Value, Value>();
+    this(type, false);
   }
 
   public MapValue(final AggregateType type, boolean caseInsensitive) {
     super(type);
+    MapTable table = caseInsensitive ? null : MapTable.forKeys(type.getIndexType());
     this.content =
-        caseInsensitive
-            ? new TreeMap<Value, Value>(Value.ignoreCaseComparator)
-            : new TreeMap<Value, Value>();
+        table != null
+            ? table
+            : caseInsensitive
+                ? new TreeMap<Value, Value>(Value.ignoreCaseComparator)
+                : new TreeMap<Value, Value>();
   }
 
   public MapValue(final AggregateType type, Map<?, ?> value) {
@@ -28,37 +32,60 @@ public class MapValue extends AggregateValue {
 
   @SuppressWarnings("unchecked")
   private Map<Value, Value> getMap() {
+    if (this.content instanceof MapTable table) {
+      // Keep the entries in a TreeMap from now on
+      table.changed();
+      this.content = table.toTreeMap();
+    }
     return (Map<Value, Value>) this.content;
   }
 
+  // Returns the table which holds the entries, if it can hold the given key
+  private MapTable getTable(final Value key) {
+    return this.content instanceof MapTable table && table.accepts(key) ? table : null;
+  }
+
   @Override
   public Value aref(final Value key, final AshRuntime interpreter) {
+    if (this.content instanceof MapTable table) {
+      return table.get(key);
+    }
     Map<Value, Value> map = this.getMap();
     return map.get(key);
   }
 
   @Override
   public void aset(final Value key, Value val, final AshRuntime interpreter) {
-    Map<Value, Value> map = this.getMap();
+    MapTable table = this.getTable(key);
+    Map<Value, Value> map = table == null ? this.getMap() : null;
 
     Type dataType = this.getDataType();
     Type baseType = dataType.getBaseType();
     Type valType = val.getType();
 
     if (baseType.equals(valType)) {
-      map.put(key, val);
+      this.put(table, map, key, val);
     } else if (baseType.equals(TypeSpec.STRING)) {
-      map.put(key, val.toStringValue());
+      this.put(table, map, key, val.toStringValue());
     } else if (baseType.equals(TypeSpec.INT) && valType.equals(TypeSpec.FLOAT)) {
-      map.put(key, val.toIntValue());
+      this.put(table, map, key, val.toIntValue());
     } else if (baseType.equals(TypeSpec.FLOAT) && valType.equals(TypeSpec.INT)) {
-      map.put(key, val.toFloatValue());
+      this.put(table, map, key, val.toFloatValue());
     } else {
       throw interpreter.runtimeException(
           "Internal error: Cannot assign " + valType + " to " + baseType);
     }
   }
 
+  private void put(
+      final MapTable table, final Map<Value, Value> map, final Value key, final Value val) {
+    if (table != null) {
+      table.put(key, val);
+    } else {
+      map.put(key, val);
+    }
+  }
+
   @Override
   public Value remove(final Value key, final AshRuntime interpreter) {
     // Look through all active foreach loops since they are
@@ -91,30 +118,47 @@ public class MapValue extends AggregateValue {
       return rv;
     }
 
+    MapTable table = this.getTable(key);
+    if (table != null) {
+      return table.remove(key);
+    }
     Map<Value, Value> map = this.getMap();
     return map.remove(key);
   }
 
   @Override
   public void clear() {
+    if (this.content instanceof MapTable table) {
+      table.clear();
+      return;
+    }
     Map<Value, Value> map = this.getMap();
     map.clear();
   }
 
   @Override
   public int count() {
+    if (this.content instanceof MapTable table) {
+      return table.size();
+    }
     Map<Value, Value> map = this.getMap();
     return map.size();
   }
 
   @Override
   public boolean contains(final Value key) {
+    if (this.content instanceof MapTable table) {
+      return table.containsKey(key);
+    }
     Map<Value, Value> map = this.getMap();
     return map.containsKey(key);
   }
 
   @Override
   public Value[] keys() {
+    if (this.content instanceof MapTable table) {
+      return table.keys();
+    }
     Set<Value> set = this.getMap().keySet();
     Value[] keys = new Value[set.size()];
     set.toArray(keys);
@@ -123,6 +167,9 @@ public class MapValue extends AggregateValue {
 
   @Override
   public Iterator<Value> iterator() {
+    if (this.content instanceof MapTable table) {
+      return table.iterator();
+    }
     Set<Value> set = this.getMap().keySet();
     return set.iterator();
   }
@@ -5,10 +5,19 @@ import net.sourceforge.kolmafia.textui.AshRuntime;
 import net.sourceforge.kolmafia.textui.DataTypes;
 import net.sourceforge.kolmafia.textui.DataTypes.TypeSpec;
 import net.sourceforge.kolmafia.textui.Parser;
+import net.sourceforge.kolmafia.textui.ScriptRuntime;
 
 public class Operation extends Expression {
   private final Operator oper;
 
+  // Stands in for the code of an operation which cannot be compiled
+  private static final ExpressionCompiler.Code INTERPRETED = interpreter -> null;
+
+  // Compiled on first execution; null until then. Parse trees are shared between threads by the
+  // script cache, so the code is published through a volatile field. Two threads may both compile
+  // an operation, but they compile it to the same code.
+  private volatile ExpressionCompiler.Code code = null;
+
   public Operation(final Evaluable lhs, final Evaluable rhs, final Operator oper) {
     super(rhs == null ? Parser.mergeLocations(oper, lhs) : Parser.mergeLocations(lhs, rhs));
     this.lhs = lhs;
@@ -68,6 +77,20 @@ public class Operation extends Expression {
 
   @Override
   public Value execute(final AshRuntime interpreter) {
+    if (interpreter.compilesExpressions() && !ScriptRuntime.isTracing()) {
+      ExpressionCompiler.Code code = this.code;
+      if (code == null) {
+        code = ExpressionCompiler.compile(this);
+        if (code == null) {
+          code = INTERPRETED;
+        }
+        this.code = code;
+      }
+      if (code != INTERPRETED) {
+        return code.run(interpreter);
+      }
+    }
+
     return this.rhs == null
         ? this.oper.applyTo(interpreter, this.lhs)
         : this.oper.applyTo(interpreter, this.lhs, this.rhs);
@@ -5,6 +5,7 @@ import net.sourceforge.kolmafia.textui.AshRuntime;
 import net.sourceforge.kolmafia.textui.DataTypes;
 import net.sourceforge.kolmafia.textui.DataTypes.TypeSpec;
 import net.sourceforge.kolmafia.textui.Parser;
+import net.sourceforge.kolmafia.textui.ScriptException;
 import net.sourceforge.kolmafia.textui.ScriptRuntime;
 import org.eclipse.lsp4j.Location;
 
@@ -26,6 +27,10 @@ public class Operator extends Command {
     return this.operator.equals(op);
   }
 
+  ScriptException runtimeException(final AshRuntime interpreter, final String message) {
+    return interpreter.runtimeException(message, this.fileName, this.lineNumber);
+  }
+
   public boolean precedes(final Operator oper) {
     return this.operStrength() > oper.operStrength();
   }
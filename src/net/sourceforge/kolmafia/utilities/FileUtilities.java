@@ -28,6 +28,7 @@ import net.sourceforge.kolmafia.KoLConstants;
 import net.sourceforge.kolmafia.KoLmafia;
 import net.sourceforge.kolmafia.RequestLogger;
 import net.sourceforge.kolmafia.StaticEntity;
+import net.sourceforge.kolmafia.persistence.DataFileLoader;
 import net.sourceforge.kolmafia.preferences.Preferences;
 import net.sourceforge.kolmafia.request.GenericRequest;
 
@@ -76,9 +77,13 @@ public class FileUtilities {
   }
 
   public static final BufferedReader getVersionedReader(final String filename, final int version) {
-    BufferedReader reader =
-        FileUtilities.getReader(
-            DataUtilities.getReader(KoLConstants.DATA_DIRECTORY, filename, true));
+    // The file may have been read ahead at startup
+    BufferedReader reader = DataFileLoader.take(filename);
+    if (reader == null) {
+      reader =
+          FileUtilities.getReader(
+              DataUtilities.getReader(KoLConstants.DATA_DIRECTORY, filename, true));
+    }
 
     // If no file, no reader
     if (reader == null) {
@@ -153,6 +158,10 @@ public class FileUtilities {
       return null;
     }
 
+    if (reader instanceof DataFileLoader.DataReader data) {
+      return data.readData();
+    }
+
     String line = readLine(reader);
     return line == null ? null : line.split("\t", -1);
   }
@@ -0,0 +1,119 @@
+package net.sourceforge.kolmafia.utilities;
+
+import java.util.Arrays;
+import java.util.Collection;
+import net.java.dev.spellcast.utilities.SortedListModel;
+import net.sourceforge.kolmafia.AdventureResult;
+
+/**
+ * A {@link SortedListModel} of items which also keeps the total count of each item id, so that
+ * asking how many of an item the list holds neither searches the list nor needs an AdventureResult
+ * to search for.
+ *
+ * <p>Every change to the elements goes through add, addAll, set, remove(int) or clear; the other
+ * ways of changing the list, such as remove(Object), removeAll and iterators, call those. The
+ * counts are updated along with the elements, while holding the same lock.
+ */
+public class ItemListModel extends SortedListModel<AdventureResult> {
+  // Indexed by item id: the total count, and the number of elements
+  private int[] counts = new int[0];
+  private int[] elements = new int[0];
+
+  /** Returns the total count of the item with the given id, or 0 if the list does not hold it. */
+  public int getCount(final int itemId) {
+    int[] counts = this.counts;
+    return itemId > 0 && itemId < counts.length ? counts[itemId] : 0;
+  }
+
+  /** Returns true if the list holds an element for the item with the given id. */
+  public boolean holds(final int itemId) {
+    int[] elements = this.elements;
+    return itemId > 0 && itemId < elements.length && elements[itemId] > 0;
+  }
+
+  /** Returns true if item counts can be looked up by item id. */
+  public static boolean isCounted(final AdventureResult item) {
+    return item != null && item.isItem() && item.getItemId() > 0;
+  }
+
+  private void adjust(final AdventureResult item, final int sign) {
+    if (!ItemListModel.isCounted(item)) {
+      return;
+    }
+
+    int itemId = item.getItemId();
+    if (itemId >= this.counts.length) {
+      int length = Math.max(itemId + 1, this.counts.length * 2);
+      this.counts = Arrays.copyOf(this.counts, length);
+      this.elements = Arrays.copyOf(this.elements, length);
+    }
+    this.counts[itemId] += sign * item.getCount();
+    this.elements[itemId] += sign;
+  }
+
+  @Override
+  public boolean add(final AdventureResult o) {
+    synchronized (this.actualElements) {
+      if (!super.add(o)) {
+        return false;
+      }
+
+      this.adjust(o, 1);
+      return true;
+    }
+  }
+
+  @Override
+  public boolean addAll(final int index, final Collection<? extends AdventureResult> c) {
+    synchronized (this.actualElements) {
+      if (!super.addAll(index, c)) {
+        return false;
+      }
+
+      for (AdventureResult item : c) {
+        this.adjust(item, 1);
+      }
+      return true;
+    }
+  }
+
+  @Override
+  public AdventureResult set(final int index, final AdventureResult element) {
+    synchronized (this.actualElements) {
+      AdventureResult originalValue = super.set(index, element);
+
+      // Setting null changes nothing
+      if (element != null) {
+        this.adjust(originalValue, -1);
+        this.adjust(element, 1);
+      }
+      return originalValue;
+    }
+  }
+
+  @Override
+  public AdventureResult remove(final int index) {
+    synchronized (this.actualElements) {
+      AdventureResult originalValue = super.remove(index);
+      this.adjust(originalValue, -1);
+      return originalValue;
+    }
+  }
+
+  @Override
+  public void clear() {
+    synchronized (this.actualElements) {
+      super.clear();
+      Arrays.fill(this.counts, 0);
+      Arrays.fill(this.elements, 0);
+    }
+  }
+
+  @Override
+  public Object clone() {
+    ItemListModel cloneCopy = (ItemListModel) super.clone();
+    cloneCopy.counts = this.counts.clone();
+    cloneCopy.elements = this.elements.clone();
+    return cloneCopy;
+  }
+}
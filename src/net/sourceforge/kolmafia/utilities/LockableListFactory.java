@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.List;
 import net.java.dev.spellcast.utilities.LockableListModel;
 import net.java.dev.spellcast.utilities.SortedListModel;
+import net.sourceforge.kolmafia.AdventureResult;
 
 /**
  * {@link net.java.dev.spellcast.utilities.LockableListModel} is used to hold data, but it depends
@@ -43,6 +44,18 @@ public class LockableListFactory {
     return i;
   }
 
+  /**
+   * Get an instance of ItemListModel if in a Swing environment, else get a SortedList
+   *
+   * @return ItemListModel, which counts items by id, or a SortedList if Swing cannot be loaded
+   */
+  public static List<AdventureResult> getItemInstance() {
+    if (SwinglessUIUtils.isSwingAvailable) {
+      return new ItemListModel();
+    }
+    return new SortedList<>();
+  }
+
   /**
    * Calls {@link net.java.dev.spellcast.utilities.LockableListModel#getSize()} if possible, else
    * returns list size
@@ -0,0 +1,376 @@
+package net.sourceforge.kolmafia.utilities;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A search index over an array of canonical names, used by StringUtilities.getMatchingNames.
+ *
+ * <p>Every name is listed under each character, pair of characters and triple of characters which
+ * it contains, and under each character which starts a word. A name can only contain the search
+ * string if it is listed under every triple in the search string, and can only fuzzy match it if
+ * each character of the search string starts a word or follows the one before it, so only those
+ * names need to be checked. They are checked in the same order and by the same tests as a full scan
+ * of the array, so the results are identical.
+ *
+ * <p>Building the index takes longer than a single scan, so it is only built once an array has
+ * been searched more than once; arrays which are made for a single search are scanned, as before.
+ * The results of recent searches are remembered.
+ */
+final class NameIndex {
+  private static final int INDEX_AFTER_SEARCHES = 2;
+  private static final int MAX_QUERIES = 256;
+
+  private static final int[] NO_NAMES = new int[0];
+  private static final int FEW_NAMES = 32;
+
+  // One bit for each character in the name, modulo 32
+  private final int[] hashes;
+
+  private int searches = 0;
+  private Map<Long, int[]> postings = null;
+
+  private final Map<String, List<String>> queries =
+      new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, List<String>> eldest) {
+          return this.size() > MAX_QUERIES;
+        }
+      };
+
+  NameIndex(final String[] names) {
+    // The index must not refer to the array, which is a weak key
+    this.hashes = new int[names.length];
+    for (int i = 0; i < names.length; ++i) {
+      this.hashes[i] = names[i] == null ? 0 : NameIndex.stringHash(names[i]);
+    }
+  }
+
+  static int stringHash(final String s) {
+    int hash = 0;
+    for (int i = s.length() - 1; i >= 0; --i) {
+      hash |= 1 << (s.charAt(i) & 0x1F);
+    }
+    return hash;
+  }
+
+  /** Returns the names which match the canonical, non-empty search string. */
+  synchronized List<String> find(final String[] names, final String searchString) {
+    if (this.postings == null && ++this.searches < INDEX_AFTER_SEARCHES) {
+      return this.scan(names, searchString);
+    }
+
+    List<String> matches = this.queries.get(searchString);
+    if (matches == null) {
+      matches = List.copyOf(this.search(names, searchString));
+      this.queries.put(searchString, matches);
+    }
+
+    return new ArrayList<>(matches);
+  }
+
+  /** Finds the matching names by checking every name in the array. */
+  List<String> scan(final String[] names, final String searchString) {
+    int nameCount = names.length;
+    int hash = NameIndex.stringHash(searchString);
+    List<String> matchList = new ArrayList<>();
+
+    for (int i = 0; i < nameCount; ++i) {
+      if ((this.hashes[i] & hash) == hash
+          && StringUtilities.substringMatches(names[i], searchString, true)) {
+        matchList.add(names[i]);
+      }
+    }
+
+    if (!matchList.isEmpty()) {
+      return matchList;
+    }
+
+    for (int i = 0; i < nameCount; ++i) {
+      if ((this.hashes[i] & hash) == hash
+          && StringUtilities.substringMatches(names[i], searchString, false)) {
+        matchList.add(names[i]);
+      }
+    }
+
+    if (!matchList.isEmpty()) {
+      return matchList;
+    }
+
+    // There is an oddball special case here: a search string containing
+    // spaces can successfully fuzzy-match an item name with no spaces,
+    // for example "in the box" will match "chef-in-the-box".  However,
+    // the hash check would prevent us from even trying such a match.
+    // Therefore, strip out the bit representing a space in the hash:
+    hash &= ~NameIndex.stringHash(" ");
+
+    for (int i = 0; i < nameCount; ++i) {
+      if ((this.hashes[i] & hash) == hash && StringUtilities.fuzzyMatches(names[i], searchString)) {
+        matchList.add(names[i]);
+      }
+    }
+
+    return matchList;
+  }
+
+  /** Finds the matching names by checking only the names listed in the index. */
+  List<String> search(final String[] names, final String searchString) {
+    if (this.postings == null) {
+      this.postings = NameIndex.buildPostings(names);
+    }
+
+    int hash = NameIndex.stringHash(searchString);
+    List<String> matchList = new ArrayList<>();
+
+    int[] candidates = this.substringCandidates(searchString);
+
+    for (int i : candidates) {
+      if ((this.hashes[i] & hash) == hash
+          && StringUtilities.substringMatches(names[i], searchString, true)) {
+        matchList.add(names[i]);
+      }
+    }
+
+    if (!matchList.isEmpty()) {
+      return matchList;
+    }
+
+    for (int i : candidates) {
+      if ((this.hashes[i] & hash) == hash
+          && StringUtilities.substringMatches(names[i], searchString, false)) {
+        matchList.add(names[i]);
+      }
+    }
+
+    if (!matchList.isEmpty()) {
+      return matchList;
+    }
+
+    hash &= ~NameIndex.stringHash(" ");
+
+    candidates = this.fuzzyCandidates(searchString);
+    if (candidates == null) {
+      candidates = new int[names.length];
+      Arrays.setAll(candidates, i -> i);
+    }
+
+    for (int i : candidates) {
+      if ((this.hashes[i] & hash) == hash && StringUtilities.fuzzyMatches(names[i], searchString)) {
+        matchList.add(names[i]);
+      }
+    }
+
+    return matchList;
+  }
+
+  // Names which contain every triple of characters in the search string,
+  // or every pair or character if it is not that long
+  private int[] substringCandidates(final String searchString) {
+    int length = searchString.length();
+    int width = Math.min(length, 3);
+    List<int[]> lists = new ArrayList<>();
+
+    for (int i = 0; i + width <= length; ++i) {
+      int[] list = this.postings.get(NameIndex.gram(searchString, i, width));
+      if (list == null) {
+        return NO_NAMES;
+      }
+      if (!lists.contains(list)) {
+        lists.add(list);
+      }
+    }
+
+    return NameIndex.intersect(lists);
+  }
+
+  // Names in which fuzzyMatches could find every character it looks for,
+  // or null if it looks for none. It finds the first at the start of a word,
+  // and each of the others either at the start of a word or right after the
+  // one before it.
+  private int[] fuzzyCandidates(final String searchString) {
+    // Each step is satisfied by the names in either of two lists
+    List<int[][]> steps = new ArrayList<>();
+    int last = -1;
+
+    for (int i = 0; i < searchString.length(); ++i) {
+      if (Character.isWhitespace(searchString.charAt(i))) {
+        continue;
+      }
+
+      int[] initial = this.postings.get(NameIndex.initialGram(searchString.charAt(i)));
+      int[] pair = last == -1 ? null : this.postings.get(NameIndex.pairGram(searchString, last, i));
+      if (initial == null && pair == null) {
+        return NO_NAMES;
+      }
+
+      steps.add(new int[][] {initial == null ? NO_NAMES : initial, pair == null ? NO_NAMES : pair});
+      last = i;
+    }
+
+    if (steps.isEmpty()) {
+      return null;
+    }
+
+    // Start with the fewest names
+    steps.sort(Comparator.comparingInt(step -> step[0].length + step[1].length));
+
+    // Checking a few names is cheaper than narrowing them down further
+    int[] result = NameIndex.union(steps.get(0)[0], steps.get(0)[1]);
+    for (int s = 1; s < steps.size() && result.length > FEW_NAMES; ++s) {
+      result = NameIndex.retainListed(result, steps.get(s)[0], steps.get(s)[1]);
+    }
+
+    return result;
+  }
+
+  // Both sorted lists, merged
+  private static int[] union(final int[] first, final int[] second) {
+    int[] merged = new int[first.length + second.length];
+    int count = 0;
+    int i = 0;
+    int j = 0;
+
+    while (i < first.length && j < second.length) {
+      if (first[i] < second[j]) {
+        merged[count++] = first[i++];
+      } else if (first[i] > second[j]) {
+        merged[count++] = second[j++];
+      } else {
+        merged[count++] = first[i++];
+        ++j;
+      }
+    }
+    while (i < first.length) {
+      merged[count++] = first[i++];
+    }
+    while (j < second.length) {
+      merged[count++] = second[j++];
+    }
+
+    return Arrays.copyOf(merged, count);
+  }
+
+  // The names in the sorted list which are also in either of the others
+  private static int[] retainListed(final int[] names, final int[] first, final int[] second) {
+    int[] retained = new int[names.length];
+    int count = 0;
+
+    for (int name : names) {
+      if (Arrays.binarySearch(first, name) >= 0 || Arrays.binarySearch(second, name) >= 0) {
+        retained[count++] = name;
+      }
+    }
+
+    return count == names.length ? names : Arrays.copyOf(retained, count);
+  }
+
+  private static long initialGram(final char c) {
+    return (4L << 16) | c;
+  }
+
+  private static long pairGram(final String s, final int first, final int second) {
+    return (((2L << 16) | s.charAt(first)) << 16) | s.charAt(second);
+  }
+
+  private static long gram(final String s, final int start, final int width) {
+    long gram = width;
+    for (int i = start; i < start + width; ++i) {
+      gram = (gram << 16) | s.charAt(i);
+    }
+    return gram;
+  }
+
+  // A list of name indices which is still growing
+  private static class Posting {
+    private int[] names = new int[4];
+    private int size = 0;
+
+    private void add(final int name) {
+      // Names are added in order, so a repeated gram is the last one listed
+      if (this.size > 0 && this.names[this.size - 1] == name) {
+        return;
+      }
+      if (this.size == this.names.length) {
+        this.names = Arrays.copyOf(this.names, this.size * 2);
+      }
+      this.names[this.size++] = name;
+    }
+  }
+
+  private static Map<Long, int[]> buildPostings(final String[] names) {
+    Map<Long, Posting> postings = new HashMap<>();
+
+    for (int i = 0; i < names.length; ++i) {
+      String name = names[i];
+      if (name == null) {
+        continue;
+      }
+
+      int length = name.length();
+      for (int width = 1; width <= 3; ++width) {
+        for (int start = 0; start + width <= length; ++start) {
+          postings.computeIfAbsent(NameIndex.gram(name, start, width), k -> new Posting()).add(i);
+        }
+      }
+
+      for (int start = 0; start < length; ++start) {
+        if (start == 0 || StringUtilities.isWordBoundary(name.charAt(start - 1))) {
+          long gram = NameIndex.initialGram(name.charAt(start));
+          postings.computeIfAbsent(gram, k -> new Posting()).add(i);
+        }
+      }
+    }
+
+    Map<Long, int[]> lists = new HashMap<>(postings.size() * 2);
+    postings.forEach(
+        (gram, posting) -> lists.put(gram, Arrays.copyOf(posting.names, posting.size)));
+    return lists;
+  }
+
+  // The lists are sorted, and so is the result
+  private static int[] intersect(final List<int[]> lists) {
+    lists.sort((a, b) -> Integer.compare(a.length, b.length));
+
+    int[] result = lists.get(0);
+    for (int l = 1; l < lists.size() && result.length > 0; ++l) {
+      int[] list = lists.get(l);
+      int[] merged = new int[result.length];
+      int count = 0;
+
+      if (result.length * 16 < list.length) {
+        // Look up each of the few remaining names in the long list
+        int from = 0;
+        for (int name : result) {
+          int found = Arrays.binarySearch(list, from, list.length, name);
+          if (found >= 0) {
+            merged[count++] = name;
+            from = found + 1;
+          } else {
+            from = -found - 1;
+          }
+        }
+      } else {
+        for (int i = 0, j = 0; i < result.length && j < list.length; ) {
+          if (result[i] < list[j]) {
+            ++i;
+          } else if (result[i] > list[j]) {
+            ++j;
+          } else {
+            merged[count++] = result[i];
+            ++i;
+            ++j;
+          }
+        }
+      }
+
+      result = count == result.length ? result : Arrays.copyOf(merged, count);
+    }
+
+    return result;
+  }
+}
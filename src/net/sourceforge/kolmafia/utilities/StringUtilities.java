@@ -30,7 +30,7 @@ public class StringUtilities {
   private static final HashMap<String, String> canonicalNameCache = new HashMap<>();
 
   private static final HashMap<String, String> prepositionsMap = new HashMap<>();
-  private static final WeakHashMap<String[], int[]> hashCache = new WeakHashMap<>();
+  private static final WeakHashMap<String[], NameIndex> nameIndexes = new WeakHashMap<>();
 
   private static final Pattern NONINTEGER_PATTERN = Pattern.compile("[^0-9\\-]+");
 
@@ -248,61 +248,13 @@ public class StringUtilities {
       return matchList;
     }
 
-    int nameCount = names.length;
-    int[] hashes = StringUtilities.hashCache.get(names);
-    if (hashes == null) {
-      hashes = new int[nameCount];
-      for (int i = 0; i < nameCount; ++i) {
-        hashes[i] = StringUtilities.stringHash(names[i]);
-      }
-      StringUtilities.hashCache.put(names, hashes);
-    }
-    int hash = StringUtilities.stringHash(searchString);
-
-    for (int i = 0; i < nameCount; ++i) {
-      if ((hashes[i] & hash) == hash
-          && StringUtilities.substringMatches(names[i], searchString, true)) {
-        matchList.add(names[i]);
-      }
-    }
-
-    if (!matchList.isEmpty()) {
-      return matchList;
-    }
-
-    for (int i = 0; i < nameCount; ++i) {
-      if ((hashes[i] & hash) == hash
-          && StringUtilities.substringMatches(names[i], searchString, false)) {
-        matchList.add(names[i]);
-      }
-    }
-
-    if (!matchList.isEmpty()) {
-      return matchList;
-    }
-
-    // There is an oddball special case here: a search string containing
-    // spaces can successfully fuzzy-match an item name with no spaces,
-    // for example "in the box" will match "chef-in-the-box".  However,
-    // the hash check would prevent us from even trying such a match.
-    // Therefore, strip out the bit representing a space in the hash:
-    hash &= ~StringUtilities.stringHash(" ");
-
-    for (int i = 0; i < nameCount; ++i) {
-      if ((hashes[i] & hash) == hash && StringUtilities.fuzzyMatches(names[i], searchString)) {
-        matchList.add(names[i]);
-      }
-    }
-
-    return matchList;
+    return StringUtilities.getNameIndex(names).find(names, searchString);
   }
 
-  private static int stringHash(final String s) {
-    int hash = 0;
-    for (int i = s.length() - 1; i >= 0; --i) {
-      hash |= 1 << (s.charAt(i) & 0x1F);
+  static NameIndex getNameIndex(final String[] names) {
+    synchronized (StringUtilities.nameIndexes) {
+      return StringUtilities.nameIndexes.computeIfAbsent(names, NameIndex::new);
     }
-    return hash;
   }
 
   public static boolean substringMatches(
@@ -385,7 +337,7 @@ public class StringUtilities {
     return false;
   }
 
-  private static boolean isWordBoundary(char ch) {
+  static boolean isWordBoundary(char ch) {
     return ch != '#' && !Character.isLetterOrDigit(ch);
   }
 
@@ -1,9 +1,9 @@
 package net.sourceforge.kolmafia.webui;
 
-import java.io.BufferedReader;
-import java.io.File;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.InputStream;
 import java.io.PrintStream;
 import java.net.InetAddress;
 import java.net.Socket;
@@ -12,6 +12,7 @@ import java.util.HashSet;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
 import net.sourceforge.kolmafia.KoLConstants;
 import net.sourceforge.kolmafia.KoLmafia;
 import net.sourceforge.kolmafia.RequestLogger;
@@ -26,7 +27,6 @@ import net.sourceforge.kolmafia.session.ActionBarManager;
 import net.sourceforge.kolmafia.session.ChoiceManager;
 import net.sourceforge.kolmafia.session.LeafletManager;
 import net.sourceforge.kolmafia.session.VolcanoMazeManager;
-import net.sourceforge.kolmafia.utilities.PauseObject;
 import net.sourceforge.kolmafia.utilities.StringUtilities;
 
 public class RelayAgent extends Thread {
@@ -45,17 +45,26 @@ public class RelayAgent extends Thread {
     RelayAgent.errorRequestPath = null;
   }
 
-  private final char[] data = new char[8192];
-  private final StringBuffer buffer = new StringBuffer();
-  private final PauseObject pauser = new PauseObject();
+  // How long an idle browser connection is held open for another request
+  private static final int KEEP_ALIVE_TIMEOUT = 15000;
+
+  // Responses smaller than this are not worth compressing
+  private static final int MINIMUM_GZIP_LENGTH = 1024;
+
+  // The request line and headers are read a byte at a time from a buffered stream, rather than
+  // through a Reader, so that the body can be read by its Content-Length, which counts bytes
+  private final ByteArrayOutputStream line = new ByteArrayOutputStream();
 
   private Socket socket = null;
-  private BufferedReader reader;
+  private InputStream input;
   private PrintStream writer;
 
   private String path;
   private String requestMethod;
   private String isCheckingModified;
+  private String isCheckingETag;
+  private boolean keepAlive;
+  private boolean acceptsGzip;
   private final RelayRequest request;
 
   public RelayAgent(final int id) {
@@ -67,22 +76,45 @@ public class RelayAgent extends Thread {
     return this.socket == null;
   }
 
-  public void setSocket(final Socket socket) {
+  public synchronized void setSocket(final Socket socket) {
     this.socket = socket;
-    this.pauser.unpause();
+    this.notifyAll();
+  }
+
+  private synchronized void waitForSocket() {
+    while (this.socket == null) {
+      try {
+        this.wait();
+      } catch (InterruptedException e) {
+        // We expect this to happen only when we are
+        // interrupted.  Fall through.
+      }
+    }
+  }
+
+  public void closeSocket() {
+    Socket socket = this.socket;
+
+    try {
+      if (socket != null) {
+        socket.close();
+      }
+    } catch (IOException e) {
+      // The only time this happens is if the
+      // socket is already closed.  Ignore.
+    }
   }
 
   @Override
   public void run() {
     while (true) {
-      if (this.socket == null) {
-        this.pauser.pause();
-      }
+      this.waitForSocket();
 
       try {
         this.performRelay();
       } finally {
         this.closeRelay();
+        RelayServer.agentIdle(this);
       }
     }
   }
@@ -92,31 +124,67 @@ public class RelayAgent extends Thread {
       return;
     }
 
-    this.path = null;
-    this.reader = null;
-    this.writer = null;
-
     try {
-      if (!this.readBrowserRequest()) {
-        return;
-      }
+      this.openStreams();
 
-      this.readServerResponse();
-      this.sendServerResponse();
+      // Serve requests from this connection until the browser
+      // closes it or lets it sit idle
+      do {
+        this.path = null;
+
+        if (!this.readBrowserRequest()) {
+          return;
+        }
+
+        this.readServerResponse();
+        this.sendServerResponse();
+      } while (this.keepAlive && RelayServer.isRunning());
     } catch (IOException e) {
     } catch (Exception e) {
       StaticEntity.printStackTrace(e, "Horrible relay failure");
     }
   }
 
+  void openStreams() throws IOException {
+    this.input = null;
+    this.writer = null;
+
+    this.socket.setSoTimeout(KEEP_ALIVE_TIMEOUT);
+    this.input = new BufferedInputStream(this.socket.getInputStream());
+    this.writer = new PrintStream(this.socket.getOutputStream(), false);
+  }
+
+  RelayRequest getRequest() {
+    return this.request;
+  }
+
+  String getPath() {
+    return this.path;
+  }
+
+  // Reads a line of the request line or headers, which are ASCII, without its line ending
+  private String readLine() throws IOException {
+    this.line.reset();
+
+    int b;
+    while ((b = this.input.read()) != -1 && b != '\n') {
+      this.line.write(b);
+    }
+
+    if (b == -1 && this.line.size() == 0) {
+      return null;
+    }
+
+    String text = this.line.toString(StandardCharsets.ISO_8859_1);
+    return text.endsWith("\r") ? text.substring(0, text.length() - 1) : text;
+  }
+
   public boolean readBrowserRequest() throws IOException {
     boolean debugging =
         RequestLogger.isDebugging() && Preferences.getBoolean("logBrowserInteractions");
     boolean tracing = RequestLogger.isTracing();
 
-    this.reader = new BufferedReader(new InputStreamReader(this.socket.getInputStream()));
-
-    String requestLine = this.reader.readLine();
+    String requestLine = this.readLine();
 
     if (requestLine == null) {
       return false;
@@ -152,6 +220,7 @@ public class RelayAgent extends Thread {
     this.request.constructURLString(this.path, usePostMethod);
     this.request.responseText = null;
     this.isCheckingModified = null;
+    this.isCheckingETag = null;
 
     String currentLine;
     int contentLength = 0;
@@ -160,7 +229,10 @@ public class RelayAgent extends Thread {
     String referer = null;
 
     this.request.cookies = null;
-    while ((currentLine = this.reader.readLine()) != null && !currentLine.equals("")) {
+    this.keepAlive = Preferences.getBoolean("relayKeepAlive");
+    this.acceptsGzip = false;
+
+    while ((currentLine = this.readLine()) != null && !currentLine.equals("")) {
       if (debugging) {
         RequestLogger.updateDebugLog(currentLine);
       }
@@ -175,7 +247,14 @@ public class RelayAgent extends Thread {
         case "host" -> host = headerValue;
         case "referer" -> referer = headerValue;
         case "if-modified-since" -> this.isCheckingModified = headerValue;
+        case "if-none-match" -> this.isCheckingETag = headerValue;
         case "content-length" -> contentLength = StringUtilities.parseInt(headerValue);
+        case "connection" -> {
+          if (headerValue.equalsIgnoreCase("close")) {
+            this.keepAlive = false;
+          }
+        }
+        case "accept-encoding" -> this.acceptsGzip = headerValue.contains("gzip");
         case "user-agent" -> GenericRequest.saveUserAgent(headerValue);
         case "cookie" -> {
           StringBuilder buffer = new StringBuilder();
@@ -207,16 +286,13 @@ public class RelayAgent extends Thread {
     }
 
     if (requestMethod.equals("POST")) {
-      int remaining = contentLength;
-
-      while (remaining > 0) {
-        int current = this.reader.read(this.data);
-        this.buffer.append(this.data, 0, current);
-        remaining -= current;
+      // Do not read past the body; the next request may follow it
+      byte[] body = this.input.readNBytes(Math.max(contentLength, 0));
+      if (body.length < contentLength) {
+        return false;
       }
 
-      String fields = this.buffer.toString();
-      this.buffer.setLength(0);
+      String fields = new String(body, StandardCharsets.UTF_8);
 
       if (debugging) {
         RequestLogger.updateDebugLog(fields);
@@ -321,16 +397,16 @@ public class RelayAgent extends Thread {
     }
   }
 
-  private static boolean modifiedSince(String date, File file) {
-    return file != null && file.exists() && StringUtilities.parseDate(date) < file.lastModified();
+  private boolean notModified(final RelayFileCache.Asset asset) {
+    return asset != null && asset.matches(this.isCheckingETag, this.isCheckingModified);
   }
 
   private boolean shouldSendNotModified() {
     // Things in the "images" directory come from KoL's image server.
     // We set the modification date to KoL's modification date.
     if (this.path.startsWith("/images")) {
-      return RelayAgent.modifiedSince(
-          this.isCheckingModified, RelayRequest.findLocalImage(this.path.substring(1)));
+      return this.notModified(
+          RelayFileCache.getImage(RelayRequest.findLocalImage(this.path.substring(1))));
     }
 
     // Things in the "relay" directory are either KoLmafia builtin
@@ -346,17 +422,17 @@ public class RelayAgent extends Thread {
 
     // Otherwise, look at the modification date of the file in the
     // file system
-    return RelayAgent.modifiedSince(
-        this.isCheckingModified, RelayRequest.findRelayFile(this.path.substring(1)));
+    return this.notModified(
+        RelayFileCache.getRelayFile(RelayRequest.findRelayFile(this.path.substring(1))));
   }
 
   private void readServerResponse() throws IOException {
     // If sending a local page, check modification date of file
-    if (this.isCheckingModified != null) {
+    if (this.isCheckingModified != null || this.isCheckingETag != null) {
       if (this.shouldSendNotModified()) {
         this.request.pseudoResponse("HTTP/1.1 304 Not Modified", "");
         this.request.responseCode = 304;
-        this.request.rawByteBuffer = this.request.responseText.getBytes(StandardCharsets.UTF_8);
+        this.request.rawByteBuffer = new byte[0];
         return;
       }
 
@@ -475,7 +551,9 @@ public class RelayAgent extends Thread {
     if (this.request.rawByteBuffer == null) {
       if (this.request.responseText == null) {
         // We did not make a request of KoL and did not
-        // create a pseudoResponse
+        // create a pseudoResponse. Closing the connection
+        // is all the browser will get.
+        this.keepAlive = false;
         return;
       }
 
@@ -500,11 +578,19 @@ public class RelayAgent extends Thread {
       this.request.rawByteBuffer = this.request.responseText.getBytes(StandardCharsets.UTF_8);
     }
 
-    this.writer = new PrintStream(this.socket.getOutputStream(), false);
+    byte[] body = this.request.rawByteBuffer;
+    boolean compressed = this.shouldCompress();
+    if (compressed) {
+      body = RelayAgent.gzip(body);
+    }
+
     this.writer.println(this.request.statusLine);
     this.request.printHeaders(this.writer);
+    this.printFramingHeaders(this.writer, body.length, compressed);
     this.writer.println();
-    this.writer.write(this.request.rawByteBuffer);
+    if (this.request.responseCode != 304) {
+      this.writer.write(body);
+    }
     this.writer.flush();
 
     if (RequestLogger.isTracing()) {
@@ -533,6 +619,7 @@ public class RelayAgent extends Thread {
       RequestLogger.updateDebugLog("-----To Browser-----");
       RequestLogger.updateDebugLog(this.request.statusLine);
       this.request.printHeaders(RequestLogger.getDebugStream());
+      this.printFramingHeaders(RequestLogger.getDebugStream(), body.length, compressed);
     }
 
     if (Preferences.getBoolean("logDecoratedResponses")) {
@@ -548,11 +635,60 @@ public class RelayAgent extends Thread {
     }
   }
 
+  private boolean shouldCompress() {
+    if (!this.acceptsGzip || !Preferences.getBoolean("relayCompressesResponses")) {
+      return false;
+    }
+
+    if (this.request.responseCode != 200
+        || this.request.rawByteBuffer.length < RelayAgent.MINIMUM_GZIP_LENGTH) {
+      return false;
+    }
+
+    // Images and sounds are already compressed
+    String contentType = this.request.getHeaderField("Content-Type");
+    if (contentType == null || contentType.equals("")) {
+      contentType = this.request.contentType;
+    }
+
+    return contentType != null
+        && (contentType.startsWith("text/")
+            || contentType.contains("javascript")
+            || contentType.contains("json"));
+  }
+
+  private static byte[] gzip(final byte[] data) throws IOException {
+    ByteArrayOutputStream ostream = new ByteArrayOutputStream(data.length / 4);
+    try (GZIPOutputStream gzip = new GZIPOutputStream(ostream)) {
+      gzip.write(data);
+    }
+    return ostream.toByteArray();
+  }
+
+  private void printFramingHeaders(
+      final PrintStream ostream, final int length, final boolean compressed) {
+    // A 304 response never has a body
+    if (this.request.responseCode != 304) {
+      ostream.print("Content-Length: ");
+      ostream.print(length);
+      ostream.println();
+    }
+
+    if (compressed) {
+      ostream.println("Content-Encoding: gzip");
+      ostream.println("Vary: Accept-Encoding");
+    }
+
+    if (!this.keepAlive) {
+      ostream.println("Connection: close");
+    }
+  }
+
   private void closeRelay() {
     try {
-      if (this.reader != null) {
-        this.reader.close();
-        this.reader = null;
+      if (this.input != null) {
+        this.input.close();
+        this.input = null;
       }
     } catch (IOException e) {
       // The only time this happens is if the
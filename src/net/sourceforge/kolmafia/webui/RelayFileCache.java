@@ -0,0 +1,191 @@
+package net.sourceforge.kolmafia.webui;
+
+import java.io.File;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import net.sourceforge.kolmafia.utilities.ByteBufferUtilities;
+import net.sourceforge.kolmafia.utilities.StringUtilities;
+
+/**
+ * Files served to the relay browser from the image cache and the relay directory.
+ *
+ * <p>Each entry holds the file's contents together with the validators sent to the browser, so
+ * that repeated and conditional requests are answered without going back to the disk. Images from
+ * KoL never change once downloaded, so they are not checked again until the image cache is
+ * cleared. Relay files may be edited at any time, so their size and modification time are compared
+ * before a cached copy is used.
+ *
+ * <p>The least recently used files are dropped when the total size grows past MAX_BYTES.
+ */
+public class RelayFileCache {
+  private static final long MAX_BYTES = 32L * 1024 * 1024;
+
+  // Larger files are served, but not kept
+  private static final long MAX_FILE_BYTES = MAX_BYTES / 8;
+
+  public record Asset(byte[] data, long lastModified, long length) {
+    public String etag() {
+      return "\""
+          + Long.toHexString(this.length)
+          + "-"
+          + Long.toHexString(this.lastModified)
+          + "\"";
+    }
+
+    public String lastModifiedHeader() {
+      return StringUtilities.formatDate(this.lastModified);
+    }
+
+    // The browser echoes back the validators we sent it
+    public boolean matches(final String ifNoneMatch, final String ifModifiedSince) {
+      if (ifNoneMatch != null) {
+        for (String tag : ifNoneMatch.split("\\s*,\\s*")) {
+          if (tag.equals("*") || tag.equals(this.etag()) || tag.equals("W/" + this.etag())) {
+            return true;
+          }
+        }
+        return false;
+      }
+
+      if (ifModifiedSince == null) {
+        return false;
+      }
+
+      // HTTP dates are only accurate to the second
+      return ifModifiedSince.equals(this.lastModifiedHeader())
+          || StringUtilities.parseDate(ifModifiedSince) >= this.lastModified / 1000 * 1000;
+    }
+  }
+
+  // Most recently used last
+  private static final LinkedHashMap<File, Asset> assets = new LinkedHashMap<>(64, 0.75f, true);
+  private static long totalBytes = 0;
+
+  private static final LongAdder hits = new LongAdder();
+  private static final LongAdder misses = new LongAdder();
+
+  private RelayFileCache() {}
+
+  /** Returns the image if it has already been read, without looking at the file system. */
+  public static Asset getCachedImage(final File file) {
+    if (file == null) {
+      return null;
+    }
+
+    Asset asset;
+    synchronized (RelayFileCache.class) {
+      asset = assets.get(file);
+    }
+
+    if (asset != null) {
+      hits.increment();
+    }
+
+    return asset;
+  }
+
+  /** Returns the image, reading it if it has not already been read, or null if there is none. */
+  public static Asset getImage(final File file) {
+    Asset asset = RelayFileCache.getCachedImage(file);
+    if (asset != null) {
+      return asset;
+    }
+
+    // An empty image is one that could not be downloaded
+    if (file == null || file.length() == 0) {
+      return null;
+    }
+
+    return RelayFileCache.read(file);
+  }
+
+  /** Returns the relay file, reading it if it has changed since it was read, or null if none. */
+  public static Asset getRelayFile(final File file) {
+    if (file == null) {
+      return null;
+    }
+
+    long lastModified = file.lastModified();
+    if (lastModified == 0L) {
+      // The file does not exist
+      RelayFileCache.remove(file);
+      return null;
+    }
+
+    Asset asset;
+    synchronized (RelayFileCache.class) {
+      asset = assets.get(file);
+    }
+
+    if (asset != null && asset.lastModified() == lastModified && asset.length() == file.length()) {
+      hits.increment();
+      return asset;
+    }
+
+    return RelayFileCache.read(file);
+  }
+
+  private static Asset read(final File file) {
+    if (!file.exists()) {
+      return null;
+    }
+
+    misses.increment();
+
+    // Take the validators first, so that a change made while we
+    // are reading will be noticed next time.
+    long lastModified = file.lastModified();
+    long length = file.length();
+    byte[] data = ByteBufferUtilities.read(file);
+    Asset asset = new Asset(data, lastModified, length);
+
+    if (data.length != length || length > MAX_FILE_BYTES) {
+      return asset;
+    }
+
+    synchronized (RelayFileCache.class) {
+      Asset old = assets.put(file, asset);
+      if (old != null) {
+        totalBytes -= old.data().length;
+      }
+      totalBytes += data.length;
+
+      Iterator<Asset> it = assets.values().iterator();
+      while (totalBytes > MAX_BYTES && it.hasNext()) {
+        totalBytes -= it.next().data().length;
+        it.remove();
+      }
+    }
+
+    return asset;
+  }
+
+  private static synchronized void remove(final File file) {
+    Asset old = assets.remove(file);
+    if (old != null) {
+      totalBytes -= old.data().length;
+    }
+  }
+
+  public static synchronized void clear() {
+    assets.clear();
+    totalBytes = 0;
+  }
+
+  public static synchronized int getSize() {
+    return assets.size();
+  }
+
+  public static synchronized long getBytes() {
+    return totalBytes;
+  }
+
+  public static long getHits() {
+    return hits.sum();
+  }
+
+  public static long getMisses() {
+    return misses.sum();
+  }
+}
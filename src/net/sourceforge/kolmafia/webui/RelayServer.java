@@ -4,8 +4,10 @@ import java.net.InetAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.UnknownHostException;
-import java.util.HashSet;
+import java.util.Deque;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
 import net.sourceforge.kolmafia.KoLConstants;
 import net.sourceforge.kolmafia.KoLmafia;
 import net.sourceforge.kolmafia.StaticEntity;
@@ -14,7 +16,10 @@ import net.sourceforge.kolmafia.utilities.FileUtilities;
 import net.sourceforge.kolmafia.utilities.StringUtilities;
 
 public class RelayServer implements Runnable {
-  public static final Set<RelayAgent> agentThreads = new HashSet<>();
+  public static final Set<RelayAgent> agentThreads = ConcurrentHashMap.newKeySet();
+
+  // Agents which are not serving a browser connection, most recently used first
+  private static final Deque<RelayAgent> idleAgents = new ConcurrentLinkedDeque<>();
 
   private static long lastStatusMessage = 0;
   private static Thread relayThread = null;
@@ -175,23 +180,29 @@ public class RelayServer implements Runnable {
   }
 
   private synchronized void closeAgents() {
+    // Agents may be holding idle browser connections open
     for (RelayAgent agent : agentThreads) {
-      agent.setSocket(null);
+      agent.closeSocket();
     }
-    agentThreads.clear();
   }
 
   private synchronized void dispatchAgent(final Socket socket) {
-    for (RelayAgent agent : agentThreads) {
-      if (agent.isWaiting()) {
-        agent.setSocket(socket);
-        return;
-      }
+    // Each agent serves one browser connection for as long as
+    // the browser keeps it alive, so look for one that is free
+    // rather than queueing behind a busy one.
+    RelayAgent agent = RelayServer.idleAgents.pollFirst();
+    if (agent != null) {
+      agent.setSocket(socket);
+      return;
     }
 
     this.createAgent(socket);
   }
 
+  static void agentIdle(final RelayAgent agent) {
+    RelayServer.idleAgents.offerFirst(agent);
+  }
+
   private synchronized void createAgent(final Socket socket) {
     RelayAgent agent = new RelayAgent(RelayServer.agentThreads.size());
     agent.setSocket(socket);
@@ -58,10 +58,28 @@ public class CustomScriptTest {
     Preferences.reset("CustomScriptTest");
   }
 
+  private static Stream<Arguments> ashData() {
+    return Arrays.stream(KoLConstants.SCRIPT_LOCATION.list(new ScriptNameFilter()))
+        .filter(name -> name.endsWith(".ash"))
+        .map(Arguments::of);
+  }
+
   @ParameterizedTest
   @MethodSource("data")
   void testScript(String script) throws IOException {
     beforeEach();
+    checkScript(script);
+  }
+
+  @ParameterizedTest
+  @MethodSource("ashData")
+  void testCompiledScript(String script) throws IOException {
+    beforeEach();
+    Preferences.setBoolean("ashCompileExpressions", true);
+    checkScript(script);
+  }
+
+  private void checkScript(String script) throws IOException {
     String expectedOutput = getExpectedOutput(script).trim();
     ByteArrayOutputStream ostream = new ByteArrayOutputStream();
     try (PrintStream out = new PrintStream(ostream, true)) {
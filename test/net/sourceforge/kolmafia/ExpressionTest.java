@@ -1,5 +1,6 @@
 package net.sourceforge.kolmafia;
 
+import static internal.helpers.Player.withProperty;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -85,4 +86,24 @@ public class ExpressionTest {
     var exp = new Expression("1+(4*path(The Source))", "nonexistent function");
     assertThat(exp.hasErrors(), equalTo(true));
   }
+
+  @Test
+  void canEvaluateDeeplyNestedExpressions() {
+    var text = "(1+".repeat(200) + "1" + ")".repeat(200);
+    var exp = new Expression(text, "deeply nested");
+    assertEquals(201.0, exp.eval());
+  }
+
+  @Test
+  void readsPrefsWhenEvaluated() {
+    var exp = new Expression("pref(test)*2+3", "pref(test)*2+3");
+
+    try (var cleanups = withProperty("test", "1")) {
+      assertEquals(5.0, exp.eval());
+    }
+
+    try (var cleanups = withProperty("test", "4")) {
+      assertEquals(11.0, exp.eval());
+    }
+  }
 }
@@ -0,0 +1,56 @@
+package net.sourceforge.kolmafia;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class KoLmafiaASHTest {
+  private static final File SCRIPT = new File(KoLConstants.ROOT_LOCATION, "script_cache_test.ash");
+  private static final File LIBRARY =
+      new File(KoLConstants.ROOT_LOCATION, "script_cache_test_library.ash");
+
+  @BeforeEach
+  public void beforeEach() throws IOException {
+    Files.writeString(LIBRARY.toPath(), "int twice(int x) { return 2 * x; }\n");
+    Files.writeString(SCRIPT.toPath(), "import <script_cache_test_library.ash>\nprint(twice(2));\n");
+    LIBRARY.setLastModified(1_000_000_000_000L);
+    SCRIPT.setLastModified(1_000_000_000_000L);
+  }
+
+  @AfterEach
+  public void afterEach() {
+    SCRIPT.delete();
+    LIBRARY.delete();
+  }
+
+  @Test
+  public void reusesUnchangedScript() {
+    var interpreter = KoLmafiaASH.getInterpreter(SCRIPT);
+
+    assertNotNull(interpreter);
+    assertSame(interpreter, KoLmafiaASH.getInterpreter(SCRIPT));
+  }
+
+  @Test
+  public void reparsesChangedScript() {
+    var interpreter = KoLmafiaASH.getInterpreter(SCRIPT);
+    SCRIPT.setLastModified(2_000_000_000_000L);
+
+    assertNotSame(interpreter, KoLmafiaASH.getInterpreter(SCRIPT));
+  }
+
+  @Test
+  public void reparsesScriptWithChangedImport() {
+    var interpreter = KoLmafiaASH.getInterpreter(SCRIPT);
+    LIBRARY.setLastModified(2_000_000_000_000L);
+
+    assertNotSame(interpreter, KoLmafiaASH.getInterpreter(SCRIPT));
+  }
+}
@@ -234,6 +234,18 @@ public class ModifierExpressionTest {
     }
   }
 
+  @Test
+  public void canDetectNotAnEvent() {
+    final var cleanups = withDay(2023, Month.JUNE, 10);
+
+    try (cleanups) {
+      var exp =
+          new ModifierExpression(
+              "pref(test)+event(Not A Holiday)", ModifierType.EVENT, "Not A Holiday");
+      assertThat(exp.eval(), is(0.0));
+    }
+  }
+
   @Test
   public void canDetectDecember() {
     final var cleanups = withDay(2021, Month.DECEMBER, 3);
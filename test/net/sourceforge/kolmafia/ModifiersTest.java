@@ -116,6 +116,44 @@ public class ModifiersTest {
     }
   }
 
+  @Nested
+  class OwnCalculation {
+    @AfterEach
+    public void afterEach() {
+      Modifiers.useOwnCalculation(null);
+      Modifiers.setHoboPower(0.0);
+    }
+
+    @Test
+    public void ownCalculationLeavesSharedStateAlone() {
+      Modifiers.setHoboPower(10.0);
+      Modifiers.useOwnCalculation(new Modifiers.Calculation());
+
+      assertThat(Modifiers.getHoboPower(), equalTo(10.0));
+      Modifiers.setHoboPower(25.0);
+      assertThat(Modifiers.getHoboPower(), equalTo(25.0));
+      assertThat(Modifiers.hoboPower, equalTo(10.0));
+
+      Modifiers.useOwnCalculation(null);
+      assertThat(Modifiers.getHoboPower(), equalTo(10.0));
+    }
+
+    @Test
+    public void ownCalculationEvaluatesCopiesOfVariableModifiers() {
+      Modifiers shared = ModifierDatabase.getModifiers(ModifierType.ITEM, ItemPool.PATRIOT_SHIELD);
+      Modifiers.useOwnCalculation(new Modifiers.Calculation());
+
+      Modifiers own = ModifierDatabase.getModifiers(ModifierType.ITEM, ItemPool.PATRIOT_SHIELD);
+      assertThat(own, not(sameInstance(shared)));
+      assertThat(
+          ModifierDatabase.getModifiers(ModifierType.ITEM, ItemPool.PATRIOT_SHIELD),
+          sameInstance(own));
+      assertThat(
+          own.getDouble(DoubleModifier.EXPERIENCE),
+          equalTo(shared.getDouble(DoubleModifier.EXPERIENCE)));
+    }
+  }
+
   @Test
   public void intrinsicSpicinessModifiers() {
     KoLCharacter.setAscensionClass(AscensionClass.SAUCEROR);
@@ -0,0 +1,181 @@
+package net.sourceforge.kolmafia;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import net.sourceforge.kolmafia.preferences.Preferences;
+import net.sourceforge.kolmafia.request.GenericRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class RequestRouterTest {
+  @BeforeAll
+  public static void beforeAll() {
+    KoLCharacter.reset("RequestRouterTest");
+  }
+
+  @BeforeEach
+  public void beforeEach() {
+    Preferences.reset("RequestRouterTest");
+  }
+
+  @AfterEach
+  public void afterEach() {
+    RequestRouter.setChecking(false);
+  }
+
+  private static RequestRouter.Handler claims(final String prefix) {
+    return (isExternal, urlString) -> urlString.startsWith(prefix);
+  }
+
+  private static RequestRouter makeRouter() {
+    RequestRouter router = new RequestRouter("test");
+    router.route("any", List.of(), claims("nothing"));
+    router.route("shop", List.of(), claims("shop.php"), "shop.php");
+    router.route("glover", List.of(), claims("shop.php"), "shop.php?whichshop=glover");
+    router.route("dv", List.of(), claims("shop.php"), "shop.php?whichshop=dv");
+    router.route("use", List.of(), claims("inv_use.php"), "inv_use.php?whichitem=5116");
+    return router;
+  }
+
+  private static List<String> candidates(final RequestRouter router, final String urlString) {
+    return router.candidates(urlString).stream()
+        .map(RequestRouter.Route::getName)
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  public void routesByPageAndField() {
+    RequestRouter router = makeRouter();
+
+    assertThat(
+        candidates(router, "shop.php?whichshop=glover&action=buyitem"),
+        contains("any", "shop", "glover"));
+    assertThat(candidates(router, "shop.php?pwd"), contains("any", "shop"));
+    assertThat(candidates(router, "inv_use.php?whichitem=5116"), contains("any", "use"));
+    assertThat(candidates(router, "inv_use.php?whichitem=1"), contains("any"));
+    assertThat(candidates(router, "mall.php?pudnuggler=x"), contains("any"));
+  }
+
+  @Test
+  public void routesFieldsLikeContains() {
+    RequestRouter router = makeRouter();
+
+    // "whichshop=dvorak" contains "whichshop=dv"
+    assertThat(candidates(router, "shop.php?whichshop=dvorak"), contains("any", "shop", "dv"));
+    assertThat(candidates(router, "inv_use.php?whichitem=51160"), contains("any", "use"));
+    assertThat(
+        candidates(router, "shop.php?whichshop=x&whichshop=glover"),
+        contains("any", "shop", "glover", "dv"));
+  }
+
+  @Test
+  public void pageMustMatchExactly() {
+    RequestRouter router = makeRouter();
+
+    assertThat(candidates(router, "shopping.php?whichshop=glover"), contains("any"));
+    assertThat(candidates(router, "inv_use.php&whichitem=5116?x"), contains("any", "use"));
+  }
+
+  @Test
+  public void countsCallsAndClaims() {
+    RequestRouter router = makeRouter();
+    GenericRequest request = new GenericRequest("");
+
+    assertTrue(router.dispatch(request, true, "shop.php?whichshop=glover"));
+    assertFalse(router.dispatch(request, true, "mall.php?pudnuggler=x"));
+
+    var routes = router.getRoutes();
+    assertEquals(2, routes.get(0).getCalls());
+    assertEquals(1, routes.get(1).getClaims());
+    assertEquals(0, routes.get(2).getCalls());
+
+    router.resetCounters();
+    assertEquals(0, routes.get(0).getCalls());
+  }
+
+  @Test
+  public void onlyOffersInternalRequestsToTheirOwnHandlers() {
+    RequestRouter router = new RequestRouter("test");
+    router.route(GenericRequest.class, urlString -> true, "shop.php");
+
+    assertTrue(router.dispatch(new GenericRequest(""), false, "shop.php?pwd"));
+    assertFalse(router.dispatch(null, false, "shop.php?pwd"));
+  }
+
+  @Test
+  public void reportsHandlerClaimingUndeclaredPage() {
+    RequestRouter router = new RequestRouter("test");
+    router.route("liar", List.of(), claims("mall.php"), "shop.php");
+    RequestRouter.setChecking(true);
+    long mismatches = RequestRouter.getMismatches();
+
+    assertTrue(router.dispatch(null, true, "mall.php?pudnuggler=x"));
+    assertEquals(mismatches + 1, RequestRouter.getMismatches());
+  }
+
+  @Test
+  public void rejectsTwoFieldsForOnePage() {
+    RequestRouter router = makeRouter();
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> router.route("x", List.of(), claims("shop.php"), "shop.php?action=buy"));
+  }
+
+  @Test
+  public void routesShopsToTheirOwnHandlers() {
+    String urlString = "shop.php?whichshop=glover&action=buyitem";
+    List<String> names =
+        RequestLogger.getRouters().stream()
+            .flatMap(router -> router.candidates(urlString).stream())
+            .map(RequestRouter.Route::getName)
+            .collect(Collectors.toList());
+
+    assertThat(names, hasItem("GMartRequest"));
+    assertThat(names, hasItem("PurchaseRequest"));
+    assertThat(names, not(hasItem("AirportRequest")));
+  }
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "shop.php?whichshop=glover",
+        "shop.php?whichshop=armory&action=buyitem&quantity=1&whichrow=1",
+        "shop.php?whichshop=kolhs_chem",
+        "inv_use.php?whichitem=5116&pwd",
+        "inv_use.php?which=3&whichitem=2&ajax=1",
+        "place.php?whichplace=chateau&action=chateau_desk",
+        "place.php?whichplace=forestvillage&action=fv_untinker",
+        "bigisland.php?place=camp&whichcamp=1",
+        "craft.php?action=pulverize&smashitem=1&qty=1",
+        "questlog.php?which=6&vl=a",
+        "mallstore.php?whichstore=1&buying=1&whichitem=1",
+        "mall.php?pudnuggler=seal",
+        "clan_rumpus.php?action=click&spot=3",
+        "sellstuff.php?action=sell&whichitem[]=1",
+        "cafe.php?cafeid=2&pwd",
+        "skillz.php?oneskillz=1",
+        "gamestore.php?action=buysnack&whichsnack=1",
+      })
+  public void routesLikeTheFullList(final String urlString) {
+    RequestRouter.setChecking(true);
+    long mismatches = RequestRouter.getMismatches();
+
+    RequestLogger.registerRequest(new GenericRequest(""), urlString);
+
+    assertEquals(mismatches, RequestRouter.getMismatches());
+  }
+}
@@ -0,0 +1,82 @@
+package net.sourceforge.kolmafia;
+
+import static internal.helpers.Player.withEffect;
+import static internal.helpers.Player.withFamiliar;
+import static internal.helpers.Player.withLevel;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import internal.helpers.Cleanups;
+import net.sourceforge.kolmafia.modifiers.DerivedModifier;
+import net.sourceforge.kolmafia.modifiers.DoubleModifier;
+import net.sourceforge.kolmafia.modifiers.StringModifier;
+import net.sourceforge.kolmafia.objectpool.FamiliarPool;
+import net.sourceforge.kolmafia.preferences.Preferences;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class SpeculationBaselineTest {
+  @BeforeEach
+  public void beforeEach() {
+    KoLCharacter.reset("SpeculationBaselineTest");
+    Preferences.reset("SpeculationBaselineTest");
+  }
+
+  private static class BaselineSpeculation extends Speculation {
+    private final SpeculationBaseline baseline;
+
+    BaselineSpeculation(SpeculationBaseline baseline) {
+      this.baseline = baseline;
+    }
+
+    @Override
+    protected SpeculationBaseline getBaseline() {
+      return this.baseline;
+    }
+  }
+
+  private static void assertSameModifiers(Modifiers expected, Modifiers actual) {
+    for (var mod : DoubleModifier.DOUBLE_MODIFIERS) {
+      assertEquals(expected.getDouble(mod), actual.getDouble(mod), mod.getName());
+      assertEquals(expected.getAccumulator(mod), actual.getAccumulator(mod), mod.getName());
+    }
+    for (var mod : DerivedModifier.DERIVED_MODIFIERS) {
+      assertEquals(expected.getDerived(mod), actual.getDerived(mod), mod.getName());
+    }
+  }
+
+  @Test
+  public void baselineMatchesFullCalculation() {
+    var cleanups =
+        new Cleanups(
+            withFamiliar(FamiliarPool.BABY_GRAVY_FAIRY),
+            withLevel(8),
+            withEffect("Fat Leon's Phat Loot Lyric"),
+            withEffect("Leash of Linguini"),
+            withEffect("A Few Extra Pounds"));
+
+    try (cleanups) {
+      var baseline = new SpeculationBaseline();
+      Modifiers expected = new Speculation().calculate();
+
+      // The first calculation builds the baseline, the second uses it
+      assertSameModifiers(expected, new BaselineSpeculation(baseline).calculate());
+      assertSameModifiers(expected, new BaselineSpeculation(baseline).calculate());
+      assertEquals(10, expected.getDouble(DoubleModifier.FAMILIAR_WEIGHT));
+    }
+  }
+
+  @Test
+  public void orderDependentModifiersAreAddedInOrder() {
+    var cleanups = new Cleanups(withEffect("Expert Oiliness"), withEffect("Slippery Oiliness"));
+
+    try (cleanups) {
+      var baseline = new SpeculationBaseline();
+      Modifiers expected = new Speculation().calculate();
+      Modifiers actual = new BaselineSpeculation(baseline).calculate();
+
+      assertSameModifiers(expected, actual);
+      assertEquals(
+          expected.getString(StringModifier.EQUALIZE), actual.getString(StringModifier.EQUALIZE));
+    }
+  }
+}
@@ -54,6 +54,8 @@ import net.sourceforge.kolmafia.session.EquipmentManager;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
 public class MaximizerTest {
   @BeforeAll
@@ -1414,6 +1416,89 @@ public class MaximizerTest {
     }
   }
 
+  @Nested
+  class Parallel {
+    @Test
+    public void parallelSearchConsidersOutfits() {
+      final var cleanups =
+          new Cleanups(
+              withProperty("maximizerParallelSearch", true),
+              withEquippableItem("bounty-hunting helmet"),
+              withEquippableItem("bounty-hunting rifle"),
+              withEquippableItem("bounty-hunting pants"),
+              withEquippableItem("eldritch hat"),
+              withEquippableItem("eldritch pants"));
+
+      try (cleanups) {
+        assertTrue(maximize("item -tie"));
+
+        assertEquals(70, modFor(DoubleModifier.ITEMDROP), 0.01);
+        recommendedSlotIs(Slot.HAT, "bounty-hunting helmet");
+        recommendedSlotIs(Slot.WEAPON, "bounty-hunting rifle");
+        recommendedSlotIs(Slot.PANTS, "bounty-hunting pants");
+      }
+    }
+
+    @Test
+    public void parallelSearchConsidersSwitchedFamiliars() {
+      var cleanups =
+          new Cleanups(
+              withProperty("maximizerParallelSearch", true),
+              withFamiliarInTerrarium(FamiliarPool.TRICK_TOT),
+              withFamiliarInTerrarium(FamiliarPool.HAND),
+              withFamiliarInTerrarium(FamiliarPool.MOSQUITO),
+              withItem(ItemPool.TRICK_TOT_UNICORN), // 5 adv with tot
+              withItem(ItemPool.TRICK_TOT_CANDY), // 0 adv
+              withItem(ItemPool.TIME_SWORD), // 3 adv with hand
+              withItem(ItemPool.SOLID_SHIFTING_TIME_WEIRDNESS) // 4 adv with any familiar
+              );
+
+      try (cleanups) {
+        assertTrue(
+            maximize(
+                "adv -weapon -offhand -tie +switch tot +switch disembodied hand +switch mosquito"));
+        recommendedSlotIs(Slot.FAMILIAR, "li'l unicorn costume");
+        assertThat(
+            someBoostIs(b -> commandStartsWith(b, "familiar Trick-or-Treating Tot")),
+            equalTo(true));
+      }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 5, 8, 13, 21})
+    public void parallelSearchStopsAtCombinationLimitLikeSerialSearch(final int limit) {
+      var cleanups =
+          new Cleanups(
+              withProperty("maximizerCombinationLimit", limit),
+              withFamiliarInTerrarium(FamiliarPool.TRICK_TOT),
+              withFamiliarInTerrarium(FamiliarPool.HAND),
+              withFamiliarInTerrarium(FamiliarPool.MOSQUITO),
+              withItem(ItemPool.TRICK_TOT_UNICORN),
+              withItem(ItemPool.TRICK_TOT_CANDY),
+              withItem(ItemPool.TIME_SWORD),
+              withItem(ItemPool.SOLID_SHIFTING_TIME_WEIRDNESS),
+              withEquippableItem("bounty-hunting helmet"),
+              withEquippableItem("bounty-hunting rifle"),
+              withEquippableItem("bounty-hunting pants"));
+      String maximizerString =
+          "adv, item -tie +switch tot +switch disembodied hand +switch mosquito";
+
+      try (cleanups) {
+        maximize(maximizerString);
+        var serial = Maximizer.best;
+        int serialChecked = Maximizer.bestChecked;
+
+        try (var parallel = withProperty("maximizerParallelSearch", true)) {
+          maximize(maximizerString);
+        }
+
+        assertEquals(serial.equipment, Maximizer.best.equipment);
+        assertEquals(serial.getScore(), Maximizer.best.getScore(), 0.01);
+        assertEquals(serialChecked, Maximizer.bestChecked);
+      }
+    }
+  }
+
   @Nested
   public class Uniques {
     @Test
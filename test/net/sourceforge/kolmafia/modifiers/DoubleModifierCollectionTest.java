@@ -0,0 +1,91 @@
+package net.sourceforge.kolmafia.modifiers;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class DoubleModifierCollectionTest {
+  private static List<DoubleModifier> present(DoubleModifierCollection doubles) {
+    List<DoubleModifier> mods = new ArrayList<>();
+    doubles.forEach((mod, value) -> mods.add(mod));
+    return mods;
+  }
+
+  @Test
+  public void unsetModifiersAreZero() {
+    var doubles = new DoubleModifierCollection();
+
+    assertEquals(0.0, doubles.get(DoubleModifier.ITEMDROP));
+    assertThat(present(doubles), is(empty()));
+  }
+
+  @Test
+  public void setReportsChanges() {
+    var doubles = new DoubleModifierCollection();
+
+    assertTrue(doubles.set(DoubleModifier.ITEMDROP, 10));
+    assertFalse(doubles.set(DoubleModifier.ITEMDROP, 10));
+    assertTrue(doubles.set(DoubleModifier.ITEMDROP, 20));
+    assertEquals(20.0, doubles.get(DoubleModifier.ITEMDROP));
+  }
+
+  @Test
+  public void settingZeroRemovesModifier() {
+    var doubles = new DoubleModifierCollection();
+    doubles.set(DoubleModifier.ITEMDROP, 10);
+    doubles.set(DoubleModifier.ITEMDROP, 0);
+
+    assertEquals(0.0, doubles.get(DoubleModifier.ITEMDROP));
+    assertThat(present(doubles), is(empty()));
+  }
+
+  @Test
+  public void addAccumulates() {
+    var doubles = new DoubleModifierCollection();
+
+    assertEquals(5.0, doubles.add(DoubleModifier.MEATDROP, 5));
+    assertEquals(2.0, doubles.add(DoubleModifier.MEATDROP, -3));
+    assertEquals(2.0, doubles.get(DoubleModifier.MEATDROP));
+  }
+
+  @Test
+  public void addingToZeroKeepsModifier() {
+    var doubles = new DoubleModifierCollection();
+    doubles.add(DoubleModifier.MEATDROP, 5);
+    doubles.add(DoubleModifier.MEATDROP, -5);
+
+    assertThat(present(doubles), contains(DoubleModifier.MEATDROP));
+  }
+
+  @Test
+  public void forEachVisitsModifiersInOrder() {
+    var doubles = new DoubleModifierCollection();
+    doubles.set(DoubleModifier.MEATDROP, 1);
+    doubles.add(DoubleModifier.FAMILIAR_WEIGHT, 2);
+    doubles.set(DoubleModifier.ITEMDROP, 3);
+
+    assertThat(
+        present(doubles),
+        contains(DoubleModifier.FAMILIAR_WEIGHT, DoubleModifier.ITEMDROP, DoubleModifier.MEATDROP));
+  }
+
+  @Test
+  public void resetClearsModifiers() {
+    var doubles = new DoubleModifierCollection();
+    doubles.set(DoubleModifier.ITEMDROP, 10);
+    doubles.add(DoubleModifier.MEATDROP, 5);
+    doubles.reset();
+
+    assertEquals(0.0, doubles.get(DoubleModifier.ITEMDROP));
+    assertEquals(0.0, doubles.get(DoubleModifier.MEATDROP));
+    assertThat(present(doubles), is(empty()));
+  }
+}
@@ -0,0 +1,79 @@
+package net.sourceforge.kolmafia.persistence;
+
+import static internal.helpers.Player.withItem;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import internal.helpers.Cleanups;
+import net.sourceforge.kolmafia.AdventureResult;
+import net.sourceforge.kolmafia.KoLCharacter;
+import net.sourceforge.kolmafia.KoLConstants;
+import net.sourceforge.kolmafia.objectpool.ConcoctionPool;
+import net.sourceforge.kolmafia.objectpool.ItemPool;
+import net.sourceforge.kolmafia.preferences.Preferences;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ConcoctionDatabaseTest {
+  @BeforeEach
+  public void beforeEach() {
+    KoLCharacter.reset("ConcoctionDatabaseTest");
+    Preferences.reset("ConcoctionDatabaseTest");
+  }
+
+  private static void gainItem(final String itemName, final int count) {
+    int itemId = ItemDatabase.getItemId(itemName);
+    AdventureResult.addResultToList(KoLConstants.inventory, ItemPool.get(itemId, count));
+    ConcoctionDatabase.setRefreshNeeded(itemId);
+    ConcoctionDatabase.refreshConcoctions(false);
+  }
+
+  @Test
+  public void itemGainRecalculatesOnlyDependentConcoctions() {
+    var cleanups = new Cleanups(withItem("bum cheek", 2), withItem("meat paste", 2));
+
+    try (cleanups) {
+      var asshat = ConcoctionPool.get(ItemDatabase.getItemId("asshat"));
+      assertEquals(1, asshat.creatable);
+
+      int partialRefreshes = ConcoctionDatabase.getPartialRefreshes();
+      gainItem("bum cheek", 2);
+
+      assertEquals(partialRefreshes + 1, ConcoctionDatabase.getPartialRefreshes());
+      assertThat(ConcoctionDatabase.getLastRefreshSize(), greaterThan(0));
+      assertThat(
+          ConcoctionDatabase.getLastRefreshSize(), lessThan(ConcoctionPool.concoctions().size()));
+      assertEquals(2, asshat.creatable);
+    }
+  }
+
+  @Test
+  public void partialRefreshMatchesFullRefresh() {
+    var cleanups = new Cleanups(withItem("bum cheek", 2), withItem("meat paste", 2));
+
+    try (cleanups) {
+      gainItem("bum cheek", 2);
+      var asshat = ConcoctionPool.get(ItemDatabase.getItemId("asshat"));
+      int partial = asshat.creatable;
+
+      ConcoctionDatabase.refreshConcoctions();
+
+      assertEquals(asshat.creatable, partial);
+    }
+  }
+
+  @Test
+  public void meatPasteGainRefreshesEverything() {
+    var cleanups = new Cleanups(withItem("bum cheek", 4), withItem("meat paste", 1));
+
+    try (cleanups) {
+      int fullRefreshes = ConcoctionDatabase.getFullRefreshes();
+      gainItem("meat paste", 1);
+
+      assertEquals(fullRefreshes + 1, ConcoctionDatabase.getFullRefreshes());
+      assertEquals(2, ConcoctionPool.get(ItemDatabase.getItemId("asshat")).creatable);
+    }
+  }
+}
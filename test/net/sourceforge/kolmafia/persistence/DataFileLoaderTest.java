@@ -0,0 +1,157 @@
+package net.sourceforge.kolmafia.persistence;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import net.java.dev.spellcast.utilities.DataUtilities;
+import net.sourceforge.kolmafia.KoLConstants;
+import net.sourceforge.kolmafia.utilities.FileUtilities;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class DataFileLoaderTest {
+  @AfterEach
+  public void afterEach() {
+    DataFileLoader.reset();
+  }
+
+  private static List<String[]> readAll(final BufferedReader reader) throws IOException {
+    List<String[]> rows = new ArrayList<>();
+    try (reader) {
+      String[] data;
+      while ((data = FileUtilities.readData(reader)) != null) {
+        rows.add(data);
+      }
+    }
+    return rows;
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"items.txt", "statuseffects.txt", "modifiers.txt", "concoctions.txt"})
+  public void readsSameDataAsFileUtilities(final String filename) throws IOException {
+    List<String[]> expected =
+        readAll(DataUtilities.getReader(KoLConstants.DATA_DIRECTORY, filename, false));
+
+    DataFileLoader.start(List.of(filename));
+    List<String[]> actual = readAll(DataFileLoader.take(filename));
+
+    assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < actual.size(); ++i) {
+      assertArrayEquals(expected.get(i), actual.get(i));
+    }
+  }
+
+  @Test
+  public void versionedReaderTakesFileReadAhead() throws IOException {
+    DataFileLoader.start(List.of("items.txt"));
+
+    try (BufferedReader reader =
+        FileUtilities.getVersionedReader("items.txt", KoLConstants.ITEMS_VERSION)) {
+      assertThat(reader, instanceOf(DataFileLoader.DataReader.class));
+      // The version number has already been read
+      assertEquals("seal-clubbing club", FileUtilities.readData(reader)[1]);
+    }
+  }
+
+  @Test
+  public void readsLinesAsWritten() throws IOException {
+    DataFileLoader.start(List.of("items.txt"));
+
+    try (BufferedReader reader = DataFileLoader.take("items.txt");
+        BufferedReader expected =
+            DataUtilities.getReader(KoLConstants.DATA_DIRECTORY, "items.txt", false)) {
+      assertNotNull(reader);
+      String line;
+      while ((line = expected.readLine()) != null) {
+        assertEquals(line, reader.readLine());
+      }
+      assertNull(reader.readLine());
+    }
+  }
+
+  @Test
+  public void readsCharactersAfterLines() throws IOException {
+    DataFileLoader.start(List.of("zonelist.txt"));
+    List<String> lines = DataFileLoader.readBundledFile("zonelist.txt").lines().toList();
+    String rest = String.join("\n", lines.subList(1, lines.size())) + "\n";
+
+    try (BufferedReader reader = DataFileLoader.take("zonelist.txt")) {
+      assertNotNull(reader);
+      assertEquals(lines.get(0), reader.readLine());
+      assertTrue(reader.ready());
+      assertEquals(rest.charAt(0), reader.read());
+
+      StringWriter writer = new StringWriter();
+      reader.transferTo(writer);
+      assertEquals(rest.substring(1), writer.toString());
+      assertEquals(-1, reader.read());
+      assertNull(reader.readLine());
+    }
+  }
+
+  @Test
+  public void filesCanOnlyBeTakenOnce() {
+    DataFileLoader.start(List.of("zonelist.txt"));
+
+    assertNotNull(DataFileLoader.take("zonelist.txt"));
+    assertNull(DataFileLoader.take("zonelist.txt"));
+    assertNull(DataFileLoader.take("adventures.txt"));
+  }
+
+  @Test
+  public void reportsTimings() {
+    DataFileLoader.start(List.of("items.txt", "zonelist.txt"));
+    DataFileLoader.take("items.txt");
+    DataFileLoader.take("zonelist.txt");
+
+    List<DataFileLoader.Timing> timings = DataFileLoader.getTimings();
+    assertThat(
+        timings.stream().map(DataFileLoader.Timing::filename).toList(),
+        contains("items.txt", "zonelist.txt"));
+    assertTrue(timings.get(0).taken());
+    assertTrue(timings.get(0).lines() > 1000);
+  }
+
+  @Test
+  public void skipsMissingFiles() {
+    DataFileLoader.start(List.of("no such file.txt"));
+
+    assertNull(DataFileLoader.take("no such file.txt"));
+  }
+
+  @Test
+  public void listsDatabasesAfterTheirNeeds() {
+    List<String> files = DataFileLoader.getFiles(DataFileLoader.DATABASES);
+
+    assertThat(files, hasItem("items.txt"));
+    assertThat(files, hasItem("modifiers.txt"));
+    assertEquals(0, files.indexOf("items.txt"));
+    assertFalse(files.contains("defaults.txt"));
+  }
+
+  @Test
+  public void rejectsDatabaseListedBeforeItsNeeds() {
+    var databases =
+        List.of(
+            new DataFileLoader.Database("Second", List.of("b.txt"), List.of("First")),
+            new DataFileLoader.Database("First", List.of("a.txt"), List.of()));
+
+    assertThrows(IllegalStateException.class, () -> DataFileLoader.getFiles(databases));
+  }
+}
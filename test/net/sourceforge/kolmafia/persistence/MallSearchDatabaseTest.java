@@ -0,0 +1,145 @@
+package net.sourceforge.kolmafia.persistence;
+
+import static internal.helpers.Player.withProperty;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import internal.helpers.Cleanups;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import net.sourceforge.kolmafia.objectpool.ItemPool;
+import net.sourceforge.kolmafia.preferences.Preferences;
+import net.sourceforge.kolmafia.request.MallPurchaseRequest;
+import net.sourceforge.kolmafia.request.PurchaseRequest;
+import net.sourceforge.kolmafia.session.MallPriceManager;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class MallSearchDatabaseTest {
+  @BeforeAll
+  public static void beforeAll() {
+    MallPriceDatabase.savePricesToFile = false;
+  }
+
+  @AfterAll
+  public static void afterAll() {
+    MallPriceDatabase.savePricesToFile = true;
+  }
+
+  @BeforeEach
+  public void beforeEach() {
+    Preferences.reset("MallSearchDatabaseTest");
+    MallSearchDatabase.SEARCH_FILE.delete();
+    MallPriceManager.reset();
+  }
+
+  @AfterEach
+  public void afterEach() {
+    MallSearchDatabase.SEARCH_FILE.delete();
+    MallPriceManager.reset();
+  }
+
+  private static List<PurchaseRequest> makeSearch(final int itemId, final int... prices) {
+    return IntStream.range(0, prices.length)
+        .mapToObj(
+            i ->
+                (PurchaseRequest)
+                    new MallPurchaseRequest(itemId, 1, i + 1, "shop " + i, prices[i], 1))
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  public void savesNothingByDefault() {
+    MallSearchDatabase.recordSearch(ItemPool.MR_ACCESSORY, makeSearch(ItemPool.MR_ACCESSORY, 100));
+    MallSearchDatabase.reset();
+
+    assertThat(MallSearchDatabase.getSearch(ItemPool.MR_ACCESSORY), nullValue());
+    assertFalse(MallSearchDatabase.SEARCH_FILE.exists());
+  }
+
+  @Test
+  public void restoresSearchInNewSession() {
+    var cleanups = new Cleanups(withProperty("mallSearchCacheMaxAge", 3600));
+
+    try (cleanups) {
+      MallSearchDatabase.recordSearch(
+          ItemPool.MR_ACCESSORY, makeSearch(ItemPool.MR_ACCESSORY, 100, 200, 300));
+      MallSearchDatabase.reset();
+
+      var search = MallSearchDatabase.getSearch(ItemPool.MR_ACCESSORY);
+      assertThat(search, hasSize(3));
+      assertThat(
+          search.stream().map(PurchaseRequest::getPrice).collect(Collectors.toList()),
+          contains(100, 200, 300));
+      assertEquals("shop 2", search.get(2).getShopName());
+    }
+  }
+
+  @Test
+  public void forgetsRemovedSearch() {
+    var cleanups = new Cleanups(withProperty("mallSearchCacheMaxAge", 3600));
+
+    try (cleanups) {
+      MallSearchDatabase.recordSearch(
+          ItemPool.MR_ACCESSORY, makeSearch(ItemPool.MR_ACCESSORY, 100));
+      MallSearchDatabase.removeSearch(ItemPool.MR_ACCESSORY);
+      MallSearchDatabase.reset();
+
+      assertThat(MallSearchDatabase.getSearch(ItemPool.MR_ACCESSORY), nullValue());
+    }
+  }
+
+  @Test
+  public void ignoresExpiredSearch() {
+    var cleanups = new Cleanups(withProperty("mallSearchCacheMaxAge", 3600));
+
+    try (cleanups) {
+      var results = makeSearch(ItemPool.MR_ACCESSORY, 100);
+      results.get(0).setTimestamp(MallPriceManager.currentTimeMillis() - 7_200_000L);
+      MallSearchDatabase.recordSearch(ItemPool.MR_ACCESSORY, results);
+      MallSearchDatabase.reset();
+
+      assertThat(MallSearchDatabase.getSearch(ItemPool.MR_ACCESSORY), nullValue());
+    }
+  }
+
+  @Test
+  public void mallPriceUsesSavedSearch() {
+    var cleanups = new Cleanups(withProperty("mallSearchCacheMaxAge", 3600));
+
+    try (cleanups) {
+      MallSearchDatabase.recordSearch(
+          ItemPool.MR_ACCESSORY, makeSearch(ItemPool.MR_ACCESSORY, 100, 200, 300, 400, 500, 600));
+      MallPriceManager.reset();
+
+      assertEquals(500, MallPriceManager.getMallPrice(ItemPool.MR_ACCESSORY));
+    }
+  }
+
+  @Test
+  public void restoredPriceIsNotRecordedAsNew() {
+    var cleanups = new Cleanups(withProperty("mallSearchCacheMaxAge", 3600));
+
+    try (cleanups) {
+      int recordedPrice = MallPriceDatabase.getPrice(ItemPool.MR_ACCESSORY);
+      float recordedAge = MallPriceDatabase.getAge(ItemPool.MR_ACCESSORY);
+
+      MallSearchDatabase.recordSearch(
+          ItemPool.MR_ACCESSORY, makeSearch(ItemPool.MR_ACCESSORY, 100, 200, 300, 400, 500, 600));
+      MallPriceManager.reset();
+
+      assertEquals(500, MallPriceManager.getMallPrice(ItemPool.MR_ACCESSORY));
+      assertEquals(recordedPrice, MallPriceDatabase.getPrice(ItemPool.MR_ACCESSORY));
+      assertTrue(MallPriceDatabase.getAge(ItemPool.MR_ACCESSORY) >= recordedAge);
+    }
+  }
+}
@@ -0,0 +1,88 @@
+package net.sourceforge.kolmafia.preferences;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class PreferenceStoreTest {
+  private final PreferenceStore store = new PreferenceStore();
+
+  @Test
+  public void missingPreferencesHaveEmptyValues() {
+    assertNull(store.getString("missing"));
+    assertFalse(store.getBoolean("missing"));
+    assertEquals(0, store.getInteger("missing"));
+    assertEquals(0L, store.getLong("missing"));
+    assertEquals(0.0f, store.getFloat("missing"));
+    assertEquals(0.0, store.getDouble("missing"));
+  }
+
+  @Test
+  public void typedValuesAreReadBack() {
+    store.put("boolean", true);
+    store.put("integer", -12);
+    store.put("long", 1L << 40);
+    store.put("float", -1.5f);
+    store.put("double", 2.25);
+
+    assertTrue(store.getBoolean("boolean"));
+    assertEquals(-12, store.getInteger("integer"));
+    assertEquals(1L << 40, store.getLong("long"));
+    assertEquals(-1.5f, store.getFloat("float"));
+    assertEquals(2.25, store.getDouble("double"));
+    assertEquals("-1.5", store.getString("float"));
+  }
+
+  @Test
+  public void textIsParsedAsTypeAsked() {
+    store.put("number", "42");
+
+    assertEquals(42, store.getInteger("number"));
+    assertEquals(42L, store.getLong("number"));
+    assertEquals(42.0, store.getDouble("number"));
+    assertEquals(42, store.getInteger("number"));
+    assertFalse(store.getBoolean("number"));
+  }
+
+  @Test
+  public void readingAsAnotherTypeKeepsText() {
+    store.put("flag", true);
+    store.put("ratio", "1");
+
+    assertEquals(0, store.getInteger("flag"));
+    assertEquals(1.0f, store.getFloat("ratio"));
+
+    assertEquals("true", store.getString("flag"));
+    assertEquals("1", store.getString("ratio"));
+  }
+
+  @Test
+  public void settingReplacesParsedValue() {
+    store.put("counter", "1");
+    assertEquals(1, store.getInteger("counter"));
+
+    store.put("counter", "2");
+    assertEquals(2, store.getInteger("counter"));
+    store.put("counter", 3);
+    assertEquals("3", store.getString("counter"));
+  }
+
+  @Test
+  public void snapshotIsSortedCopy() {
+    store.put("b", 2);
+    store.put("a", "1");
+
+    var snapshot = store.snapshot();
+    store.put("c", 3);
+    store.remove("a");
+
+    assertThat(snapshot.keySet(), contains("a", "b"));
+    assertEquals("2", snapshot.get("b"));
+    assertFalse(store.containsKey("a"));
+  }
+}
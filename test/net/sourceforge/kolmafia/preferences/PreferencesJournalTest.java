@@ -0,0 +1,266 @@
+package net.sourceforge.kolmafia.preferences;
+
+import static internal.helpers.Player.withSavePreferencesToFile;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Properties;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import net.sourceforge.kolmafia.KoLConstants;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class PreferencesJournalTest {
+  private static final File FILE =
+      new File(KoLConstants.SETTINGS_LOCATION, "journaltest_prefs.txt");
+  private static final File JOURNAL =
+      new File(KoLConstants.SETTINGS_LOCATION, "journaltest_prefs.journal");
+
+  private final SortedMap<String, byte[]> encodedData =
+      Collections.synchronizedSortedMap(new TreeMap<>());
+  private PreferencesJournal journal;
+
+  @BeforeEach
+  public void beforeEach() {
+    KoLConstants.SETTINGS_LOCATION.mkdirs();
+    this.put("a", "1");
+    this.put("b", "2");
+    this.journal = new PreferencesJournal(FILE, JOURNAL, this.encodedData);
+  }
+
+  @AfterEach
+  public void afterEach() {
+    FILE.delete();
+    JOURNAL.delete();
+  }
+
+  private void put(final String name, final String value) {
+    this.encodedData.put(name, (name + "=" + value + "\n").getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String read(final File file) throws IOException {
+    return Files.readString(file.toPath(), StandardCharsets.UTF_8);
+  }
+
+  // The contents of a file or journal after its generation stamp
+  private static String contents(final File file) throws IOException {
+    String text = read(file);
+    assertThat(text, startsWith("#generation="));
+    return text.substring(text.indexOf('\n') + 1);
+  }
+
+  private static String generation(final File file) throws IOException {
+    String text = read(file);
+    return text.substring(0, text.indexOf('\n'));
+  }
+
+  private static Properties load(final File file) throws IOException {
+    Properties p = new Properties();
+    try (var reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+      p.load(reader);
+    }
+    return p;
+  }
+
+  @Test
+  public void changesAreAppendedToJournal() throws IOException {
+    try (var cleanups = withSavePreferencesToFile()) {
+      this.journal.save();
+
+      this.put("a", "3");
+      this.journal.record("a");
+      this.put("a", "4");
+      this.journal.record("a");
+      this.journal.flush();
+
+      assertEquals("a=1\nb=2\n", contents(FILE));
+      assertEquals("a=4\n#\n", contents(JOURNAL));
+      assertEquals(generation(FILE), generation(JOURNAL));
+
+      this.put("b", "5");
+      this.journal.record("b");
+      this.journal.flush();
+
+      assertEquals("a=4\n#\nb=5\n#\n", contents(JOURNAL));
+    }
+  }
+
+  @Test
+  public void saveEmptiesJournal() throws IOException {
+    try (var cleanups = withSavePreferencesToFile()) {
+      this.put("a", "3");
+      this.journal.record("a");
+      this.journal.flush();
+      this.journal.save();
+
+      assertEquals("a=3\nb=2\n", contents(FILE));
+      assertFalse(JOURNAL.exists());
+    }
+  }
+
+  @Test
+  public void syncEmptiesJournal() throws IOException {
+    try (var cleanups = withSavePreferencesToFile()) {
+      this.put("a", "3");
+      this.journal.record("a");
+      this.journal.flush();
+      this.journal.sync();
+
+      assertEquals("a=3\nb=2\n", contents(FILE));
+      assertFalse(JOURNAL.exists());
+      assertFalse(new File(FILE.getPath() + ".tmp").exists());
+    }
+  }
+
+  @Test
+  public void removedPreferenceRewritesFile() throws IOException {
+    try (var cleanups = withSavePreferencesToFile()) {
+      this.journal.save();
+
+      this.encodedData.remove("b");
+      this.journal.record("b");
+      this.journal.flush();
+
+      assertEquals("a=1\n", contents(FILE));
+      assertFalse(JOURNAL.exists());
+    }
+  }
+
+  @Test
+  public void longJournalIsCompacted() throws IOException {
+    try (var cleanups = withSavePreferencesToFile()) {
+      this.journal.save();
+
+      String value = "x".repeat(1000);
+      for (int i = 0; i < 100; ++i) {
+        this.put("a", value + i);
+        this.journal.record("a");
+        this.journal.flush();
+      }
+
+      // The file has been rewritten, and the journal started again
+      assertThat(read(FILE), containsString("a=" + value));
+      assertThat(read(JOURNAL), not(containsString("a=" + value + "1\n")));
+      assertThat(read(JOURNAL), containsString("a=" + value + "99\n"));
+    }
+  }
+
+  @Test
+  public void replayAppliesFinishedBatches() throws IOException {
+    Files.writeString(FILE.toPath(), "#generation=1\na=1\nb=2\n");
+    Files.writeString(JOURNAL.toPath(), "#generation=1\na=3\n#\nb=4\nc=5\n#\nb=6\nd=");
+
+    Properties p = new Properties();
+    p.setProperty("a", "1");
+    p.setProperty("b", "2");
+    this.journal.replay(p);
+
+    assertEquals("3", p.getProperty("a"));
+    assertEquals("4", p.getProperty("b"));
+    assertEquals("5", p.getProperty("c"));
+    assertNull(p.getProperty("d"));
+  }
+
+  @Test
+  public void unfinishedBatchIsCutOff() throws IOException {
+    Files.writeString(FILE.toPath(), "#generation=1\na=1\nb=2\n");
+    Files.writeString(JOURNAL.toPath(), "#generation=1\na=3\n#\nb=4");
+
+    try (var cleanups = withSavePreferencesToFile()) {
+      this.journal.replay(new Properties());
+      this.put("c", "5");
+      this.journal.record("c");
+      this.journal.flush();
+
+      assertEquals("#generation=1\na=3\n#\nc=5\n#\n", read(JOURNAL));
+    }
+  }
+
+  @Test
+  public void journalForOlderFileIsIgnored() throws IOException {
+    try (var cleanups = withSavePreferencesToFile()) {
+      this.journal.save();
+      this.put("a", "3");
+      this.journal.record("a");
+      this.journal.flush();
+      byte[] journaled = Files.readAllBytes(JOURNAL.toPath());
+
+      // KoLmafia stops after the new file is renamed into place, but before the journal is deleted
+      this.put("a", "4");
+      this.journal.save();
+      Files.write(JOURNAL.toPath(), journaled);
+
+      Properties p = load(FILE);
+      new PreferencesJournal(FILE, JOURNAL, this.encodedData).replay(p);
+
+      assertEquals("4", p.getProperty("a"));
+      assertEquals("2", p.getProperty("b"));
+    }
+  }
+
+  @Test
+  public void journalForOlderFileIsReplaced() throws IOException {
+    Files.writeString(FILE.toPath(), "#generation=2\na=1\nb=2\n");
+    Files.writeString(JOURNAL.toPath(), "#generation=1\na=3\n#\n");
+
+    try (var cleanups = withSavePreferencesToFile()) {
+      this.journal.replay(new Properties());
+      this.put("c", "5");
+      this.journal.record("c");
+      this.journal.flush();
+
+      assertEquals("#generation=2\nc=5\n#\n", read(JOURNAL));
+    }
+  }
+
+  @Test
+  public void fileWithoutStampTakesJournalWithoutStamp() throws IOException {
+    Files.writeString(FILE.toPath(), "a=1\nb=2\n");
+
+    try (var cleanups = withSavePreferencesToFile()) {
+      this.journal.replay(new Properties());
+      this.put("a", "3");
+      this.journal.record("a");
+      this.journal.flush();
+
+      Properties p = load(FILE);
+      new PreferencesJournal(FILE, JOURNAL, this.encodedData).replay(p);
+
+      assertEquals("#generation=\na=3\n#\n", read(JOURNAL));
+      assertEquals("3", p.getProperty("a"));
+    }
+  }
+
+  @Test
+  public void nothingIsWrittenWhenSavingIsOff() {
+    this.journal.record("a");
+    this.journal.flush();
+    this.journal.save();
+
+    assertFalse(FILE.exists());
+    assertFalse(JOURNAL.exists());
+  }
+
+  @Test
+  public void closedJournalRecordsNothing() throws IOException {
+    try (var cleanups = withSavePreferencesToFile()) {
+      this.journal.close();
+      this.journal.record("a");
+      this.journal.flush();
+
+      assertFalse(JOURNAL.exists());
+    }
+  }
+}
@@ -41,6 +41,7 @@ class PreferencesTest {
     if (userFile.exists()) {
       userFile.delete();
     }
+    new File("settings/" + USER_NAME.toLowerCase() + "_prefs.journal").delete();
   }
 
   @Test
@@ -700,4 +701,77 @@ class PreferencesTest {
       }
     }
   }
+
+  @Nested
+  class SaveSettingsToJournal {
+    @Test
+    public void journalsChangedSettings() throws IOException {
+      File userFile =
+          new File("settings/" + KoLCharacter.getUserName().toLowerCase() + "_prefs.txt");
+      File journalFile =
+          new File("settings/" + KoLCharacter.getUserName().toLowerCase() + "_prefs.journal");
+
+      var cleanups =
+          new Cleanups(
+              withSavePreferencesToFile(),
+              withProperty("saveSettingsOnSet", true),
+              withProperty("saveSettingsToJournal", true),
+              withProperty("xyz", "abc"));
+      try (cleanups) {
+        Preferences.flushJournals();
+
+        String contents =
+            new String(
+                DataUtilities.getInputStream(userFile).readAllBytes(), StandardCharsets.UTF_8);
+        assertThat(contents, not(containsString("\nxyz=abc\n")));
+        contents =
+            new String(
+                DataUtilities.getInputStream(journalFile).readAllBytes(), StandardCharsets.UTF_8);
+        assertThat(contents, containsString("xyz=abc\n"));
+      }
+    }
+
+    @Test
+    public void journalIsReplayedOnLoad() {
+      String userName = KoLCharacter.getUserName();
+
+      var cleanups =
+          new Cleanups(
+              withSavePreferencesToFile(),
+              withProperty("saveSettingsOnSet", true),
+              withProperty("saveSettingsToJournal", true));
+      try (cleanups) {
+        Preferences.setString("xyz", "abc");
+        Preferences.flushJournals();
+
+        // Logging in again reads the file, then the journal
+        Preferences.reset(userName);
+        assertEquals("abc", Preferences.getString("xyz"));
+      }
+    }
+
+    @Test
+    public void logoutWritesWholeFile() throws IOException {
+      File userFile =
+          new File("settings/" + KoLCharacter.getUserName().toLowerCase() + "_prefs.txt");
+      File journalFile =
+          new File("settings/" + KoLCharacter.getUserName().toLowerCase() + "_prefs.journal");
+
+      var cleanups =
+          new Cleanups(
+              withSavePreferencesToFile(),
+              withProperty("saveSettingsOnSet", true),
+              withProperty("saveSettingsToJournal", true));
+      try (cleanups) {
+        Preferences.setString("xyz", "abc");
+        Preferences.reset("");
+
+        String contents =
+            new String(
+                DataUtilities.getInputStream(userFile).readAllBytes(), StandardCharsets.UTF_8);
+        assertThat(contents, containsString("\nxyz=abc\n"));
+        assertFalse(journalFile.exists());
+      }
+    }
+  }
 }
@@ -1,6 +1,7 @@
 package net.sourceforge.kolmafia.session;
 
 import static internal.helpers.Networking.html;
+import static internal.helpers.Player.withProperty;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
@@ -10,6 +11,8 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mockStatic;
 
 import internal.helpers.Cleanups;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.time.Clock;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -21,6 +24,7 @@ import net.sourceforge.kolmafia.KoLCharacter;
 import net.sourceforge.kolmafia.objectpool.ItemPool;
 import net.sourceforge.kolmafia.persistence.CoinmastersDatabase;
 import net.sourceforge.kolmafia.persistence.MallPriceDatabase;
+import net.sourceforge.kolmafia.persistence.MallSearchDatabase;
 import net.sourceforge.kolmafia.persistence.NPCStoreDatabase;
 import net.sourceforge.kolmafia.request.CharPaneRequest;
 import net.sourceforge.kolmafia.request.GenericRequest;
@@ -594,6 +598,34 @@ public class MallPriceManagerTest {
     }
   }
 
+  @Test
+  public void savesEachSearchOnceWhenGettingMallPricesByCategory() throws IOException {
+    MallSearchRequest request = new MockMallSearchRequest("unlockers", "");
+    request.setResponseTexts(
+        html("request/test_mall_search_unlockers_page_1.html"),
+        html("request/test_mall_search_unlockers_page_2.html"));
+
+    var cleanups =
+        new Cleanups(mockMallSearchRequest(request), withProperty("mallSearchCacheMaxAge", 3600));
+    MallSearchDatabase.SEARCH_FILE.delete();
+
+    try (cleanups) {
+      long timestamp = 1_000_000;
+      Mockito.when(clock.millis()).thenReturn(timestamp);
+
+      int count = MallPriceManager.getMallPrices("unlockers", "");
+
+      // Each search is a line with the item, timestamp and number of listings
+      long searches =
+          Files.readAllLines(MallSearchDatabase.SEARCH_FILE.toPath()).stream()
+              .filter(line -> line.split("\t").length == 3)
+              .count();
+      assertEquals(count, searches);
+    } finally {
+      MallSearchDatabase.SEARCH_FILE.delete();
+    }
+  }
+
   @Test
   public void canSearchMallStore() {
     // Not actually used in MallPriceManager, but may as well test the fourth
@@ -0,0 +1,78 @@
+package net.sourceforge.kolmafia.session;
+
+import static internal.helpers.Networking.html;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+import net.sourceforge.kolmafia.KoLConstants;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class ResultTokenizerTest {
+  // How ResultProcessor used to split a response into lines
+  private static List<String> split(final String results) {
+    String body = KoLConstants.HEAD_PATTERN.matcher(results).replaceAll("");
+    String plainTextResult =
+        KoLConstants.ANYTAG_BUT_ITALIC_PATTERN.matcher(body).replaceAll(KoLConstants.LINE_BREAK);
+    return Arrays.asList(plainTextResult.split(KoLConstants.LINE_BREAK));
+  }
+
+  private static List<String> tokenize(final String results) {
+    return new ArrayList<>(ResultTokenizer.tokenize(results));
+  }
+
+  @Test
+  public void splitsOnTagsButKeepsItalics() {
+    assertThat(
+        tokenize("You acquire an item: <b>bum cheek</b> <i>(stored)</i><br>"),
+        contains("You acquire an item: ", "bum cheek", " <i>(stored)</i>"));
+  }
+
+  @Test
+  public void removesHeadWithinBody() {
+    assertThat(
+        tokenize("<body>one<head><title>x</title></head>two</body>"), contains("", "one", "two"));
+  }
+
+  @Test
+  public void dropsTrailingEmptyLines() {
+    assertThat(tokenize("<br><br>"), empty());
+    assertThat(tokenize(""), contains(""));
+  }
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "a < b and c > d",
+        "<a\nhref=x>link</a>",
+        "<i class=x>italic</i>",
+        "text<",
+        "<head>\n</head>after",
+        "one\n\ntwo\n",
+      })
+  public void matchesRegularExpressions(final String results) {
+    assertEquals(split(results), tokenize(results));
+  }
+
+  private static Stream<Path> responses() throws IOException {
+    return Files.list(Path.of("request")).filter(path -> path.toString().endsWith(".html"));
+  }
+
+  @ParameterizedTest
+  @MethodSource("responses")
+  public void matchesRegularExpressionsOnResponses(final Path path) {
+    String results = html(path.toString());
+    assertEquals(split(results), tokenize(results));
+  }
+}
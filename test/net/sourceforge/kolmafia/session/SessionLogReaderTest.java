@@ -0,0 +1,150 @@
+package net.sourceforge.kolmafia.session;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import net.sourceforge.kolmafia.KoLConstants;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class SessionLogReaderTest {
+  private static final String PLAYER = "Session Log Tester";
+  private static final String DATE = "20240101";
+
+  private static final String PREAMBLE = "Welcome back!\n\n";
+  private static final String TURN_1 =
+      "[1] The Haunted Pantry\nEncounter: drunken half-orc hobo\nYou win the fight!\n\n";
+  private static final String TURN_2 = "[2] The Sleazy Back Alley\nEncounter: Hobo\n\n";
+  private static final String TURN_3 =
+      "[3] The Haunted Pantry\nEncounter: possessed can of tomatoes\n[not a turn]\n\n";
+  private static final String LOG = PREAMBLE + TURN_1 + TURN_2 + TURN_3;
+
+  @AfterEach
+  public void afterEach() {
+    for (String suffix : List.of(".txt", ".txt.idx", ".txt.gz", ".txt.gz.idx")) {
+      new File(KoLConstants.SESSIONS_LOCATION, "Session_Log_Tester_" + DATE + suffix).delete();
+    }
+  }
+
+  private static File writeLog(final String text, final boolean gzipped) throws IOException {
+    KoLConstants.SESSIONS_LOCATION.mkdirs();
+    String filename = "Session_Log_Tester_" + DATE + (gzipped ? ".txt.gz" : ".txt");
+    File log = new File(KoLConstants.SESSIONS_LOCATION, filename);
+    try (OutputStream ostream =
+        gzipped ? new GZIPOutputStream(new FileOutputStream(log)) : new FileOutputStream(log)) {
+      ostream.write(text.getBytes(StandardCharsets.UTF_8));
+    }
+    return log;
+  }
+
+  private static List<SessionLogReader.Entry> index(final String text) throws IOException {
+    return SessionLogReader.buildIndex(
+        new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  @Test
+  public void indexesEntriesByTurn() throws IOException {
+    var index = index(LOG);
+
+    assertThat(
+        index.stream().map(SessionLogReader.Entry::turn).toList(),
+        contains(SessionLogReader.NO_TURN, 1, 2, 3));
+    assertEquals("The Sleazy Back Alley", index.get(2).location());
+    assertEquals(PREAMBLE.length() + TURN_1.length(), index.get(2).offset());
+    assertEquals(TURN_2.length(), index.get(2).length());
+  }
+
+  @Test
+  public void indexesUnfinishedLastLine() throws IOException {
+    var index = index(TURN_1 + "[2] The Sleazy Back Alley");
+
+    assertThat(index.stream().map(SessionLogReader.Entry::turn).toList(), contains(1, 2));
+    assertEquals("The Sleazy Back Alley", index.get(1).location());
+  }
+
+  @Test
+  public void indexesEmptyLog() throws IOException {
+    assertThat(index(""), empty());
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  public void readsEntriesForTurns(final boolean gzipped) throws IOException {
+    File log = writeLog(LOG, gzipped);
+    assertEquals(log, SessionLogReader.getLog(PLAYER, DATE));
+
+    var index = SessionLogReader.getIndex(log);
+    var entries = SessionLogReader.find(index, 2, 3);
+
+    assertThat(SessionLogReader.read(log, entries), contains(TURN_2, TURN_3));
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  public void readsEntriesForLocation(final boolean gzipped) throws IOException {
+    File log = writeLog(LOG, gzipped);
+
+    var index = SessionLogReader.getIndex(log);
+    var entries = SessionLogReader.find(index, "the haunted pantry");
+
+    assertThat(SessionLogReader.read(log, entries), contains(TURN_1, TURN_3));
+  }
+
+  @Test
+  public void writesIndexBesideLog() throws IOException {
+    File log = writeLog(LOG, false);
+    var index = SessionLogReader.getIndex(log);
+
+    File indexFile = new File(log.getPath() + ".idx");
+    assertTrue(indexFile.exists());
+    assertEquals(index, SessionLogReader.getIndex(log));
+  }
+
+  @Test
+  public void rebuildsIndexWhenLogChanges() throws IOException {
+    File log = writeLog(PREAMBLE + TURN_1, false);
+    assertEquals(2, SessionLogReader.getIndex(log).size());
+
+    // The session goes on
+    writeLog(LOG, false);
+    var index = SessionLogReader.getIndex(log);
+
+    assertEquals(4, index.size());
+    assertThat(SessionLogReader.read(log, List.of(index.get(3))), contains(TURN_3));
+  }
+
+  @Test
+  public void ignoresDamagedIndex() throws IOException {
+    File log = writeLog(LOG, false);
+    var index = SessionLogReader.getIndex(log);
+
+    File indexFile = new File(log.getPath() + ".idx");
+    String text = Files.readString(indexFile.toPath());
+    Files.writeString(indexFile.toPath(), text.replace("\n3\t", "\nthree\t"));
+
+    assertEquals(index, SessionLogReader.getIndex(log));
+    assertThat(Files.readString(indexFile.toPath()), not(containsString("three")));
+  }
+
+  @Test
+  public void findsNoLogForMissingDay() {
+    assertThat(SessionLogReader.getLog(PLAYER, "19990101"), nullValue());
+  }
+}
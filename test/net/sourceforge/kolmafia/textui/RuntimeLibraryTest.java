@@ -30,12 +30,16 @@ import internal.helpers.Cleanups;
 import internal.helpers.HttpClientWrapper;
 import internal.network.FakeHttpClientBuilder;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.file.Files;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import net.sourceforge.kolmafia.AscensionPath.Path;
 import net.sourceforge.kolmafia.KoLCharacter;
+import net.sourceforge.kolmafia.KoLConstants;
 import net.sourceforge.kolmafia.MonsterData;
 import net.sourceforge.kolmafia.RequestLogger;
 import net.sourceforge.kolmafia.equipment.Slot;
@@ -56,6 +60,7 @@ import net.sourceforge.kolmafia.textui.command.AbstractCommandTestBase;
 import net.sourceforge.kolmafia.utilities.NullStream;
 import org.json.JSONObject;
 import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
@@ -842,6 +847,124 @@ public class RuntimeLibraryTest extends AbstractCommandTestBase {
     assertThat(output, containsString("15.0"));
   }
 
+  @Nested
+  class SessionLogEntries {
+    private final File log = new File(KoLConstants.SESSIONS_LOCATION, "testUser_20240101.txt");
+
+    @BeforeEach
+    void beforeEach() throws IOException {
+      KoLConstants.SESSIONS_LOCATION.mkdirs();
+      Files.writeString(
+          log.toPath(),
+          """
+              [1] The Haunted Pantry
+              Encounter: drunken half-orc hobo
+
+              [2] The Sleazy Back Alley
+              Encounter: Hobo
+
+              [3] The Haunted Pantry
+              Encounter: possessed can of tomatoes
+              """);
+    }
+
+    @AfterEach
+    void afterEach() {
+      log.delete();
+      new File(log.getPath() + ".idx").delete();
+    }
+
+    @Test
+    void sessionLogEntriesForTurns() {
+      String output = execute("session_log_entries(\"testUser\", \"20240101\", 2, 3)");
+      assertThat(
+          output,
+          startsWith("Returned: aggregate {int turn; string location; string text;} [2]"));
+      assertThat(output, containsString("turn => 2\n  location => The Sleazy Back Alley\n"));
+      assertThat(output, containsString("text => [3] The Haunted Pantry\n"));
+    }
+
+    @Test
+    void sessionLogEntriesForLocation() {
+      String output =
+          execute("session_log_entries(\"testUser\", \"20240101\", $location[The Haunted Pantry])");
+      assertThat(
+          output,
+          startsWith("Returned: aggregate {int turn; string location; string text;} [2]"));
+      assertThat(output, containsString("text => [1] The Haunted Pantry\n"));
+      assertThat(output, containsString("text => [3] The Haunted Pantry\n"));
+    }
+
+    @Test
+    void sessionLogEntriesForMissingDay() {
+      String output = execute("count(session_log_entries(\"testUser\", \"19990101\", 1, 10))");
+      assertThat(output, is("Returned: 0\n"));
+    }
+  }
+
+  @Nested
+  class FileToMap {
+    private final File file = new File(KoLConstants.DATA_LOCATION, "file_to_map_test.txt");
+
+    @BeforeEach
+    void beforeEach() throws IOException {
+      DataFileCache.clearCache();
+      KoLConstants.DATA_LOCATION.mkdirs();
+      Files.writeString(file.toPath(), "seal tooth\t1\tfirst\nhelmet turtle\t2\tsecond\n");
+    }
+
+    @AfterEach
+    void afterEach() {
+      file.delete();
+      DataFileCache.clearCache();
+    }
+
+    @Test
+    void readsSameMapAgain() {
+      String output =
+          execute(
+              "record r {int n; string s;}; r [item] m; file_to_map(\"file_to_map_test.txt\", m);"
+                  + " m[$item[seal tooth]].n = 99; remove m[$item[helmet turtle]];"
+                  + " r [item] copy; file_to_map(\"file_to_map_test.txt\", copy); copy");
+
+      assertThat(
+          output,
+          is(
+              """
+                  Returned: aggregate {int n; string s;} [item]
+                  seal tooth => record {int n; string s;}
+                    n => 1
+                    s => first
+                  helmet turtle => record {int n; string s;}
+                    n => 2
+                    s => second
+                  """));
+    }
+
+    @Test
+    void readsChangedFile() {
+      String output =
+          execute(
+              "int [string] m; file_to_map(\"file_to_map_test.txt\", m);"
+                  + " m[\"third\"] = 3; map_to_file(m, \"file_to_map_test.txt\");"
+                  + " int [string] changed; file_to_map(\"file_to_map_test.txt\", changed);"
+                  + " changed");
+
+      assertThat(output, containsString("third => 3"));
+    }
+
+    @Test
+    void readsMapOfOtherType() {
+      String output =
+          execute(
+              "int [item] m; file_to_map(\"file_to_map_test.txt\", m);"
+                  + " string [string, int] other; file_to_map(\"file_to_map_test.txt\", other);"
+                  + " other[\"seal tooth\", 1]");
+
+      assertThat(output, is("Returned: first\n"));
+    }
+  }
+
   @Nested
   class Ids {
     @ParameterizedTest
@@ -0,0 +1,106 @@
+package net.sourceforge.kolmafia.textui.javascript;
+
+import static internal.helpers.Player.withProperty;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import internal.helpers.Cleanups;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import net.sourceforge.kolmafia.KoLConstants;
+import net.sourceforge.kolmafia.preferences.Preferences;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ModuleScriptCacheTest {
+  @BeforeEach
+  public void beforeEach() {
+    Preferences.reset("ModuleScriptCacheTest");
+  }
+
+  private static String run(File file) {
+    return new JavascriptRuntime(file).execute("main", null, true).toString();
+  }
+
+  private static String run(String script) {
+    return new JavascriptRuntime(script).execute(null, null, true).toString();
+  }
+
+  @Test
+  public void reusesCompiledScript() {
+    var cache = ModuleScriptCache.getInstance();
+    var script = new File(KoLConstants.SCRIPT_LOCATION, "exports_main.js");
+    run(script);
+
+    long hits = cache.getHits();
+    long misses = cache.getMisses();
+    run(script);
+
+    assertEquals(hits + 1, cache.getHits());
+    assertEquals(misses, cache.getMisses());
+  }
+
+  @Test
+  public void recompilesModifiedScript() throws IOException {
+    var cache = ModuleScriptCache.getInstance();
+    var script = new File(KoLConstants.ROOT_LOCATION, "module_script_cache_test.js");
+
+    try {
+      Files.writeString(script.toPath(), "module.exports.main = () => 'one';");
+      script.setLastModified(1_000_000_000_000L);
+      assertEquals("one", run(script));
+
+      long misses = cache.getMisses();
+      Files.writeString(script.toPath(), "module.exports.main = () => 'two';");
+      script.setLastModified(2_000_000_000_000L);
+
+      assertEquals("two", run(script));
+      assertEquals(misses + 1, cache.getMisses());
+    } finally {
+      script.delete();
+    }
+  }
+
+  @Test
+  public void recompilesModifiedModule() throws IOException {
+    var script = new File(KoLConstants.SCRIPT_LOCATION, "module_script_cache_test_main.js");
+    var module = new File(KoLConstants.SCRIPT_LOCATION, "module_script_cache_test_module.js");
+
+    try {
+      Files.writeString(
+          script.toPath(),
+          "const m = require(\"module_script_cache_test_module.js\");\n"
+              + "module.exports.main = () => m.value;");
+      Files.writeString(module.toPath(), "module.exports.value = 'one';");
+      module.setLastModified(1_000_000_000_000L);
+      assertEquals("one", run(script));
+
+      Files.writeString(module.toPath(), "module.exports.value = 'two';");
+      module.setLastModified(2_000_000_000_000L);
+      assertEquals("two", run(script));
+    } finally {
+      script.delete();
+      module.delete();
+    }
+  }
+
+  @Test
+  public void sharedStandardObjectsKeepScriptsApart() {
+    var cleanups = new Cleanups(withProperty("javascriptSharedStandardObjects", true));
+
+    try (cleanups) {
+      assertEquals("a", run("var x = \"a\"; x"));
+      assertEquals("undefined", run("typeof x"));
+    }
+  }
+
+  @Test
+  public void sharedStandardObjectsKeepWrappersUnique() {
+    var cleanups = new Cleanups(withProperty("javascriptSharedStandardObjects", true));
+
+    try (cleanups) {
+      assertEquals("true", run("Item.get(1) === Item.get(\"seal-clubbing club\")"));
+      assertEquals("Seal Clubber", run("Class.get(1)"));
+    }
+  }
+}
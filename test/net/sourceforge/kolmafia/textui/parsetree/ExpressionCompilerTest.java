@@ -0,0 +1,92 @@
+package net.sourceforge.kolmafia.textui.parsetree;
+
+import static internal.helpers.Player.withProperty;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import net.sourceforge.kolmafia.KoLCharacter;
+import net.sourceforge.kolmafia.KoLmafia;
+import net.sourceforge.kolmafia.preferences.Preferences;
+import net.sourceforge.kolmafia.textui.command.AbstractCommandTestBase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class ExpressionCompilerTest extends AbstractCommandTestBase {
+  @BeforeEach
+  public void initEach() {
+    KoLCharacter.reset("ExpressionCompilerTest");
+    Preferences.reset("ExpressionCompilerTest");
+  }
+
+  public ExpressionCompilerTest() {
+    this.command = "ash";
+  }
+
+  private String executeCompiled(final String script) {
+    try (var cleanups = withProperty("ashCompileExpressions", true)) {
+      return execute(script);
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "int a = 7; int b = -3; a * b + a / b - a % b",
+        "int a = 2; a ** 10 << 3 >> 1 >>> 2",
+        "int a = 12; ~a & 255 | a ^ 5",
+        "float f = 1.5; int i = 4; f * i - i / f",
+        "float f = -0.0; f * 1.0",
+        "float f = 2.0; f ** 0.5",
+        "float f = 7.5; f % 2",
+        "int i = 3; float f = 3.0; i == f",
+        "float f = 0.1; f + 0.2 != 0.3",
+        "int a = 5; a > 3 && a < 10 || a == 0",
+        "boolean b = true; !b ^ (b & false)",
+        "boolean b = false; b < true",
+        "int a = 5; a \u2248 5",
+        "int a = 5; string s = \"x\"; s + a",
+      })
+  void compiledResultsMatchInterpreter(final String script) {
+    String interpreted = execute(script);
+    KoLmafia.forceContinue();
+    String compiled = executeCompiled(script);
+
+    assertContinueState();
+    assertEquals(interpreted, compiled);
+  }
+
+  @Test
+  void compiledIntegerDivisionByZeroFails() {
+    String output = executeCompiled("int a = 1; int b = 0; a / b");
+
+    assertErrorState();
+    assertThat(output, containsString("Division by zero"));
+  }
+
+  @Test
+  void compiledFloatDivisionByZeroFails() {
+    String output = executeCompiled("float a = 1.0; float b = 0.0; a % b");
+
+    assertErrorState();
+    assertThat(output, containsString("Division by zero"));
+  }
+
+  @Test
+  void compiledInvalidExponentiationFails() {
+    String output = executeCompiled("float a = -1.0; a ** 0.5");
+
+    assertErrorState();
+    assertThat(output, containsString("Invalid exponentiation: cannot take -1.0 ** 0.5"));
+  }
+
+  @Test
+  void compiledLogicalOperatorsShortCircuit() {
+    String output = executeCompiled("int a = 0; a != 0 && 10 / a > 1");
+
+    assertContinueState();
+    assertThat(output, containsString("Returned: false"));
+  }
+}
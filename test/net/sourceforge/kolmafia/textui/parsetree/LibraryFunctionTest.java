@@ -0,0 +1,59 @@
+package net.sourceforge.kolmafia.textui.parsetree;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+
+import net.sourceforge.kolmafia.KoLCharacter;
+import net.sourceforge.kolmafia.StaticEntity;
+import net.sourceforge.kolmafia.preferences.Preferences;
+import net.sourceforge.kolmafia.textui.command.AbstractCommandTestBase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+public class LibraryFunctionTest extends AbstractCommandTestBase {
+  @BeforeEach
+  public void initEach() {
+    KoLCharacter.reset("LibraryFunctionTest");
+    Preferences.reset("LibraryFunctionTest");
+    StaticEntity.overrideRevision(10000);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    StaticEntity.overrideRevision(null);
+  }
+
+  public LibraryFunctionTest() {
+    this.command = "ash";
+  }
+
+  @ParameterizedTest
+  @CsvSource(
+      delimiter = '|',
+      value = {
+        "get_revision()|10000",
+        "to_int(\"12\")|12",
+        "substring(\"hello\", 1)|ello",
+        "substring(\"hello\", 1, 3)|el",
+        "min(3, 1, 2)|1",
+        "max(4)|4",
+        "max(1.5, 2.5, 0.5)|2.5",
+      })
+  void callsLibraryFunctionsOfEachArity(final String call, final String expected) {
+    String output = execute(call);
+
+    assertContinueState();
+    assertThat(output, containsString("Returned: " + expected));
+  }
+
+  @Test
+  void passesUpScriptErrors() {
+    String output = execute("substring(\"hello\", 7)");
+
+    assertErrorState();
+    assertThat(output, containsString("Begin index 7 out of bounds"));
+  }
+}
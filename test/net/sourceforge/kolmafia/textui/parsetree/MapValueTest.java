@@ -0,0 +1,187 @@
+package net.sourceforge.kolmafia.textui.parsetree;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayContaining;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import net.sourceforge.kolmafia.textui.AshRuntime;
+import net.sourceforge.kolmafia.textui.DataTypes;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+public class MapValueTest {
+  private final AshRuntime interpreter = new AshRuntime();
+
+  private static MapValue intMap() {
+    return new MapValue(new AggregateType(DataTypes.INT_TYPE, DataTypes.INT_TYPE));
+  }
+
+  private static MapValue stringMap() {
+    return new MapValue(new AggregateType(DataTypes.INT_TYPE, DataTypes.STRING_TYPE));
+  }
+
+  private static List<String> keyStrings(final MapValue map) {
+    List<String> keys = new ArrayList<>();
+    for (Value key : map.keys()) {
+      keys.add(key.toString());
+    }
+    return keys;
+  }
+
+  @Nested
+  class IntKeys {
+    @Test
+    void keysAreSorted() {
+      MapValue map = intMap();
+      for (long key : new long[] {5, -3, 100, 0, 42, Long.MIN_VALUE}) {
+        map.aset(new Value(key), new Value(key * 2));
+      }
+
+      assertEquals(
+          List.of(String.valueOf(Long.MIN_VALUE), "-3", "0", "5", "42", "100"), keyStrings(map));
+      assertEquals(84, map.aref(new Value(42)).intValue());
+      assertEquals(6, map.count());
+    }
+
+    @Test
+    void matchesTreeMap() {
+      MapValue map = intMap();
+      TreeMap<Value, Value> expected = new TreeMap<>();
+      Random random = new Random(1);
+
+      for (int i = 0; i < 20000; ++i) {
+        Value key = new Value(random.nextInt(5000) - 2500);
+        Value value = new Value(i);
+        if (random.nextInt(3) == 0) {
+          assertEquals(expected.remove(key), map.remove(key, interpreter));
+        } else {
+          expected.put(key, value);
+          map.aset(key, value);
+        }
+      }
+
+      assertEquals(expected.size(), map.count());
+      assertThat(map.keys(), arrayContaining(expected.keySet().toArray(new Value[0])));
+      for (Value key : expected.keySet()) {
+        assertSame(expected.get(key), map.aref(key));
+      }
+    }
+
+    @Test
+    void firstKeyIsKept() {
+      MapValue map = intMap();
+      Value first = new Value(7);
+      map.aset(first, new Value(1));
+      map.aset(new Value(7), new Value(2));
+
+      assertSame(first, map.keys()[0]);
+      assertEquals(2, map.aref(new Value(7)).intValue());
+    }
+
+    @Test
+    void keysOfOtherTypesAreCompared() {
+      MapValue map = intMap();
+      map.aset(new Value(2), new Value(4));
+
+      assertTrue(map.contains(new Value(2.0)));
+      assertEquals(4, map.aref(new Value(2.0)).intValue());
+      assertFalse(map.contains(new Value(2.5)));
+
+      map.aset(new Value(3.5), new Value(7));
+      assertEquals(2, map.count());
+      assertEquals(7, map.aref(new Value(3.5)).intValue());
+      assertEquals(4, map.aref(new Value(2)).intValue());
+    }
+
+    @Test
+    void iteratorRemovesCurrentKey() {
+      MapValue map = intMap();
+      for (int i = 0; i < 10; ++i) {
+        map.aset(new Value(i), new Value(i));
+      }
+
+      Iterator<Value> it = map.iterator();
+      while (it.hasNext()) {
+        if (it.next().intValue() % 2 == 0) {
+          it.remove();
+        }
+      }
+
+      assertEquals(List.of("1", "3", "5", "7", "9"), keyStrings(map));
+    }
+
+    @Test
+    void addingKeyMakesIteratorFail() {
+      MapValue map = intMap();
+      map.aset(new Value(1), new Value(1));
+      map.aset(new Value(2), new Value(2));
+
+      Iterator<Value> it = map.iterator();
+      it.next();
+      map.aset(new Value(2), new Value(3));
+      it.next();
+
+      Iterator<Value> it2 = map.iterator();
+      it2.next();
+      map.aset(new Value(3), new Value(3));
+      assertThrows(ConcurrentModificationException.class, it2::next);
+    }
+
+    @Test
+    void clearRemovesEverything() {
+      MapValue map = intMap();
+      map.aset(new Value(1), new Value(1));
+      map.clear();
+
+      assertEquals(0, map.count());
+      assertNull(map.aref(new Value(1)));
+      assertEquals(0, map.keys().length);
+    }
+  }
+
+  @Nested
+  class StringKeys {
+    @Test
+    void keysAreSortedAsText() {
+      MapValue map = stringMap();
+      for (String key : new String[] {"b", "B", "a", "10", "9", ""}) {
+        map.aset(new Value(key), new Value(key.length()));
+      }
+
+      assertEquals(List.of("", "10", "9", "B", "a", "b"), keyStrings(map));
+      assertEquals(1, map.aref(new Value("B")).intValue());
+      assertNull(map.aref(new Value("c")));
+    }
+
+    @Test
+    void removesKeys() {
+      MapValue map = stringMap();
+      map.aset(new Value("a"), new Value(1));
+      map.aset(new Value("b"), new Value(2));
+
+      assertEquals(1, map.remove(new Value("a"), interpreter).intValue());
+      assertEquals(List.of("b"), keyStrings(map));
+      assertFalse(map.contains(new Value("a")));
+    }
+
+    @Test
+    void caseInsensitiveKeysAreFoundInAnyCase() {
+      MapValue map =
+          new MapValue(new AggregateType(DataTypes.INT_TYPE, DataTypes.STRING_TYPE, true), true);
+      map.aset(new Value("Key"), new Value(1));
+
+      assertEquals(1, map.aref(new Value("KEY")).intValue());
+    }
+  }
+}
@@ -0,0 +1,156 @@
+package net.sourceforge.kolmafia.utilities;
+
+import static internal.helpers.Player.withItem;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import internal.helpers.Cleanups;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import net.sourceforge.kolmafia.AdventureResult;
+import net.sourceforge.kolmafia.KoLCharacter;
+import net.sourceforge.kolmafia.KoLConstants;
+import net.sourceforge.kolmafia.objectpool.ItemPool;
+import net.sourceforge.kolmafia.session.InventoryManager;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class ItemListModelTest {
+  private static final int[] ITEM_IDS = {
+    ItemPool.SEAL_TOOTH,
+    ItemPool.BEER_HELMET,
+    ItemPool.DISTRESSED_DENIM_PANTS,
+    ItemPool.TOILET_PAPER,
+  };
+
+  @BeforeAll
+  public static void beforeAll() {
+    KoLCharacter.reset("ItemListModelTest");
+  }
+
+  // How AdventureResult.getCount used to find the count
+  private static int searchCount(final List<AdventureResult> list, final int itemId) {
+    AdventureResult item = ItemPool.get(itemId, 1);
+    int index = list.indexOf(item);
+    return index == -1 ? 0 : list.get(index).getCount();
+  }
+
+  private static void assertCounts(final ItemListModel list, final int[] itemIds) {
+    for (int itemId : itemIds) {
+      assertEquals(searchCount(list, itemId), list.getCount(itemId), "item " + itemId);
+      assertEquals(searchCount(list, itemId) != 0, list.holds(itemId), "item " + itemId);
+    }
+  }
+
+  @Test
+  public void countsAddedItems() {
+    ItemListModel list = new ItemListModel();
+
+    AdventureResult.addResultToList(list, ItemPool.get(ItemPool.SEAL_TOOTH, 2));
+    AdventureResult.addResultToList(list, ItemPool.get(ItemPool.SEAL_TOOTH, 3));
+    AdventureResult.addResultToList(list, ItemPool.get(ItemPool.BEER_HELMET, 1));
+
+    assertEquals(5, list.getCount(ItemPool.SEAL_TOOTH));
+    assertEquals(1, list.getCount(ItemPool.BEER_HELMET));
+    assertEquals(0, list.getCount(ItemPool.DISTRESSED_DENIM_PANTS));
+    assertEquals(5, ItemPool.get(ItemPool.SEAL_TOOTH, 1).getCount(list));
+    assertEquals(2, list.size());
+  }
+
+  @Test
+  public void forgetsRemovedItems() {
+    ItemListModel list = new ItemListModel();
+    list.add(ItemPool.get(ItemPool.SEAL_TOOTH, 2));
+    list.add(ItemPool.get(ItemPool.BEER_HELMET, 1));
+
+    AdventureResult.addResultToList(list, ItemPool.get(ItemPool.SEAL_TOOTH, -2));
+    assertEquals(0, list.getCount(ItemPool.SEAL_TOOTH));
+    assertFalse(list.holds(ItemPool.SEAL_TOOTH));
+
+    list.remove(ItemPool.get(ItemPool.BEER_HELMET, 1));
+    assertEquals(0, list.getCount(ItemPool.BEER_HELMET));
+    assertTrue(list.isEmpty());
+  }
+
+  @Test
+  public void followsEveryWayOfChangingTheList() {
+    ItemListModel list = new ItemListModel();
+
+    list.addAll(List.of(ItemPool.get(ItemPool.SEAL_TOOTH, 4), ItemPool.get(ItemPool.BEER_HELMET)));
+    assertCounts(list, ITEM_IDS);
+
+    list.set(list.indexOf(ItemPool.get(ItemPool.SEAL_TOOTH)), ItemPool.get(ItemPool.SEAL_TOOTH, 7));
+    assertCounts(list, ITEM_IDS);
+
+    list.add(ItemPool.get(ItemPool.TOILET_PAPER, 2));
+    list.removeAll(List.of(ItemPool.get(ItemPool.BEER_HELMET)));
+    assertCounts(list, ITEM_IDS);
+
+    list.add(ItemPool.get(ItemPool.DISTRESSED_DENIM_PANTS));
+    list.retainAll(List.of(ItemPool.get(ItemPool.DISTRESSED_DENIM_PANTS)));
+    assertCounts(list, ITEM_IDS);
+
+    list.removeIf(item -> item.getItemId() == ItemPool.DISTRESSED_DENIM_PANTS);
+    assertCounts(list, ITEM_IDS);
+
+    list.add(ItemPool.get(ItemPool.BEER_HELMET));
+    list.clear();
+    assertCounts(list, ITEM_IDS);
+  }
+
+  @Test
+  public void matchesSearchAfterManyChanges() {
+    ItemListModel list = new ItemListModel();
+    Random random = new Random(13);
+
+    for (int i = 0; i < 500; ++i) {
+      int itemId = ITEM_IDS[random.nextInt(ITEM_IDS.length)];
+      AdventureResult.addResultToList(list, ItemPool.get(itemId, random.nextInt(7) - 3));
+      assertCounts(list, ITEM_IDS);
+    }
+  }
+
+  @Test
+  public void copiesCountsWhenCloned() {
+    ItemListModel list = new ItemListModel();
+    list.add(ItemPool.get(ItemPool.SEAL_TOOTH, 2));
+
+    ItemListModel copy = (ItemListModel) list.clone();
+    copy.clear();
+
+    assertEquals(2, list.getCount(ItemPool.SEAL_TOOTH));
+    assertEquals(0, copy.getCount(ItemPool.SEAL_TOOTH));
+  }
+
+  @Test
+  public void doesNotCountItemsWithoutIds() {
+    ItemListModel list = new ItemListModel();
+    AdventureResult unknown = AdventureResult.tallyItem("unknown item", 3, false);
+    list.add(unknown);
+
+    assertFalse(ItemListModel.isCounted(unknown));
+    assertEquals(3, unknown.getCount(list));
+  }
+
+  @Test
+  public void inventoryIsCounted() {
+    assertThat(KoLConstants.inventory, instanceOf(ItemListModel.class));
+    assertThat(KoLConstants.closet, instanceOf(ItemListModel.class));
+    assertThat(KoLConstants.storage, instanceOf(ItemListModel.class));
+
+    var cleanups = new Cleanups(withItem(ItemPool.SEAL_TOOTH, 3));
+    try (cleanups) {
+      assertEquals(3, InventoryManager.getCount(ItemPool.SEAL_TOOTH));
+      assertEquals(3, AdventureResult.getCount(ItemPool.SEAL_TOOTH, KoLConstants.inventory));
+      assertEquals(0, AdventureResult.getCount(ItemPool.SEAL_TOOTH, KoLConstants.closet));
+      List<AdventureResult> copy = new ArrayList<>(KoLConstants.inventory);
+      assertEquals(3, AdventureResult.getCount(ItemPool.SEAL_TOOTH, copy));
+    }
+
+    assertEquals(0, InventoryManager.getCount(ItemPool.SEAL_TOOTH));
+  }
+}
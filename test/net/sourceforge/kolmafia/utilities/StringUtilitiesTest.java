@@ -11,11 +11,15 @@ import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import net.sourceforge.kolmafia.persistence.ItemDatabase;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.MethodSource;
 
 class StringUtilitiesTest {
 
@@ -761,4 +765,54 @@ class StringUtilitiesTest {
       assertFalse(StringUtilities.matchesFilter(str, filter));
     }
   }
+
+  @Nested
+  class NameIndexing {
+    private static String[] itemNames() {
+      return ItemDatabase.entrySet().stream()
+          .map(entry -> StringUtilities.getCanonicalName(entry.getValue()))
+          .distinct()
+          .sorted()
+          .toArray(String[]::new);
+    }
+
+    private static Stream<String> queries() {
+      String[] names = itemNames();
+      Stream<String> fixed =
+          Arrays.stream(
+              "shop,a,ab,in the box,chef,hat,x,zz,seal tooth,',1,the,of,mr.,&,rock,bcd,tps,s s"
+                  .split(","));
+      Stream<String> fromNames =
+          IntStream.range(0, names.length / 97)
+              .mapToObj(i -> names[i * 97])
+              .flatMap(
+                  name ->
+                      Stream.of(
+                          name.substring(0, Math.min(4, name.length())),
+                          name.substring(name.length() / 2),
+                          name.replaceAll("(\\w)\\w*\\W*", "$1")));
+      return Stream.concat(fixed, fromNames);
+    }
+
+    @ParameterizedTest
+    @MethodSource("queries")
+    public void indexFindsSameNamesAsScan(final String searchString) {
+      String[] names = itemNames();
+      NameIndex index = new NameIndex(names);
+
+      assertEquals(index.scan(names, searchString), index.search(names, searchString));
+    }
+
+    @Test
+    public void repeatedSearchesReturnSeparateLists() {
+      String[] names = itemNames();
+
+      List<String> first = StringUtilities.getMatchingNames(names, "seal");
+      List<String> second = StringUtilities.getMatchingNames(names, "seal");
+      assertEquals(first, second);
+
+      second.clear();
+      assertEquals(first, StringUtilities.getMatchingNames(names, "seal"));
+    }
+  }
 }
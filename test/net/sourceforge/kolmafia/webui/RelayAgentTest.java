@@ -0,0 +1,65 @@
+package net.sourceforge.kolmafia.webui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+public class RelayAgentTest {
+  private static void writePost(final OutputStream ostream, final String path, final String body)
+      throws IOException {
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    String head =
+        "POST "
+            + path
+            + " HTTP/1.1\r\n"
+            + "Host: 127.0.0.1:60080\r\n"
+            + "Content-Length: "
+            + bytes.length
+            + "\r\n\r\n";
+    ostream.write(head.getBytes(StandardCharsets.US_ASCII));
+    ostream.write(bytes);
+  }
+
+  @Test
+  public void readsPipelinedRequestsWithMultiByteBodies() throws IOException {
+    InetAddress loopback = InetAddress.getLoopbackAddress();
+
+    try (ServerSocket server = new ServerSocket(0, 1, loopback);
+        Socket browser = new Socket(loopback, server.getLocalPort());
+        Socket connection = server.accept()) {
+      // Both requests are sent before either is read, as a browser may
+      ByteArrayOutputStream requests = new ByteArrayOutputStream();
+      writePost(requests, "/inventory.php", "a=café&b=☃");
+      writePost(requests, "/craft.php", "c=ü");
+      browser.getOutputStream().write(requests.toByteArray());
+      browser.shutdownOutput();
+
+      RelayAgent agent = new RelayAgent(0);
+      agent.setSocket(connection);
+      agent.openStreams();
+
+      assertTrue(agent.readBrowserRequest());
+      assertEquals("/inventory.php", agent.getPath());
+      assertEquals("café", agent.getRequest().getFormField("a"));
+      assertEquals("☃", agent.getRequest().getFormField("b"));
+
+      assertTrue(agent.readBrowserRequest());
+      assertEquals("/craft.php", agent.getPath());
+      assertEquals("ü", agent.getRequest().getFormField("c"));
+      assertNull(agent.getRequest().getFormField("a"));
+
+      // The browser has nothing more to send
+      assertFalse(agent.readBrowserRequest());
+    }
+  }
+}
@@ -0,0 +1,78 @@
+package net.sourceforge.kolmafia.webui;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import net.sourceforge.kolmafia.KoLConstants;
+import net.sourceforge.kolmafia.utilities.StringUtilities;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class RelayFileCacheTest {
+  private static final File FILE = new File(KoLConstants.ROOT_LOCATION, "relay_file_cache_test.js");
+
+  @BeforeEach
+  public void beforeEach() throws IOException {
+    RelayFileCache.clear();
+    Files.writeString(FILE.toPath(), "one");
+    FILE.setLastModified(1_000_000_000_000L);
+  }
+
+  @AfterEach
+  public void afterEach() {
+    FILE.delete();
+    RelayFileCache.clear();
+  }
+
+  @Test
+  public void reusesUnchangedFile() {
+    var asset = RelayFileCache.getRelayFile(FILE);
+    long hits = RelayFileCache.getHits();
+
+    assertSame(asset, RelayFileCache.getRelayFile(FILE));
+    assertEquals(hits + 1, RelayFileCache.getHits());
+    assertEquals(3, RelayFileCache.getBytes());
+  }
+
+  @Test
+  public void rereadsChangedFile() throws IOException {
+    var asset = RelayFileCache.getRelayFile(FILE);
+    Files.writeString(FILE.toPath(), "two");
+    FILE.setLastModified(2_000_000_000_000L);
+
+    var changed = RelayFileCache.getRelayFile(FILE);
+    assertArrayEquals("two".getBytes(StandardCharsets.UTF_8), changed.data());
+    assertNotEquals(asset.etag(), changed.etag());
+  }
+
+  @Test
+  public void forgetsDeletedFile() {
+    RelayFileCache.getRelayFile(FILE);
+    FILE.delete();
+
+    assertThat(RelayFileCache.getRelayFile(FILE), nullValue());
+    assertEquals(0, RelayFileCache.getSize());
+  }
+
+  @Test
+  public void matchesValidatorsSentToBrowser() {
+    var asset = RelayFileCache.getRelayFile(FILE);
+
+    assertTrue(asset.matches(asset.etag(), null));
+    assertTrue(asset.matches("\"other\", " + asset.etag(), null));
+    assertFalse(asset.matches("\"other\"", asset.lastModifiedHeader()));
+    assertTrue(asset.matches(null, asset.lastModifiedHeader()));
+    assertFalse(asset.matches(null, StringUtilities.formatDate(999_999_999_000L)));
+  }
+}